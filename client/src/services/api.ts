@@ -41,6 +41,7 @@ export interface Budget {
     category: string;
     amount: number;
     spent: number;
+    version?: number; // optimistic lock; send back the one you read when updating
 }
 
 export interface BudgetSummary {
@@ -62,6 +63,25 @@ export interface Transaction {
     receiptUrl?: string;
 }
 
+export interface CategoryTotal {
+    category: string;
+    type: 'INCOME' | 'EXPENSE';
+    total: number;
+    count: number;
+}
+
+export interface Dashboard {
+    budgets: Budget[];
+    summary: BudgetSummary;
+    recentTransactions: Transaction[];
+    categoryTotals: CategoryTotal[];
+}
+
+// Dashboard API: everything the dashboard shows on load, in one request
+export const dashboardApi = {
+    get: (recent = 20) => api.get<Dashboard>('/api/dashboard', { params: { recent } }),
+};
+
 // Budget API
 export const budgetApi = {
     getAll: () => api.get<Budget[]>('/api/budgets'),
@@ -85,6 +105,52 @@ export const transactionApi = {
     getByType: (type: 'INCOME' | 'EXPENSE') => api.get<Transaction[]>(`/api/transactions/type/${type}`),
 };
 
+export interface BatchOperation {
+    action: 'CREATE' | 'UPDATE' | 'DELETE';
+    target: 'TRANSACTION' | 'BUDGET';
+    id?: number;
+    transaction?: Omit<Transaction, 'id'>;
+    budget?: Omit<Budget, 'id' | 'spent'> & { version?: number };
+    allowDuplicate?: boolean;
+}
+
+export interface BatchResult {
+    index: number;
+    status: number;
+    id?: number;
+    error?: string;
+}
+
+// Batch API: many edits in one request and one database transaction, all or nothing
+export const batchApi = {
+    apply: (operations: BatchOperation[]) =>
+        api.post<{ applied: boolean; results: BatchResult[] }>('/api/batch', { operations }),
+};
+
+export interface ReportJob {
+    id: string;
+    type: 'MONTHLY_STATEMENT' | 'CATEGORY_REPORT';
+    format: 'CSV' | 'PDF';
+    periodStart: string;
+    periodEnd: string;
+    status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+    transactions: number;
+    sizeBytes: number;
+    error?: string;
+    filename: string;
+    createdAt: string;
+    expiresAt?: string;
+}
+
+// Reports API: generated in the background; poll get() until COMPLETED, then download()
+export const reportApi = {
+    request: (type: ReportJob['type'], format: ReportJob['format'] = 'CSV', month?: string) =>
+        api.post<ReportJob>('/api/reports', { type, format, month }),
+    getAll: () => api.get<ReportJob[]>('/api/reports'),
+    get: (id: string) => api.get<ReportJob>(`/api/reports/${id}`),
+    download: (id: string) => api.get<Blob>(`/api/reports/${id}/download`, { responseType: 'blob' }),
+};
+
 // Test API
 export const testApi = {
     checkConnection: () => api.get<string>('/api/test'),
@@ -0,0 +1,19 @@
+package com.cloudmanagement.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Reactive read API over the same PostgreSQL schema as the servlet server.
+ * Serves the dashboard's read endpoints without a thread per in-flight request;
+ * all writes (and schema migrations) stay with the servlet server.
+ */
+@SpringBootApplication
+@EnableScheduling
+public class ReactiveApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveApiApplication.class, args);
+    }
+}
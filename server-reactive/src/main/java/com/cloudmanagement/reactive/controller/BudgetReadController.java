@@ -0,0 +1,47 @@
+package com.cloudmanagement.reactive.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cloudmanagement.reactive.dto.BudgetSummary;
+import com.cloudmanagement.reactive.dto.BudgetView;
+import com.cloudmanagement.reactive.repository.BudgetReadRepository;
+import com.cloudmanagement.reactive.security.CurrentUser;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Budget reads for the current user, at the same paths and in the same JSON as the servlet server.
+ */
+@RestController
+@RequestMapping("/api/budgets")
+public class BudgetReadController {
+
+    private final BudgetReadRepository budgetRepository;
+
+    public BudgetReadController(BudgetReadRepository budgetRepository) {
+        this.budgetRepository = budgetRepository;
+    }
+
+    /**
+     * GET /api/budgets
+     * All budgets of the current user.
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<BudgetView> getAllBudgets(@AuthenticationPrincipal CurrentUser user) {
+        return budgetRepository.findByUserId(user.id());
+    }
+
+    /**
+     * GET /api/budgets/summary
+     * Budget totals for the current user.
+     */
+    @GetMapping("/summary")
+    public Mono<BudgetSummary> getBudgetSummary(@AuthenticationPrincipal CurrentUser user) {
+        return budgetRepository.summarize(user.id());
+    }
+}
@@ -0,0 +1,60 @@
+package com.cloudmanagement.reactive.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cloudmanagement.reactive.dto.PageResponse;
+import com.cloudmanagement.reactive.dto.TransactionView;
+import com.cloudmanagement.reactive.repository.TransactionReadRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transaction reads, at the same paths and in the same JSON as the servlet server.
+ */
+@RestController
+@RequestMapping("/api/transactions")
+public class TransactionReadController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final TransactionReadRepository transactionRepository;
+
+    public TransactionReadController(TransactionReadRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    /**
+     * GET /api/transactions
+     * All transactions, newest first, as a JSON array written while rows arrive.
+     * With Accept: application/x-ndjson, one transaction per line instead.
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<TransactionView> getAllTransactions() {
+        return transactionRepository.streamAll();
+    }
+
+    /**
+     * GET /api/transactions/page
+     * One page of transactions, newest first.
+     * Example:
+     * /api/transactions/page?page=0&size=20
+     */
+    @GetMapping("/page")
+    public Mono<ResponseEntity<PageResponse<TransactionView>>> getTransactionPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return transactionRepository.findPage(page, pageSize)
+                .collectList()
+                .map(rows -> ResponseEntity.ok(PageResponse.of(rows, page, pageSize)));
+    }
+}
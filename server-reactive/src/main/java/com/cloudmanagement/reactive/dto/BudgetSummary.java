@@ -0,0 +1,15 @@
+package com.cloudmanagement.reactive.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Budget totals for one user, computed by the database in one aggregate query.
+ * Serializes to the same JSON shape as the servlet server's BudgetSummary.
+ */
+public record BudgetSummary(
+        BigDecimal totalBudgeted,
+        BigDecimal totalSpent,
+        BigDecimal totalRemaining,
+        long overBudgetCount,
+        int totalBudgets) {
+}
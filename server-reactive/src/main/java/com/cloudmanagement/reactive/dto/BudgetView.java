@@ -0,0 +1,15 @@
+package com.cloudmanagement.reactive.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only view of a budget.
+ * Serializes to the same JSON shape as the servlet server's BudgetView.
+ */
+public record BudgetView(
+        Long id,
+        String name,
+        String category,
+        BigDecimal amount,
+        BigDecimal spent) {
+}
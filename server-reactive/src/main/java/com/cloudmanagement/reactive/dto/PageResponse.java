@@ -0,0 +1,22 @@
+package com.cloudmanagement.reactive.dto;
+
+import java.util.List;
+
+/**
+ * One page of results.
+ * Uses hasNext instead of a total count, so large result sets never need a COUNT(*) query.
+ */
+public record PageResponse<T>(
+        List<T> content,
+        int page,
+        int size,
+        boolean hasNext) {
+
+    /**
+     * Build a page from a query that fetched size + 1 rows.
+     */
+    public static <T> PageResponse<T> of(List<T> rows, int page, int size) {
+        boolean hasNext = rows.size() > size;
+        return new PageResponse<>(hasNext ? rows.subList(0, size) : rows, page, size, hasNext);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cloudmanagement.reactive.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a transaction.
+ * Serializes to the same JSON shape as the servlet server's TransactionView.
+ */
+public record TransactionView(
+        Long id,
+        String description,
+        BigDecimal amount,
+        String category,
+        LocalDateTime transactionDate,
+        String type,
+        Long budgetId,
+        String receiptUrl) {
+}
@@ -0,0 +1,62 @@
+package com.cloudmanagement.reactive.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.cloudmanagement.reactive.dto.BudgetSummary;
+import com.cloudmanagement.reactive.dto.BudgetView;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Budget reads over R2DBC, always scoped to one user.
+ */
+@Repository
+public class BudgetReadRepository {
+
+    private static final String FIND_BY_USER =
+            "SELECT id, name, category, amount, spent FROM budgets WHERE user_id = :userId ORDER BY id";
+    private static final String SUMMARY =
+            "SELECT coalesce(sum(amount), 0) AS budgeted, coalesce(sum(spent), 0) AS spent, "
+            + "count(*) FILTER (WHERE spent > amount) AS over_budget, count(*) AS budgets "
+            + "FROM budgets WHERE user_id = :userId";
+
+    private final DatabaseClient databaseClient;
+
+    public BudgetReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * All budgets owned by a user.
+     */
+    public Flux<BudgetView> findByUserId(Long userId) {
+        return databaseClient.sql(FIND_BY_USER)
+                .bind("userId", userId)
+                .map(row -> new BudgetView(
+                        row.get("id", Long.class),
+                        row.get("name", String.class),
+                        row.get("category", String.class),
+                        row.get("amount", BigDecimal.class),
+                        row.get("spent", BigDecimal.class)))
+                .all();
+    }
+
+    /**
+     * Totals over a user's budgets, summed by the database instead of streaming every budget.
+     */
+    public Mono<BudgetSummary> summarize(Long userId) {
+        return databaseClient.sql(SUMMARY)
+                .bind("userId", userId)
+                .map(row -> {
+                    BigDecimal budgeted = row.get("budgeted", BigDecimal.class);
+                    BigDecimal spent = row.get("spent", BigDecimal.class);
+                    return new BudgetSummary(budgeted, spent, budgeted.subtract(spent),
+                            row.get("over_budget", Long.class), row.get("budgets", Long.class).intValue());
+                })
+                .one();
+    }
+}
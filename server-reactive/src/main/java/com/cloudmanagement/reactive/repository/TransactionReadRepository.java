@@ -0,0 +1,62 @@
+package com.cloudmanagement.reactive.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.cloudmanagement.reactive.dto.TransactionView;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Transaction reads over R2DBC. Rows are emitted as the driver decodes them and demand is
+ * passed down to the connection, so a slow client slows the query instead of buffering it.
+ */
+@Repository
+public class TransactionReadRepository {
+
+    private static final String VIEW_SELECT =
+            "SELECT id, description, amount, category, transaction_date, type, budget_id, receipt_url "
+            + "FROM transactions ";
+
+    private final DatabaseClient databaseClient;
+
+    public TransactionReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * All transactions, newest first.
+     */
+    public Flux<TransactionView> streamAll() {
+        return databaseClient.sql(VIEW_SELECT + "ORDER BY transaction_date DESC, id DESC")
+                .map(TransactionReadRepository::view)
+                .all();
+    }
+
+    /**
+     * One page of transactions, newest first, with one extra row to tell whether there is a next page.
+     */
+    public Flux<TransactionView> findPage(int page, int size) {
+        return databaseClient.sql(VIEW_SELECT + "ORDER BY transaction_date DESC, id DESC LIMIT :limit OFFSET :offset")
+                .bind("limit", size + 1)
+                .bind("offset", (long) page * size)
+                .map(TransactionReadRepository::view)
+                .all();
+    }
+
+    private static TransactionView view(Readable row) {
+        return new TransactionView(
+                row.get("id", Long.class),
+                row.get("description", String.class),
+                row.get("amount", BigDecimal.class),
+                row.get("category", String.class),
+                row.get("transaction_date", LocalDateTime.class),
+                row.get("type", String.class),
+                row.get("budget_id", Long.class),
+                row.get("receipt_url", String.class));
+    }
+}
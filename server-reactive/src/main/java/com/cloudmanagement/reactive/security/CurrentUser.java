@@ -0,0 +1,7 @@
+package com.cloudmanagement.reactive.security;
+
+/**
+ * The authenticated principal: the users row behind the token's subject.
+ */
+public record CurrentUser(Long id, String username, String role) {
+}
@@ -0,0 +1,56 @@
+package com.cloudmanagement.reactive.security;
+
+import java.util.List;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authenticates a bearer token the way the servlet server's JwtAuthenticationFilter does:
+ * valid signature and expiry, not revoked, and the subject must still be a user.
+ * The user is looked up without blocking; their role becomes the ROLE_ authority.
+ */
+@Component
+public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtValidator jwtValidator;
+    private final RevokedTokens revokedTokens;
+    private final DatabaseClient databaseClient;
+
+    public JwtAuthenticationManager(JwtValidator jwtValidator, RevokedTokens revokedTokens,
+            DatabaseClient databaseClient) {
+        this.jwtValidator = jwtValidator;
+        this.revokedTokens = revokedTokens;
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        Claims claims;
+        try {
+            claims = jwtValidator.validate((String) authentication.getCredentials());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.error(new BadCredentialsException("Invalid token", e));
+        }
+        if (claims.getSubject() == null || revokedTokens.isRevoked(claims.getId())) {
+            return Mono.error(new BadCredentialsException("Revoked token"));
+        }
+        return databaseClient.sql("SELECT id, username, role FROM users WHERE username = :username")
+                .bind("username", claims.getSubject())
+                .map(row -> new CurrentUser(row.get("id", Long.class), row.get("username", String.class),
+                        row.get("role", String.class)))
+                .one()
+                .switchIfEmpty(Mono.error(new BadCredentialsException("Unknown user")))
+                .map(user -> new UsernamePasswordAuthenticationToken(user, null,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + user.role()))));
+    }
+}
@@ -0,0 +1,40 @@
+package com.cloudmanagement.reactive.security;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Verifies access tokens issued by the servlet server: same jwt.secret, same HS256 key
+ * derivation and the same checks as its JwtUtil (signature and expiry).
+ */
+@Component
+public class JwtValidator {
+
+    private final SecretKey signKey;
+
+    public JwtValidator(
+            @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}") String secret) {
+        this.signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+
+    /**
+     * Verify the token and return its claims.
+     *
+     * @throws JwtException if the token is malformed, badly signed or expired
+     */
+    public Claims validate(String token) {
+        return Jwts.parser()
+                .verifyWith(signKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
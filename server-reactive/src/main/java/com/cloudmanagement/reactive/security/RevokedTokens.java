@@ -0,0 +1,42 @@
+package com.cloudmanagement.reactive.security;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of the unexpired jtis in revoked_tokens, reloaded on the same interval
+ * as the servlet server's TokenRevocationList, so a logout takes effect here as well.
+ */
+@Component
+public class RevokedTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokens.class);
+
+    private final DatabaseClient databaseClient;
+
+    private volatile Set<String> revoked = Set.of();
+
+    public RevokedTokens(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.contains(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        databaseClient.sql("SELECT jti FROM revoked_tokens WHERE expires_at > now()")
+                .map(row -> row.get("jti", String.class))
+                .all()
+                .collect(HashSet<String>::new, Set::add)
+                .subscribe(jtis -> revoked = Set.copyOf(jtis),
+                        e -> log.warn("Could not reload revoked tokens: {}", e.getMessage()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.cloudmanagement.reactive.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * The same dashboard reads against the servlet server and this reactive module, at rising
+ * numbers of concurrent clients. Both must be running against the same database; the token
+ * comes from -Dbenchmark.token, or from logging in to the servlet server. Run with:
+ * mvn test -Dtest=ReadLoadComparison -Dbenchmark=true -Dbenchmark.username=... -Dbenchmark.password=...
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReadLoadComparison {
+
+    private static final String SERVLET = System.getProperty("benchmark.servlet-url", "http://localhost:5050");
+    private static final String REACTIVE = System.getProperty("benchmark.reactive-url", "http://localhost:5051");
+    private static final int[] CONCURRENCY = { 100, 1000, 5000 };
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final String[] PATHS = { "/api/budgets/summary", "/api/budgets", "/api/transactions/query?size=20" };
+    private static final String[] REACTIVE_PATHS = { "/api/budgets/summary", "/api/budgets", "/api/transactions/page?size=20" };
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    public void compareServletAndReactiveReads() throws Exception {
+        String token = token();
+        assertNotNull(token, "Set -Dbenchmark.token or -Dbenchmark.username/-Dbenchmark.password");
+
+        // Warm up both servers
+        run(SERVLET, PATHS, token, 50, 10);
+        run(REACTIVE, REACTIVE_PATHS, token, 50, 10);
+
+        System.out.printf("%d requests per client, cycling %s%n", REQUESTS_PER_CLIENT, String.join(", ", PATHS));
+        System.out.printf("%-10s %8s %12s %10s %10s %8s%n", "server", "clients", "requests/s", "p50 ms", "p99 ms",
+                "errors");
+        for (int clients : CONCURRENCY) {
+            print("servlet", clients, run(SERVLET, PATHS, token, clients, REQUESTS_PER_CLIENT));
+            print("reactive", clients, run(REACTIVE, REACTIVE_PATHS, token, clients, REQUESTS_PER_CLIENT));
+        }
+    }
+
+    // Each of the clients keeps one request in flight until it has made its share
+    private Result run(String baseUrl, String[] paths, String token, int clients, int requestsPerClient)
+            throws Exception {
+        int total = clients * requestsPerClient;
+        long[] latencies = new long[total];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(clients);
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[total];
+
+        long began = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            inFlight.acquire();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + paths[i % paths.length]))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long sent = System.nanoTime();
+            requests[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+                        inFlight.release();
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(requests).join();
+        long elapsed = System.nanoTime() - began;
+
+        Arrays.sort(latencies);
+        return new Result(total / (elapsed / 1e9), latencies[total / 2] / 1e6,
+                latencies[(int) (total * 0.99)] / 1e6, errors.get());
+    }
+
+    private String token() throws Exception {
+        String token = System.getProperty("benchmark.token");
+        if (token != null) {
+            return token;
+        }
+        String username = System.getProperty("benchmark.username");
+        String password = System.getProperty("benchmark.password");
+        if (username == null || password == null) {
+            return null;
+        }
+        HttpRequest login = HttpRequest.newBuilder(URI.create(SERVLET + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        Matcher matcher = TOKEN.matcher(client.send(login, HttpResponse.BodyHandlers.ofString()).body());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static void print(String server, int clients, Result result) {
+        System.out.printf("%-10s %8d %12.0f %10.2f %10.2f %8d%n", server, clients, result.requestsPerSecond(),
+                result.p50Ms(), result.p99Ms(), result.errors());
+    }
+
+    private record Result(double requestsPerSecond, double p50Ms, double p99Ms, int errors) {
+    }
+}
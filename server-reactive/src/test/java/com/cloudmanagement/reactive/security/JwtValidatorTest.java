@@ -0,0 +1,48 @@
+package com.cloudmanagement.reactive.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+public class JwtValidatorTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String OTHER_SECRET = "5A7134743777217A25432A462D4A614E645267556B58703272357538782F413F";
+
+    private final JwtValidator validator = new JwtValidator(SECRET);
+
+    @Test
+    public void acceptsTokensSignedWithTheSharedSecret() {
+        String token = token(SECRET, System.currentTimeMillis() + 60_000);
+
+        assertEquals("alice", validator.validate(token).getSubject());
+        assertEquals("jti-1", validator.validate(token).getId());
+    }
+
+    @Test
+    public void rejectsForeignAndExpiredTokens() {
+        assertThrows(SignatureException.class, () -> validator.validate(token(OTHER_SECRET,
+                System.currentTimeMillis() + 60_000)));
+        assertThrows(ExpiredJwtException.class, () -> validator.validate(token(SECRET,
+                System.currentTimeMillis() - 60_000)));
+    }
+
+    private static String token(String secret, long expiresAt) {
+        return Jwts.builder()
+                .subject("alice")
+                .id("jti-1")
+                .issuedAt(new Date(expiresAt - 120_000))
+                .expiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .compact();
+    }
+}
@@ -2,8 +2,12 @@ package com.cloudmanagement.server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.cloudmanagement.server.config.NativeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class ServerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,78 @@
+package com.cloudmanagement.server.aggregation;
+
+import java.math.BigDecimal;
+
+/**
+ * Running total of amounts kept as a long in minor units.
+ * Amounts that do not fit, and totals that would overflow, spill into a BigDecimal,
+ * so the result is always exact. Not thread-safe.
+ */
+public final class AmountAccumulator {
+
+    private final int scale;
+    private long minor;
+    private long count;
+    private BigDecimal spill;
+
+    public AmountAccumulator() {
+        this(MinorUnits.DEFAULT_SCALE);
+    }
+
+    public AmountAccumulator(int scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * Add an amount; null amounts are counted but add nothing.
+     */
+    public void add(BigDecimal amount) {
+        count++;
+        if (amount == null) {
+            return;
+        }
+        long value = MinorUnits.toMinor(amount, scale);
+        if (value == MinorUnits.NOT_REPRESENTABLE) {
+            spill = spill == null ? amount : spill.add(amount);
+        } else {
+            addMinorValue(value);
+        }
+    }
+
+    /**
+     * Add an amount already expressed in minor units.
+     */
+    public void addMinor(long value) {
+        count++;
+        addMinorValue(value);
+    }
+
+    /**
+     * Add everything another accumulator (with the same scale) has collected.
+     */
+    public void merge(AmountAccumulator other) {
+        count += other.count;
+        addMinorValue(other.minor);
+        if (other.spill != null) {
+            spill = spill == null ? other.spill : spill.add(other.spill);
+        }
+    }
+
+    public BigDecimal total() {
+        BigDecimal total = MinorUnits.toAmount(minor, scale);
+        return spill == null ? total : total.add(spill);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    private void addMinorValue(long value) {
+        long sum = minor + value;
+        if (MinorUnits.overflowed(minor, value, sum)) {
+            BigDecimal current = MinorUnits.toAmount(minor, scale);
+            spill = spill == null ? current : spill.add(current);
+            sum = value;
+        }
+        minor = sum;
+    }
+}
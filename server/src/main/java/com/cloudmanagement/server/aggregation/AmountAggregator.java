@@ -0,0 +1,153 @@
+package com.cloudmanagement.server.aggregation;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grouped sums and counts of amounts, e.g. per category or per budget.
+ *
+ * Group keys are dictionary-encoded to dense int ids once; sums and counts live in
+ * primitive long arrays indexed by that id, as minor units. Adding a row to an existing
+ * group allocates nothing. Amounts that do not fit a long, and group totals that would
+ * overflow, spill into a per-group BigDecimal, so results are always exact.
+ * Not thread-safe: aggregate per thread and merge.
+ *
+ * @param <K> group key type
+ */
+public final class AmountAggregator<K> {
+
+    private static final int INITIAL_GROUPS = 16;
+
+    private final int scale;
+    private final Map<K, Integer> ids = new HashMap<>();
+    private final List<K> keys = new ArrayList<>();
+    private long[] sums = new long[INITIAL_GROUPS];
+    private long[] counts = new long[INITIAL_GROUPS];
+    private BigDecimal[] spills = new BigDecimal[INITIAL_GROUPS];
+
+    public AmountAggregator() {
+        this(MinorUnits.DEFAULT_SCALE);
+    }
+
+    public AmountAggregator(int scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * Add an amount to a group; null amounts are counted but add nothing.
+     */
+    public void add(K key, BigDecimal amount) {
+        int group = groupId(key);
+        counts[group]++;
+        if (amount == null) {
+            return;
+        }
+        long value = MinorUnits.toMinor(amount, scale);
+        if (value == MinorUnits.NOT_REPRESENTABLE) {
+            spill(group, amount);
+        } else {
+            addMinorValue(group, value);
+        }
+    }
+
+    /**
+     * Add an amount already expressed in minor units to a group.
+     */
+    public void addMinor(K key, long value) {
+        int group = groupId(key);
+        counts[group]++;
+        addMinorValue(group, value);
+    }
+
+    /**
+     * Add every group of another aggregator (with the same scale) into this one.
+     */
+    public void merge(AmountAggregator<K> other) {
+        for (int i = 0; i < other.keys.size(); i++) {
+            int group = groupId(other.keys.get(i));
+            counts[group] += other.counts[i];
+            addMinorValue(group, other.sums[i]);
+            if (other.spills[i] != null) {
+                spill(group, other.spills[i]);
+            }
+        }
+    }
+
+    public int groupCount() {
+        return keys.size();
+    }
+
+    /**
+     * Total for a group, or zero if the group has no rows.
+     */
+    public BigDecimal total(K key) {
+        Integer group = ids.get(key);
+        return group == null ? MinorUnits.toAmount(0, scale) : total(group);
+    }
+
+    /**
+     * Row count for a group.
+     */
+    public long count(K key) {
+        Integer group = ids.get(key);
+        return group == null ? 0 : counts[group];
+    }
+
+    /**
+     * All groups in first-seen order.
+     */
+    public Map<K, GroupTotal> totals() {
+        Map<K, GroupTotal> totals = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            totals.put(keys.get(i), new GroupTotal(total(i), counts[i]));
+        }
+        return totals;
+    }
+
+    private BigDecimal total(int group) {
+        BigDecimal total = MinorUnits.toAmount(sums[group], scale);
+        return spills[group] == null ? total : total.add(spills[group]);
+    }
+
+    private int groupId(K key) {
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        int group = keys.size();
+        if (group == sums.length) {
+            int capacity = group * 2;
+            sums = Arrays.copyOf(sums, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            spills = Arrays.copyOf(spills, capacity);
+        }
+        keys.add(key);
+        ids.put(key, group);
+        return group;
+    }
+
+    private void addMinorValue(int group, long value) {
+        long current = sums[group];
+        long sum = current + value;
+        if (MinorUnits.overflowed(current, value, sum)) {
+            spill(group, MinorUnits.toAmount(current, scale));
+            sum = value;
+        }
+        sums[group] = sum;
+    }
+
+    private void spill(int group, BigDecimal amount) {
+        spills[group] = spills[group] == null ? amount : spills[group].add(amount);
+    }
+
+    /**
+     * Sum and row count of one group.
+     */
+    public record GroupTotal(BigDecimal sum, long count) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.cloudmanagement.server.aggregation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Conversion between BigDecimal amounts and scaled long minor units (cents at scale 2).
+ */
+public final class MinorUnits {
+
+    /** Currency scale used by the amount columns (numeric(38,2)). */
+    public static final int DEFAULT_SCALE = 2;
+
+    /** Returned by toMinor when the amount has no exact long representation. */
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    // Below 10^15 a double holds every minor-unit value exactly enough to round back
+    private static final int FAST_PATH_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8 };
+
+    private MinorUnits() {
+    }
+
+    /**
+     * Convert an amount to minor units at the given scale, e.g. 12.34 -> 1234 at scale 2.
+     * Returns NOT_REPRESENTABLE if the amount has more fractional digits than the scale
+     * or does not fit a long; callers then keep that amount as a BigDecimal.
+     */
+    public static long toMinor(BigDecimal amount, int scale) {
+        if (amount.signum() == 0) {
+            return 0;
+        }
+        // Fast path without allocation: BigDecimal.doubleValue() is correctly rounded,
+        // so for |minor| < 10^15 (< 2^50) scaling back by 10^scale rounds to the exact value
+        if (amount.scale() <= scale && scale < POWERS_OF_TEN.length
+                && amount.precision() - amount.scale() + scale <= FAST_PATH_DIGITS) {
+            return Math.round(amount.doubleValue() * POWERS_OF_TEN[scale]);
+        }
+        try {
+            BigInteger unscaled = amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue();
+            return unscaled.bitLength() < 64 ? unscaled.longValue() : NOT_REPRESENTABLE;
+        } catch (ArithmeticException e) {
+            return NOT_REPRESENTABLE;
+        }
+    }
+
+    /**
+     * Convert minor units back to an amount, e.g. 1234 -> 12.34 at scale 2.
+     */
+    public static BigDecimal toAmount(long minor, int scale) {
+        return BigDecimal.valueOf(minor, scale);
+    }
+
+    /**
+     * True if a + b overflowed into r = a + b.
+     */
+    static boolean overflowed(long a, long b, long r) {
+        return ((a ^ r) & (b ^ r)) < 0;
+    }
+}
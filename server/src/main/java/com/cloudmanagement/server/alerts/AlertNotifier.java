@@ -0,0 +1,15 @@
+package com.cloudmanagement.server.alerts;
+
+/**
+ * Delivers budget alerts. Every AlertNotifier bean receives every alert;
+ * implementations must not block for long (they run on the alert evaluation pool).
+ */
+public interface AlertNotifier {
+
+    /**
+     * Name used in metrics and logs.
+     */
+    String name();
+
+    void notify(BudgetAlert alert);
+}
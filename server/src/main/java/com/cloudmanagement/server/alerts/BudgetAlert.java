@@ -0,0 +1,15 @@
+package com.cloudmanagement.server.alerts;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A budget crossed a threshold, in percent of its amount (e.g. 80 or 100).
+ */
+public record BudgetAlert(Long budgetId, Long userId, String budgetName, int thresholdPercent,
+        BigDecimal amount, BigDecimal spent, Instant firedAt) {
+
+    public String message() {
+        return "Budget '" + budgetName + "' reached " + thresholdPercent + "% (" + spent + " of " + amount + ")";
+    }
+}
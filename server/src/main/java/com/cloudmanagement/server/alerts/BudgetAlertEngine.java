@@ -0,0 +1,148 @@
+package com.cloudmanagement.server.alerts;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.repository.BudgetRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Evaluates budget alert thresholds (app.alerts.thresholds, percent of amount) for a budget
+ * each time its spent changes, instead of scanning all budgets.
+ *
+ * Alerts are edge-triggered: budgets.alert_level holds how many thresholds the budget has
+ * crossed, and an alert fires only for the node whose conditional update raises it, so each
+ * crossing is notified once, across restarts and nodes. Dropping below a threshold re-arms it.
+ * Crossing several thresholds at once notifies the highest one.
+ *
+ * Spent is merged on every node and events are evaluated concurrently, so an event's values may
+ * be outdated by the time it is evaluated. The level is therefore judged from the budget's
+ * current row, and the updates only apply while the row's spent still supports them.
+ */
+@Component
+public class BudgetAlertEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetAlertEngine.class);
+
+    private final BudgetRepository budgetRepository;
+    private final List<AlertNotifier> notifiers;
+    private final int[] thresholds;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter events;
+    private final Counter unchanged;
+    private final Timer evaluation;
+    private final Map<Integer, Counter> fired = new ConcurrentHashMap<>();
+    private final Map<String, Counter> notifyFailures = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public BudgetAlertEngine(BudgetRepository budgetRepository, List<AlertNotifier> notifiers,
+            MeterRegistry meterRegistry,
+            @Value("${app.alerts.thresholds:80,100}") int[] thresholds,
+            @Value("${app.alerts.threads:2}") int threads,
+            @Value("${app.alerts.queue-capacity:10000}") int queueCapacity) {
+        this.budgetRepository = budgetRepository;
+        this.notifiers = notifiers;
+        this.thresholds = Arrays.stream(thresholds).sorted().distinct().toArray();
+        this.meterRegistry = meterRegistry;
+
+        // A full queue makes the publishing thread evaluate inline rather than lose the event
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "budget-alerts-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.events = meterRegistry.counter("budget.alerts.events");
+        this.unchanged = meterRegistry.counter("budget.alerts.unchanged");
+        this.evaluation = meterRegistry.timer("budget.alerts.evaluation");
+        Gauge.builder("budget.alerts.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    /**
+     * Runs after the change commits (or immediately when published outside a transaction).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpentChanged(BudgetSpentChangedEvent event) {
+        events.increment();
+        executor.execute(() -> evaluation.record(() -> evaluate(event)));
+    }
+
+    void evaluate(BudgetSpentChangedEvent event) {
+        Optional<BudgetView> current = budgetRepository.findViewById(event.budgetId());
+        if (current.isEmpty()) {
+            return;
+        }
+        BudgetView budget = current.get();
+        int level = level(thresholds, budget.amount(), budget.spent());
+        if (level > 0 && budgetRepository.raiseAlertLevel(budget.id(), level, thresholds[level - 1]) == 1) {
+            fire(event, budget, thresholds[level - 1]);
+        } else if (level == thresholds.length
+                || budgetRepository.lowerAlertLevel(budget.id(), level, thresholds[level]) == 0) {
+            unchanged.increment();
+        }
+    }
+
+    /**
+     * Number of thresholds that spent has reached.
+     */
+    static int level(int[] thresholds, BigDecimal amount, BigDecimal spent) {
+        if (amount == null || spent == null || amount.signum() <= 0) {
+            return 0;
+        }
+        BigDecimal percent = spent.multiply(BigDecimal.valueOf(100));
+        int level = 0;
+        while (level < thresholds.length
+                && percent.compareTo(amount.multiply(BigDecimal.valueOf(thresholds[level]))) >= 0) {
+            level++;
+        }
+        return level;
+    }
+
+    private void fire(BudgetSpentChangedEvent event, BudgetView budget, int threshold) {
+        BudgetAlert alert = new BudgetAlert(budget.id(), event.userId(), budget.name(), threshold,
+                budget.amount(), budget.spent(), Instant.now());
+        fired.computeIfAbsent(threshold, t -> meterRegistry.counter("budget.alerts.fired",
+                "threshold", String.valueOf(t))).increment();
+        for (AlertNotifier notifier : notifiers) {
+            try {
+                notifier.notify(alert);
+            } catch (RuntimeException e) {
+                notifyFailures.computeIfAbsent(notifier.name(), name -> meterRegistry.counter(
+                        "budget.alerts.notify.failures", "notifier", name)).increment();
+                log.warn("Alert notifier {} failed for budget {}", notifier.name(), event.budgetId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cloudmanagement.server.alerts;
+
+import java.math.BigDecimal;
+
+/**
+ * Published whenever a budget's spent (or amount) changes.
+ * Alert thresholds are evaluated for this budget only, after the change commits.
+ */
+public record BudgetSpentChangedEvent(Long budgetId, Long userId, String budgetName,
+        BigDecimal amount, BigDecimal spent) {
+}
@@ -0,0 +1,26 @@
+package com.cloudmanagement.server.alerts;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes alerts to the "com.cloudmanagement.server.alerts" log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.alerts.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LogAlertNotifier implements AlertNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger("com.cloudmanagement.server.alerts");
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void notify(BudgetAlert alert) {
+        log.info("[user {}] {}", alert.userId(), alert.message());
+    }
+}
@@ -0,0 +1,37 @@
+package com.cloudmanagement.server.alerts;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cloudmanagement.server.sse.SseEmitterRegistry;
+
+/**
+ * Pushes alerts to the owner's open Server-Sent Events streams (GET /api/alerts/stream).
+ */
+@Component
+public class SseAlertNotifier implements AlertNotifier {
+
+    private final SseEmitterRegistry emitters;
+
+    public SseAlertNotifier(@Value("${app.alerts.sse.timeout-ms:1800000}") long timeoutMs) {
+        this.emitters = new SseEmitterRegistry(timeoutMs);
+    }
+
+    /**
+     * Open an alert stream for a user.
+     */
+    public SseEmitter subscribe(Long userId) {
+        return emitters.subscribe(userId);
+    }
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    @Override
+    public void notify(BudgetAlert alert) {
+        emitters.send(alert.userId(), "budget-alert", alert);
+    }
+}
@@ -0,0 +1,66 @@
+package com.cloudmanagement.server.alerts;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Posts alerts as JSON to app.alerts.webhook.url, fire-and-forget.
+ * Minimal: no retries or signing yet; failures are logged.
+ */
+@Component
+@ConditionalOnProperty(name = "app.alerts.webhook.url")
+public class WebhookAlertNotifier implements AlertNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookAlertNotifier.class);
+
+    private final URI url;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public WebhookAlertNotifier(@Value("${app.alerts.webhook.url}") String url, ObjectMapper objectMapper) {
+        this.url = URI.create(url);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void notify(BudgetAlert alert) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(alert);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("Alert webhook failed for budget {}: {}", alert.budgetId(), error.toString());
+                    } else if (response.statusCode() >= 300) {
+                        log.warn("Alert webhook returned {} for budget {}", response.statusCode(), alert.budgetId());
+                    }
+                });
+    }
+}
@@ -0,0 +1,24 @@
+package com.cloudmanagement.server.audit;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One committed change to an audited entity, waiting to be written to audit_log.
+ * For updates, before and after hold only the changed properties; inserts have no before
+ * and deletes no after. Property values are immutable (ids stand in for associations).
+ */
+public record AuditEvent(
+        Instant occurredAt,
+        String actor,
+        Action action,
+        String entityType,
+        String entityId,
+        Long ownerId,
+        Map<String, Object> before,
+        Map<String, Object> after) {
+
+    public enum Action {
+        INSERT, UPDATE, DELETE
+    }
+}
@@ -0,0 +1,196 @@
+package com.cloudmanagement.server.audit;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.Type;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.cloudmanagement.server.audit.AuditEvent.Action;
+import com.cloudmanagement.server.model.Budget;
+import com.cloudmanagement.server.model.Transaction;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Captures changes to Transaction and Budget from Hibernate's post-commit events, so only
+ * committed changes are audited, and hands them to AuditLogWriter. Runs on the committing
+ * thread after the commit; building the event is all the work done there.
+ *
+ * Only changes made through JPA are seen. Code that writes with plain SQL (statement imports,
+ * recurring postings, transaction deletes, the batch API) appends its own events after the
+ * commit. Spent delta merges and reconciliation only maintain the derived Budget.spent and
+ * are not audited.
+ */
+@Component
+public class AuditEventListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    static final String SYSTEM_ACTOR = "system";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditLogWriter writer;
+
+    public AuditEventListener(EntityManagerFactory entityManagerFactory, AuditLogWriter writer) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.writer = writer;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return isAudited(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (isAudited(event.getEntity().getClass())) {
+            writer.append(auditEvent(Action.INSERT, event.getEntity(), event.getId(), null,
+                    snapshot(event.getPersister(), event.getSession(), event.getState(), null)));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!isAudited(event.getEntity().getClass())) {
+            return;
+        }
+        int[] dirty = event.getDirtyProperties();
+        Object[] oldState = event.getOldState();
+        // Without the old state (e.g. a detached entity updated without a select) record the new state only
+        Map<String, Object> before = oldState == null ? null
+                : snapshot(event.getPersister(), event.getSession(), oldState, dirty);
+        Map<String, Object> after = snapshot(event.getPersister(), event.getSession(), event.getState(),
+                oldState == null ? null : dirty);
+        writer.append(auditEvent(Action.UPDATE, event.getEntity(), event.getId(), before, after));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (isAudited(event.getEntity().getClass())) {
+            writer.append(auditEvent(Action.DELETE, event.getEntity(), event.getId(),
+                    snapshot(event.getPersister(), event.getSession(), event.getDeletedState(), null), null));
+        }
+    }
+
+    // Rolled back: nothing happened, nothing to audit
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private static boolean isAudited(Class<?> type) {
+        return Transaction.class.isAssignableFrom(type) || Budget.class.isAssignableFrom(type);
+    }
+
+    private static AuditEvent auditEvent(Action action, Object entity, Object id, Map<String, Object> before,
+            Map<String, Object> after) {
+        return new AuditEvent(Instant.now(), currentActor(), action, entity.getClass().getSimpleName(),
+                String.valueOf(id), ownerOf(entity), before, after);
+    }
+
+    private static Long ownerOf(Object entity) {
+        if (entity instanceof Transaction transaction) {
+            return transaction.getUserId();
+        }
+        if (entity instanceof Budget budget && budget.getUser() != null) {
+            return budget.getUser().getId();
+        }
+        return null;
+    }
+
+    /**
+     * Event for a transaction inserted or deleted with plain SQL, with all its properties
+     * as Hibernate would have recorded them.
+     */
+    public static AuditEvent transactionEvent(Action action, Transaction transaction) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("amount", transaction.getAmount());
+        values.put("budgetId", transaction.getBudgetId());
+        values.put("category", transaction.getCategory());
+        values.put("description", transaction.getDescription());
+        values.put("fingerprint", transaction.getFingerprint());
+        values.put("occurrenceKey", transaction.getOccurrenceKey());
+        values.put("receiptUrl", transaction.getReceiptUrl());
+        values.put("transactionDate", transaction.getTransactionDate());
+        values.put("type", transaction.getType());
+        values.put("userId", transaction.getUserId());
+        return auditEvent(action, transaction, transaction.getId(), action == Action.DELETE ? values : null,
+                action == Action.DELETE ? null : values);
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return SYSTEM_ACTOR;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Property values by name: all properties, or only the given indexes.
+     * Associations are recorded by id, so the snapshot holds no entities.
+     */
+    static Map<String, Object> snapshot(EntityPersister persister, SharedSessionContractImplementor session,
+            Object[] state, int[] properties) {
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (properties == null) {
+            for (int i = 0; i < names.length; i++) {
+                put(values, session, names[i], types[i], state[i]);
+            }
+        } else {
+            for (int i : properties) {
+                put(values, session, names[i], types[i], state[i]);
+            }
+        }
+        return values;
+    }
+
+    private static void put(Map<String, Object> values, SharedSessionContractImplementor session, String name,
+            Type type, Object value) {
+        if (type.isCollectionType()) {
+            return;
+        }
+        if (type.isEntityType() && value != null) {
+            value = value instanceof HibernateProxy proxy
+                    ? proxy.getHibernateLazyInitializer().getInternalIdentifier()
+                    : session.getFactory().getMappingMetamodel().getEntityDescriptor(value.getClass())
+                            .getIdentifier(value, session);
+        }
+        values.put(name, value);
+    }
+}
@@ -0,0 +1,331 @@
+package com.cloudmanagement.server.audit;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes audit events to the append-only audit_log table off the request path.
+ *
+ * Committing threads only put events into a lock-free ring buffer and wake the flusher
+ * thread, which writes whatever has accumulated as one multi-row insert. Under load, events
+ * from many commits share a batch; when idle, each commit is written right after it happens.
+ * A failed batch is retried until it is written. On shutdown the buffer is drained before
+ * the pool closes. Events still buffered when the process dies abruptly are lost.
+ *
+ * If the buffer is full (the database is down or too slow), committing threads wait for space
+ * rather than drop events: audit falls behind no further than the buffer, and commits slow down
+ * until the database catches up. Waits are timed (audit.append.blocked) and logged every
+ * blocked-warning-ms.
+ *
+ * The flusher writes through a small connection pool of its own (app.audit.pool-size). Waiting
+ * threads are in post-commit callbacks and still hold their application pool connection, so a
+ * flusher sharing that pool could be starved by the very threads waiting for it.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_BATCH =
+            "INSERT INTO audit_log (occurred_at, actor, action, entity_type, entity_id, owner_id, before_state, "
+            + "after_state) SELECT * FROM unnest(?::timestamptz[], ?::text[], ?::text[], ?::text[], ?::text[], "
+            + "?::bigint[], ?::jsonb[], ?::jsonb[])";
+    private static final String ENSURE_PARTITION = "SELECT audit_log_ensure_partition(?)";
+
+    private static final long RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long blockedWarningNanos;
+    private final long shutdownTimeoutMs;
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final Counter appended;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failedFlushes;
+    private final Timer flushTimer;
+    private final Timer blockedTimer;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public AuditLogWriter(DataSourceProperties dataSourceProperties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.pool-size:2}") int poolSize,
+            @Value("${app.audit.buffer-capacity:65536}") int bufferCapacity,
+            @Value("${app.audit.batch-size:500}") int batchSize,
+            @Value("${app.audit.max-delay-ms:1000}") long maxDelayMs,
+            @Value("${app.audit.blocked-warning-ms:1000}") long blockedWarningMs,
+            @Value("${app.audit.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this(new JdbcTemplate(auditPool(dataSourceProperties, poolSize, meterRegistry)), objectMapper, meterRegistry,
+                bufferCapacity, batchSize, maxDelayMs, blockedWarningMs, shutdownTimeoutMs);
+    }
+
+    AuditLogWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            int bufferCapacity, int batchSize, long maxDelayMs, long blockedWarningMs, long shutdownTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.blockedWarningNanos = TimeUnit.MILLISECONDS.toNanos(blockedWarningMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.appended = meterRegistry.counter("audit.events", "state", "appended");
+        this.written = meterRegistry.counter("audit.events", "state", "written");
+        this.dropped = meterRegistry.counter("audit.events", "state", "dropped");
+        this.failedFlushes = meterRegistry.counter("audit.flush.failures");
+        this.flushTimer = meterRegistry.timer("audit.flush");
+        this.blockedTimer = meterRegistry.timer("audit.append.blocked");
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size).register(meterRegistry);
+    }
+
+    // Same database and credentials as spring.datasource, but never shared with request threads
+    private static HikariDataSource auditPool(DataSourceProperties properties, int poolSize,
+            MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("audit");
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(1);
+        // Start even if the database is down; the flusher retries until it is back
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlusher, "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Write everything still buffered, then stop the flusher and close its pool.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(shutdownTimeoutMs);
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            log.error("Audit log flush did not finish on shutdown, {} events not written", buffer.size());
+        }
+        if (jdbcTemplate.getDataSource() instanceof HikariDataSource pool) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Queue a committed change for writing. Lock-free unless the buffer is full, in which case
+     * it blocks until the flusher has made room.
+     */
+    public void append(AuditEvent event) {
+        if (!running || !buffer.offer(event) && !awaitSpace(event)) {
+            writeDuringShutdown(event);
+            return;
+        }
+        appended.increment();
+        if (!wakeupPending.get() && wakeupPending.compareAndSet(false, true)) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Queue changes written with plain SQL, which AuditEventListener does not see, once the
+     * current transaction commits; nothing is queued if it rolls back. Outside a transaction
+     * the events are queued at once.
+     */
+    public void appendAfterCommit(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.forEach(this::append);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(AuditLogWriter.this::append);
+            }
+        });
+    }
+
+    // Wait until the event fits in the buffer; false if the writer is stopped meanwhile
+    private boolean awaitSpace(AuditEvent event) {
+        long started = System.nanoTime();
+        long nextWarning = started + blockedWarningNanos;
+        boolean interrupted = false;
+        try {
+            while (running) {
+                LockSupport.unpark(flusher);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                // The change is committed; an interrupt must not cost its audit record
+                interrupted |= Thread.interrupted();
+                if (buffer.offer(event)) {
+                    return true;
+                }
+                if (System.nanoTime() - nextWarning >= 0) {
+                    log.warn("Audit buffer full, {} waiting {} ms to queue {} of {} {}",
+                            Thread.currentThread().getName(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), event.action(),
+                            event.entityType(), event.entityId());
+                    nextWarning += blockedWarningNanos;
+                }
+            }
+            return false;
+        } finally {
+            blockedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Late commits during shutdown: write directly rather than strand them in the buffer
+    private void writeDuringShutdown(AuditEvent event) {
+        try {
+            write(List.of(event));
+        } catch (RuntimeException e) {
+            dropped.increment();
+            log.error("Dropped audit event for {} {} during shutdown", event.entityType(), event.entityId(), e);
+        }
+    }
+
+    private void runFlusher() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            wakeupPending.set(false);
+            if (batch.isEmpty()) {
+                buffer.drain(batch::add, batchSize);
+            }
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(this, maxDelayNanos);
+                continue;
+            }
+            try {
+                write(batch);
+                batch.clear();
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                log.warn("Writing {} audit events failed, retrying: {}", batch.size(), e.getMessage());
+                ensurePartitions();
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                LockSupport.parkNanos(RETRY_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        int size = batch.size();
+        Object[] occurredAt = new Object[size];
+        Object[] actors = new Object[size];
+        Object[] actions = new Object[size];
+        Object[] entityTypes = new Object[size];
+        Object[] entityIds = new Object[size];
+        Object[] ownerIds = new Object[size];
+        Object[] before = new Object[size];
+        Object[] after = new Object[size];
+        for (int i = 0; i < size; i++) {
+            AuditEvent event = batch.get(i);
+            occurredAt[i] = Timestamp.from(event.occurredAt());
+            actors[i] = event.actor();
+            actions[i] = event.action().name();
+            entityTypes[i] = event.entityType();
+            entityIds[i] = event.entityId();
+            ownerIds[i] = event.ownerId();
+            before[i] = toJson(event.before());
+            after[i] = toJson(event.after());
+        }
+        long started = System.nanoTime();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_BATCH);
+            statement.setArray(1, connection.createArrayOf("timestamptz", occurredAt));
+            statement.setArray(2, connection.createArrayOf("text", actors));
+            statement.setArray(3, connection.createArrayOf("text", actions));
+            statement.setArray(4, connection.createArrayOf("text", entityTypes));
+            statement.setArray(5, connection.createArrayOf("text", entityIds));
+            statement.setArray(6, connection.createArrayOf("bigint", ownerIds));
+            statement.setArray(7, connection.createArrayOf("jsonb", before));
+            statement.setArray(8, connection.createArrayOf("jsonb", after));
+            return statement;
+        });
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        written.increment(size);
+    }
+
+    private String toJson(Map<String, Object> state) {
+        if (state == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            // Never let one odd value block the batch behind it
+            log.error("Audit state is not serializable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Make sure this month's and next month's partitions exist, so inserts never lack one.
+     * Runs at startup, daily and after a failed flush; creating a partition that exists is a no-op.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.audit.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        try {
+            jdbcTemplate.queryForList(ENSURE_PARTITION, Date.valueOf(month));
+            jdbcTemplate.queryForList(ENSURE_PARTITION, Date.valueOf(month.plusMonths(1)));
+        } catch (DataAccessException e) {
+            // Another node may have created the same partition concurrently
+            log.warn("Could not create audit_log partitions: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.cloudmanagement.server.audit;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * Producers claim a slot by advancing tail with a CAS and then publish into it; the
+ * consumer takes published slots in order and stops at the first one not published yet.
+ */
+final class AuditRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Next slot to consume; written only by the consumer
+    private volatile long head;
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add an element; false if the buffer is full.
+     */
+    boolean offer(E element) {
+        Objects.requireNonNull(element);
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.set((int) claimed & mask, element);
+        return true;
+    }
+
+    /**
+     * Hand up to max elements to the sink, oldest first. Must only be called by one thread at a time.
+     *
+     * @return the number of elements drained
+     */
+    int drain(Consumer<? super E> sink, int max) {
+        long next = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) next & mask;
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            sink.accept(element);
+            next++;
+            drained++;
+        }
+        head = next;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,124 @@
+package com.cloudmanagement.server.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Statement import settings bound from "app.import.*".
+ * Category rules are matched in order against each line's description; the first match
+ * wins, lines matching no rule get the default category.
+ */
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+    // Uploads are kept here until their import completes; share it between nodes to resume anywhere
+    private String storageDir = System.getProperty("java.io.tmpdir") + "/finance-imports";
+
+    private int threads = 2;
+
+    private int batchSize = 1000;
+
+    // A running import that has not committed a batch for this long is considered dead and may be resumed
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    // DateTimeFormatter patterns tried in order for CSV dates
+    private List<String> dateFormats = new ArrayList<>(List.of(
+            "yyyy-MM-dd['T'HH:mm[:ss]]", "MM/dd/yyyy", "dd.MM.yyyy"));
+
+    private String defaultCategory = "Uncategorized";
+
+    private List<CategoryRule> categoryRules = new ArrayList<>();
+
+    // --- Getters and Setters ---
+
+    public String getStorageDir() {
+        return storageDir;
+    }
+
+    public void setStorageDir(String storageDir) {
+        this.storageDir = storageDir;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(Duration staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+
+    public List<String> getDateFormats() {
+        return dateFormats;
+    }
+
+    public void setDateFormats(List<String> dateFormats) {
+        this.dateFormats = dateFormats;
+    }
+
+    public String getDefaultCategory() {
+        return defaultCategory;
+    }
+
+    public void setDefaultCategory(String defaultCategory) {
+        this.defaultCategory = defaultCategory;
+    }
+
+    public List<CategoryRule> getCategoryRules() {
+        return categoryRules;
+    }
+
+    public void setCategoryRules(List<CategoryRule> categoryRules) {
+        this.categoryRules = categoryRules;
+    }
+
+    /**
+     * Assigns a category to lines whose description matches a case-insensitive regular expression.
+     */
+    public static class CategoryRule {
+        private String pattern;
+        private String category;
+
+        public CategoryRule() {
+        }
+
+        public CategoryRule(String pattern, String category) {
+            this.pattern = pattern;
+            this.category = category;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cloudmanagement.server.config;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.cloudmanagement.server.repository.TransactionRepository;
+
+/**
+ * Inserts a few sample transactions into an empty database for quick testing.
+ * Only active with the "seed" profile, and runs in the background once the app is ready,
+ * so it never delays startup.
+ */
+@Component
+@Profile("seed")
+public class MockDataSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(MockDataSeeder.class);
+
+    private final TransactionRepository transactionRepository;
+
+    public MockDataSeeder(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedInBackground() {
+        Thread thread = new Thread(this::seed, "mock-data-seeder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void seed() {
+        try {
+            if (transactionRepository.count() > 0) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            transactionRepository.saveAll(List.of(
+                    new Transaction("AWS EC2 Instance - Monthly", new BigDecimal("450.00"),
+                            "Infrastructure", now.minusDays(5), TransactionType.EXPENSE),
+                    new Transaction("Client Payment - Project Alpha", new BigDecimal("5000.00"),
+                            "Income", now.minusDays(3), TransactionType.INCOME),
+                    new Transaction("Office 365 Subscription", new BigDecimal("150.00"),
+                            "Software", now.minusDays(1), TransactionType.EXPENSE),
+                    new Transaction("Dell Server Purchase", new BigDecimal("3200.00"),
+                            "Hardware", now.minusDays(10), TransactionType.EXPENSE)));
+            log.info("Initialized 4 mock transaction items");
+        } catch (RuntimeException e) {
+            log.warn("Failed to initialize mock data: {}", e.getMessage());
+        }
+    }
+}
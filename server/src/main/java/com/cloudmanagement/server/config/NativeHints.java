@@ -0,0 +1,80 @@
+package com.cloudmanagement.server.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import com.cloudmanagement.server.alerts.BudgetAlert;
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.dto.CategoryTotal;
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.model.Budget;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.User;
+import com.cloudmanagement.server.service.BudgetService.BudgetSummary;
+
+/**
+ * Reflection and resource hints for the GraalVM native image (mvn -Pnative package).
+ * Spring AOT covers beans, controllers and the JPA metamodel; this adds what it cannot see:
+ * constructors called from JPQL "SELECT new", types serialized outside controllers,
+ * the JDBC proxies built by SqlTimingDataSource, and the JJWT implementation, which
+ * jjwt-api loads by class name.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] JJWT_IMPL_TYPES = {
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionAlgorithm",
+            "io.jsonwebtoken.impl.compression.GzipCompressionAlgorithm",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : new Class<?>[] { Transaction.class, Budget.class, User.class }) {
+            hints.reflection().registerType(entity, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        // JPQL constructor expressions
+        for (Class<?> view : new Class<?>[] { TransactionView.class, BudgetView.class, CategoryTotal.class }) {
+            hints.reflection().registerType(view, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        // Serialized by Jackson outside controller signatures (webhook, SSE, summary getters)
+        for (Class<?> json : new Class<?>[] { BudgetAlert.class, BudgetSummary.class }) {
+            hints.reflection().registerType(json, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        // SqlTimingDataSource (app.sql.stats) wraps each of these in a JDK proxy
+        for (Class<?> jdbc : new Class<?>[] { Connection.class, Statement.class, PreparedStatement.class,
+                CallableStatement.class }) {
+            hints.proxies().registerJdkProxy(jdbc);
+        }
+
+        for (String type : JJWT_IMPL_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        // Serializer/Deserializer/CompressionCodec are discovered with ServiceLoader
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+    }
+}
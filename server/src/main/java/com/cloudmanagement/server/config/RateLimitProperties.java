@@ -0,0 +1,120 @@
+package com.cloudmanagement.server.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limit settings bound from "app.rate-limit.*".
+ * Rules are matched in order; a request that matches no rule uses the default limit.
+ * Every client (JWT subject, or IP address when unauthenticated) gets its own bucket per rule.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    private Rule defaults = new Rule("default", List.of("/**"), 100, 50);
+
+    // --- Getters and Setters ---
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public Rule getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Rule defaults) {
+        this.defaults = defaults;
+    }
+
+    /**
+     * A class of endpoints sharing one limit.
+     */
+    public static class Rule {
+        private String name;
+        // Ant-style path patterns, e.g. /api/auth/**
+        private List<String> paths = new ArrayList<>();
+        // HTTP methods this rule applies to; empty means all
+        private List<String> methods = new ArrayList<>();
+        // Key buckets by client IP even for authenticated requests
+        private boolean perIp = false;
+        private int capacity;
+        private double refillPerSecond;
+
+        public Rule() {
+        }
+
+        public Rule(String name, List<String> paths, int capacity, double refillPerSecond) {
+            this.name = name;
+            this.paths = new ArrayList<>(paths);
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public boolean isPerIp() {
+            return perIp;
+        }
+
+        public void setPerIp(boolean perIp) {
+            this.perIp = perIp;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cloudmanagement.server.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last wrote to the primary, so that their
+ * following reads are not served by a replica that has not caught up yet.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrite = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Record a write by the given user (ignored for anonymous requests).
+     */
+    public void recordWrite(String username) {
+        if (username != null) {
+            lastWrite.put(username, System.nanoTime());
+        }
+    }
+
+    /**
+     * True if the user wrote within the sticky window.
+     */
+    public boolean isSticky(String username) {
+        if (username == null) {
+            return false;
+        }
+        Long writtenAt = lastWrite.get(username);
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+
+    /**
+     * Drop entries whose window has passed.
+     */
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrite.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+}
@@ -0,0 +1,97 @@
+package com.cloudmanagement.server.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Read-replica routing.
+ * Enabled with app.datasource.replica.enabled=true; otherwise Spring Boot's
+ * single-DataSource auto-configuration is used unchanged.
+ *
+ * Service methods annotated with @Transactional(readOnly = true) are sent to a replica,
+ * all other work stays on the primary (spring.datasource.*).
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties primaryProperties, ReplicaProperties replicaProperties,
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        // Every pool picks up the shared spring.datasource.hikari.* tuning
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        pools.add(primary);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Node node : replicaProperties.getNodes()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(node.getUrl())
+                    .username(node.getUsername() != null ? node.getUsername() : primaryProperties.getUsername())
+                    .password(node.getPassword() != null ? node.getPassword() : primaryProperties.getPassword())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            pools.add(replica);
+            replicas.add(replica);
+        }
+
+        // Publish hikaricp.* metrics for every pool, tagged by pool name
+        meterRegistry.ifAvailable(registry -> pools.forEach(pool -> pool.setMetricRegistry(registry)));
+
+        routingDataSource = new ReplicaRoutingDataSource(
+                primary,
+                replicas,
+                new ReadYourWritesTracker(replicaProperties.getStickyWindow()),
+                replicaProperties.getMaxLag(),
+                replicaProperties.getLagQuery());
+        routingDataSource.afterPropertiesSet();
+
+        // Defer the routing decision until the first statement, when the read-only flag is known
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:2000}")
+    public void checkReplicaLag() {
+        if (routingDataSource != null) {
+            routingDataSource.checkReplicaLag();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
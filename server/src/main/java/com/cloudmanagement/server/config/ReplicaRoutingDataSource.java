@@ -0,0 +1,132 @@
+package com.cloudmanagement.server.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to a healthy replica and everything else to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the routing decision is made
+ * after the transaction's read-only flag has been set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ReadYourWritesTracker tracker;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources,
+            ReadYourWritesTracker tracker, Duration maxLag, String lagQuery) {
+        this.replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            replicas.put("replica-" + i, replicaDataSources.get(i));
+        }
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        this.tracker = tracker;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // Replicas start out unhealthy until the first lag check has passed
+        replicaKeys.forEach(key -> healthy.put(key, false));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.recordWrite(username);
+            }
+            return PRIMARY;
+        }
+
+        // Read-your-writes: stay on the primary right after this user's own write
+        if (tracker.isSticky(username)) {
+            return PRIMARY;
+        }
+
+        String replica = nextHealthyReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+
+    /**
+     * Query every replica for its lag and update its health.
+     */
+    public void checkReplicaLag() {
+        replicas.forEach((key, dataSource) -> {
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(lagQuery)) {
+                double seconds = rs.next() ? rs.getDouble(1) : 0;
+                updateReplicaLag(key, Duration.ofMillis((long) (seconds * 1000)));
+            } catch (SQLException e) {
+                if (healthy.put(key, false)) {
+                    log.warn("Replica {} is unreachable, routing its reads to the primary: {}", key, e.getMessage());
+                }
+            }
+        });
+        tracker.evictExpired();
+    }
+
+    /**
+     * Mark a replica healthy or lagging based on a measured lag.
+     */
+    void updateReplicaLag(String key, Duration lag) {
+        boolean withinLimit = lag.compareTo(maxLag) <= 0;
+        Boolean previous = healthy.put(key, withinLimit);
+        if (previous != null && previous && !withinLimit) {
+            log.warn("Replica {} is lagging by {} ms, routing its reads to the primary", key, lag.toMillis());
+        }
+    }
+
+    /**
+     * Round-robin over replicas that passed the last lag check.
+     */
+    private String nextHealthyReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (healthy.get(key)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.cloudmanagement.server.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Report generation settings bound from "app.reports.*".
+ */
+@ConfigurationProperties(prefix = "app.reports")
+public class ReportProperties {
+
+    // Generated files are kept here until they expire; share it between nodes to download anywhere
+    private String storageDir = System.getProperty("java.io.tmpdir") + "/finance-reports";
+
+    private int threads = 2;
+
+    // Reports waiting for a worker; submissions beyond this are refused with 503
+    private int queueCapacity = 100;
+
+    // Queued plus running reports per user on one node; more are refused with 429
+    private int perUserLimit = 2;
+
+    // Transactions fetched from the database cursor at a time
+    private int fetchSize = 1000;
+
+    // How long completed (and failed) reports are kept
+    private Duration retention = Duration.ofDays(7);
+
+    // A queued or running report not finished after this long is considered lost and failed
+    private Duration staleAfter = Duration.ofHours(1);
+
+    private Duration sseTimeout = Duration.ofMinutes(30);
+
+    // --- Getters and Setters ---
+
+    public String getStorageDir() {
+        return storageDir;
+    }
+
+    public void setStorageDir(String storageDir) {
+        this.storageDir = storageDir;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getPerUserLimit() {
+        return perUserLimit;
+    }
+
+    public void setPerUserLimit(int perUserLimit) {
+        this.perUserLimit = perUserLimit;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(Duration staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+
+    public Duration getSseTimeout() {
+        return sseTimeout;
+    }
+
+    public void setSseTimeout(Duration sseTimeout) {
+        this.sseTimeout = sseTimeout;
+    }
+}
@@ -0,0 +1,29 @@
+package com.cloudmanagement.server.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Enables @Scheduled methods (replica lag checks, token revocation sync, ...).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * With spring.main.lazy-initialization (fast profile) beans nobody injects are never created,
+     * which would silently switch their @Scheduled jobs off; keep those beans eager.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansAreEager() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && !MethodIntrospector.selectMethods(beanType,
+                        (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                                AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
@@ -0,0 +1,41 @@
+package com.cloudmanagement.server.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cloudmanagement.server.alerts.SseAlertNotifier;
+import com.cloudmanagement.server.service.AuthService;
+
+/**
+ * REST Controller for budget alerts.
+ * Base path: /api/alerts
+ */
+@RestController
+@RequestMapping("/api/alerts")
+public class AlertController {
+
+    private final SseAlertNotifier sseAlertNotifier;
+    private final AuthService authService;
+
+    @Autowired
+    public AlertController(SseAlertNotifier sseAlertNotifier, AuthService authService) {
+        this.sseAlertNotifier = sseAlertNotifier;
+        this.authService = authService;
+    }
+
+    /**
+     * GET /api/alerts/stream
+     * Server-Sent Events stream of "budget-alert" events for the current user's budgets.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return sseAlertNotifier.subscribe(authService.getCurrentUser(authentication.getName()).getId());
+    }
+}
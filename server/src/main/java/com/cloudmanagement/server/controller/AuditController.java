@@ -0,0 +1,70 @@
+package com.cloudmanagement.server.controller;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cloudmanagement.server.dto.AuditEntryView;
+import com.cloudmanagement.server.dto.PageResponse;
+import com.cloudmanagement.server.model.User;
+import com.cloudmanagement.server.repository.AuditLogRepository;
+import com.cloudmanagement.server.service.AuthService;
+
+/**
+ * REST Controller for the audit history of transactions and budgets.
+ * Users see the history of their own records; admins see everything.
+ * Base path: /api/audit
+ */
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuthService authService;
+
+    @Autowired
+    public AuditController(AuditLogRepository auditLogRepository, AuthService authService) {
+        this.auditLogRepository = auditLogRepository;
+        this.authService = authService;
+    }
+
+    /**
+     * GET /api/audit
+     * Changes, newest first, optionally filtered by entity, actor and time range.
+     * Admins may also filter by ownerId.
+     * Example:
+     * /api/audit?entityType=Transaction&entityId=42&from=2026-01-01T00:00:00Z&page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<PageResponse<AuditEntryView>> getHistory(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) Long ownerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = authService.getCurrentUser(authentication.getName());
+        Long owner = user.getRole() == User.Role.ADMIN ? ownerId : user.getId();
+
+        return ResponseEntity.ok(PageResponse.of(auditLogRepository.find(owner, entityType, entityId, actor, from, to,
+                (long) page * pageSize, pageSize + 1), page, pageSize));
+    }
+}
@@ -1,5 +1,9 @@
 package com.cloudmanagement.server.controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -8,14 +12,23 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.cloudmanagement.server.dto.AuthResponse;
 import com.cloudmanagement.server.dto.LoginRequest;
+import com.cloudmanagement.server.dto.RefreshRequest;
 import com.cloudmanagement.server.dto.RegisterRequest;
 import com.cloudmanagement.server.model.User;
+import com.cloudmanagement.server.security.JwtUtil;
+import com.cloudmanagement.server.security.PasswordHashingService;
+import com.cloudmanagement.server.security.TokenRevocationList;
 import com.cloudmanagement.server.service.AuthService;
+import com.cloudmanagement.server.service.RefreshTokenService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 
 import jakarta.validation.Valid;
 
@@ -30,34 +43,96 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     /**
      * POST /api/auth/register
      * Register a new user.
+     * Completes asynchronously: the request thread is released while the password is hashed.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
-        try {
-            AuthResponse response = authService.register(request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse(e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
+        return async(() -> authService.register(request))
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> errorResponse(e, HttpStatus.BAD_REQUEST, null));
     }
 
     /**
      * POST /api/auth/login
      * Login user and return JWT token.
+     * Completes asynchronously: the request thread is released while the password is checked.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        return async(() -> authService.login(request))
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> errorResponse(e, HttpStatus.UNAUTHORIZED, "Invalid username or password"));
+    }
+
+    /**
+     * POST /api/auth/refresh
+     * Exchange a refresh token for a new access token and a new (rotated) refresh token.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
         try {
-            AuthResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
+            return ResponseEntity.ok(refreshTokenService.rotate(request.getRefreshToken()));
+        } catch (RefreshTokenService.InvalidRefreshTokenException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse("Invalid username or password"));
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/auth/logout
+     * Revoke the presented access token and the session of the given refresh token (if any).
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshRequest request) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtUtil.extractAllClaims(authHeader.substring(7));
+                tokenRevocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+            } catch (JwtException e) {
+                // Invalid or expired: nothing left to revoke
+            }
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static <T> CompletableFuture<T> async(Supplier<CompletableFuture<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Map a failed auth future to a response: 503 + Retry-After when hashing is overloaded,
+     * otherwise the given status with the fixed message (or the exception's message if null).
+     */
+    private static ResponseEntity<?> errorResponse(Throwable error, HttpStatus status, String message) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PasswordHashingService.OverloadedException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(new ErrorResponse(cause.getMessage()));
         }
+        return ResponseEntity.status(status)
+                .body(new ErrorResponse(message != null ? message : cause.getMessage()));
     }
 
     /**
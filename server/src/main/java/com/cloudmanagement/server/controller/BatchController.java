@@ -0,0 +1,68 @@
+package com.cloudmanagement.server.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cloudmanagement.server.dto.BatchRequest;
+import com.cloudmanagement.server.dto.BatchResponse;
+import com.cloudmanagement.server.service.AuthService;
+import com.cloudmanagement.server.service.BatchMutationService;
+
+/**
+ * REST Controller for batched writes.
+ * Base path: /api/batch
+ */
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    private final BatchMutationService batchMutationService;
+    private final AuthService authService;
+
+    @Autowired
+    public BatchController(BatchMutationService batchMutationService, AuthService authService) {
+        this.batchMutationService = batchMutationService;
+        this.authService = authService;
+    }
+
+    /**
+     * POST /api/batch
+     * Applies an ordered list of transaction and budget creates, updates and deletes in one
+     * database transaction. Returns 200 with one result per operation, or 422 with the failing
+     * operations' statuses if any of them cannot be applied, in which case nothing is changed.
+     * Returns 413 above app.batch.max-operations, and 409 if a created transaction was
+     * inserted concurrently elsewhere.
+     * Example body:
+     * {"operations": [{"action": "UPDATE", "target": "TRANSACTION", "id": 42, "transaction": {...}},
+     *                 {"action": "DELETE", "target": "BUDGET", "id": 7}]}
+     */
+    @PostMapping
+    public ResponseEntity<BatchResponse> applyBatch(@RequestBody BatchRequest request) {
+        if (request.operations() == null || request.operations().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.operations().size() > batchMutationService.getMaxOperations()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = authService.getCurrentUser(authentication.getName()).getId();
+
+        BatchResponse response;
+        try {
+            response = batchMutationService.apply(userId, authentication.getName(), request.operations());
+        } catch (DataIntegrityViolationException e) {
+            // A created transaction was inserted concurrently, e.g. a retried request on another node
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return response.applied() ? ResponseEntity.ok(response)
+                : ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+    }
+}
@@ -3,7 +3,9 @@ package com.cloudmanagement.server.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cloudmanagement.server.dto.BudgetView;
 import com.cloudmanagement.server.model.Budget;
 import com.cloudmanagement.server.model.User;
 import com.cloudmanagement.server.service.AuthService;
@@ -50,7 +53,7 @@ public class BudgetController {
      * Fetches all budget items for current user.
      */
     @GetMapping
-    public List<Budget> getAllBudgets() {
+    public List<BudgetView> getAllBudgets() {
         return budgetService.getAllBudgets(getCurrentUser().getId());
     }
 
@@ -76,12 +79,15 @@ public class BudgetController {
 
     /**
      * PUT /api/budgets/{id}
-     * Updates an existing budget item.
+     * Updates an existing budget item. Send the version from the last read to get
+     * 409 instead of overwriting someone else's edit.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Budget> updateBudget(@PathVariable Long id, @RequestBody Budget budget) {
         try {
             return ResponseEntity.ok(budgetService.updateBudget(id, budget, getCurrentUser().getId()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,67 @@
+package com.cloudmanagement.server.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cloudmanagement.server.dto.DashboardView;
+import com.cloudmanagement.server.service.AuthService;
+import com.cloudmanagement.server.service.DashboardService;
+
+/**
+ * REST Controller for the dashboard.
+ * Base path: /api/dashboard
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private static final int MAX_RECENT_TRANSACTIONS = 100;
+
+    private final DashboardService dashboardService;
+    private final AuthService authService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService, AuthService authService) {
+        this.dashboardService = dashboardService;
+        this.authService = authService;
+    }
+
+    /**
+     * GET /api/dashboard
+     * Budgets, budget summary, most recent transactions and category totals for the current
+     * user in one response, replacing the separate requests on dashboard load.
+     * Example:
+     * /api/dashboard?recent=20
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<DashboardView>> getDashboard(
+            @RequestParam(defaultValue = "20") int recent) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = authService.getCurrentUser(authentication.getName()).getId();
+        int recentTransactions = Math.min(Math.max(recent, 1), MAX_RECENT_TRANSACTIONS);
+
+        return dashboardService.load(userId, recentTransactions)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(DashboardController::timeoutResponse);
+    }
+
+    // Too slow: 503 + Retry-After; anything else is rethrown to the default error handling
+    private static ResponseEntity<DashboardView> timeoutResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        }
+        throw error instanceof CompletionException completion ? completion : new CompletionException(cause);
+    }
+}
@@ -0,0 +1,83 @@
+package com.cloudmanagement.server.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cloudmanagement.server.diagnostics.SqlStatsRecorder;
+import com.cloudmanagement.server.diagnostics.SqlStatsRecorder.SqlStats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * REST Controller for runtime diagnostics, restricted to admins.
+ * Base path: /api/diagnostics
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+@PreAuthorize("hasRole('ADMIN')")
+public class DiagnosticsController {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatsRecorder sqlStatsRecorder;
+
+    @Autowired
+    public DiagnosticsController(MeterRegistry meterRegistry, SqlStatsRecorder sqlStatsRecorder) {
+        this.meterRegistry = meterRegistry;
+        this.sqlStatsRecorder = sqlStatsRecorder;
+    }
+
+    /**
+     * GET /api/diagnostics/db
+     * Connection pool saturation and acquisition wait per pool, plus statement timings and slow queries.
+     * SQL timings are only collected when app.sql.stats.enabled=true.
+     */
+    @GetMapping("/db")
+    public DbDiagnostics getDbDiagnostics() {
+        Map<String, PoolStats> pools = new TreeMap<>();
+        for (Gauge max : meterRegistry.find("hikaricp.connections.max").gauges()) {
+            String pool = max.getId().getTag("pool");
+            pools.put(pool, poolStats(pool, max.value()));
+        }
+        return new DbDiagnostics(List.copyOf(pools.values()), sqlStatsRecorder.snapshot());
+    }
+
+    private PoolStats poolStats(String pool, double max) {
+        double active = gauge("hikaricp.connections.active", pool);
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", pool).counter();
+
+        return new PoolStats(
+                pool,
+                (int) active,
+                (int) gauge("hikaricp.connections.idle", pool),
+                (int) gauge("hikaricp.connections.pending", pool),
+                (int) max,
+                max == 0 ? 0 : active / max,
+                acquire == null ? 0 : acquire.mean(TimeUnit.MILLISECONDS),
+                acquire == null ? 0 : acquire.max(TimeUnit.MILLISECONDS),
+                timeouts == null ? 0 : (long) timeouts.count());
+    }
+
+    private double gauge(String name, String pool) {
+        Gauge gauge = meterRegistry.find(name).tag("pool", pool).gauge();
+        return gauge == null ? 0 : gauge.value();
+    }
+
+    public record PoolStats(String pool, int active, int idle, int pending, int max, double saturation,
+            double acquireMeanMs, double acquireMaxMs, long acquireTimeouts) {
+    }
+
+    public record DbDiagnostics(List<PoolStats> pools, SqlStats sql) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.cloudmanagement.server.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.cloudmanagement.server.imports.StatementFormat;
+import com.cloudmanagement.server.imports.StatementImportService;
+import com.cloudmanagement.server.model.ImportJob;
+import com.cloudmanagement.server.service.AuthService;
+
+/**
+ * REST Controller for bank statement imports.
+ * Imports run in the background; poll the job for progress.
+ * Base path: /api/imports
+ */
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+
+    private final StatementImportService statementImportService;
+    private final AuthService authService;
+
+    @Autowired
+    public ImportController(StatementImportService statementImportService, AuthService authService) {
+        this.statementImportService = statementImportService;
+        this.authService = authService;
+    }
+
+    // Helper to get current user's id from security context
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authService.getCurrentUser(authentication.getName()).getId();
+    }
+
+    /**
+     * POST /api/imports (multipart/form-data)
+     * Uploads a statement ("file") and starts importing it. format (CSV, OFX or CAMT) is
+     * detected when omitted. Returns 202 with the job; its id is used to poll and resume.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJob> startImport(@RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) StatementFormat format) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        ImportJob job = statementImportService.start(file, format, getCurrentUserId());
+        return ResponseEntity.accepted().location(URI.create("/api/imports/" + job.getId())).body(job);
+    }
+
+    /**
+     * GET /api/imports
+     * Fetches the current user's imports, newest first.
+     */
+    @GetMapping
+    public List<ImportJob> getImports() {
+        return statementImportService.getAll(getCurrentUserId());
+    }
+
+    /**
+     * GET /api/imports/{id}
+     * Fetches an import's status and progress.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJob> getImport(@PathVariable String id) {
+        return statementImportService.get(id, getCurrentUserId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /api/imports/{id}/resume
+     * Restarts a failed or interrupted import after its last committed record.
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJob> resumeImport(@PathVariable String id) {
+        return statementImportService.resume(id, getCurrentUserId())
+                .map(job -> ResponseEntity.accepted().body(job))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
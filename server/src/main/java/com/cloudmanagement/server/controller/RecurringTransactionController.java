@@ -0,0 +1,80 @@
+package com.cloudmanagement.server.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cloudmanagement.server.model.RecurringTransaction;
+import com.cloudmanagement.server.service.AuthService;
+import com.cloudmanagement.server.service.RecurringTransactionService;
+
+/**
+ * REST Controller for recurring transaction templates.
+ * Base path: /api/recurring-transactions
+ */
+@RestController
+@RequestMapping("/api/recurring-transactions")
+public class RecurringTransactionController {
+
+    private final RecurringTransactionService recurringTransactionService;
+    private final AuthService authService;
+
+    @Autowired
+    public RecurringTransactionController(RecurringTransactionService recurringTransactionService,
+            AuthService authService) {
+        this.recurringTransactionService = recurringTransactionService;
+        this.authService = authService;
+    }
+
+    // Helper to get current user's id from security context
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authService.getCurrentUser(authentication.getName()).getId();
+    }
+
+    /**
+     * GET /api/recurring-transactions
+     * Fetches the current user's recurring transaction templates.
+     */
+    @GetMapping
+    public List<RecurringTransaction> getAllRecurringTransactions() {
+        return recurringTransactionService.getAll(getCurrentUserId());
+    }
+
+    /**
+     * POST /api/recurring-transactions
+     * Creates a template. schedule is a cron expression (e.g. "0 0 9 1 * *") or a macro like "@monthly".
+     * budgetId, if set, must be one of the current user's budgets.
+     */
+    @PostMapping
+    public ResponseEntity<RecurringTransaction> createRecurringTransaction(
+            @RequestBody RecurringTransaction template) {
+        try {
+            return ResponseEntity.ok(recurringTransactionService.create(template, getCurrentUserId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * DELETE /api/recurring-transactions/{id}
+     * Deletes a template; already posted transactions are kept.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringTransaction(@PathVariable Long id) {
+        if (recurringTransactionService.delete(id, getCurrentUserId())) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
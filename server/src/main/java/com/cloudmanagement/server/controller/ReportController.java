@@ -0,0 +1,133 @@
+package com.cloudmanagement.server.controller;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cloudmanagement.server.dto.ReportRequest;
+import com.cloudmanagement.server.model.ReportJob;
+import com.cloudmanagement.server.reports.ReportFormat;
+import com.cloudmanagement.server.reports.ReportService;
+import com.cloudmanagement.server.reports.SseReportNotifier;
+import com.cloudmanagement.server.service.AuthService;
+
+/**
+ * REST Controller for generated reports (monthly statements, category reports).
+ * Reports are generated in the background; poll the job or listen on the stream,
+ * then download the file.
+ * Base path: /api/reports
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final ReportService reportService;
+    private final SseReportNotifier sseReportNotifier;
+    private final AuthService authService;
+
+    @Autowired
+    public ReportController(ReportService reportService, SseReportNotifier sseReportNotifier,
+            AuthService authService) {
+        this.reportService = reportService;
+        this.sseReportNotifier = sseReportNotifier;
+        this.authService = authService;
+    }
+
+    // Helper to get current user's id from security context
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authService.getCurrentUser(authentication.getName()).getId();
+    }
+
+    /**
+     * POST /api/reports
+     * Queues a report and returns 202 with the job; its id is used to poll and download.
+     * Returns 429 while the user already has the maximum number of reports pending, and
+     * 503 + Retry-After when the report queue is full.
+     * Example body:
+     * {"type": "MONTHLY_STATEMENT", "format": "PDF", "month": "2024-05"}
+     */
+    @PostMapping
+    public ResponseEntity<ReportJob> requestReport(@RequestBody ReportRequest request) {
+        if (request.type() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        ReportFormat format = request.format() != null ? request.format() : ReportFormat.CSV;
+        YearMonth month = request.month() != null ? request.month() : YearMonth.now().minusMonths(1);
+        try {
+            ReportJob job = reportService.submit(getCurrentUserId(), request.type(), format, month);
+            return ResponseEntity.accepted().location(URI.create("/api/reports/" + job.getId())).body(job);
+        } catch (ReportService.UserLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "10").build();
+        } catch (ReportService.OverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "10").build();
+        }
+    }
+
+    /**
+     * GET /api/reports
+     * Fetches the current user's reports, newest first.
+     */
+    @GetMapping
+    public List<ReportJob> getReports() {
+        return reportService.getAll(getCurrentUserId());
+    }
+
+    /**
+     * GET /api/reports/stream
+     * Server-Sent Events stream of "report" events, sent when one of the current user's
+     * reports completes or fails.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReports() {
+        return sseReportNotifier.subscribe(getCurrentUserId());
+    }
+
+    /**
+     * GET /api/reports/{id}
+     * Fetches a report's status.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJob> getReport(@PathVariable String id) {
+        return reportService.get(id, getCurrentUserId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/reports/{id}/download
+     * Downloads a completed report; 404 if it does not exist, is not completed or has expired.
+     */
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String id) {
+        ReportJob job = reportService.get(id, getCurrentUserId()).orElse(null);
+        Path file = job == null ? null : reportService.getFile(job).orElse(null);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(job.getFilename()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
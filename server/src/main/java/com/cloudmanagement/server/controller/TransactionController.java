@@ -2,12 +2,25 @@ package com.cloudmanagement.server.controller;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,9 +31,21 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cloudmanagement.server.audit.AuditEvent.Action;
+import com.cloudmanagement.server.audit.AuditEventListener;
+import com.cloudmanagement.server.audit.AuditLogWriter;
+import com.cloudmanagement.server.dedup.DuplicateDetector;
+import com.cloudmanagement.server.dedup.TransactionFingerprint;
+import com.cloudmanagement.server.dto.PageResponse;
+import com.cloudmanagement.server.dto.TransactionView;
 import com.cloudmanagement.server.model.Transaction;
 import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.cloudmanagement.server.repository.TransactionQueryRepository;
 import com.cloudmanagement.server.repository.TransactionRepository;
+import com.cloudmanagement.server.repository.TransactionSearchRepository;
+import com.cloudmanagement.server.repository.TransactionSpecifications;
+import com.cloudmanagement.server.service.AuthService;
+import com.cloudmanagement.server.service.BudgetSpentLedger;
 
 /**
  * REST Controller for Transaction management.
@@ -31,53 +56,38 @@ import com.cloudmanagement.server.repository.TransactionRepository;
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Deepest row /query pages to; OFFSET scans every skipped row, so deeper pages should narrow the filters
+    static final long MAX_QUERY_OFFSET = 10_000;
+
+    // Properties /query may sort by; anything else would be an arbitrary (unindexed) path
+    private static final Set<String> SORTABLE = Set.of(
+            "transactionDate", "amount", "category", "description", "type", "id");
+
     private final TransactionRepository transactionRepository;
+    private final TransactionSearchRepository transactionSearchRepository;
+    private final TransactionQueryRepository transactionQueryRepository;
+    private final BudgetSpentLedger spentLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthService authService;
+    private final DuplicateDetector duplicateDetector;
+    private final AuditLogWriter auditLogWriter;
 
     @Autowired
-    public TransactionController(TransactionRepository transactionRepository) {
+    public TransactionController(TransactionRepository transactionRepository,
+            TransactionSearchRepository transactionSearchRepository,
+            TransactionQueryRepository transactionQueryRepository,
+            BudgetSpentLedger spentLedger, PlatformTransactionManager transactionManager,
+            AuthService authService, DuplicateDetector duplicateDetector, AuditLogWriter auditLogWriter) {
         this.transactionRepository = transactionRepository;
-        initializeMockData(); // Initialize mock data for quick testing
-    }
-
-    /**
-     * Helper method to initialize some transaction data for immediate testing.
-     */
-    private void initializeMockData() {
-        try {
-            if (transactionRepository.count() == 0) {
-                transactionRepository.save(new Transaction(
-                        "AWS EC2 Instance - Monthly",
-                        new BigDecimal("450.00"),
-                        "Infrastructure",
-                        LocalDateTime.now().minusDays(5),
-                        TransactionType.EXPENSE));
-
-                transactionRepository.save(new Transaction(
-                        "Client Payment - Project Alpha",
-                        new BigDecimal("5000.00"),
-                        "Income",
-                        LocalDateTime.now().minusDays(3),
-                        TransactionType.INCOME));
-
-                transactionRepository.save(new Transaction(
-                        "Office 365 Subscription",
-                        new BigDecimal("150.00"),
-                        "Software",
-                        LocalDateTime.now().minusDays(1),
-                        TransactionType.EXPENSE));
-
-                transactionRepository.save(new Transaction(
-                        "Dell Server Purchase",
-                        new BigDecimal("3200.00"),
-                        "Hardware",
-                        LocalDateTime.now().minusDays(10),
-                        TransactionType.EXPENSE));
-
-                System.out.println("--- TransactionController: Initialized 4 mock transaction items. ---");
-            }
-        } catch (Exception e) {
-            System.err.println("--- TransactionController: Failed to initialize mock data: " + e.getMessage() + " ---");
-        }
+        this.transactionSearchRepository = transactionSearchRepository;
+        this.transactionQueryRepository = transactionQueryRepository;
+        this.spentLedger = spentLedger;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.authService = authService;
+        this.duplicateDetector = duplicateDetector;
+        this.auditLogWriter = auditLogWriter;
     }
 
     /**
@@ -85,16 +95,18 @@ public class TransactionController {
      * Fetches all transactions ordered by date (most recent first).
      */
     @GetMapping
-    public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAllByOrderByTransactionDateDesc();
+    public List<TransactionView> getAllTransactions() {
+        return transactionRepository.findAllViews();
     }
 
     /**
      * POST /api/transactions
-     * Creates a new transaction.
+     * Creates a new transaction. Returns 409 if the current user already has the same
+     * transaction (same description, amount, type and date), unless allowDuplicate is set.
      */
     @PostMapping
-    public Transaction createTransaction(@RequestBody Transaction transaction) {
+    public ResponseEntity<Transaction> createTransaction(@RequestBody Transaction transaction,
+            @RequestParam(defaultValue = "false") boolean allowDuplicate) {
         // Ensure ID is null for creation
         transaction.setId(null);
 
@@ -103,7 +115,31 @@ public class TransactionController {
             transaction.setTransactionDate(LocalDateTime.now());
         }
 
-        return transactionRepository.save(transaction);
+        Long userId = getCurrentUserId();
+        transaction.setUserId(userId);
+        if (!allowDuplicate) {
+            UUID fingerprint = TransactionFingerprint.of(userId, transaction, 0);
+            if (duplicateDetector.exists(userId, fingerprint)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            transaction.setFingerprint(fingerprint);
+        }
+
+        Transaction saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                Transaction created = transactionRepository.save(transaction);
+                spentLedger.record(created.getBudgetId(), BudgetSpentLedger.spentBy(created));
+                return created;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently, e.g. a retried request on another node
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        if (saved.getFingerprint() != null) {
+            duplicateDetector.recordInserted(userId, List.of(saved.getFingerprint()));
+        }
+        return ResponseEntity.ok(saved);
     }
 
     /**
@@ -124,10 +160,15 @@ public class TransactionController {
     @PutMapping("/{id}")
     public ResponseEntity<Transaction> updateTransaction(@PathVariable Long id,
             @RequestBody Transaction updatedTransaction) {
-        Optional<Transaction> existingTransaction = transactionRepository.findById(id);
-
-        if (existingTransaction.isPresent()) {
+        // The row stays locked until commit, so concurrent updates apply their changes one after another
+        Transaction saved = transactionTemplate.execute(status -> {
+            Optional<Transaction> existingTransaction = transactionRepository.findByIdForUpdate(id);
+            if (existingTransaction.isEmpty()) {
+                return null;
+            }
             Transaction transaction = existingTransaction.get();
+            Long previousBudgetId = transaction.getBudgetId();
+            BigDecimal previousSpent = BudgetSpentLedger.spentBy(transaction);
             transaction.setDescription(updatedTransaction.getDescription());
             transaction.setAmount(updatedTransaction.getAmount());
             transaction.setCategory(updatedTransaction.getCategory());
@@ -136,10 +177,12 @@ public class TransactionController {
             transaction.setBudgetId(updatedTransaction.getBudgetId());
             transaction.setReceiptUrl(updatedTransaction.getReceiptUrl());
 
-            return ResponseEntity.ok(transactionRepository.save(transaction));
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+            Transaction updated = transactionRepository.save(transaction);
+            spentLedger.recordChange(previousBudgetId, previousSpent, updated.getBudgetId(),
+                    BudgetSpentLedger.spentBy(updated));
+            return updated;
+        });
+        return saved != null ? ResponseEntity.ok(saved) : ResponseEntity.notFound().build();
     }
 
     /**
@@ -148,12 +191,25 @@ public class TransactionController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
-        if (transactionRepository.existsById(id)) {
-            transactionRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+        Boolean deleted = transactionTemplate.execute(status -> {
+            Optional<Transaction> transaction = transactionRepository.findByIdForUpdate(id);
+            // Only the request that actually removed the row takes its amount off the budget
+            if (transaction.isEmpty() || transactionRepository.deleteByIdReturningCount(id) != 1) {
+                return false;
+            }
+            spentLedger.record(transaction.get().getBudgetId(), BudgetSpentLedger.spentBy(transaction.get()).negate());
+            // A bulk delete is not seen by AuditEventListener
+            auditLogWriter.appendAfterCommit(List.of(AuditEventListener.transactionEvent(Action.DELETE,
+                    transaction.get())));
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    // Helper to get current user's id from security context
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authService.getCurrentUser(authentication.getName()).getId();
     }
 
     /**
@@ -161,8 +217,8 @@ public class TransactionController {
      * Fetches all transactions for a specific category.
      */
     @GetMapping("/category/{category}")
-    public List<Transaction> getTransactionsByCategory(@PathVariable String category) {
-        return transactionRepository.findByCategory(category);
+    public List<TransactionView> getTransactionsByCategory(@PathVariable String category) {
+        return transactionRepository.findViewsByCategory(category);
     }
 
     /**
@@ -172,10 +228,10 @@ public class TransactionController {
      * /api/transactions/date-range?start=2024-01-01T00:00:00&end=2024-12-31T23:59:59
      */
     @GetMapping("/date-range")
-    public List<Transaction> getTransactionsByDateRange(
+    public List<TransactionView> getTransactionsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        return transactionRepository.findByTransactionDateBetween(start, end);
+        return transactionRepository.findViewsByTransactionDateBetween(start, end);
     }
 
     /**
@@ -183,8 +239,8 @@ public class TransactionController {
      * Fetches all transactions linked to a specific budget.
      */
     @GetMapping("/budget/{budgetId}")
-    public List<Transaction> getTransactionsByBudget(@PathVariable Long budgetId) {
-        return transactionRepository.findByBudgetId(budgetId);
+    public List<TransactionView> getTransactionsByBudget(@PathVariable Long budgetId) {
+        return transactionRepository.findViewsByBudgetId(budgetId);
     }
 
     /**
@@ -192,7 +248,97 @@ public class TransactionController {
      * Fetches all transactions by type (INCOME or EXPENSE).
      */
     @GetMapping("/type/{type}")
-    public List<Transaction> getTransactionsByType(@PathVariable TransactionType type) {
-        return transactionRepository.findByType(type);
+    public List<TransactionView> getTransactionsByType(@PathVariable TransactionType type) {
+        return transactionRepository.findViewsByType(type);
+    }
+
+    /**
+     * GET /api/transactions/search
+     * Searches descriptions and categories, optionally combined with date range, type and budget filters.
+     * By default every word is matched as a word prefix and results are ranked by relevance;
+     * contains=true matches the text anywhere instead (at least 3 characters).
+     * Example:
+     * /api/transactions/search?q=office 365&type=EXPENSE&start=2024-01-01T00:00:00&page=0&size=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<TransactionView>> searchTransactions(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean contains,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) Long budgetId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        // Trigram matching needs at least 3 characters to use the index
+        if (q.isBlank() || (contains && q.trim().length() < 3) || page < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        List<TransactionView> rows = transactionSearchRepository.search(
+                q, contains, start, end, type, budgetId, page, pageSize);
+        return ResponseEntity.ok(PageResponse.of(rows, page, pageSize));
+    }
+
+    /**
+     * GET /api/transactions/query
+     * Filters transactions by any combination of categories, type, budget, amount range,
+     * date range and text, compiled into a single SQL query. Omitted parameters are ignored.
+     * Sortable by transactionDate, amount, category, description, type and id.
+     * Pages starting beyond the first 10,000 rows are rejected with 400.
+     * Example:
+     * /api/transactions/query?category=Infrastructure&category=Software&minAmount=100&sort=amount,desc&page=0&size=20
+     */
+    @GetMapping("/query")
+    public ResponseEntity<PageResponse<TransactionView>> queryTransactions(
+            @RequestParam(name = "category", required = false) List<String> categories,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) Long budgetId,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String text,
+            @PageableDefault(size = 20, sort = "transactionDate", direction = Sort.Direction.DESC) Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        int pageSize = Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+        long offset = (long) pageable.getPageNumber() * pageSize;
+        if (offset > MAX_QUERY_OFFSET) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Specification<Transaction> specification = Specification.allOf(nonNull(
+                TransactionSpecifications.categoryIn(categories),
+                TransactionSpecifications.hasType(type),
+                TransactionSpecifications.hasBudget(budgetId),
+                TransactionSpecifications.amountAtLeast(minAmount),
+                TransactionSpecifications.amountAtMost(maxAmount),
+                TransactionSpecifications.dateFrom(start),
+                TransactionSpecifications.dateTo(end),
+                TransactionSpecifications.textContains(text)));
+
+        // id as the last key keeps pages stable when the sort values tie
+        Sort sort = pageable.getSort().getOrderFor("id") != null
+                ? pageable.getSort()
+                : pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id"));
+        List<TransactionView> rows = transactionQueryRepository.findViews(
+                specification, sort, offset, pageSize + 1);
+        return ResponseEntity.ok(PageResponse.of(rows, pageable.getPageNumber(), pageSize));
+    }
+
+    @SafeVarargs
+    private static List<Specification<Transaction>> nonNull(Specification<Transaction>... specifications) {
+        List<Specification<Transaction>> present = new ArrayList<>();
+        for (Specification<Transaction> specification : specifications) {
+            if (specification != null) {
+                present.add(specification);
+            }
+        }
+        return present;
     }
 }
@@ -0,0 +1,139 @@
+package com.cloudmanagement.server.dedup;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Finds transactions that were already recorded, by fingerprint.
+ *
+ * The unique (user_id, fingerprint) index is the source of truth, and inserts rely on it
+ * (ON CONFLICT DO NOTHING, or a constraint violation). In front of it each user gets an
+ * in-memory Bloom filter of their fingerprints, loaded on first use: a fingerprint the
+ * filter has never seen is new without asking the database, and only filter hits are
+ * confirmed with one query per batch. Filters miss rows inserted by other nodes, which
+ * just means those duplicates are caught by the index instead.
+ */
+@Component
+public class DuplicateDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateDetector.class);
+
+    private static final String COUNT =
+            "SELECT count(*) FROM transactions WHERE user_id = ? AND fingerprint IS NOT NULL";
+    private static final String LOAD =
+            "SELECT fingerprint FROM transactions WHERE user_id = ? AND fingerprint IS NOT NULL";
+    private static final String PROBE =
+            "SELECT fingerprint FROM transactions WHERE user_id = ? AND fingerprint = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCachedUsers;
+    private final Map<Long, FingerprintFilter> filters = new ConcurrentHashMap<>();
+    private final Counter skippedProbes;
+    private final Counter probes;
+    private final Counter duplicates;
+
+    public DuplicateDetector(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${app.dedup.max-cached-users:1000}") int maxCachedUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxCachedUsers = maxCachedUsers;
+        this.skippedProbes = meterRegistry.counter("transactions.dedup.checks", "result", "filtered");
+        this.probes = meterRegistry.counter("transactions.dedup.checks", "result", "probed");
+        this.duplicates = meterRegistry.counter("transactions.dedup.duplicates");
+        Gauge.builder("transactions.dedup.cached.users", filters, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * True if the user already has a transaction with this fingerprint.
+     */
+    public boolean exists(Long userId, UUID fingerprint) {
+        return !findExisting(userId, List.of(fingerprint)).isEmpty();
+    }
+
+    /**
+     * The fingerprints among the given ones that the user already has.
+     */
+    public Set<UUID> findExisting(Long userId, Collection<UUID> fingerprints) {
+        FingerprintFilter filter = filterFor(userId);
+        List<UUID> candidates = new ArrayList<>();
+        for (UUID fingerprint : fingerprints) {
+            if (filter.mightContain(fingerprint)) {
+                candidates.add(fingerprint);
+            }
+        }
+        skippedProbes.increment(fingerprints.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        probes.increment(candidates.size());
+        Set<UUID> existing = new HashSet<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(PROBE);
+            statement.setLong(1, userId);
+            statement.setArray(2, connection.createArrayOf("uuid", candidates.toArray()));
+            return statement;
+        }, rs -> {
+            existing.add(rs.getObject(1, UUID.class));
+        });
+        duplicates.increment(existing.size());
+        return existing;
+    }
+
+    /**
+     * Remember fingerprints that were just inserted for the user.
+     * Adding ones that end up rolled back is harmless: they only cost a probe later.
+     */
+    public void recordInserted(Long userId, Collection<UUID> fingerprints) {
+        FingerprintFilter filter = filters.get(userId);
+        if (filter == null) {
+            return;
+        }
+        fingerprints.forEach(filter::add);
+        if (filter.isSaturated()) {
+            // Rebuilt at twice the size on next use
+            filters.remove(userId, filter);
+        }
+    }
+
+    private FingerprintFilter filterFor(Long userId) {
+        FingerprintFilter filter = filters.get(userId);
+        if (filter != null) {
+            return filter;
+        }
+        if (filters.size() >= maxCachedUsers) {
+            Iterator<Long> users = filters.keySet().iterator();
+            if (users.hasNext()) {
+                users.next();
+                users.remove();
+            }
+        }
+        return filters.computeIfAbsent(userId, this::load);
+    }
+
+    private FingerprintFilter load(Long userId) {
+        Long count = jdbcTemplate.queryForObject(COUNT, Long.class, userId);
+        FingerprintFilter filter = new FingerprintFilter((int) Math.min(Integer.MAX_VALUE / 16, 2 * count + 1024));
+        jdbcTemplate.query(LOAD, rs -> {
+            filter.add(rs.getObject(1, UUID.class));
+        }, userId);
+        log.debug("Loaded {} transaction fingerprints for user {}", filter.size(), userId);
+        return filter;
+    }
+}
@@ -0,0 +1,66 @@
+package com.cloudmanagement.server.dedup;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Growable-by-rebuild Bloom filter over fingerprints, safe for concurrent use.
+ * A miss means the fingerprint was never added; a hit is only probable (about 1% false
+ * positives up to the expected count). Once more fingerprints than expected have been
+ * added the false positive rate climbs, and the owner should rebuild it larger.
+ */
+final class FingerprintFilter {
+
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ENTRY = 10;
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int expected;
+    private final AtomicInteger added = new AtomicInteger();
+
+    FingerprintFilter(int expected) {
+        this.expected = Math.max(64, expected);
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, (long) this.expected * BITS_PER_ENTRY);
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    void add(UUID fingerprint) {
+        long hi = fingerprint.getMostSignificantBits();
+        long lo = fingerprint.getLeastSignificantBits();
+        for (int k = 0; k < HASHES; k++) {
+            int bit = bitIndex(hi, lo, k);
+            long mask = 1L << bit;
+            if ((bits.get(bit >>> 6) & mask) == 0) {
+                bits.getAndAccumulate(bit >>> 6, mask, (a, b) -> a | b);
+            }
+        }
+        added.incrementAndGet();
+    }
+
+    boolean mightContain(UUID fingerprint) {
+        long hi = fingerprint.getMostSignificantBits();
+        long lo = fingerprint.getLeastSignificantBits();
+        for (int k = 0; k < HASHES; k++) {
+            int bit = bitIndex(hi, lo, k);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isSaturated() {
+        return added.get() > expected;
+    }
+
+    int size() {
+        return added.get();
+    }
+
+    // Fingerprints are already uniformly distributed hashes: use the halves directly for double hashing
+    private int bitIndex(long hi, long lo, int k) {
+        return (int) Math.floorMod(hi + k * (lo | 1), (long) bitCount);
+    }
+}
@@ -0,0 +1,68 @@
+package com.cloudmanagement.server.dedup;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.UUID;
+
+import com.cloudmanagement.server.model.Transaction;
+
+/**
+ * Fingerprint of a transaction's source line: a 128-bit name-based UUID over the owning
+ * user, the normalized description, amount, type and date (to the minute).
+ *
+ * Identical lines within one statement are legitimate (two coffees on the same day), so they
+ * are told apart by an ordinal: the n-th identical line gets ordinal n. Re-importing an
+ * overlapping statement reproduces the same ordinals and therefore the same fingerprints.
+ */
+public final class TransactionFingerprint {
+
+    private TransactionFingerprint() {
+    }
+
+    public static UUID of(Long userId, Transaction transaction, int ordinal) {
+        StringBuilder key = new StringBuilder(128)
+                .append(userId).append('|')
+                .append(normalize(transaction.getDescription())).append('|')
+                .append(normalizeAmount(transaction.getAmount())).append('|')
+                .append(transaction.getType()).append('|')
+                .append(transaction.getTransactionDate().truncatedTo(ChronoUnit.MINUTES));
+        if (ordinal > 0) {
+            key.append('#').append(ordinal);
+        }
+        return UUID.nameUUIDFromBytes(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lower-case letters and digits, with every other run of characters collapsed to one space,
+     * so "AMAZON.COM*MK1 ", "Amazon.com mk1" and "amazon com  MK1" are the same description.
+     */
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(description, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean gap = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (gap && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                gap = false;
+            } else {
+                gap = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    // 12.5, 12.50 and -12.50 are the same amount; the type carries the direction
+    static String normalizeAmount(BigDecimal amount) {
+        return amount == null ? "" : amount.abs().stripTrailingZeros().toPlainString();
+    }
+}
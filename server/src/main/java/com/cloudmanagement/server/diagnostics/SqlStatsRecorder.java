@@ -0,0 +1,93 @@
+package com.cloudmanagement.server.diagnostics;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects JDBC statement timings.
+ * Statements slower than the threshold are always logged and kept in a bounded history;
+ * the rest are logged for a random sample only, so SQL logging stays cheap under load.
+ * Both loggers are routed through an async appender (see logback-spring.xml).
+ */
+@Component
+public class SqlStatsRecorder {
+
+    private static final Logger sampledLog = LoggerFactory.getLogger("com.cloudmanagement.server.sql.sampled");
+    private static final Logger slowLog = LoggerFactory.getLogger("com.cloudmanagement.server.sql.slow");
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int historySize;
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder slowStatements = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+
+    public SqlStatsRecorder(
+            @Value("${app.sql.slow-threshold-ms:200}") long slowThresholdMs,
+            @Value("${app.sql.log-sample-rate:0.01}") double sampleRate,
+            @Value("${app.sql.slow-query-history:50}") int historySize) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.sampleRate = sampleRate;
+        this.historySize = historySize;
+    }
+
+    /**
+     * Record one executed statement.
+     */
+    public void record(String sql, long elapsedNanos) {
+        statements.increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedNanos >= slowThresholdNanos) {
+            slowStatements.increment();
+            synchronized (slowQueries) {
+                if (slowQueries.size() == historySize) {
+                    slowQueries.removeLast();
+                }
+                slowQueries.addFirst(new SlowQuery(sql, elapsedMs, Instant.now()));
+            }
+            slowLog.warn("Slow SQL ({} ms): {}", elapsedMs, sql);
+        } else if (sampleRate > 0 && sampledLog.isDebugEnabled()
+                && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sampledLog.debug("SQL ({} ms): {}", elapsedMs, sql);
+        }
+    }
+
+    /**
+     * Snapshot of the counters and the most recent slow queries (newest first).
+     */
+    public SqlStats snapshot() {
+        long count = statements.sum();
+        double meanMs = count == 0 ? 0 : totalNanos.sum() / (double) count / 1_000_000;
+        List<SlowQuery> recent;
+        synchronized (slowQueries) {
+            recent = new ArrayList<>(slowQueries);
+        }
+        return new SqlStats(count, meanMs, TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+                slowStatements.sum(), TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos), recent);
+    }
+
+    public record SlowQuery(String sql, long durationMs, Instant executedAt) {
+    }
+
+    public record SqlStats(long statements, double meanMs, long maxMs, long slowStatements,
+            long slowThresholdMs, List<SlowQuery> slowQueries) {
+    }
+}
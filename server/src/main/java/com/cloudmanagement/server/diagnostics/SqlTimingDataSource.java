@@ -0,0 +1,86 @@
+package com.cloudmanagement.server.diagnostics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource wrapper that times every statement execution and reports it to SqlStatsRecorder.
+ * Extends DelegatingDataSource so pool metrics can still unwrap the underlying HikariDataSource.
+ */
+public class SqlTimingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final SqlStatsRecorder recorder;
+
+    public SqlTimingDataSource(DataSource target, SqlStatsRecorder recorder) {
+        super(target);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /**
+     * Close the wrapped pool on shutdown, as the container would have done for the unwrapped bean.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+                        // prepareStatement/prepareCall: the SQL is the first argument
+                        return wrap(statement, method.getReturnType(), (String) args[0]);
+                    }
+                    if (result instanceof Statement statement) {
+                        return wrap(statement, method.getReturnType(), null);
+                    }
+                    return result;
+                });
+    }
+
+    private Object wrap(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    String sql = preparedSql != null ? preparedSql
+                            : args != null && args.length > 0 && args[0] instanceof String s ? s : "<batch>";
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        recorder.record(sql, System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cloudmanagement.server.diagnostics;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the application DataSource in a SqlTimingDataSource.
+ * Enabled with app.sql.stats.enabled=true (on in the prod profile).
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.sql.stats", name = "enabled", havingValue = "true")
+public class SqlTimingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatsRecorder> recorder;
+
+    public SqlTimingDataSourcePostProcessor(ObjectProvider<SqlStatsRecorder> recorder) {
+        // Resolved lazily so the recorder itself is still a fully processed bean
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SqlTimingDataSource)) {
+            return new SqlTimingDataSource(dataSource, recorder.getObject());
+        }
+        return bean;
+    }
+}
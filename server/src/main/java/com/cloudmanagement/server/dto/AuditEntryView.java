@@ -0,0 +1,20 @@
+package com.cloudmanagement.server.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+/**
+ * One audit_log row for the audit history endpoint.
+ * before and after are the stored JSON objects, passed through as-is.
+ */
+public record AuditEntryView(
+        Long id,
+        Instant occurredAt,
+        String actor,
+        String action,
+        String entityType,
+        String entityId,
+        @JsonRawValue String before,
+        @JsonRawValue String after) {
+}
@@ -6,6 +6,7 @@ package com.cloudmanagement.server.dto;
 public class AuthResponse {
 
     private String token;
+    private String refreshToken;
     private String username;
     private String email;
     private String role;
@@ -21,6 +22,11 @@ public class AuthResponse {
         this.role = role;
     }
 
+    public AuthResponse(String token, String refreshToken, String username, String email, String role) {
+        this(token, username, email, role);
+        this.refreshToken = refreshToken;
+    }
+
     // Getters and Setters
     public String getToken() {
         return token;
@@ -30,6 +36,14 @@ public class AuthResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getUsername() {
         return username;
     }
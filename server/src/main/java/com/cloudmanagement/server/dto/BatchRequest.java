@@ -0,0 +1,34 @@
+package com.cloudmanagement.server.dto;
+
+import java.util.List;
+
+import com.cloudmanagement.server.model.Budget;
+import com.cloudmanagement.server.model.Transaction;
+
+/**
+ * An ordered list of writes to apply together, all or nothing.
+ */
+public record BatchRequest(List<Operation> operations) {
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+    public enum Target {
+        TRANSACTION, BUDGET
+    }
+
+    /**
+     * One write. id is required for UPDATE and DELETE; transaction or budget (matching target)
+     * for CREATE and UPDATE, with the same fields as the single-item endpoints accept.
+     * allowDuplicate applies to transaction creates, as on POST /api/transactions.
+     */
+    public record Operation(
+            Action action,
+            Target target,
+            Long id,
+            Transaction transaction,
+            Budget budget,
+            boolean allowDuplicate) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.cloudmanagement.server.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a batch, one result per operation in request order.
+ * If any operation fails, nothing is applied: failed operations carry their own status
+ * and error, the others 424 (Failed Dependency).
+ */
+public record BatchResponse(
+        boolean applied,
+        List<Result> results) {
+
+    /**
+     * Status is what the single-item endpoint would have answered (201, 200, 204, 400, 404, 409);
+     * id is the created, updated or deleted row.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(
+            int index,
+            int status,
+            Long id,
+            String error) {
+    }
+}
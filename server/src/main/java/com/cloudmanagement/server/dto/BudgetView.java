@@ -0,0 +1,17 @@
+package com.cloudmanagement.server.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a Budget for list endpoints.
+ * Serializes to the same JSON shape as the Budget entity, including the version
+ * clients send back to update it.
+ */
+public record BudgetView(
+        Long id,
+        String name,
+        String category,
+        BigDecimal amount,
+        BigDecimal spent,
+        Long version) {
+}
@@ -0,0 +1,15 @@
+package com.cloudmanagement.server.dto;
+
+import java.math.BigDecimal;
+
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+/**
+ * Sum and count of transaction amounts in one category, per type.
+ */
+public record CategoryTotal(
+        String category,
+        TransactionType type,
+        BigDecimal total,
+        long count) {
+}
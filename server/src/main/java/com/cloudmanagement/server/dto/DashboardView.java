@@ -0,0 +1,16 @@
+package com.cloudmanagement.server.dto;
+
+import java.util.List;
+
+import com.cloudmanagement.server.service.BudgetService.BudgetSummary;
+
+/**
+ * Everything the dashboard needs on load, in one response.
+ * Each part has the same JSON shape as its own endpoint.
+ */
+public record DashboardView(
+        List<BudgetView> budgets,
+        BudgetSummary summary,
+        List<TransactionView> recentTransactions,
+        List<CategoryTotal> categoryTotals) {
+}
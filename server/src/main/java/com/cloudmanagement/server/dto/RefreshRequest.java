@@ -0,0 +1,20 @@
+package com.cloudmanagement.server.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO for refresh and logout requests carrying a refresh token.
+ */
+public class RefreshRequest {
+
+    @NotBlank
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
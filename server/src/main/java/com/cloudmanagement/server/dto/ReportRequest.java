@@ -0,0 +1,13 @@
+package com.cloudmanagement.server.dto;
+
+import java.time.YearMonth;
+
+import com.cloudmanagement.server.reports.ReportFormat;
+import com.cloudmanagement.server.reports.ReportType;
+
+/**
+ * Body of POST /api/reports. month is "yyyy-MM"; it defaults to the previous month,
+ * format to CSV.
+ */
+public record ReportRequest(ReportType type, ReportFormat format, YearMonth month) {
+}
@@ -0,0 +1,22 @@
+package com.cloudmanagement.server.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+/**
+ * Read-only projection of a Transaction for list endpoints.
+ * Built directly from the query result, so Hibernate never hydrates or snapshots the entity.
+ * Serializes to the same JSON shape as the Transaction entity.
+ */
+public record TransactionView(
+        Long id,
+        String description,
+        BigDecimal amount,
+        String category,
+        LocalDateTime transactionDate,
+        TransactionType type,
+        Long budgetId,
+        String receiptUrl) {
+}
@@ -0,0 +1,120 @@
+package com.cloudmanagement.server.graphql;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.dto.CategoryTotal;
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.repository.BudgetTransactionsRepository;
+import com.cloudmanagement.server.repository.TransactionRepository;
+import com.cloudmanagement.server.service.AuthService;
+import com.cloudmanagement.server.service.BudgetService;
+import com.cloudmanagement.server.service.BudgetService.BudgetSummary;
+
+import graphql.schema.DataFetchingEnvironment;
+import reactor.core.publisher.Mono;
+
+/**
+ * GraphQL resolvers for budgets, their transactions and summaries.
+ *
+ * Budget.transactions goes through a DataLoader: the resolvers only register their budget id,
+ * and once the level is resolved all ids are loaded with one query, so "my budgets with their
+ * last 20 transactions" is two statements however many budgets there are.
+ */
+@Controller
+public class BudgetGraphQlController {
+
+    static final String BUDGET_TRANSACTIONS = "budgetTransactions";
+
+    private final BudgetService budgetService;
+    private final TransactionRepository transactionRepository;
+    private final AuthService authService;
+
+    public BudgetGraphQlController(BudgetService budgetService, TransactionRepository transactionRepository,
+            BudgetTransactionsRepository budgetTransactionsRepository, AuthService authService,
+            BatchLoaderRegistry batchLoaderRegistry) {
+        this.budgetService = budgetService;
+        this.transactionRepository = transactionRepository;
+        this.authService = authService;
+        batchLoaderRegistry.<BudgetTransactionsKey, List<TransactionView>>forName(BUDGET_TRANSACTIONS)
+                .registerMappedBatchLoader((keys, environment) -> Mono.fromCallable(
+                        () -> loadBudgetTransactions(budgetTransactionsRepository, keys)));
+    }
+
+    @QueryMapping
+    public List<BudgetView> budgets(Principal principal) {
+        return budgetService.getAllBudgets(currentUserId(principal));
+    }
+
+    @QueryMapping
+    public BudgetView budget(@Argument Long id, Principal principal) {
+        return budgetService.getBudgetById(id, currentUserId(principal))
+                .map(b -> new BudgetView(b.getId(), b.getName(), b.getCategory(), b.getAmount(), b.getSpent(),
+                        b.getVersion()))
+                .orElse(null);
+    }
+
+    @QueryMapping
+    public BudgetSummary budgetSummary(Principal principal) {
+        return budgetService.getBudgetSummary(currentUserId(principal));
+    }
+
+    @QueryMapping
+    public List<TransactionView> recentTransactions(@Argument int limit, Principal principal) {
+        return transactionRepository.findRecentViewsByUserId(currentUserId(principal), PageRequest.of(0, clamp(limit)));
+    }
+
+    @QueryMapping
+    public List<CategoryTotal> categoryTotals(Principal principal) {
+        return transactionRepository.findCategoryTotalsByUserId(currentUserId(principal));
+    }
+
+    @SchemaMapping(typeName = "Budget")
+    public CompletableFuture<List<TransactionView>> transactions(BudgetView budget, @Argument int limit,
+            DataFetchingEnvironment environment) {
+        DataLoader<BudgetTransactionsKey, List<TransactionView>> loader =
+                environment.getDataLoader(BUDGET_TRANSACTIONS);
+        return loader.load(new BudgetTransactionsKey(budget.id(), clamp(limit)));
+    }
+
+    // One query per distinct limit in the batch; usually every budget asks for the same
+    static Map<BudgetTransactionsKey, List<TransactionView>> loadBudgetTransactions(
+            BudgetTransactionsRepository repository, Set<BudgetTransactionsKey> keys) {
+        Map<BudgetTransactionsKey, List<TransactionView>> result = new HashMap<>();
+        Map<Integer, Set<Long>> budgetIdsByLimit = keys.stream().collect(Collectors.groupingBy(
+                BudgetTransactionsKey::limit, Collectors.mapping(BudgetTransactionsKey::budgetId, Collectors.toSet())));
+        budgetIdsByLimit.forEach((limit, budgetIds) -> {
+            Map<Long, List<TransactionView>> byBudget = repository.findRecentByBudgetIds(budgetIds, limit).stream()
+                    .collect(Collectors.groupingBy(TransactionView::budgetId));
+            for (Long budgetId : budgetIds) {
+                result.put(new BudgetTransactionsKey(budgetId, limit), byBudget.getOrDefault(budgetId, List.of()));
+            }
+        });
+        return result;
+    }
+
+    private Long currentUserId(Principal principal) {
+        return authService.getCurrentUser(principal.getName()).getId();
+    }
+
+    private static int clamp(int limit) {
+        return Math.min(Math.max(limit, 1), GraphQlConfig.MAX_LIMIT);
+    }
+
+    record BudgetTransactionsKey(Long budgetId, int limit) {
+    }
+}
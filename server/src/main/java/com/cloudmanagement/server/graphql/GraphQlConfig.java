@@ -0,0 +1,52 @@
+package com.cloudmanagement.server.graphql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+
+/**
+ * GraphQL scalars and query limits.
+ *
+ * Every query is checked before it runs: deeper than max-depth, or costing more than
+ * max-complexity, and it is rejected without executing. A field costs 1 plus its selections,
+ * and fields with a limit argument cost their selections once per row they may return,
+ * so "budgets with 100 transactions each" costs far more than "budgets with 5".
+ */
+@Configuration
+public class GraphQlConfig {
+
+    /**
+     * Upper bound for every limit argument; resolvers clamp to it as well.
+     */
+    static final int MAX_LIMIT = 100;
+
+    @Bean
+    public RuntimeWiringConfigurer graphQlScalars() {
+        return wiring -> wiring.scalar(GraphQlScalars.DECIMAL).scalar(GraphQlScalars.DATE_TIME);
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${app.graphql.max-depth:6}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${app.graphql.max-complexity:2000}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, limitAwareComplexity());
+    }
+
+    static FieldComplexityCalculator limitAwareComplexity() {
+        return (environment, childComplexity) -> {
+            Object limit = environment.getArguments().get("limit");
+            int rows = limit instanceof Integer value ? Math.min(Math.max(value, 1), MAX_LIMIT) : 1;
+            return 1 + childComplexity * rows;
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.cloudmanagement.server.graphql;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+
+/**
+ * Custom scalars of the GraphQL schema, serialized the same way as in the REST endpoints.
+ */
+final class GraphQlScalars {
+
+    private GraphQlScalars() {
+    }
+
+    // Amounts as exact JSON numbers, like the REST endpoints
+    static final GraphQLScalarType DECIMAL = GraphQLScalarType.newScalar()
+            .name("Decimal")
+            .description("An exact decimal amount")
+            .coercing(new Coercing<BigDecimal, BigDecimal>() {
+                @Override
+                public BigDecimal serialize(Object value, GraphQLContext context, Locale locale) {
+                    if (value instanceof BigDecimal decimal) {
+                        return decimal;
+                    }
+                    if (value instanceof Number number) {
+                        return new BigDecimal(number.toString());
+                    }
+                    throw new CoercingSerializeException("Not a decimal: " + value);
+                }
+
+                @Override
+                public BigDecimal parseValue(Object input, GraphQLContext context, Locale locale) {
+                    try {
+                        return new BigDecimal(input.toString());
+                    } catch (NumberFormatException e) {
+                        throw new CoercingParseValueException("Not a decimal: " + input);
+                    }
+                }
+
+                @Override
+                public BigDecimal parseLiteral(Value<?> input, CoercedVariables variables, GraphQLContext context,
+                        Locale locale) {
+                    if (input instanceof FloatValue value) {
+                        return value.getValue();
+                    }
+                    if (input instanceof IntValue value) {
+                        return new BigDecimal(value.getValue());
+                    }
+                    if (input instanceof StringValue value) {
+                        try {
+                            return new BigDecimal(value.getValue());
+                        } catch (NumberFormatException e) {
+                            // fall through
+                        }
+                    }
+                    throw new CoercingParseLiteralException("Not a decimal: " + input);
+                }
+            })
+            .build();
+
+    // ISO-8601 local date-time, e.g. 2024-01-31T09:30:00, as in the REST endpoints
+    static final GraphQLScalarType DATE_TIME = GraphQLScalarType.newScalar()
+            .name("DateTime")
+            .description("An ISO-8601 local date-time")
+            .coercing(new Coercing<LocalDateTime, String>() {
+                @Override
+                public String serialize(Object value, GraphQLContext context, Locale locale) {
+                    if (value instanceof LocalDateTime dateTime) {
+                        return dateTime.toString();
+                    }
+                    throw new CoercingSerializeException("Not a date-time: " + value);
+                }
+
+                @Override
+                public LocalDateTime parseValue(Object input, GraphQLContext context, Locale locale) {
+                    try {
+                        return LocalDateTime.parse(input.toString());
+                    } catch (DateTimeParseException e) {
+                        throw new CoercingParseValueException("Not a date-time: " + input);
+                    }
+                }
+
+                @Override
+                public LocalDateTime parseLiteral(Value<?> input, CoercedVariables variables,
+                        GraphQLContext context, Locale locale) {
+                    if (input instanceof StringValue value) {
+                        try {
+                            return LocalDateTime.parse(value.getValue());
+                        } catch (DateTimeParseException e) {
+                            // fall through
+                        }
+                    }
+                    throw new CoercingParseLiteralException("Not a date-time: " + input);
+                }
+            })
+            .build();
+}
@@ -0,0 +1,177 @@
+package com.cloudmanagement.server.imports;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * ISO 20022 camt.053 (and camt.052) statements, read with a StAX cursor so only the
+ * current Ntry is ever held in memory. Each Ntry becomes one entry at its booked amount;
+ * the description comes from the unstructured remittance information, the additional
+ * entry information or the counterparty name, in that order.
+ */
+class CamtStatementParser implements StatementParser {
+
+    private static final int MAX_TEXT_LENGTH = 4096;
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    @Override
+    public void parse(InputStream in, Handler handler) throws IOException {
+        XMLStreamReader reader;
+        try {
+            reader = FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException("Unreadable camt document", e);
+        }
+        try {
+            Deque<String> path = new ArrayDeque<>();
+            StringBuilder text = new StringBuilder();
+            Entry current = null;
+            long position = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        String name = reader.getLocalName();
+                        path.push(name);
+                        text.setLength(0);
+                        if (name.equals("Ntry")) {
+                            current = new Entry();
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (current != null && text.length() < MAX_TEXT_LENGTH) {
+                            text.append(reader.getText());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        String name = path.pop();
+                        if (current == null) {
+                            break;
+                        }
+                        if (name.equals("Ntry")) {
+                            position++;
+                            StatementEntry entry;
+                            try {
+                                entry = current.toEntry();
+                            } catch (RuntimeException e) {
+                                entry = null;
+                                handler.invalid(position, e.getMessage());
+                            }
+                            if (entry != null) {
+                                handler.entry(entry);
+                            }
+                            current = null;
+                        } else {
+                            current.set(name, path, text.toString().trim());
+                        }
+                        text.setLength(0);
+                    }
+                    default -> {
+                        // comments, whitespace, processing instructions
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed camt document: " + e.getMessage(), e);
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // nothing left to release
+            }
+        }
+    }
+
+    // No DTDs or external entities: statements come from users
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    static LocalDateTime parseDate(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        try {
+            return OffsetDateTime.parse(value).toLocalDateTime();
+        } catch (RuntimeException e) {
+            return LocalDateTime.parse(value);
+        }
+    }
+
+    // Fields of one Ntry; path holds the ancestors of the element that just ended, innermost first
+    private static class Entry {
+        String amount;
+        String indicator;
+        String bookingDate;
+        String valueDate;
+        String reference;
+        String remittance;
+        String additionalInfo;
+        String creditorName;
+        String debtorName;
+
+        void set(String name, Deque<String> path, String value) {
+            if (value.isEmpty()) {
+                return;
+            }
+            String parent = path.peek();
+            switch (name) {
+                case "Amt" -> amount = "Ntry".equals(parent) ? value : amount;
+                case "CdtDbtInd" -> indicator = "Ntry".equals(parent) ? value : indicator;
+                case "Dt", "DtTm" -> {
+                    if ("BookgDt".equals(parent)) {
+                        bookingDate = value;
+                    } else if ("ValDt".equals(parent)) {
+                        valueDate = value;
+                    }
+                }
+                case "AcctSvcrRef" -> reference = "Ntry".equals(parent) ? value : reference;
+                case "Ustrd" -> remittance = remittance == null ? value : remittance;
+                case "AddtlNtryInf" -> additionalInfo = value;
+                case "Nm" -> {
+                    if (path.contains("RltdPties")) {
+                        if (path.contains("Cdtr") && creditorName == null) {
+                            creditorName = value;
+                        } else if (path.contains("Dbtr") && debtorName == null) {
+                            debtorName = value;
+                        }
+                    }
+                }
+                default -> {
+                    // not needed
+                }
+            }
+        }
+
+        StatementEntry toEntry() {
+            if (amount == null || indicator == null) {
+                throw new IllegalArgumentException("Ntry without Amt or CdtDbtInd");
+            }
+            String date = bookingDate != null ? bookingDate : valueDate;
+            if (date == null) {
+                throw new IllegalArgumentException("Ntry without BookgDt or ValDt");
+            }
+            BigDecimal value = new BigDecimal(amount);
+            boolean debit = "DBIT".equals(indicator);
+            String counterparty = debit ? creditorName : debtorName;
+            String description = remittance != null ? remittance
+                    : additionalInfo != null ? additionalInfo : counterparty;
+            return new StatementEntry(parseDate(date), debit ? value.negate() : value, description, null, reference);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.cloudmanagement.server.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * CSV statements with a header row, as exported by most online banks.
+ * Columns are found by header name; the amount is either one signed column or a pair
+ * of debit/credit columns. The delimiter (comma, semicolon or tab) is taken from the header,
+ * and quoted fields may contain delimiters, quotes ("") and line breaks.
+ */
+class CsvStatementParser implements StatementParser {
+
+    private static final Set<String> DATE = Set.of("date", "transaction date", "booking date", "posted",
+            "posting date", "value date");
+    private static final Set<String> AMOUNT = Set.of("amount", "value", "transaction amount");
+    private static final Set<String> DEBIT = Set.of("debit", "withdrawal", "withdrawals", "money out", "paid out");
+    private static final Set<String> CREDIT = Set.of("credit", "deposit", "deposits", "money in", "paid in");
+    private static final Set<String> DESCRIPTION = Set.of("description", "details", "memo", "payee", "name",
+            "narrative", "reference text");
+    private static final Set<String> CATEGORY = Set.of("category");
+    private static final Set<String> REFERENCE = Set.of("reference", "id", "transaction id", "fitid");
+
+    // Longest field accepted; anything longer is not a statement
+    private static final int MAX_FIELD_LENGTH = 16_384;
+
+    private final List<DateTimeFormatter> dateFormats;
+
+    CsvStatementParser(List<DateTimeFormatter> dateFormats) {
+        this.dateFormats = dateFormats;
+    }
+
+    @Override
+    public void parse(InputStream in, Handler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 65_536);
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        Tokenizer tokenizer = new Tokenizer(reader, detectDelimiter(reader));
+
+        List<String> header = tokenizer.next();
+        if (header == null) {
+            return;
+        }
+        Columns columns = new Columns(header);
+        List<String> row;
+        while ((row = tokenizer.next()) != null) {
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+            StatementEntry entry;
+            try {
+                entry = columns.toEntry(row);
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                handler.invalid(tokenizer.recordLine, e.getMessage());
+                continue;
+            }
+            handler.entry(entry);
+        }
+    }
+
+    // The most frequent candidate outside quotes in the first line
+    private static char detectDelimiter(BufferedReader reader) throws IOException {
+        reader.mark(MAX_FIELD_LENGTH);
+        int comma = 0;
+        int semicolon = 0;
+        int tab = 0;
+        boolean quoted = false;
+        for (int i = 0, c; i < MAX_FIELD_LENGTH - 1 && (c = reader.read()) != -1 && (quoted || c != '\n'); i++) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted) {
+                comma += c == ',' ? 1 : 0;
+                semicolon += c == ';' ? 1 : 0;
+                tab += c == '\t' ? 1 : 0;
+            }
+        }
+        reader.reset();
+        if (semicolon > comma && semicolon >= tab) {
+            return ';';
+        }
+        return tab > comma ? '\t' : ',';
+    }
+
+    /**
+     * Parse an amount such as "-1,234.56", "1.234,56", "(12.00)" or "$ 12.00".
+     * The last '.' or ',' followed by one or two digits is the decimal separator.
+     */
+    static BigDecimal parseAmount(String text) {
+        String value = text.trim();
+        boolean negative = false;
+        if (value.startsWith("(") && value.endsWith(")")) {
+            negative = true;
+            value = value.substring(1, value.length() - 1);
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        int decimal = Math.max(value.lastIndexOf('.'), value.lastIndexOf(','));
+        if (decimal >= 0 && value.length() - decimal - 1 > 2) {
+            decimal = -1;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (i == decimal) {
+                digits.append('.');
+            } else if (c == '-') {
+                negative = !negative;
+            }
+        }
+        if (digits.isEmpty() || digits.charAt(0) == '.' && digits.length() == 1) {
+            throw new IllegalArgumentException("Invalid amount: " + text);
+        }
+        BigDecimal amount = new BigDecimal(digits.toString());
+        return negative ? amount.negate() : amount;
+    }
+
+    private LocalDateTime parseDate(String text) {
+        String value = text.trim();
+        for (DateTimeFormatter format : dateFormats) {
+            try {
+                TemporalAccessor parsed = format.parseBest(value, LocalDateTime::from, LocalDate::from);
+                return parsed instanceof LocalDateTime dateTime ? dateTime : ((LocalDate) parsed).atStartOfDay();
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid date: " + text);
+    }
+
+    // Column positions resolved from the header row
+    private class Columns {
+        final int date;
+        final int amount;
+        final int debit;
+        final int credit;
+        final int description;
+        final int category;
+        final int reference;
+
+        Columns(List<String> header) throws IOException {
+            date = find(header, DATE);
+            amount = find(header, AMOUNT);
+            debit = find(header, DEBIT);
+            credit = find(header, CREDIT);
+            description = find(header, DESCRIPTION);
+            category = find(header, CATEGORY);
+            reference = find(header, REFERENCE);
+            if (date < 0 || (amount < 0 && debit < 0 && credit < 0)) {
+                throw new IOException("CSV header needs a date and an amount (or debit/credit) column: " + header);
+            }
+        }
+
+        StatementEntry toEntry(List<String> row) {
+            BigDecimal value;
+            if (amount >= 0) {
+                value = parseAmount(row.get(amount));
+            } else {
+                String out = field(row, debit);
+                String in = field(row, credit);
+                value = out != null ? parseAmount(out).abs().negate() : null;
+                if (in != null) {
+                    value = value == null ? parseAmount(in).abs() : value.add(parseAmount(in).abs());
+                }
+                if (value == null) {
+                    throw new IllegalArgumentException("No debit or credit amount");
+                }
+            }
+            return new StatementEntry(parseDate(row.get(date)), value, field(row, description),
+                    field(row, category), field(row, reference));
+        }
+
+        private static String field(List<String> row, int index) {
+            if (index < 0 || index >= row.size() || row.get(index).isBlank()) {
+                return null;
+            }
+            return row.get(index).trim();
+        }
+
+        private static int find(List<String> header, Set<String> names) {
+            for (int i = 0; i < header.size(); i++) {
+                if (names.contains(header.get(i).trim().toLowerCase(Locale.ROOT))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // RFC 4180 record reader over a character stream
+    private static class Tokenizer {
+        private final Reader reader;
+        private final char delimiter;
+        private final StringBuilder field = new StringBuilder();
+        private long line = 1;
+        // Line on which the last returned record started
+        long recordLine;
+        private boolean eof;
+
+        Tokenizer(Reader reader, char delimiter) {
+            this.reader = reader;
+            this.delimiter = delimiter;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            recordLine = line;
+            List<String> record = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    record.add(field.toString());
+                    return record;
+                } else if (c != '\r') {
+                    append((char) c);
+                }
+            }
+            eof = true;
+            if (!any) {
+                return null;
+            }
+            record.add(field.toString());
+            return record;
+        }
+
+        private void append(char c) throws IOException {
+            if (field.length() >= MAX_FIELD_LENGTH) {
+                throw new IOException("Field longer than " + MAX_FIELD_LENGTH + " characters on line " + recordLine);
+            }
+            field.append(c);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.cloudmanagement.server.imports;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cloudmanagement.server.aggregation.AmountAggregator;
+import com.cloudmanagement.server.audit.AuditEvent;
+import com.cloudmanagement.server.audit.AuditEvent.Action;
+import com.cloudmanagement.server.audit.AuditEventListener;
+import com.cloudmanagement.server.audit.AuditLogWriter;
+import com.cloudmanagement.server.dedup.DuplicateDetector;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.cloudmanagement.server.repository.ImportJobRepository;
+import com.cloudmanagement.server.service.BudgetSpentLedger;
+
+/**
+ * Writes one batch of imported transactions per database transaction: a single multi-row
+ * insert, one spent delta row per affected budget, and the job's progress. Because the progress
+ * row is the resume checkpoint, a batch is either fully imported and accounted for or not at all.
+ * Lines the user already has are dropped up front by DuplicateDetector; the unique fingerprint
+ * index (ON CONFLICT DO NOTHING) catches the rest, e.g. ones inserted concurrently elsewhere.
+ * Inserted rows are audited once the batch commits.
+ */
+@Component
+class ImportBatchWriter {
+
+    private static final String INSERT_BATCH =
+            "INSERT INTO transactions (description, amount, category, transaction_date, type, budget_id, fingerprint, "
+            + "user_id) SELECT t.*, ? FROM unnest(?::text[], ?::numeric[], ?::text[], ?::timestamp[], ?::text[], "
+            + "?::bigint[], ?::uuid[]) AS t "
+            + "ON CONFLICT (user_id, fingerprint) DO NOTHING RETURNING id, fingerprint, budget_id, amount, type";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportJobRepository importJobRepository;
+    private final DuplicateDetector duplicateDetector;
+    private final BudgetSpentLedger spentLedger;
+    private final AuditLogWriter auditLogWriter;
+
+    ImportBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ImportJobRepository importJobRepository, DuplicateDetector duplicateDetector,
+            BudgetSpentLedger spentLedger, AuditLogWriter auditLogWriter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importJobRepository = importJobRepository;
+        this.duplicateDetector = duplicateDetector;
+        this.spentLedger = spentLedger;
+        this.auditLogWriter = auditLogWriter;
+    }
+
+    /**
+     * Insert the user's batch and move the job's checkpoint forward.
+     * Throws IllegalStateException, writing nothing, if the run no longer owns the job.
+     *
+     * @return the number of transactions inserted, i.e. the batch minus duplicates
+     */
+    int write(String jobId, String runId, Long userId, List<Transaction> batch, Checkpoint checkpoint) {
+        List<Transaction> fresh = batch;
+        if (!batch.isEmpty()) {
+            Set<UUID> existing = duplicateDetector.findExisting(userId,
+                    batch.stream().map(Transaction::getFingerprint).toList());
+            if (!existing.isEmpty()) {
+                fresh = batch.stream().filter(t -> !existing.contains(t.getFingerprint())).toList();
+            }
+        }
+        List<Transaction> toInsert = fresh;
+        List<UUID> inserted = new ArrayList<>(toInsert.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            AmountAggregator<Long> budgetDeltas = new AmountAggregator<>();
+            List<AuditEvent> audit = new ArrayList<>(toInsert.size());
+            if (!toInsert.isEmpty()) {
+                insert(userId, toInsert, inserted, budgetDeltas, audit);
+            }
+            int updated = importJobRepository.recordProgress(jobId, runId, checkpoint.recordsRead(),
+                    checkpoint.bytesRead(), inserted.size(), batch.size() - inserted.size(), checkpoint.invalid(),
+                    LocalDateTime.now());
+            if (updated == 0) {
+                throw new IllegalStateException("Import " + jobId + " is no longer owned by run " + runId);
+            }
+            spentLedger.recordAll(budgetDeltas.totals());
+            auditLogWriter.appendAfterCommit(audit);
+        });
+        duplicateDetector.recordInserted(userId, inserted);
+        return inserted.size();
+    }
+
+    // Only rows actually inserted count towards budgets
+    private void insert(Long userId, List<Transaction> batch, List<UUID> inserted,
+            AmountAggregator<Long> budgetDeltas, List<AuditEvent> audit) {
+        int size = batch.size();
+        Map<UUID, Transaction> byFingerprint = new HashMap<>(size * 2);
+        Object[] descriptions = new Object[size];
+        Object[] amounts = new Object[size];
+        Object[] categories = new Object[size];
+        Object[] dates = new Object[size];
+        Object[] types = new Object[size];
+        Object[] budgetIds = new Object[size];
+        Object[] fingerprints = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = batch.get(i);
+            descriptions[i] = transaction.getDescription();
+            amounts[i] = transaction.getAmount();
+            categories[i] = transaction.getCategory();
+            dates[i] = Timestamp.valueOf(transaction.getTransactionDate());
+            types[i] = transaction.getType().name();
+            budgetIds[i] = transaction.getBudgetId();
+            fingerprints[i] = transaction.getFingerprint();
+            byFingerprint.put(transaction.getFingerprint(), transaction);
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_BATCH);
+            statement.setLong(1, userId);
+            statement.setArray(2, array(connection, "text", descriptions));
+            statement.setArray(3, array(connection, "numeric", amounts));
+            statement.setArray(4, array(connection, "text", categories));
+            statement.setArray(5, array(connection, "timestamp", dates));
+            statement.setArray(6, array(connection, "text", types));
+            statement.setArray(7, array(connection, "bigint", budgetIds));
+            statement.setArray(8, array(connection, "uuid", fingerprints));
+            return statement;
+        }, rs -> {
+            UUID fingerprint = rs.getObject("fingerprint", UUID.class);
+            inserted.add(fingerprint);
+            Transaction transaction = byFingerprint.get(fingerprint);
+            transaction.setId(rs.getLong("id"));
+            transaction.setUserId(userId);
+            audit.add(AuditEventListener.transactionEvent(Action.INSERT, transaction));
+            Long budgetId = rs.getObject("budget_id", Long.class);
+            if (budgetId != null && TransactionType.EXPENSE.name().equals(rs.getString("type"))) {
+                budgetDeltas.add(budgetId, rs.getBigDecimal("amount"));
+            }
+        });
+    }
+
+    private static Array array(Connection connection, String type, Object[] values) throws SQLException {
+        return connection.createArrayOf(type, values);
+    }
+
+    /**
+     * Job progress once the batch is committed.
+     *
+     * @param recordsRead statement records consumed so far, the resume position
+     * @param invalid     records rejected by the parser since the previous checkpoint
+     */
+    record Checkpoint(long recordsRead, long bytesRead, long invalid) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.cloudmanagement.server.imports;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * OFX statements. A single tokenizer handles both OFX 1.x (SGML, leaf elements are
+ * usually not closed) and OFX 2.x (XML): a value is the text between a tag and the next
+ * '<'. Only STMTTRN aggregates are collected; everything else is skipped as it streams by.
+ */
+class OfxStatementParser implements StatementParser {
+
+    private static final int HEADER_PEEK = 4096;
+    private static final int MAX_TOKEN_LENGTH = 4096;
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Override
+    public void parse(InputStream in, Handler handler) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 65_536);
+        Reader reader = new BufferedReader(new InputStreamReader(buffered, charset(buffered)), 65_536);
+
+        StringBuilder text = new StringBuilder();
+        String element = null;
+        Transaction current = null;
+        long position = 0;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c != '<') {
+                if (element != null && text.length() < MAX_TOKEN_LENGTH) {
+                    text.append((char) c);
+                }
+                continue;
+            }
+            if (current != null && element != null) {
+                current.set(element, decode(text.toString().trim()));
+            }
+            text.setLength(0);
+            String tag = readTag(reader);
+            element = null;
+            if (tag.isEmpty() || tag.charAt(0) == '?' || tag.charAt(0) == '!') {
+                continue;
+            }
+            if (tag.charAt(0) == '/') {
+                if (tag.equalsIgnoreCase("/STMTTRN") && current != null) {
+                    position++;
+                    StatementEntry entry;
+                    try {
+                        entry = current.toEntry();
+                    } catch (RuntimeException e) {
+                        entry = null;
+                        handler.invalid(position, e.getMessage());
+                    }
+                    if (entry != null) {
+                        handler.entry(entry);
+                    }
+                    current = null;
+                }
+            } else if (tag.equalsIgnoreCase("STMTTRN")) {
+                current = new Transaction();
+            } else {
+                element = tag.toUpperCase(Locale.ROOT);
+            }
+        }
+    }
+
+    // Tag name up to '>', without attributes
+    private static String readTag(Reader reader) throws IOException {
+        StringBuilder tag = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1 && c != '>') {
+            if (tag.length() < MAX_TOKEN_LENGTH) {
+                tag.append((char) c);
+            }
+        }
+        int space = indexOfWhitespace(tag);
+        return (space >= 0 ? tag.substring(0, space) : tag.toString()).trim();
+    }
+
+    private static int indexOfWhitespace(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // OFX 1.x declares CHARSET:1252 (or ISO-8859-1) in its plain-text header; 2.x is XML, UTF-8 by default
+    private static Charset charset(BufferedInputStream in) throws IOException {
+        in.mark(HEADER_PEEK);
+        byte[] head = in.readNBytes(HEADER_PEEK);
+        in.reset();
+        String header = new String(head, StandardCharsets.ISO_8859_1).toUpperCase(Locale.ROOT);
+        if (header.contains("CHARSET:1252")) {
+            return Charset.forName("windows-1252");
+        }
+        if (header.contains("CHARSET:ISO-8859-1") || header.contains("ENCODING=\"ISO-8859-1\"")) {
+            return StandardCharsets.ISO_8859_1;
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static String decode(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+
+    /**
+     * Parse an OFX date: YYYYMMDD[HHMMSS[.XXX]][[offset:TZ]]. The offset is ignored,
+     * transaction dates are stored as the bank's local date and time.
+     */
+    static LocalDateTime parseDate(String value) {
+        if (value == null || value.length() < 8) {
+            throw new IllegalArgumentException("Invalid DTPOSTED: " + value);
+        }
+        LocalDate date = LocalDate.parse(value.substring(0, 8), BASIC_DATE);
+        if (value.length() >= 14 && value.substring(8, 14).chars().allMatch(Character::isDigit)) {
+            return date.atTime(Integer.parseInt(value.substring(8, 10)), Integer.parseInt(value.substring(10, 12)),
+                    Integer.parseInt(value.substring(12, 14)));
+        }
+        return date.atStartOfDay();
+    }
+
+    // Fields of one STMTTRN aggregate
+    private static class Transaction {
+        String posted;
+        String amount;
+        String name;
+        String memo;
+        String fitId;
+
+        void set(String element, String value) {
+            if (value.isEmpty()) {
+                return;
+            }
+            switch (element) {
+                case "DTPOSTED" -> posted = value;
+                case "TRNAMT" -> amount = value;
+                case "NAME" -> name = name == null ? value : name;
+                case "MEMO" -> memo = value;
+                case "FITID" -> fitId = value;
+                default -> {
+                    // TRNTYPE and the rest: the sign of TRNAMT already says debit or credit
+                }
+            }
+        }
+
+        StatementEntry toEntry() {
+            if (amount == null) {
+                throw new IllegalArgumentException("STMTTRN without TRNAMT");
+            }
+            String description = name != null ? name : memo;
+            if (name != null && memo != null && !memo.equalsIgnoreCase(name)) {
+                description = name + " - " + memo;
+            }
+            return new StatementEntry(parseDate(posted), new BigDecimal(amount.replace(',', '.')),
+                    description, null, fitId);
+        }
+    }
+}
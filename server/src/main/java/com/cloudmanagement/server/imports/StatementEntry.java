@@ -0,0 +1,19 @@
+package com.cloudmanagement.server.imports;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One booked line of a bank statement, as read by a StatementParser.
+ *
+ * @param amount    signed: negative for money leaving the account
+ * @param category  category given by the statement itself, usually null
+ * @param reference the bank's id for the line (FITID, AcctSvcrRef), if any
+ */
+public record StatementEntry(
+        LocalDateTime date,
+        BigDecimal amount,
+        String description,
+        String category,
+        String reference) {
+}
@@ -0,0 +1,45 @@
+package com.cloudmanagement.server.imports;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Supported bank statement formats.
+ */
+public enum StatementFormat {
+    CSV,
+    // Open Financial Exchange, both SGML (1.x) and XML (2.x)
+    OFX,
+    // ISO 20022 camt.053 / camt.052 account statements
+    CAMT;
+
+    /**
+     * Guess the format of a stored upload from its file name, falling back to its first bytes.
+     */
+    public static StatementFormat detect(String filename, Path file) throws IOException {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ofx") || name.endsWith(".qfx")) {
+            return OFX;
+        }
+        if (name.endsWith(".csv") || name.endsWith(".txt")) {
+            return CSV;
+        }
+        byte[] head = new byte[4096];
+        int length;
+        try (InputStream in = Files.newInputStream(file)) {
+            length = in.readNBytes(head, 0, head.length);
+        }
+        String start = new String(head, 0, length, StandardCharsets.ISO_8859_1);
+        if (start.contains("OFXHEADER") || start.contains("<OFX>")) {
+            return OFX;
+        }
+        if (start.contains("camt.05") || start.contains("<BkToCstmrStmt>") || start.contains("<BkToCstmrAcctRpt>")) {
+            return CAMT;
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,319 @@
+package com.cloudmanagement.server.imports;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.cloudmanagement.server.config.ImportProperties;
+import com.cloudmanagement.server.dedup.TransactionFingerprint;
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.imports.ImportBatchWriter.Checkpoint;
+import com.cloudmanagement.server.model.ImportJob;
+import com.cloudmanagement.server.model.ImportJob.Status;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.repository.BudgetRepository;
+import com.cloudmanagement.server.repository.ImportJobRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-side bank statement imports.
+ *
+ * An upload is spooled to the storage directory and imported in the background: the file is
+ * streamed through a format-specific parser, each entry is mapped to a Transaction and
+ * collected into fixed-size batches that ImportBatchWriter commits together with the job's
+ * progress. Memory therefore depends on the batch size, not the file size. A failed or
+ * interrupted import resumes from its last committed record. Every line is fingerprinted,
+ * so lines the user already has (e.g. from an overlapping statement) are skipped.
+ */
+@Service
+@EnableConfigurationProperties(ImportProperties.class)
+public class StatementImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementImportService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ImportJobRepository importJobRepository;
+    private final BudgetRepository budgetRepository;
+    private final ImportBatchWriter writer;
+    private final ImportProperties properties;
+    private final Path storageDir;
+    private final List<DateTimeFormatter> dateFormats;
+    private final ExecutorService executor;
+    private final Counter imported;
+    private final Counter invalid;
+
+    public StatementImportService(ImportJobRepository importJobRepository, BudgetRepository budgetRepository,
+            ImportBatchWriter writer, ImportProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.importJobRepository = importJobRepository;
+        this.budgetRepository = budgetRepository;
+        this.writer = writer;
+        this.properties = properties;
+        this.storageDir = Files.createDirectories(Paths.get(properties.getStorageDir()));
+        this.dateFormats = properties.getDateFormats().stream()
+                .map(pattern -> DateTimeFormatter.ofPattern(pattern, Locale.ROOT))
+                .toList();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "statement-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.imported = meterRegistry.counter("imports.records", "outcome", "imported");
+        this.invalid = meterRegistry.counter("imports.records", "outcome", "invalid");
+    }
+
+    /**
+     * Store an upload and queue its import.
+     *
+     * @param format null to detect it from the file name and content
+     */
+    public ImportJob start(MultipartFile file, StatementFormat format, Long userId) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path path = storageDir.resolve(id);
+        file.transferTo(path);
+        StatementFormat detected = format != null ? format : StatementFormat.detect(file.getOriginalFilename(), path);
+        ImportJob job = importJobRepository.save(
+                new ImportJob(id, userId, file.getOriginalFilename(), detected, Files.size(path)));
+        executor.execute(() -> run(id));
+        return job;
+    }
+
+    /**
+     * Get one of a user's imports.
+     */
+    public Optional<ImportJob> get(String id, Long userId) {
+        return importJobRepository.findByIdAndUserId(id, userId);
+    }
+
+    /**
+     * A user's imports, newest first.
+     */
+    public List<ImportJob> getAll(Long userId) {
+        return importJobRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * Queue a queued, failed or stalled import again; it continues after its last committed record.
+     * Completed and actively running imports are left alone.
+     */
+    public Optional<ImportJob> resume(String id, Long userId) {
+        Optional<ImportJob> job = importJobRepository.findByIdAndUserId(id, userId);
+        job.filter(j -> j.getStatus() != Status.COMPLETED && Files.exists(storageDir.resolve(id)))
+                .ifPresent(j -> executor.execute(() -> run(id)));
+        return job;
+    }
+
+    // Import the stored file, unless another run owns the job
+    void run(String id) {
+        String runId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (importJobRepository.claim(id, runId, now, now.minus(properties.getStaleAfter())) == 0) {
+            log.debug("Import {} is completed or running elsewhere", id);
+            return;
+        }
+        ImportJob job = importJobRepository.findById(id).orElseThrow();
+        Path path = storageDir.resolve(id);
+        try (CountingInputStream in = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 65_536))) {
+            Run run = new Run(job, runId, mapperFor(job.getUserId()), in);
+            parser(job.getFormat()).parse(in, run);
+            run.flush();
+            importJobRepository.finish(id, runId, Status.COMPLETED.name(), null, LocalDateTime.now());
+            Files.deleteIfExists(path);
+            log.info("Import {} completed: {} records, {} imported, {} duplicates, {} invalid", id, run.position,
+                    job.getImported() + run.importedTotal, job.getDuplicates() + run.duplicatesTotal,
+                    job.getInvalid() + run.invalidTotal);
+        } catch (Exception e) {
+            log.warn("Import {} failed, resumable from its last checkpoint", id, e);
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            importJobRepository.finish(id, runId, Status.FAILED.name(),
+                    message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                    LocalDateTime.now());
+        }
+    }
+
+    private TransactionMapper mapperFor(Long userId) {
+        Map<String, Long> budgetsByCategory = new HashMap<>();
+        for (BudgetView budget : budgetRepository.findViewsByUserId(userId)) {
+            if (budget.category() != null) {
+                budgetsByCategory.putIfAbsent(budget.category().toLowerCase(Locale.ROOT), budget.id());
+            }
+        }
+        return new TransactionMapper(properties.getCategoryRules(), properties.getDefaultCategory(),
+                budgetsByCategory);
+    }
+
+    private StatementParser parser(StatementFormat format) {
+        return switch (format) {
+            case CSV -> new CsvStatementParser(dateFormats);
+            case OFX -> new OfxStatementParser();
+            case CAMT -> new CamtStatementParser();
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Running imports stop at their last checkpoint and go stale, so they can be resumed
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // One pass over a file: skips records committed by earlier runs, batches the rest
+    private class Run implements StatementParser.Handler {
+        private final ImportJob job;
+        private final String runId;
+        private final TransactionMapper mapper;
+        private final CountingInputStream in;
+        private final long resumeAfter;
+        private final List<Transaction> batch;
+        // Occurrences of each line seen so far, to number identical lines
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        // Dates whose counts were dropped from ordinals; a line on one of them could no longer be numbered
+        private final Set<LocalDate> clearedDates = new HashSet<>();
+        private LocalDate ordinalDate;
+        private boolean inDateOrder = true;
+        private long position;
+        private long invalidInBatch;
+        private long importedTotal;
+        private long duplicatesTotal;
+        private long invalidTotal;
+
+        Run(ImportJob job, String runId, TransactionMapper mapper, CountingInputStream in) {
+            this.job = job;
+            this.runId = runId;
+            this.mapper = mapper;
+            this.in = in;
+            this.resumeAfter = job.getRecordsRead();
+            this.batch = new ArrayList<>(properties.getBatchSize());
+        }
+
+        @Override
+        public void entry(StatementEntry entry) {
+            // Fingerprint even the records being skipped, so ordinals come out as in the first run
+            Transaction transaction = fingerprinted(mapper.map(entry));
+            if (++position <= resumeAfter) {
+                return;
+            }
+            batch.add(transaction);
+            if (batch.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void invalid(long line, String reason) {
+            if (++position <= resumeAfter) {
+                return;
+            }
+            log.debug("Import {}: skipping invalid record {}: {}", job.getId(), line, reason);
+            invalidInBatch++;
+        }
+
+        // While the file is in date order only the current date's lines need counting. After a date
+        // goes backwards counts are kept, and a line on an already cleared date fails the import.
+        private Transaction fingerprinted(Transaction transaction) {
+            LocalDate date = transaction.getTransactionDate().toLocalDate();
+            if (clearedDates.contains(date)) {
+                throw new IllegalStateException("Statement is not in date order: record " + (position + 1)
+                        + " is dated " + date + " after " + ordinalDate
+                        + "; sort the file by date and import it again");
+            }
+            if (ordinalDate != null && date.isBefore(ordinalDate)) {
+                inDateOrder = false;
+            }
+            if (inDateOrder && ordinalDate != null && date.isAfter(ordinalDate)) {
+                ordinals.clear();
+                clearedDates.add(ordinalDate);
+            }
+            ordinalDate = date;
+            UUID fingerprint = TransactionFingerprint.of(job.getUserId(), transaction, 0);
+            int ordinal = ordinals.merge(fingerprint, 1, Integer::sum) - 1;
+            transaction.setUserId(job.getUserId());
+            transaction.setFingerprint(ordinal == 0 ? fingerprint
+                    : TransactionFingerprint.of(job.getUserId(), transaction, ordinal));
+            return transaction;
+        }
+
+        void flush() {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Import interrupted by shutdown");
+            }
+            if (batch.isEmpty() && invalidInBatch == 0) {
+                return;
+            }
+            int inserted = writer.write(job.getId(), runId, job.getUserId(), batch,
+                    new Checkpoint(position, in.count, invalidInBatch));
+            imported.increment(inserted);
+            invalid.increment(invalidInBatch);
+            importedTotal += inserted;
+            duplicatesTotal += batch.size() - inserted;
+            invalidTotal += invalidInBatch;
+            batch.clear();
+            invalidInBatch = 0;
+        }
+    }
+
+    // Bytes consumed from the stored file, for progress reporting
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.cloudmanagement.server.imports;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming statement parser: reads the input once, front to back, and hands every record
+ * to the handler as soon as it is complete, so memory does not grow with the file size.
+ * A record that cannot be understood is reported as invalid and parsing continues; an
+ * IOException means the file as a whole is unreadable.
+ */
+interface StatementParser {
+
+    void parse(InputStream in, Handler handler) throws IOException;
+
+    /**
+     * Receives records in file order. Every record produces exactly one call.
+     */
+    interface Handler {
+
+        void entry(StatementEntry entry);
+
+        /**
+         * @param position line number (CSV) or record number (OFX, CAMT)
+         */
+        void invalid(long position, String reason);
+    }
+}
@@ -0,0 +1,64 @@
+package com.cloudmanagement.server.imports;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.cloudmanagement.server.config.ImportProperties.CategoryRule;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+/**
+ * Turns statement entries into transactions: the sign of the amount gives the type,
+ * the category comes from the statement or the first matching rule, and the transaction
+ * is linked to the importing user's budget for that category, if there is one.
+ */
+class TransactionMapper {
+
+    // Column length of description and category
+    private static final int MAX_TEXT = 255;
+
+    private final List<CompiledRule> rules;
+    private final String defaultCategory;
+    private final Map<String, Long> budgetsByCategory;
+
+    /**
+     * @param budgetsByCategory budget ids keyed by lower-case category
+     */
+    TransactionMapper(List<CategoryRule> rules, String defaultCategory, Map<String, Long> budgetsByCategory) {
+        this.rules = rules.stream()
+                .map(rule -> new CompiledRule(Pattern.compile(rule.getPattern(), Pattern.CASE_INSENSITIVE),
+                        rule.getCategory()))
+                .toList();
+        this.defaultCategory = defaultCategory;
+        this.budgetsByCategory = budgetsByCategory;
+    }
+
+    Transaction map(StatementEntry entry) {
+        TransactionType type = entry.amount().signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+        String category = truncate(entry.category() != null ? entry.category() : categorize(entry.description()));
+        Transaction transaction = new Transaction(truncate(entry.description()), entry.amount().abs(), category,
+                entry.date(), type);
+        transaction.setBudgetId(budgetsByCategory.get(category.toLowerCase(Locale.ROOT)));
+        return transaction;
+    }
+
+    String categorize(String description) {
+        if (description != null) {
+            for (CompiledRule rule : rules) {
+                if (rule.pattern().matcher(description).find()) {
+                    return rule.category();
+                }
+            }
+        }
+        return defaultCategory;
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_TEXT ? value : value.substring(0, MAX_TEXT);
+    }
+
+    private record CompiledRule(Pattern pattern, String category) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.cloudmanagement.server.jobs;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cloudmanagement.server.repository.JobLeaseRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs scheduled work once per cycle across all nodes, using leases in the job_leases table.
+ *
+ * A job is split into shards, each with its own lease. Every node triggers the job; each node
+ * takes whatever shards are free, runs them, and marks them completed for the cycle (e.g. the
+ * date of a nightly run), so every shard runs exactly once per cycle while all nodes share the work.
+ * Held leases are renewed by a heartbeat thread. If a node dies, its leases expire and a node
+ * still waiting for the cycle to finish takes the shard over. A shard that fails is released and
+ * retried with exponential backoff, by this node or any other, until the cycle's wait deadline.
+ *
+ * Shard work must be idempotent: a node that stalls past its lease can overlap with the takeover.
+ */
+@Component
+public class ClusterJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterJobRunner.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final long leaseTtlMs;
+    private final long pollIntervalMs;
+    private final long maxWaitMs;
+    private final long retryBackoffMs;
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService heartbeat;
+
+    public ClusterJobRunner(JobLeaseRepository jobLeaseRepository, MeterRegistry meterRegistry,
+            @Value("${app.jobs.node-id:}") String nodeId,
+            @Value("${app.jobs.lease-ttl-ms:60000}") long leaseTtlMs,
+            @Value("${app.jobs.heartbeat-interval-ms:20000}") long heartbeatIntervalMs,
+            @Value("${app.jobs.poll-interval-ms:10000}") long pollIntervalMs,
+            @Value("${app.jobs.max-wait-ms:3600000}") long maxWaitMs,
+            @Value("${app.jobs.retry-backoff-ms:30000}") long retryBackoffMs) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.meterRegistry = meterRegistry;
+        // Default: pid@host, unique per running instance
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.leaseTtlMs = leaseTtlMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxWaitMs = maxWaitMs;
+        this.retryBackoffMs = retryBackoffMs;
+
+        // Own thread, so heartbeats keep flowing while jobs occupy the scheduler threads
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::renewHeldLeases,
+                heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Run a task on exactly one node per cycle.
+     */
+    public void runExclusive(String job, String cycle, Runnable task) {
+        runSharded(job, 1, cycle, shard -> task.run());
+    }
+
+    /**
+     * Run shards 0..shards-1 of a job for a cycle, sharing them with the other nodes.
+     * Returns when every shard has completed for the cycle, or after max-wait-ms.
+     * Failed shards stay pending and are retried after retry-backoff-ms, doubling per failure.
+     */
+    public void runSharded(String job, int shards, String cycle, IntConsumer shardTask) {
+        long deadline = System.currentTimeMillis() + maxWaitMs;
+        List<Integer> pending = new ArrayList<>();
+        Map<Integer, Integer> failures = new HashMap<>();
+        Map<Integer, Long> retryAt = new HashMap<>();
+        // Start at a node-specific shard so nodes triggered together do not all contend for shard 0
+        int offset = Math.floorMod(nodeId.hashCode(), shards);
+        for (int i = 0; i < shards; i++) {
+            pending.add((offset + i) % shards);
+        }
+
+        while (!pending.isEmpty()) {
+            boolean ranAny = false;
+            for (Integer shard : List.copyOf(pending)) {
+                String lease = job + "#" + shard;
+                if (jobLeaseRepository.isCompleted(lease, cycle)) {
+                    pending.remove(shard);
+                } else if (System.currentTimeMillis() >= retryAt.getOrDefault(shard, 0L)
+                        && jobLeaseRepository.tryAcquire(lease, nodeId, cycle, leaseTtlMs)) {
+                    if (runShard(job, lease, shard, cycle, shardTask)) {
+                        pending.remove(shard);
+                        ranAny = true;
+                    } else {
+                        int failed = failures.merge(shard, 1, Integer::sum);
+                        long backoff = retryBackoffMs << Math.min(failed - 1, 20);
+                        retryAt.put(shard, System.currentTimeMillis() + backoff);
+                    }
+                }
+            }
+            if (pending.isEmpty() || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            if (!ranAny) {
+                // The rest is held by other nodes or backing off; wait, and take over any lease that expires
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Job {} cycle {}: shards {} not completed within {} ms", job, cycle, pending, maxWaitMs);
+        }
+    }
+
+    // false if the task failed; the lease is then released so any node can retry the shard
+    private boolean runShard(String job, String lease, int shard, String cycle, IntConsumer shardTask) {
+        held.add(lease);
+        long started = System.nanoTime();
+        try {
+            shardTask.accept(shard);
+            held.remove(lease);
+            if (jobLeaseRepository.complete(lease, nodeId, cycle)) {
+                meterRegistry.counter("jobs.shards", "job", job, "outcome", "completed").increment();
+            } else {
+                meterRegistry.counter("jobs.shards", "job", job, "outcome", "lease_lost").increment();
+                log.warn("Job {} lost its lease while running; another node may repeat it", lease);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            held.remove(lease);
+            jobLeaseRepository.release(lease, nodeId);
+            meterRegistry.counter("jobs.shards", "job", job, "outcome", "failed").increment();
+            log.error("Job {} failed on node {}", lease, nodeId, e);
+            return false;
+        } finally {
+            meterRegistry.timer("jobs.shard.duration", "job", job)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void renewHeldLeases() {
+        for (String lease : held) {
+            try {
+                if (!jobLeaseRepository.renew(lease, nodeId, leaseTtlMs)) {
+                    held.remove(lease);
+                    log.warn("Lease {} expired before renewal and was taken over", lease);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Heartbeat for lease {} failed", lease, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (String lease : held) {
+            jobLeaseRepository.release(lease, nodeId);
+        }
+    }
+}
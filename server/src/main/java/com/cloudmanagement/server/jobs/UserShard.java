@@ -0,0 +1,28 @@
+package com.cloudmanagement.server.jobs;
+
+/**
+ * One of count shards of the user id space: user ids with id % count == index.
+ * Rows without a user belong to shard 0. Shard membership never changes as users
+ * are added, so every node computes the same split.
+ */
+public record UserShard(int index, int count) {
+
+    public static final UserShard ALL = new UserShard(0, 1);
+
+    public UserShard {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+    }
+
+    public boolean contains(Long userId) {
+        return Math.floorMod(userId == null ? 0 : userId, count) == index;
+    }
+
+    /**
+     * SQL predicate selecting this shard's rows; column is a trusted column name.
+     */
+    public String predicate(String column) {
+        return count == 1 ? "TRUE" : "mod(coalesce(" + column + ", 0), " + count + ") = " + index;
+    }
+}
@@ -2,6 +2,7 @@ package com.cloudmanagement.server.model;
 
 import java.math.BigDecimal;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -10,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -32,9 +34,20 @@ public class Budget {
     // Use BigDecimal for currency to avoid floating-point errors
     private BigDecimal amount;
 
-    // Field to track amount has been spent against this budget
+    // Field to track amount has been spent against this budget.
+    // Changed only through BudgetSpentLedger deltas, so entity saves never overwrite concurrent spending
+    @Column(updatable = false)
     private BigDecimal spent;
 
+    // Optimistic lock for user edits; clients send back the version they read
+    @Version
+    private Long version;
+
+    // Number of alert thresholds crossed; written only by BudgetAlertEngine's conditional updates
+    @Column(name = "alert_level", insertable = false, updatable = false)
+    @JsonIgnore
+    private Integer alertLevel;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -95,6 +108,18 @@ public class Budget {
         this.spent = spent;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getAlertLevel() {
+        return alertLevel;
+    }
+
     public User getUser() {
         return user;
     }
@@ -0,0 +1,56 @@
+package com.cloudmanagement.server.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * JPA Entity representing a change to a budget's spent that has not been merged yet.
+ * Rows are appended and merged with plain SQL by BudgetSpentLedger.
+ */
+@Entity
+@Table(name = "budget_spent_deltas", indexes = @Index(name = "idx_budget_spent_deltas_budget", columnList = "budgetId"))
+public class BudgetSpentDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long budgetId;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal delta;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor required by JPA
+    public BudgetSpentDelta() {
+    }
+
+    // --- Getters ---
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBudgetId() {
+        return budgetId;
+    }
+
+    public BigDecimal getDelta() {
+        return delta;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
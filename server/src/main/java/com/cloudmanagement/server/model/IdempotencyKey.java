@@ -0,0 +1,87 @@
+package com.cloudmanagement.server.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * JPA Entity representing a client-supplied Idempotency-Key and the response it produced.
+ * The id is scoped to the user ("alice|3f2a..."), so clients cannot see each other's keys.
+ * Rows are written with plain SQL by IdempotencyKeyRepository; all times are database time.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expiry", columnList = "expiresAt"))
+public class IdempotencyKey {
+
+    @Id
+    @Column(length = 400)
+    private String id;
+
+    // SHA-256 of method, path and body, to reject a key reused for a different request
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    // False while the first request is still running
+    private boolean completed;
+
+    private Integer status;
+
+    private String contentType;
+
+    @Column(length = 1000)
+    private String location;
+
+    private byte[] body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Default constructor required by JPA
+    public IdempotencyKey() {
+    }
+
+    // --- Getters ---
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
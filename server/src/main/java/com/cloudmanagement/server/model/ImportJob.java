@@ -0,0 +1,167 @@
+package com.cloudmanagement.server.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.cloudmanagement.server.imports.StatementFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * JPA Entity representing one bank statement import and its progress.
+ * This maps to an 'import_jobs' table in the PostgreSQL database.
+ * While running, the job is owned by runId; recordsRead is committed together with each
+ * batch of transactions, so a failed or interrupted import resumes right after it.
+ */
+@Entity
+@Table(name = "import_jobs", indexes = @Index(name = "idx_import_jobs_user", columnList = "userId, createdAt"))
+public class ImportJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long userId;
+
+    private String filename;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private StatementFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(length = 36)
+    @JsonIgnore
+    private String runId;
+
+    private long sizeBytes;
+
+    private long bytesRead;
+
+    // Statement records (valid or not) processed and committed so far
+    private long recordsRead;
+
+    private long imported;
+
+    // Lines already imported earlier (same fingerprint), skipped
+    private long duplicates;
+
+    private long invalid;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Default constructor required by JPA
+    public ImportJob() {
+    }
+
+    public ImportJob(String id, Long userId, String filename, StatementFormat format, long sizeBytes) {
+        this.id = id;
+        this.userId = userId;
+        this.filename = filename;
+        this.format = format;
+        this.sizeBytes = sizeBytes;
+        this.status = Status.QUEUED;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+
+    /**
+     * Share of the uploaded file read so far, 0-100.
+     */
+    public int getPercentComplete() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        return sizeBytes == 0 ? 0 : (int) Math.min(99, bytesRead * 100 / sizeBytes);
+    }
+
+    // --- Getters ---
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public StatementFormat getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Lifecycle of an import; QUEUED and FAILED jobs can be (re)started.
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
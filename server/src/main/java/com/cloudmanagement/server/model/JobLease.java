@@ -0,0 +1,60 @@
+package com.cloudmanagement.server.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * JPA Entity representing a lease on one shard of a cluster job, e.g. "budget-reconciliation#3".
+ * A node owns the shard while expiresAt is in the future and keeps extending it with heartbeats;
+ * completedCycle records the last run (e.g. a date) that finished, so no other node repeats it.
+ * Rows are written with plain SQL by JobLeaseRepository; all times are database time.
+ */
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(length = 200)
+    private String name;
+
+    // Null when nobody holds the lease
+    @Column(length = 100)
+    private String owner;
+
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime heartbeatAt;
+
+    @Column(length = 64)
+    private String completedCycle;
+
+    // Default constructor required by JPA
+    public JobLease() {
+    }
+
+    // --- Getters ---
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public String getCompletedCycle() {
+        return completedCycle;
+    }
+}
@@ -0,0 +1,168 @@
+package com.cloudmanagement.server.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * JPA Entity representing a recurring transaction template.
+ * The schedule is a Spring cron expression (second minute hour day month weekday),
+ * or a macro such as @monthly. RecurringTransactionService posts a Transaction for
+ * every occurrence up to now and advances nextRunAt.
+ */
+@Entity
+@Table(name = "recurring_transactions", indexes = {
+        @Index(name = "idx_recurring_due", columnList = "active, nextRunAt"),
+        @Index(name = "idx_recurring_user", columnList = "userId") })
+public class RecurringTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String description;
+
+    // Use BigDecimal for currency to avoid floating-point errors
+    private BigDecimal amount;
+
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+
+    // Optional: Link to a budget (nullable)
+    private Long budgetId;
+
+    @Column(nullable = false, length = 100)
+    private String schedule;
+
+    @Column(nullable = false)
+    private LocalDateTime startAt;
+
+    // Optional: no occurrences after this time
+    private LocalDateTime endAt;
+
+    // Next occurrence still to be posted; null once the schedule has ended
+    private LocalDateTime nextRunAt;
+
+    private boolean active = true;
+
+    // Owner; set from the authenticated user on creation and copied onto every posting
+    @Column(updatable = false)
+    @JsonIgnore
+    private Long userId;
+
+    // Default constructor required by JPA
+    public RecurringTransaction() {
+    }
+
+    // --- Getters and Setters ---
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public Long getBudgetId() {
+        return budgetId;
+    }
+
+    public void setBudgetId(Long budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(String schedule) {
+        this.schedule = schedule;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,161 @@
+package com.cloudmanagement.server.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.cloudmanagement.server.reports.ReportFormat;
+import com.cloudmanagement.server.reports.ReportType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * JPA Entity representing one requested report and its output.
+ * This maps to a 'report_jobs' table in the PostgreSQL database.
+ * The period runs from periodStart (inclusive) to periodEnd (exclusive); a completed
+ * report can be downloaded until expiresAt, after which it is deleted.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+        @Index(name = "idx_report_jobs_user", columnList = "userId, createdAt"),
+        @Index(name = "idx_report_jobs_expiry", columnList = "expiresAt") })
+public class ReportJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ReportFormat format;
+
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private LocalDate periodEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    // Transactions read into the report
+    private long transactions;
+
+    private long sizeBytes;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime expiresAt;
+
+    // Default constructor required by JPA
+    public ReportJob() {
+    }
+
+    public ReportJob(String id, Long userId, ReportType type, ReportFormat format, LocalDate periodStart,
+            LocalDate periodEnd) {
+        this.id = id;
+        this.userId = userId;
+        this.type = type;
+        this.format = format;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.status = Status.QUEUED;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+
+    /**
+     * File name offered for download, e.g. "monthly-statement-2024-05.pdf".
+     */
+    public String getFilename() {
+        String name = type.name().toLowerCase(Locale.ROOT).replace('_', '-');
+        return name + "-" + periodStart.toString().substring(0, 7) + "." + format.getExtension();
+    }
+
+    // --- Getters ---
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public ReportFormat getFormat() {
+        return format;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Lifecycle of a report job.
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
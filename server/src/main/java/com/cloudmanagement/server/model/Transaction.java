@@ -2,21 +2,27 @@ package com.cloudmanagement.server.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * JPA Entity representing a financial Transaction.
  * This maps to a 'transactions' table in the PostgreSQL database.
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_fingerprint",
+        columnList = "userId, fingerprint", unique = true))
 public class Transaction {
 
     @Id
@@ -41,6 +47,23 @@ public class Transaction {
     // Optional: URL to receipt stored in S3
     private String receiptUrl;
 
+    // Set on transactions posted from a recurring template, e.g. "rt:12:2025-01-01T00:00";
+    // unique so an occurrence can never be posted twice
+    @Column(unique = true, length = 100, updatable = false)
+    @JsonIgnore
+    private String occurrenceKey;
+
+    // User who created or imported the transaction; null for rows from before it was recorded
+    @Column(updatable = false)
+    @JsonIgnore
+    private Long userId;
+
+    // Identity of the source line (see TransactionFingerprint), unique per user; fixed at
+    // creation, so an edited transaction still matches its statement line on re-import
+    @Column(updatable = false)
+    @JsonIgnore
+    private UUID fingerprint;
+
     // Default constructor required by JPA
     public Transaction() {
     }
@@ -121,6 +144,30 @@ public class Transaction {
         this.receiptUrl = receiptUrl;
     }
 
+    public String getOccurrenceKey() {
+        return occurrenceKey;
+    }
+
+    public void setOccurrenceKey(String occurrenceKey) {
+        this.occurrenceKey = occurrenceKey;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public UUID getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(UUID fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     /**
      * Enum to distinguish between income and expense transactions.
      */
@@ -0,0 +1,79 @@
+package com.cloudmanagement.server.reports;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 CSV (RFC 4180) reports. Tables follow each other separated by a blank line, each
+ * starting with its title and a header row.
+ */
+class CsvReportWriter implements ReportWriter {
+
+    private final Writer out;
+    private Column[] columns = new Column[0];
+    private boolean empty = true;
+
+    CsvReportWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 65_536);
+    }
+
+    @Override
+    public void title(String title, String subtitle) throws IOException {
+        line(new String[] { title });
+        line(new String[] { subtitle });
+    }
+
+    @Override
+    public void table(String title, Column... columns) throws IOException {
+        if (!empty) {
+            out.write("\r\n");
+        }
+        this.columns = new Column[0];
+        line(new String[] { title });
+        String[] names = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = columns[i].name();
+        }
+        line(names);
+        this.columns = columns;
+    }
+
+    @Override
+    public void row(String... cells) throws IOException {
+        line(cells);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void line(String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            boolean numeric = i < columns.length && columns[i].numeric();
+            out.write(escape(cells[i], numeric));
+        }
+        out.write("\r\n");
+        empty = false;
+    }
+
+    static String escape(String cell, boolean numeric) {
+        if (cell == null || cell.isEmpty()) {
+            return "";
+        }
+        // Text starting like a formula would be evaluated by spreadsheets (e.g. an imported description)
+        String value = !numeric && "=+-@\t\r".indexOf(cell.charAt(0)) >= 0 ? "'" + cell : cell;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
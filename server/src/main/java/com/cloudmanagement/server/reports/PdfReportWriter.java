@@ -0,0 +1,204 @@
+package com.cloudmanagement.server.reports;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain PDF 1.4 reports in a fixed-width font, written without a PDF library.
+ *
+ * Text is laid out in Courier on A4 pages, tables in fixed-width columns. Only the page being
+ * filled is buffered: each full page is written out as its content stream and page object, and
+ * the page tree, catalog and cross-reference table follow on close. Characters outside
+ * Latin-1 are printed as '?'.
+ */
+class PdfReportWriter implements ReportWriter {
+
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+    private static final int MARGIN = 40;
+    private static final int FONT_SIZE = 9;
+    private static final int LEADING = 12;
+    static final int LINES_PER_PAGE = (PAGE_HEIGHT - 2 * MARGIN) / LEADING;
+    // Courier glyphs are 0.6 em wide
+    static final int CHARS_PER_LINE = (int) ((PAGE_WIDTH - 2 * MARGIN) / (FONT_SIZE * 0.6));
+
+    // Fixed objects; pages are numbered from FIRST_PAGE_OBJECT on, two objects per page
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT = 3;
+    private static final int BOLD_FONT = 4;
+
+    private final OutputStream out;
+    private long position;
+    // Byte offset of every object, by object number - 1
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+    private final StringBuilder page = new StringBuilder();
+    private int linesOnPage;
+    private Column[] columns = new Column[0];
+
+    PdfReportWriter(OutputStream out) {
+        this.out = new BufferedOutputStream(out, 65_536);
+        for (int i = 0; i < BOLD_FONT; i++) {
+            offsets.add(0L);
+        }
+        try {
+            // The binary comment marks the file as binary for transfer tools
+            write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+            writeObject(FONT, "<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>");
+            writeObject(BOLD_FONT,
+                    "<< /Type /Font /Subtype /Type1 /BaseFont /Courier-Bold /Encoding /WinAnsiEncoding >>");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void title(String title, String subtitle) throws IOException {
+        line(title, true);
+        line(subtitle, false);
+    }
+
+    @Override
+    public void table(String title, Column... columns) throws IOException {
+        // Keep a table's title and header together with at least its first row
+        if (linesOnPage > 0 && linesOnPage + 5 > LINES_PER_PAGE) {
+            finishPage();
+        }
+        if (linesOnPage > 0) {
+            line("", false);
+        }
+        line(title, true);
+        String[] names = new String[columns.length];
+        int width = 0;
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = columns[i].name();
+            width += columns[i].width() + (i > 0 ? 1 : 0);
+        }
+        this.columns = columns;
+        line(format(names), true);
+        line("-".repeat(Math.min(width, CHARS_PER_LINE)), false);
+    }
+
+    @Override
+    public void row(String... cells) throws IOException {
+        line(format(cells), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (linesOnPage > 0 || pageObjects.isEmpty()) {
+            finishPage();
+        }
+        StringBuilder kids = new StringBuilder();
+        for (int pageObject : pageObjects) {
+            kids.append(pageObject).append(" 0 R ");
+        }
+        writeObject(PAGES, "<< /Type /Pages /Kids [ " + kids + "] /Count " + pageObjects.size() + " >>");
+        writeObject(CATALOG, "<< /Type /Catalog /Pages " + PAGES + " 0 R >>");
+
+        long xref = position;
+        StringBuilder table = new StringBuilder("xref\n0 ").append(offsets.size() + 1)
+                .append("\n0000000000 65535 f \n");
+        for (long offset : offsets) {
+            table.append(String.format("%010d 00000 n \n", offset));
+        }
+        table.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root ").append(CATALOG)
+                .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        write(table.toString());
+        out.close();
+    }
+
+    // Lay cells out in their columns, padded or cut to width
+    private String format(String[] cells) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < cells.length; i++) {
+            String cell = cells[i] == null ? "" : cells[i];
+            if (i >= columns.length) {
+                line.append(i > 0 ? " " : "").append(cell);
+                continue;
+            }
+            int width = columns[i].width();
+            if (cell.length() > width) {
+                cell = cell.substring(0, width);
+            }
+            String padding = " ".repeat(width - cell.length());
+            line.append(i > 0 ? " " : "").append(columns[i].numeric() ? padding + cell : cell + padding);
+        }
+        return line.toString().stripTrailing();
+    }
+
+    private void line(String text, boolean bold) throws IOException {
+        if (linesOnPage == LINES_PER_PAGE) {
+            finishPage();
+        }
+        String shown = text.length() > CHARS_PER_LINE ? text.substring(0, CHARS_PER_LINE) : text;
+        page.append(bold ? "/F2 " : "/F1 ").append(FONT_SIZE).append(" Tf (").append(escape(shown)).append(") '\n");
+        linesOnPage++;
+    }
+
+    // Write the buffered page as a content stream plus its page object
+    private void finishPage() throws IOException {
+        // ' moves down one line before showing text, so start one line above the first
+        String content = "BT\n" + LEADING + " TL\n" + MARGIN + " " + (PAGE_HEIGHT - MARGIN + LEADING - FONT_SIZE)
+                + " Td\n" + page + "ET\n";
+        byte[] bytes = content.getBytes(StandardCharsets.ISO_8859_1);
+        int contentObject = offsets.size() + 1;
+        offsets.add(0L);
+        int pageObject = offsets.size() + 1;
+        offsets.add(0L);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(bytes.length + 64);
+        stream.writeBytes(("<< /Length " + bytes.length + " >>\nstream\n").getBytes(StandardCharsets.ISO_8859_1));
+        stream.writeBytes(bytes);
+        stream.writeBytes("\nendstream".getBytes(StandardCharsets.ISO_8859_1));
+        writeObject(contentObject, stream.toByteArray());
+        writeObject(pageObject, "<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " "
+                + PAGE_HEIGHT + "] /Resources << /Font << /F1 " + FONT + " 0 R /F2 " + BOLD_FONT + " 0 R >> >> "
+                + "/Contents " + contentObject + " 0 R >>");
+        pageObjects.add(pageObject);
+        page.setLength(0);
+        linesOnPage = 0;
+    }
+
+    private void writeObject(int number, String body) throws IOException {
+        writeObject(number, body.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void writeObject(int number, byte[] body) throws IOException {
+        offsets.set(number - 1, position);
+        write(number + " 0 obj\n");
+        out.write(body);
+        position += body.length;
+        write("\nendobj\n");
+    }
+
+    private void write(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < ' ') {
+                escaped.append(' ');
+            } else if (c > '\u00ff' || (c >= '\u007f' && c < '\u00a0')) {
+                // Not in Latin-1, or a code WinAnsiEncoding maps differently
+                escaped.append('?');
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
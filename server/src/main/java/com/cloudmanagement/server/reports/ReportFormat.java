@@ -0,0 +1,25 @@
+package com.cloudmanagement.server.reports;
+
+/**
+ * Output formats of generated reports.
+ */
+public enum ReportFormat {
+    CSV("text/csv", "csv"),
+    PDF("application/pdf", "pdf");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,338 @@
+package com.cloudmanagement.server.reports;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cloudmanagement.server.aggregation.AmountAggregator;
+import com.cloudmanagement.server.aggregation.AmountAggregator.GroupTotal;
+import com.cloudmanagement.server.config.ReportProperties;
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.model.ReportJob;
+import com.cloudmanagement.server.model.ReportJob.Status;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.cloudmanagement.server.repository.BudgetRepository;
+import com.cloudmanagement.server.repository.ReportJobRepository;
+import com.cloudmanagement.server.repository.ReportTransactionRepository;
+import com.cloudmanagement.server.reports.ReportWriter.Column;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background generation of monthly statements and category reports.
+ *
+ * A submitted report is queued on a small bounded pool and its id returned at once; clients
+ * poll the job or listen on the SSE stream. A worker streams the period's transactions from a
+ * database cursor straight into the CSV or PDF writer while aggregating totals per category and
+ * budget, so memory does not grow with the number of transactions. The finished file is kept
+ * in the report store until the retention period ends.
+ *
+ * Each user may have only per-user-limit reports queued or running on a node, so one user
+ * cannot occupy every worker; beyond that, and when the queue is full, submissions are refused.
+ */
+@Service
+@EnableConfigurationProperties(ReportProperties.class)
+public class ReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String NO_CATEGORY = "(none)";
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportTransactionRepository reportTransactionRepository;
+    private final BudgetRepository budgetRepository;
+    private final SseReportNotifier notifier;
+    private final ReportProperties properties;
+    private final Path storageDir;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, Integer> activeByUser = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ReportService(ReportJobRepository reportJobRepository,
+            ReportTransactionRepository reportTransactionRepository, BudgetRepository budgetRepository,
+            SseReportNotifier notifier, ReportProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.reportJobRepository = reportJobRepository;
+        this.reportTransactionRepository = reportTransactionRepository;
+        this.budgetRepository = budgetRepository;
+        this.notifier = notifier;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.storageDir = Files.createDirectories(Paths.get(properties.getStorageDir()));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("reports.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    /**
+     * Queue a report of a user's transactions in one month.
+     *
+     * @throws UserLimitExceededException if the user already has per-user-limit reports pending
+     * @throws OverloadedException if the queue is full
+     */
+    public ReportJob submit(Long userId, ReportType type, ReportFormat format, YearMonth month) {
+        if (!acquire(userId)) {
+            throw new UserLimitExceededException();
+        }
+        String id = UUID.randomUUID().toString();
+        try {
+            ReportJob job = reportJobRepository.save(new ReportJob(id, userId, type, format,
+                    month.atDay(1), month.plusMonths(1).atDay(1)));
+            executor.execute(() -> run(job));
+            return job;
+        } catch (RejectedExecutionException e) {
+            release(userId);
+            reportJobRepository.deleteById(id);
+            throw new OverloadedException();
+        } catch (RuntimeException e) {
+            release(userId);
+            throw e;
+        }
+    }
+
+    /**
+     * Get one of a user's reports.
+     */
+    public Optional<ReportJob> get(String id, Long userId) {
+        return reportJobRepository.findByIdAndUserId(id, userId);
+    }
+
+    /**
+     * A user's reports, newest first.
+     */
+    public List<ReportJob> getAll(Long userId) {
+        return reportJobRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * The output of one of a user's completed reports, if it has not expired.
+     */
+    public Optional<Path> getFile(ReportJob job) {
+        Path path = file(job.getId(), job.getFormat());
+        return job.getStatus() == Status.COMPLETED && Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    // Generate a queued report into the store, then tell its owner
+    void run(ReportJob job) {
+        String id = job.getId();
+        Path partial = storageDir.resolve(id + ".part");
+        long started = System.nanoTime();
+        try {
+            if (reportJobRepository.start(id, LocalDateTime.now()) == 0) {
+                log.debug("Report {} is no longer queued", id);
+                return;
+            }
+            long transactions;
+            try (ReportWriter writer = ReportWriter.create(job.getFormat(), Files.newOutputStream(partial))) {
+                transactions = write(job, writer);
+            }
+            Path path = file(id, job.getFormat());
+            Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING);
+            LocalDateTime now = LocalDateTime.now();
+            if (reportJobRepository.complete(id, transactions, Files.size(path), now,
+                    now.plus(properties.getRetention())) == 0) {
+                // Failed as stale while it ran
+                Files.deleteIfExists(path);
+            }
+            meterRegistry.timer("reports.generate", "type", job.getType().name(), "outcome", "completed")
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.info("Report {} ({} {}) completed: {} transactions", id, job.getType(), job.getFormat(),
+                    transactions);
+        } catch (Exception e) {
+            log.warn("Report {} failed", id, e);
+            meterRegistry.timer("reports.generate", "type", job.getType().name(), "outcome", "failed")
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            LocalDateTime now = LocalDateTime.now();
+            reportJobRepository.fail(id, message.length() > MAX_ERROR_LENGTH
+                    ? message.substring(0, MAX_ERROR_LENGTH) : message, now, now.plus(properties.getRetention()));
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException deleteError) {
+                log.debug("Could not delete partial report {}", id, deleteError);
+            }
+        } finally {
+            release(job.getUserId());
+            reportJobRepository.findById(id).ifPresent(notifier::notify);
+        }
+    }
+
+    // Stream the period's transactions into the writer, then the totals; returns the transaction count
+    long write(ReportJob job, ReportWriter writer) throws IOException {
+        boolean statement = job.getType() == ReportType.MONTHLY_STATEMENT;
+        writer.title(statement ? "Monthly statement" : "Category report", "Period " + job.getPeriodStart()
+                + " to " + job.getPeriodEnd().minusDays(1));
+        if (statement) {
+            writer.table("Transactions", Column.text("Date", 10), Column.text("Description", 36),
+                    Column.text("Category", 16), Column.text("Type", 7), Column.number("Amount", 14));
+        }
+
+        AmountAggregator<TransactionType> byType = new AmountAggregator<>();
+        AmountAggregator<CategoryKey> byCategory = new AmountAggregator<>();
+        AmountAggregator<Long> spentByBudget = new AmountAggregator<>();
+        long transactions;
+        try {
+            transactions = reportTransactionRepository.stream(job.getUserId(), job.getPeriodStart(),
+                    job.getPeriodEnd(), properties.getFetchSize(), t -> {
+                        byType.add(t.type(), t.amount());
+                        byCategory.add(new CategoryKey(category(t), t.type()), t.amount());
+                        if (t.type() == TransactionType.EXPENSE && t.budgetId() != null) {
+                            spentByBudget.add(t.budgetId(), t.amount());
+                        }
+                        if (statement) {
+                            row(writer, t);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        BigDecimal income = byType.total(TransactionType.INCOME);
+        BigDecimal expenses = byType.total(TransactionType.EXPENSE);
+        writer.table("Summary", Column.text("", 30), Column.number("Amount", 16));
+        writer.row("Income", income.toPlainString());
+        writer.row("Expenses", expenses.toPlainString());
+        writer.row("Net", income.subtract(expenses).toPlainString());
+
+        writer.table("By category", Column.text("Category", 24), Column.text("Type", 8),
+                Column.number("Transactions", 12), Column.number("Total", 16));
+        for (Map.Entry<CategoryKey, GroupTotal> entry : byCategory.totals().entrySet()) {
+            CategoryKey key = entry.getKey();
+            writer.row(key.category(), key.type() == null ? "" : key.type().name(),
+                    Long.toString(entry.getValue().count()), entry.getValue().sum().toPlainString());
+        }
+
+        writer.table("Budgets", Column.text("Budget", 24), Column.text("Category", 16),
+                Column.number("Limit", 14), Column.number("Spent", 14), Column.number("Remaining", 14));
+        for (BudgetView budget : budgetRepository.findViewsByUserId(job.getUserId())) {
+            BigDecimal spent = spentByBudget.total(budget.id());
+            BigDecimal remaining = budget.amount() == null ? null : budget.amount().subtract(spent);
+            writer.row(budget.name(), budget.category(), plain(budget.amount()), spent.toPlainString(),
+                    plain(remaining));
+        }
+        return transactions;
+    }
+
+    private static void row(ReportWriter writer, TransactionView t) {
+        try {
+            writer.row(t.transactionDate() == null ? "" : t.transactionDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
+                    t.description(), category(t), t.type() == null ? "" : t.type().name(), plain(t.amount()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String category(TransactionView t) {
+        return t.category() == null || t.category().isBlank() ? NO_CATEGORY : t.category();
+    }
+
+    private static String plain(BigDecimal amount) {
+        return amount == null ? "" : amount.toPlainString();
+    }
+
+    /**
+     * Fail reports that were lost (e.g. their node stopped), and delete expired reports and their files.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int stale = reportJobRepository.failStale(now.minus(properties.getStaleAfter()), "Interrupted, please retry",
+                now, now.plus(properties.getRetention()));
+        if (stale > 0) {
+            log.info("Failed {} stale reports", stale);
+        }
+        List<String> expired = reportJobRepository.findExpiredIds(now);
+        for (String id : expired) {
+            for (ReportFormat format : ReportFormat.values()) {
+                try {
+                    Files.deleteIfExists(file(id, format));
+                } catch (IOException e) {
+                    log.warn("Could not delete expired report {}", id, e);
+                }
+            }
+        }
+        reportJobRepository.deleteAllByIdInBatch(expired);
+    }
+
+    private Path file(String id, ReportFormat format) {
+        return storageDir.resolve(id + "." + format.getExtension());
+    }
+
+    private boolean acquire(Long userId) {
+        boolean[] acquired = new boolean[1];
+        activeByUser.compute(userId, (id, active) -> {
+            int count = active == null ? 0 : active;
+            if (count >= properties.getPerUserLimit()) {
+                return active;
+            }
+            acquired[0] = true;
+            return count + 1;
+        });
+        return acquired[0];
+    }
+
+    private void release(Long userId) {
+        activeByUser.computeIfPresent(userId, (id, active) -> active > 1 ? active - 1 : null);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Reports still queued or running are failed as stale later and can be requested again
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private record CategoryKey(String category, TransactionType type) {
+    }
+
+    /**
+     * Thrown when a user already has the maximum number of reports pending; answer 429.
+     */
+    public static class UserLimitExceededException extends RuntimeException {
+        public UserLimitExceededException() {
+            super("Too many reports in progress, please wait for one to finish");
+        }
+    }
+
+    /**
+     * Thrown when the report queue is full; answer 503 with Retry-After.
+     */
+    public static class OverloadedException extends RuntimeException {
+        public OverloadedException() {
+            super("Report generation is temporarily overloaded, please retry");
+        }
+    }
+}
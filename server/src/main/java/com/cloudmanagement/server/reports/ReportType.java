@@ -0,0 +1,11 @@
+package com.cloudmanagement.server.reports;
+
+/**
+ * Kinds of generated reports.
+ */
+public enum ReportType {
+    // Every transaction of the period, then totals and budget usage
+    MONTHLY_STATEMENT,
+    // Totals per category and budget usage only
+    CATEGORY_REPORT
+}
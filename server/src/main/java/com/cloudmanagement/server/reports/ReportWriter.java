@@ -0,0 +1,50 @@
+package com.cloudmanagement.server.reports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a report as a title followed by tables, streaming: each row goes to the output as it
+ * is written, so a report never has to be held in memory. Closing finishes the document and
+ * closes the output.
+ */
+public interface ReportWriter extends Closeable {
+
+    /**
+     * Report heading, written once before any table.
+     */
+    void title(String title, String subtitle) throws IOException;
+
+    /**
+     * Start a table; the following rows belong to it.
+     */
+    void table(String title, Column... columns) throws IOException;
+
+    /**
+     * One row of the current table, a cell per column; null cells are written empty.
+     */
+    void row(String... cells) throws IOException;
+
+    static ReportWriter create(ReportFormat format, OutputStream out) {
+        return switch (format) {
+            case CSV -> new CsvReportWriter(out);
+            case PDF -> new PdfReportWriter(out);
+        };
+    }
+
+    /**
+     * A table column. width is in characters, for formats laid out in fixed columns;
+     * numeric columns are right-aligned there.
+     */
+    record Column(String name, int width, boolean numeric) {
+
+        public static Column text(String name, int width) {
+            return new Column(name, width, false);
+        }
+
+        public static Column number(String name, int width) {
+            return new Column(name, width, true);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.cloudmanagement.server.reports;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cloudmanagement.server.config.ReportProperties;
+import com.cloudmanagement.server.model.ReportJob;
+import com.cloudmanagement.server.sse.SseEmitterRegistry;
+
+/**
+ * Pushes finished reports to the owner's open Server-Sent Events streams (GET /api/reports/stream).
+ */
+@Component
+public class SseReportNotifier {
+
+    private final SseEmitterRegistry emitters;
+
+    public SseReportNotifier(ReportProperties properties) {
+        this.emitters = new SseEmitterRegistry(properties.getSseTimeout().toMillis());
+    }
+
+    /**
+     * Open a report stream for a user.
+     */
+    public SseEmitter subscribe(Long userId) {
+        return emitters.subscribe(userId);
+    }
+
+    /**
+     * Send a completed or failed report to its owner as a "report" event.
+     */
+    public void notify(ReportJob job) {
+        emitters.send(job.getUserId(), "report", job);
+    }
+}
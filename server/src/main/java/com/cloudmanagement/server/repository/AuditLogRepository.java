@@ -0,0 +1,74 @@
+package com.cloudmanagement.server.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cloudmanagement.server.dto.AuditEntryView;
+
+/**
+ * Reads the append-only audit_log table (written by AuditLogWriter), newest first.
+ */
+@Repository
+public class AuditLogRepository {
+
+    private static final String SELECT =
+            "SELECT id, occurred_at, actor, action, entity_type, entity_id, before_state, after_state FROM audit_log";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Entries matching every given filter (null filters are ignored), newest first.
+     * from and to bound occurred_at, which also limits the partitions scanned.
+     */
+    public List<AuditEntryView> find(Long ownerId, String entityType, String entityId, String actor,
+            Instant from, Instant to, long offset, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        String separator = " WHERE ";
+        if (ownerId != null) {
+            sql.append(separator).append("owner_id = ?");
+            args.add(ownerId);
+            separator = " AND ";
+        }
+        if (entityType != null) {
+            sql.append(separator).append("entity_type = ?");
+            args.add(entityType);
+            separator = " AND ";
+        }
+        if (entityId != null) {
+            sql.append(separator).append("entity_id = ?");
+            args.add(entityId);
+            separator = " AND ";
+        }
+        if (actor != null) {
+            sql.append(separator).append("actor = ?");
+            args.add(actor);
+            separator = " AND ";
+        }
+        if (from != null) {
+            sql.append(separator).append("occurred_at >= ?");
+            args.add(Timestamp.from(from));
+            separator = " AND ";
+        }
+        if (to != null) {
+            sql.append(separator).append("occurred_at < ?");
+            args.add(Timestamp.from(to));
+        }
+        sql.append(" ORDER BY id DESC OFFSET ? LIMIT ?");
+        args.add(offset);
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> new AuditEntryView(rs.getLong("id"),
+                rs.getTimestamp("occurred_at").toInstant(), rs.getString("actor"), rs.getString("action"),
+                rs.getString("entity_type"), rs.getString("entity_id"), rs.getString("before_state"),
+                rs.getString("after_state")), args.toArray());
+    }
+}
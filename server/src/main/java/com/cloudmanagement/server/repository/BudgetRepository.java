@@ -1,8 +1,16 @@
 package com.cloudmanagement.server.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.cloudmanagement.server.dto.BudgetView;
 import com.cloudmanagement.server.model.Budget;
 
 /**
@@ -12,4 +20,65 @@ import com.cloudmanagement.server.model.Budget;
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     // Basic CRUD operations are inherited from JpaRepository
+
+    /**
+     * Find all budgets owned by a user.
+     */
+    List<Budget> findByUserId(Long userId);
+
+    /**
+     * Find a single budget, only if it is owned by the given user.
+     */
+    Optional<Budget> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * All budgets owned by a user, as read-only projections.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.cloudmanagement.server.dto.BudgetView(b.id, b.name, b.category, b.amount, b.spent, "
+            + "b.version) FROM Budget b WHERE b.user.id = :userId")
+    List<BudgetView> findViewsByUserId(@Param("userId") Long userId);
+
+    /**
+     * A single budget as a read-only projection.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.cloudmanagement.server.dto.BudgetView(b.id, b.name, b.category, b.amount, b.spent, "
+            + "b.version) FROM Budget b WHERE b.id = :id")
+    Optional<BudgetView> findViewById(@Param("id") Long id);
+
+    /**
+     * Raise a budget's alert level, provided its current spent still reaches thresholdPercent of its
+     * amount; returns 1 only if it was lower, i.e. for exactly one caller per crossing.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE budgets SET alert_level = :level WHERE id = :id AND coalesce(alert_level, 0) < :level "
+            + "AND amount > 0 AND spent * 100 >= amount * :thresholdPercent", nativeQuery = true)
+    int raiseAlertLevel(@Param("id") Long id, @Param("level") int level,
+            @Param("thresholdPercent") int thresholdPercent);
+
+    /**
+     * Lower a budget's alert level, re-arming the thresholds above it, provided its current spent
+     * is below nextThresholdPercent (the threshold above level) of its amount.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE budgets SET alert_level = :level WHERE id = :id AND coalesce(alert_level, 0) > :level "
+            + "AND NOT coalesce(amount > 0 AND spent * 100 >= amount * :nextThresholdPercent, false)",
+            nativeQuery = true)
+    int lowerAlertLevel(@Param("id") Long id, @Param("level") int level,
+            @Param("nextThresholdPercent") int nextThresholdPercent);
+
+    /**
+     * Recompute a budget's spent from its EXPENSE transactions, net of its unmerged spent deltas,
+     * in one statement so both sums come from the same snapshot.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE budgets SET spent = "
+            + "coalesce((SELECT sum(t.amount) FROM transactions t WHERE t.budget_id = :id AND t.type = 'EXPENSE'), 0) "
+            + "- coalesce((SELECT sum(d.delta) FROM budget_spent_deltas d WHERE d.budget_id = :id), 0) "
+            + "WHERE id = :id", nativeQuery = true)
+    int recalculateSpent(@Param("id") Long id);
 }
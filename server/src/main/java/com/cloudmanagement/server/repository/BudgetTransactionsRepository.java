@@ -0,0 +1,46 @@
+package com.cloudmanagement.server.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudmanagement.server.dto.TransactionView;
+
+/**
+ * The most recent transactions of many budgets in one statement, for batched (DataLoader) reads.
+ */
+@Repository
+public class BudgetTransactionsRepository {
+
+    // Ranks each budget's transactions newest first and keeps the top :limit of every budget
+    private static final String RECENT_BY_BUDGETS =
+            "SELECT id, description, amount, category, transaction_date, type, budget_id, receipt_url FROM ("
+            + "SELECT t.*, row_number() OVER ("
+            + "PARTITION BY t.budget_id ORDER BY t.transaction_date DESC, t.id DESC) AS rn "
+            + "FROM transactions t WHERE t.budget_id IN (:budgetIds)) ranked "
+            + "WHERE rn <= :limit ORDER BY budget_id, rn";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public BudgetTransactionsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Up to limit most recent transactions of each budget, grouped by budget, newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionView> findRecentByBudgetIds(Collection<Long> budgetIds, int limit) {
+        if (budgetIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("budgetIds", budgetIds)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(RECENT_BY_BUDGETS, params, TransactionSearchRepository::mapView);
+    }
+}
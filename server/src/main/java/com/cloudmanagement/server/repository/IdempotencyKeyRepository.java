@@ -0,0 +1,90 @@
+package com.cloudmanagement.server.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Operations on the idempotency_keys table. Claiming a key is a single upsert that only
+ * succeeds if the key is new or expired, so exactly one request per key runs, across nodes.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final String CLAIM =
+            "INSERT INTO idempotency_keys (id, request_hash, completed, created_at, expires_at) "
+            + "VALUES (?, ?, false, now(), now() + ? * interval '1 millisecond') "
+            + "ON CONFLICT (id) DO UPDATE SET request_hash = EXCLUDED.request_hash, completed = false, "
+            + "status = NULL, content_type = NULL, location = NULL, body = NULL, "
+            + "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at "
+            + "WHERE idempotency_keys.expires_at < now()";
+    private static final String FIND =
+            "SELECT request_hash, completed, status, content_type, location, body, expires_at FROM idempotency_keys "
+            + "WHERE id = ? AND expires_at >= now()";
+    private static final String COMPLETE =
+            "UPDATE idempotency_keys SET completed = true, status = ?, content_type = ?, location = ?, body = ?, "
+            + "expires_at = now() + ? * interval '1 millisecond' WHERE id = ? AND NOT completed";
+    private static final String RELEASE =
+            "DELETE FROM idempotency_keys WHERE id = ? AND NOT completed";
+    private static final String DELETE_EXPIRED =
+            "DELETE FROM idempotency_keys WHERE expires_at < now()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claim a key for a request that is about to run. The claim expires after lockTtlMs,
+     * so a node that dies mid-request does not block the key until its full TTL.
+     */
+    public boolean tryClaim(String id, String requestHash, long lockTtlMs) {
+        return jdbcTemplate.update(CLAIM, id, requestHash, lockTtlMs) == 1;
+    }
+
+    /**
+     * The unexpired row for a key, completed or still running.
+     */
+    public Optional<StoredResponse> find(String id) {
+        List<StoredResponse> rows = jdbcTemplate.query(FIND, (rs, i) -> new StoredResponse(
+                rs.getString("request_hash"), rs.getBoolean("completed"), rs.getInt("status"),
+                rs.getString("content_type"), rs.getString("location"), rs.getBytes("body"),
+                rs.getTimestamp("expires_at").toInstant()), id);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Store the response of a claimed key, kept for ttlMs.
+     */
+    public void complete(String id, StoredResponse response, long ttlMs) {
+        jdbcTemplate.update(COMPLETE, response.status(), response.contentType(), response.location(),
+                response.body(), ttlMs, id);
+    }
+
+    /**
+     * Give up a claim without a response, so a retry runs the request again.
+     */
+    public void release(String id) {
+        jdbcTemplate.update(RELEASE, id);
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update(DELETE_EXPIRED);
+    }
+
+    /**
+     * A stored response; completed is false while the first request is still running.
+     * It may be replayed until expiresAt.
+     */
+    public record StoredResponse(String requestHash, boolean completed, int status, String contentType,
+            String location, byte[] body, Instant expiresAt) {
+
+        public boolean isExpired(Instant now) {
+            return expiresAt != null && !now.isBefore(expiresAt);
+        }
+    }
+}
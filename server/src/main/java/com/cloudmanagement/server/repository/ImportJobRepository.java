@@ -0,0 +1,67 @@
+package com.cloudmanagement.server.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudmanagement.server.model.ImportJob;
+
+/**
+ * Spring Data JPA Repository for the ImportJob entity.
+ * Status and progress are only changed through the conditional updates below,
+ * which all require the caller to own the current run.
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    /**
+     * Find a single import, only if it belongs to the given user.
+     */
+    Optional<ImportJob> findByIdAndUserId(String id, Long userId);
+
+    /**
+     * A user's imports, newest first.
+     */
+    List<ImportJob> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    /**
+     * Take ownership of a queued or failed job, or of a running one whose run stopped
+     * reporting progress before staleBefore. Returns 1 for exactly one caller.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET status = 'RUNNING', run_id = :runId, error = NULL, updated_at = :now "
+            + "WHERE id = :id AND (status IN ('QUEUED', 'FAILED') OR (status = 'RUNNING' AND updated_at < :staleBefore))",
+            nativeQuery = true)
+    int claim(@Param("id") String id, @Param("runId") String runId, @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Record progress; must run in the transaction that wrote the batch it accounts for.
+     * Returns 0 if the run has lost ownership of the job.
+     */
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET records_read = :recordsRead, bytes_read = :bytesRead, "
+            + "imported = imported + :imported, duplicates = duplicates + :duplicates, invalid = invalid + :invalid, "
+            + "updated_at = :now WHERE id = :id AND run_id = :runId AND status = 'RUNNING'", nativeQuery = true)
+    int recordProgress(@Param("id") String id, @Param("runId") String runId, @Param("recordsRead") long recordsRead,
+            @Param("bytesRead") long bytesRead, @Param("imported") long imported,
+            @Param("duplicates") long duplicates, @Param("invalid") long invalid, @Param("now") LocalDateTime now);
+
+    /**
+     * End a run as COMPLETED or FAILED.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE import_jobs SET status = :status, error = :error, updated_at = :now "
+            + "WHERE id = :id AND run_id = :runId AND status = 'RUNNING'", nativeQuery = true)
+    int finish(@Param("id") String id, @Param("runId") String runId, @Param("status") String status,
+            @Param("error") String error, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,68 @@
+package com.cloudmanagement.server.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lease operations on the job_leases table. Every operation is a single atomic statement
+ * evaluated against the database clock, so nodes with skewed clocks still agree.
+ */
+@Repository
+public class JobLeaseRepository {
+
+    private static final String ACQUIRE =
+            "INSERT INTO job_leases (name, owner, expires_at, heartbeat_at) "
+            + "VALUES (?, ?, now() + ? * interval '1 millisecond', now()) "
+            + "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at, "
+            + "heartbeat_at = EXCLUDED.heartbeat_at "
+            + "WHERE job_leases.completed_cycle IS DISTINCT FROM ? "
+            + "AND (job_leases.owner = EXCLUDED.owner OR job_leases.owner IS NULL OR job_leases.expires_at < now())";
+    private static final String RENEW =
+            "UPDATE job_leases SET expires_at = now() + ? * interval '1 millisecond', heartbeat_at = now() "
+            + "WHERE name = ? AND owner = ?";
+    private static final String COMPLETE =
+            "UPDATE job_leases SET completed_cycle = ?, owner = NULL, expires_at = now() WHERE name = ? AND owner = ?";
+    private static final String RELEASE =
+            "UPDATE job_leases SET owner = NULL, expires_at = now() WHERE name = ? AND owner = ?";
+    private static final String IS_COMPLETED =
+            "SELECT count(*) FROM job_leases WHERE name = ? AND completed_cycle = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobLeaseRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Take the lease unless another owner holds an unexpired one or the cycle is already completed.
+     */
+    public boolean tryAcquire(String name, String owner, String cycle, long ttlMs) {
+        return jdbcTemplate.update(ACQUIRE, name, owner, ttlMs, cycle) == 1;
+    }
+
+    /**
+     * Extend a lease this owner holds; false if it was lost (expired and taken over).
+     */
+    public boolean renew(String name, String owner, long ttlMs) {
+        return jdbcTemplate.update(RENEW, ttlMs, name, owner) == 1;
+    }
+
+    /**
+     * Mark the cycle done and release the lease; false if the lease was lost meanwhile.
+     */
+    public boolean complete(String name, String owner, String cycle) {
+        return jdbcTemplate.update(COMPLETE, cycle, name, owner) == 1;
+    }
+
+    /**
+     * Release without completing, so another node can retry right away.
+     */
+    public void release(String name, String owner) {
+        jdbcTemplate.update(RELEASE, name, owner);
+    }
+
+    public boolean isCompleted(String name, String cycle) {
+        Integer count = jdbcTemplate.queryForObject(IS_COMPLETED, Integer.class, name, cycle);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.cloudmanagement.server.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.cloudmanagement.server.model.RecurringTransaction;
+
+/**
+ * Spring Data JPA Repository for the RecurringTransaction entity.
+ * Due templates are claimed with plain JDBC in RecurringTransactionService.
+ */
+@Repository
+public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, Long> {
+
+    /**
+     * All templates owned by a user.
+     */
+    List<RecurringTransaction> findByUserId(Long userId);
+
+    /**
+     * Find a single template, only if it is owned by the given user.
+     */
+    Optional<RecurringTransaction> findByIdAndUserId(Long id, Long userId);
+}
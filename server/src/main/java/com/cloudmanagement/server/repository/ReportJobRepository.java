@@ -0,0 +1,83 @@
+package com.cloudmanagement.server.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudmanagement.server.model.ReportJob;
+
+/**
+ * Spring Data JPA Repository for the ReportJob entity.
+ * Status changes go through the conditional updates below, so a job only moves forward:
+ * QUEUED to RUNNING, and RUNNING to COMPLETED or FAILED.
+ */
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+
+    /**
+     * Find a single report, only if it belongs to the given user.
+     */
+    Optional<ReportJob> findByIdAndUserId(String id, Long userId);
+
+    /**
+     * A user's reports, newest first.
+     */
+    List<ReportJob> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    /**
+     * Move a queued job to RUNNING. Returns 1 for exactly one caller.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE report_jobs SET status = 'RUNNING', updated_at = :now "
+            + "WHERE id = :id AND status = 'QUEUED'", nativeQuery = true)
+    int start(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    /**
+     * Mark a running job COMPLETED with its output, downloadable until expiresAt.
+     * Returns 0 if the job is no longer running (e.g. it was failed as stale).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE report_jobs SET status = 'COMPLETED', transactions = :transactions, "
+            + "size_bytes = :sizeBytes, error = NULL, updated_at = :now, expires_at = :expiresAt "
+            + "WHERE id = :id AND status = 'RUNNING'", nativeQuery = true)
+    int complete(@Param("id") String id, @Param("transactions") long transactions,
+            @Param("sizeBytes") long sizeBytes, @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Mark a queued or running job FAILED; the row itself is kept until expiresAt.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE report_jobs SET status = 'FAILED', error = :error, updated_at = :now, "
+            + "expires_at = :expiresAt WHERE id = :id AND status IN ('QUEUED', 'RUNNING')", nativeQuery = true)
+    int fail(@Param("id") String id, @Param("error") String error, @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Fail queued or running jobs not touched since staleBefore, e.g. left behind by a node
+     * that stopped. Returns how many were failed.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE report_jobs SET status = 'FAILED', error = :error, updated_at = :now, "
+            + "expires_at = :expiresAt WHERE status IN ('QUEUED', 'RUNNING') AND updated_at < :staleBefore",
+            nativeQuery = true)
+    int failStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("error") String error,
+            @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Ids of finished jobs past their expiry.
+     */
+    @Query(value = "SELECT id FROM report_jobs WHERE expires_at < :now", nativeQuery = true)
+    List<String> findExpiredIds(@Param("now") LocalDateTime now);
+}
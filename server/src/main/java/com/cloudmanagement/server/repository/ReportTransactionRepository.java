@@ -0,0 +1,59 @@
+package com.cloudmanagement.server.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudmanagement.server.dto.TransactionView;
+
+/**
+ * Streams a user's transactions of a period for report generation.
+ *
+ * The rows are read through a server-side cursor, fetchSize rows at a time, and handed to the
+ * consumer one by one, so a report over a year of transactions needs no more memory than one
+ * fetch. PostgreSQL only uses a cursor inside a transaction, hence the read-only transaction.
+ */
+@Repository
+public class ReportTransactionRepository {
+
+    // Older transactions have no user_id; they belong to the user through their budget
+    private static final String USER_TRANSACTIONS =
+            "SELECT t.id, t.description, t.amount, t.category, t.transaction_date, t.type, t.budget_id, "
+            + "t.receipt_url FROM transactions t "
+            + "WHERE (t.user_id = ? OR t.budget_id IN (SELECT b.id FROM budgets b WHERE b.user_id = ?)) "
+            + "AND t.transaction_date >= ? AND t.transaction_date < ? "
+            + "ORDER BY t.transaction_date, t.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReportTransactionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Pass each of a user's transactions dated from start (inclusive) to end (exclusive) to the
+     * consumer, oldest first. Returns how many there were.
+     */
+    @Transactional(readOnly = true)
+    public long stream(Long userId, LocalDate start, LocalDate end, int fetchSize, Consumer<TransactionView> consumer) {
+        long[] count = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(USER_TRANSACTIONS);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, userId);
+            statement.setLong(2, userId);
+            statement.setTimestamp(3, Timestamp.valueOf(start.atStartOfDay()));
+            statement.setTimestamp(4, Timestamp.valueOf(end.atStartOfDay()));
+            return statement;
+        }, rs -> {
+            consumer.accept(TransactionSearchRepository.mapView(rs, (int) count[0]));
+            count[0]++;
+        });
+        return count[0];
+    }
+}
@@ -0,0 +1,56 @@
+package com.cloudmanagement.server.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.model.Transaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Runs Transaction Specifications as a single Criteria query that selects
+ * TransactionView projections directly (no entity hydration).
+ */
+@Repository
+public class TransactionQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Find projections matching the specification, sorted, starting at offset, at most limit rows.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionView> findViews(Specification<Transaction> specification, Sort sort,
+            long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionView> query = cb.createQuery(TransactionView.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        query.select(cb.construct(TransactionView.class,
+                t.get("id"), t.get("description"), t.get("amount"), t.get("category"),
+                t.get("transactionDate"), t.get("type"), t.get("budgetId"), t.get("receiptUrl")));
+
+        Predicate predicate = specification.toPredicate(t, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, t, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -2,13 +2,24 @@ package com.cloudmanagement.server.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.cloudmanagement.server.dto.CategoryTotal;
+import com.cloudmanagement.server.dto.TransactionView;
 import com.cloudmanagement.server.model.Transaction;
 import com.cloudmanagement.server.model.Transaction.TransactionType;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Spring Data JPA Repository for Transaction entity.
  * Provides CRUD operations and custom query methods.
@@ -40,4 +51,76 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      * Find all transactions ordered by date descending (most recent first).
      */
     List<Transaction> findAllByOrderByTransactionDateDesc();
+
+    /**
+     * Load a transaction and lock its row until the current transaction ends, so its amount and
+     * budget cannot change between reading them and recording the spent change they imply.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Delete a transaction; returns 0 if it was already deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    // --- Read-only projections for list endpoints ---
+
+    String VIEW_SELECT = "SELECT new com.cloudmanagement.server.dto.TransactionView("
+            + "t.id, t.description, t.amount, t.category, t.transactionDate, t.type, t.budgetId, t.receiptUrl) "
+            + "FROM Transaction t ";
+
+    /**
+     * All transactions, most recent first, as projections.
+     */
+    @Transactional(readOnly = true)
+    @Query(VIEW_SELECT + "ORDER BY t.transactionDate DESC")
+    List<TransactionView> findAllViews();
+
+    /**
+     * A user's most recent transactions, as projections; the pageable only limits the rows.
+     */
+    @Transactional(readOnly = true)
+    @Query(VIEW_SELECT + "WHERE t.userId = :userId ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionView> findRecentViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Transactions in a category, as projections.
+     */
+    @Transactional(readOnly = true)
+    @Query(VIEW_SELECT + "WHERE t.category = :category")
+    List<TransactionView> findViewsByCategory(@Param("category") String category);
+
+    /**
+     * Transactions within a date range, as projections.
+     */
+    @Transactional(readOnly = true)
+    @Query(VIEW_SELECT + "WHERE t.transactionDate BETWEEN :start AND :end")
+    List<TransactionView> findViewsByTransactionDateBetween(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Transactions linked to a budget, as projections.
+     */
+    @Transactional(readOnly = true)
+    @Query(VIEW_SELECT + "WHERE t.budgetId = :budgetId")
+    List<TransactionView> findViewsByBudgetId(@Param("budgetId") Long budgetId);
+
+    /**
+     * Transactions of a type, as projections.
+     */
+    @Transactional(readOnly = true)
+    @Query(VIEW_SELECT + "WHERE t.type = :type")
+    List<TransactionView> findViewsByType(@Param("type") TransactionType type);
+
+    /**
+     * Sum and count of a user's amounts per category and type, summed by the database.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.cloudmanagement.server.dto.CategoryTotal(t.category, t.type, SUM(t.amount), COUNT(t)) "
+            + "FROM Transaction t WHERE t.userId = :userId GROUP BY t.category, t.type ORDER BY t.category, t.type")
+    List<CategoryTotal> findCategoryTotalsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,123 @@
+package com.cloudmanagement.server.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+/**
+ * Text search over transaction descriptions and categories.
+ *
+ * Two PostgreSQL index-backed modes (indexes are created by db/migration/V2):
+ * - words: full-text prefix match against to_tsvector('simple', description || category), GIN index,
+ *   e.g. "offi 365" finds "Office 365 Subscription"; results ranked by relevance
+ * - contains: substring match (ILIKE) accelerated by a pg_trgm GIN index, e.g. "ffice 36"
+ */
+@Repository
+public class TransactionSearchRepository {
+
+    // Must match the indexed expressions in db/migration/V2 exactly, or the indexes are not used
+    static final String SEARCH_TEXT = "(coalesce(t.description, '') || ' ' || coalesce(t.category, ''))";
+    static final String SEARCH_VECTOR = "to_tsvector('simple', " + SEARCH_TEXT + ")";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TransactionSearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Search transactions; filters are optional (null = not applied).
+     * Fetches size + 1 rows so the caller can tell whether there is a next page.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionView> search(String text, boolean contains, LocalDateTime start, LocalDateTime end,
+            TransactionType type, Long budgetId, int page, int size) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> where = new ArrayList<>();
+        String orderBy;
+
+        if (contains) {
+            where.add(SEARCH_TEXT + " ILIKE :pattern");
+            params.addValue("pattern", "%" + escapeLike(text.trim()) + "%");
+            orderBy = "t.transaction_date DESC, t.id DESC";
+        } else {
+            String query = toPrefixQuery(text);
+            if (query.isEmpty()) {
+                return List.of();
+            }
+            where.add(SEARCH_VECTOR + " @@ to_tsquery('simple', :query)");
+            params.addValue("query", query);
+            orderBy = "ts_rank(" + SEARCH_VECTOR + ", to_tsquery('simple', :query)) DESC, t.transaction_date DESC, t.id DESC";
+        }
+
+        if (start != null) {
+            where.add("t.transaction_date >= :start");
+            params.addValue("start", Timestamp.valueOf(start));
+        }
+        if (end != null) {
+            where.add("t.transaction_date <= :end");
+            params.addValue("end", Timestamp.valueOf(end));
+        }
+        if (type != null) {
+            where.add("t.type = :type");
+            params.addValue("type", type.name());
+        }
+        if (budgetId != null) {
+            where.add("t.budget_id = :budgetId");
+            params.addValue("budgetId", budgetId);
+        }
+        params.addValue("limit", size + 1);
+        params.addValue("offset", (long) page * size);
+
+        String sql = "SELECT t.id, t.description, t.amount, t.category, t.transaction_date, t.type, "
+                + "t.budget_id, t.receipt_url FROM transactions t WHERE "
+                + String.join(" AND ", where)
+                + " ORDER BY " + orderBy
+                + " LIMIT :limit OFFSET :offset";
+
+        return jdbcTemplate.query(sql, params, TransactionSearchRepository::mapView);
+    }
+
+    /**
+     * Turn free text into a tsquery where every word is a required prefix: "aws ec2" -> "aws:* & ec2:*".
+     * Only letters and digits are kept, so user input can never break the tsquery syntax.
+     */
+    static String toPrefixQuery(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add(word + ":*");
+            }
+        }
+        return String.join(" & ", terms);
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    static TransactionView mapView(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp date = rs.getTimestamp("transaction_date");
+        String type = rs.getString("type");
+        return new TransactionView(
+                rs.getLong("id"),
+                rs.getString("description"),
+                rs.getBigDecimal("amount"),
+                rs.getString("category"),
+                date != null ? date.toLocalDateTime() : null,
+                type != null ? TransactionType.valueOf(type) : null,
+                rs.getObject("budget_id", Long.class),
+                rs.getString("receipt_url"));
+    }
+}
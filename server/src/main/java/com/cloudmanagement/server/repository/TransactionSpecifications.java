@@ -0,0 +1,66 @@
+package com.cloudmanagement.server.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+/**
+ * Composable filters for Transaction queries.
+ * Every factory returns null for an absent parameter, and null specifications are
+ * ignored when combined, so callers can pass request parameters straight through.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> categoryIn(Collection<String> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return null;
+        }
+        return (t, query, cb) -> t.get("category").in(categories);
+    }
+
+    public static Specification<Transaction> hasType(TransactionType type) {
+        return type == null ? null : (t, query, cb) -> cb.equal(t.get("type"), type);
+    }
+
+    public static Specification<Transaction> hasBudget(Long budgetId) {
+        return budgetId == null ? null : (t, query, cb) -> cb.equal(t.get("budgetId"), budgetId);
+    }
+
+    public static Specification<Transaction> amountAtLeast(BigDecimal min) {
+        return min == null ? null : (t, query, cb) -> cb.greaterThanOrEqualTo(t.get("amount"), min);
+    }
+
+    public static Specification<Transaction> amountAtMost(BigDecimal max) {
+        return max == null ? null : (t, query, cb) -> cb.lessThanOrEqualTo(t.get("amount"), max);
+    }
+
+    public static Specification<Transaction> dateFrom(LocalDateTime start) {
+        return start == null ? null : (t, query, cb) -> cb.greaterThanOrEqualTo(t.get("transactionDate"), start);
+    }
+
+    public static Specification<Transaction> dateTo(LocalDateTime end) {
+        return end == null ? null : (t, query, cb) -> cb.lessThanOrEqualTo(t.get("transactionDate"), end);
+    }
+
+    /**
+     * Case-insensitive substring match on description or category.
+     * Backed by the lower(...) trigram indexes in db/migration/V2.
+     */
+    public static Specification<Transaction> textContains(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + TransactionSearchRepository.escapeLike(text.trim().toLowerCase()) + "%";
+        return (t, query, cb) -> cb.or(
+                cb.like(cb.lower(t.get("description")), pattern, '\\'),
+                cb.like(cb.lower(t.get("category")), pattern, '\\'));
+    }
+}
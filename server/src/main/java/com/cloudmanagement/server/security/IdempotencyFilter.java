@@ -0,0 +1,409 @@
+package com.cloudmanagement.server.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.cloudmanagement.server.repository.IdempotencyKeyRepository;
+import com.cloudmanagement.server.repository.IdempotencyKeyRepository.StoredResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+
+/**
+ * Idempotency Key Filter.
+ * Runs after authentication; a mutating request (POST, PUT, PATCH, DELETE) carrying an
+ * Idempotency-Key header is executed at most once per user and key. Its response (anything
+ * but a 5xx) is stored in the idempotency_keys table for the TTL and replayed to retries,
+ * marked with Idempotent-Replayed: true. Recent responses are also kept in an in-memory LRU
+ * until they expire, so most retries never reach the database.
+ *
+ * A retry arriving while the first request still runs waits for it: on this node on the
+ * first request's future, on other nodes by polling the table. A key reused with a different
+ * request is rejected with 422. Requests that go async are not stored.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final IdempotencyKeyRepository repository;
+    private final boolean enabled;
+    private final long ttlMs;
+    private final long lockTtlMs;
+    private final long waitMs;
+    private final int maxCachedBodyBytes;
+    private final Map<String, StoredResponse> cache;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    public IdempotencyFilter(IdempotencyKeyRepository repository, MeterRegistry meterRegistry,
+            @Value("${app.idempotency.enabled:true}") boolean enabled,
+            @Value("${app.idempotency.ttl-ms:86400000}") long ttlMs,
+            @Value("${app.idempotency.lock-ttl-ms:60000}") long lockTtlMs,
+            @Value("${app.idempotency.wait-ms:10000}") long waitMs,
+            @Value("${app.idempotency.cache-size:10000}") int cacheSize,
+            @Value("${app.idempotency.max-cached-body-bytes:65536}") int maxCachedBodyBytes) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.lockTtlMs = lockTtlMs;
+        this.waitMs = waitMs;
+        this.maxCachedBodyBytes = maxCachedBodyBytes;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.executed = meterRegistry.counter("http.idempotency.requests", "outcome", "executed");
+        this.replayed = meterRegistry.counter("http.idempotency.requests", "outcome", "replayed");
+        this.rejected = meterRegistry.counter("http.idempotency.requests", "outcome", "rejected");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !METHODS.contains(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            // Keys are scoped per user; unauthenticated endpoints (login, register) run as usual
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        BufferedRequest buffered = new BufferedRequest(request);
+        String requestHash = buffered.hash();
+        String id = authentication.getName() + '|' + key;
+
+        // A waiter whose first request ended without a stored response runs the request itself
+        for (int attempt = 0; attempt < 3; attempt++) {
+            StoredResponse cached;
+            synchronized (cache) {
+                cached = cache.get(id);
+                if (cached != null && cached.isExpired(Instant.now())) {
+                    cache.remove(id);
+                    cached = null;
+                }
+            }
+            if (cached != null) {
+                replay(cached, requestHash, response);
+                return;
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+            if (running != null) {
+                StoredResponse result;
+                try {
+                    result = running.get(waitMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    conflict(response);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    conflict(response);
+                    return;
+                } catch (ExecutionException e) {
+                    result = null;
+                }
+                if (result != null) {
+                    replay(result, requestHash, response);
+                    return;
+                }
+                continue;
+            }
+
+            StoredResponse result = null;
+            try {
+                result = executeOnce(id, requestHash, buffered, response, filterChain);
+                return;
+            } finally {
+                inFlight.remove(id, mine);
+                mine.complete(result);
+            }
+        }
+        conflict(response);
+    }
+
+    // Run the request if this node wins the key's claim, else wait for the node that did
+    private StoredResponse executeOnce(String id, String requestHash, BufferedRequest request,
+            HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!repository.tryClaim(id, requestHash, lockTtlMs)) {
+            Optional<StoredResponse> stored = awaitStored(id);
+            if (stored.isPresent()) {
+                remember(id, stored.get());
+                replay(stored.get(), requestHash, response);
+                return stored.get();
+            }
+            conflict(response);
+            return null;
+        }
+
+        executed.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (request.isAsyncStarted() || wrapper.getStatus() >= 500) {
+                return null;
+            }
+            StoredResponse result = new StoredResponse(requestHash, true, wrapper.getStatus(),
+                    wrapper.getContentType(), wrapper.getHeader("Location"), wrapper.getContentAsByteArray(),
+                    Instant.now().plusMillis(ttlMs));
+            repository.complete(id, result, ttlMs);
+            completed = true;
+            remember(id, result);
+            return result;
+        } finally {
+            if (!completed) {
+                repository.release(id);
+            }
+            if (!request.isAsyncStarted()) {
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    // Poll until another node's request completes, its claim expires, or we give up
+    private Optional<StoredResponse> awaitStored(String id) throws IOException {
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (true) {
+            Optional<StoredResponse> stored = repository.find(id);
+            if (stored.isEmpty() || stored.get().completed()) {
+                return stored;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return Optional.empty();
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+    }
+
+    private void remember(String id, StoredResponse stored) {
+        if (stored.body() == null || stored.body().length <= maxCachedBodyBytes) {
+            synchronized (cache) {
+                cache.put(id, stored);
+            }
+        }
+    }
+
+    private void replay(StoredResponse stored, String requestHash, HttpServletResponse response) throws IOException {
+        if (!stored.requestHash().equals(requestHash)) {
+            rejected.increment();
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+            return;
+        }
+        replayed.increment();
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader("Location", stored.location());
+        }
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void conflict(HttpServletResponse response) throws IOException {
+        rejected.increment();
+        response.setHeader("Retry-After", "1");
+        writeError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+
+    /**
+     * Remove expired keys and their responses, from the table and the cache.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        synchronized (cache) {
+            cache.values().removeIf(stored -> stored.isExpired(now));
+        }
+        repository.deleteExpired();
+    }
+
+    /**
+     * Request with its body read up front, so it can be hashed and still be read by the controller.
+     * Multipart bodies (file uploads) are not buffered; each part's name, filename, size and
+     * content are hashed from the container's parsed parts instead.
+     */
+    private static class BufferedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private final Collection<Part> parts;
+
+        BufferedRequest(HttpServletRequest request) throws IOException, ServletException {
+            super(request);
+            String contentType = request.getContentType();
+            boolean multipart = contentType != null && contentType.toLowerCase().startsWith("multipart/");
+            this.body = multipart ? null : request.getInputStream().readAllBytes();
+            this.parts = multipart ? request.getParts() : null;
+        }
+
+        String hash() throws IOException {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(getMethod().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ' ');
+                digest.update(getRequestURI().getBytes(StandardCharsets.UTF_8));
+                if (getQueryString() != null) {
+                    digest.update((byte) '?');
+                    digest.update(getQueryString().getBytes(StandardCharsets.UTF_8));
+                }
+                if (body != null) {
+                    digest.update((byte) '\n');
+                    digest.update(body);
+                }
+                if (parts != null) {
+                    for (Part part : parts) {
+                        hashPart(digest, part);
+                    }
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        // The size delimits the content, so two parts can never hash like one
+        private static void hashPart(MessageDigest digest, Part part) throws IOException {
+            String filename = part.getSubmittedFileName();
+            digest.update(("\n" + part.getName() + '\0' + (filename != null ? filename : "") + '\0' + part.getSize()
+                    + '\n').getBytes(StandardCharsets.UTF_8));
+            byte[] buffer = new byte[8192];
+            try (InputStream in = part.getInputStream()) {
+                for (int read; (read = in.read(buffer)) != -1;) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (body == null) {
+                return super.getInputStream();
+            }
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once and never blocks
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (body == null) {
+                return super.getReader();
+            }
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.cloudmanagement.server.security;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
@@ -27,7 +28,8 @@ public class JwtUtil {
     @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
     private String secret;
 
-    @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
+    // Access tokens are short-lived; clients renew them with a refresh token
+    @Value("${jwt.expiration:900000}") // 15 minutes in milliseconds
     private Long expiration;
 
     /**
@@ -54,8 +56,9 @@ public class JwtUtil {
 
     /**
      * Extract all claims from token.
+     * Verifies the signature and rejects expired tokens; parse once and reuse the result on hot paths.
      */
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
         return Jwts.parser()
                 .verifyWith(getSignKey())
                 .build()
@@ -78,6 +81,13 @@ public class JwtUtil {
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
+    /**
+     * Validate already-parsed claims against user details.
+     */
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && claims.getExpiration().after(new Date());
+    }
+
     /**
      * Generate token for user.
      */
@@ -93,6 +103,7 @@ public class JwtUtil {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSignKey(), Jwts.SIG.HS256)
@@ -0,0 +1,128 @@
+package com.cloudmanagement.server.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs password hashing (BCrypt) on a dedicated, bounded thread pool so that
+ * login storms cannot tie up request threads or starve the rest of the API of CPU.
+ *
+ * Admission control: when the queue is full, or a task has waited longer than
+ * max-queue-wait-ms before reaching a worker, it fails fast with OverloadedException.
+ */
+@Component
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${app.security.hashing.threads:0}") int threads,
+            @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.hashing.max-queue-wait-ms:2000}") long maxQueueWaitMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+
+        // Default: half the cores, so hashing never takes all CPU away from other requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = meterRegistry.timer("auth.password.hash", "operation", "encode");
+        this.matchesTimer = meterRegistry.timer("auth.password.hash", "operation", "matches");
+        this.queueWaitTimer = meterRegistry.timer("auth.password.queue.wait");
+        this.rejected = meterRegistry.counter("auth.password.rejected");
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Hash a raw password.
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Check a raw password against a stored hash.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * True if the stored hash was made with a weaker configuration (e.g. a lower BCrypt strength).
+     * Cheap: only parses the hash prefix.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    // The caller has most likely given up already; don't burn CPU on it
+                    rejected.increment();
+                    result.completeExceptionally(new OverloadedException());
+                    return;
+                }
+                try {
+                    result.complete(work.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new OverloadedException());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Thrown when the hashing pool is saturated; callers should answer 503 with Retry-After.
+     */
+    public static class OverloadedException extends RuntimeException {
+        public OverloadedException() {
+            super("Authentication is temporarily overloaded, please retry");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.cloudmanagement.server.security;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.cloudmanagement.server.config.RateLimitProperties;
+import com.cloudmanagement.server.config.RateLimitProperties.Rule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate Limit Filter.
+ * Runs right after JwtAuthenticationFilter and gives every client its own token bucket
+ * per endpoint class: keyed by JWT subject, or by IP address for unauthenticated requests
+ * and per-IP rules such as /api/auth/**. Over-limit requests get 429 with Retry-After.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final List<Rule> rules;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> allowed = new HashMap<>();
+    private final Map<String, Counter> rejected = new HashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rules = new ArrayList<>(properties.getRules());
+        rules.add(properties.getDefaults());
+
+        for (Rule rule : rules) {
+            allowed.put(rule.getName(), meterRegistry.counter("http.ratelimit.requests",
+                    "rule", rule.getName(), "outcome", "allowed"));
+            rejected.put(rule.getName(), meterRegistry.counter("http.ratelimit.requests",
+                    "rule", rule.getName(), "outcome", "rejected"));
+        }
+        Gauge.builder("http.ratelimit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // CORS preflights are answered by the CORS filter and never reach the API
+        return !properties.isEnabled() || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        Rule rule = matchRule(request);
+        String key = rule.getName() + '|' + clientKey(request, rule);
+        TokenBucket bucket = buckets.computeIfAbsent(key,
+                k -> new TokenBucket(rule.getCapacity(), rule.getRefillPerSecond()));
+
+        long now = System.nanoTime();
+        long waitNanos = bucket.tryAcquire(now);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(rule.getCapacity()));
+
+        if (waitNanos > 0) {
+            rejected.get(rule.getName()).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setHeader("X-RateLimit-Remaining", "0");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many requests, retry after "
+                    + retryAfterSeconds + " seconds\"}");
+            return;
+        }
+
+        allowed.get(rule.getName()).increment();
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(bucket.available(now)));
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drop buckets that have refilled completely; a new bucket behaves identically.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private Rule matchRule(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        for (Rule rule : rules) {
+            if (!rule.getMethods().isEmpty() && !rule.getMethods().contains(request.getMethod())) {
+                continue;
+            }
+            for (String pattern : rule.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return rule;
+                }
+            }
+        }
+        return properties.getDefaults();
+    }
+
+    private String clientKey(HttpServletRequest request, Rule rule) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (rule.isPerIp() || authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        return "user:" + authentication.getName();
+    }
+}
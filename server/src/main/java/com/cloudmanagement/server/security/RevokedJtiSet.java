@@ -0,0 +1,87 @@
+package com.cloudmanagement.server.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable, compact set of revoked token IDs (UUID jtis).
+ * A Bloom filter answers the common "not revoked" case with a few bit probes;
+ * possible hits are confirmed against sorted primitive arrays, so there are no false positives.
+ * Memory is roughly 16 bytes per jti plus 10 bits for the filter.
+ */
+final class RevokedJtiSet {
+
+    static final RevokedJtiSet EMPTY = new RevokedJtiSet(List.of());
+
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ENTRY = 10;
+
+    private final long[] bloom;
+    private final int bloomBits;
+    private final long[] msb;
+    private final long[] lsb;
+
+    RevokedJtiSet(Collection<UUID> ids) {
+        UUID[] sorted = ids.stream().distinct().sorted().toArray(UUID[]::new);
+        this.msb = new long[sorted.length];
+        this.lsb = new long[sorted.length];
+        this.bloomBits = Math.max(64, sorted.length * BITS_PER_ENTRY);
+        this.bloom = new long[(bloomBits + 63) / 64];
+        for (int i = 0; i < sorted.length; i++) {
+            msb[i] = sorted[i].getMostSignificantBits();
+            lsb[i] = sorted[i].getLeastSignificantBits();
+            for (int k = 0; k < HASHES; k++) {
+                int bit = bitIndex(msb[i], lsb[i], k);
+                bloom[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    boolean contains(UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        for (int k = 0; k < HASHES; k++) {
+            int bit = bitIndex(hi, lo, k);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return indexOf(hi, lo) >= 0;
+    }
+
+    int size() {
+        return msb.length;
+    }
+
+    // Binary search ordered like UUID.compareTo (signed msb, then signed lsb)
+    private int indexOf(long hi, long lo) {
+        int low = 0;
+        int high = msb.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = msb[mid] != hi ? Long.compare(msb[mid], hi) : Long.compare(lsb[mid], lo);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Double hashing: h1 + k * h2, with both halves mixed so sequential IDs still spread
+    private int bitIndex(long hi, long lo, int k) {
+        long h1 = mix(hi ^ lo);
+        long h2 = mix(lo + 0x9E3779B97F4A7C15L) | 1;
+        return (int) Math.floorMod(h1 + k * h2, (long) bloomBits);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,61 @@
+package com.cloudmanagement.server.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented as GCRA (generic cell rate algorithm): instead of a token count plus a
+ * refill timestamp, the whole state is one "theoretical arrival time" in a single
+ * AtomicLong, updated with compare-and-set. A bucket whose arrival time lies in the
+ * past is full, which makes idle buckets safe to drop at any time.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param capacity        maximum burst size
+     * @param refillPerSecond sustained rate in tokens per second
+     */
+    public TokenBucket(int capacity, double refillPerSecond) {
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1L);
+    }
+
+    /**
+     * Try to take one token.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long stored = theoreticalArrival.get();
+            long arrival = Math.max(stored, nowNanos);
+            long ahead = arrival - nowNanos;
+            if (ahead > burstToleranceNanos) {
+                return ahead - burstToleranceNanos;
+            }
+            if (theoreticalArrival.compareAndSet(stored, arrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Tokens currently available.
+     */
+    public long available(long nowNanos) {
+        long ahead = Math.max(theoreticalArrival.get(), nowNanos) - nowNanos;
+        return Math.max(0, (burstToleranceNanos + emissionIntervalNanos - ahead) / emissionIntervalNanos);
+    }
+
+    /**
+     * True if the bucket has refilled completely, i.e. it holds no state worth keeping.
+     */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,108 @@
+package com.cloudmanagement.server.security;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudmanagement.server.model.RevokedToken;
+import com.cloudmanagement.server.repository.RevokedTokenRepository;
+
+/**
+ * In-memory view of revoked access tokens, so JwtAuthenticationFilter can check
+ * revocation without a database query.
+ *
+ * The revoked_tokens table is the source of truth. Every node reloads the unexpired
+ * jtis into an immutable RevokedJtiSet on a fixed interval; revocations made on this
+ * node take effect immediately, other nodes pick them up on their next sync.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private volatile RevokedJtiSet snapshot = RevokedJtiSet.EMPTY;
+
+    // Revoked on this node but not yet part of a snapshot, with their expiry
+    private final Map<UUID, Instant> pending = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    /**
+     * True if the token with this jti has been revoked.
+     * Tokens without a (UUID) jti were issued before revocation existed and are never revoked.
+     */
+    public boolean isRevoked(String jti) {
+        UUID id = parse(jti);
+        if (id == null) {
+            return false;
+        }
+        return snapshot.contains(id) || (!pending.isEmpty() && pending.containsKey(id));
+    }
+
+    /**
+     * Revoke an access token until its expiry.
+     */
+    @Transactional
+    public void revoke(String jti, Instant expiresAt) {
+        UUID id = parse(jti);
+        if (id == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        pending.put(id, expiresAt);
+    }
+
+    /**
+     * Reload the snapshot from the database.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        Instant now = Instant.now();
+        List<UUID> ids = new ArrayList<>();
+        for (String jti : revokedTokenRepository.findActiveJtis(now)) {
+            UUID id = parse(jti);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        RevokedJtiSet loaded = new RevokedJtiSet(ids);
+        snapshot = loaded;
+
+        // Keep local revocations that were not committed yet when we queried
+        pending.entrySet().removeIf(e -> loaded.contains(e.getKey()) || e.getValue().isBefore(now));
+        log.debug("Token revocation list synced: {} revoked jtis", loaded.size());
+    }
+
+    /**
+     * Remove rows for tokens that have expired anyway.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        revokedTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private static UUID parse(String jti) {
+        if (jti == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(jti);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package com.cloudmanagement.server.service;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -12,9 +24,17 @@ import com.cloudmanagement.server.dto.RegisterRequest;
 import com.cloudmanagement.server.model.User;
 import com.cloudmanagement.server.repository.UserRepository;
 import com.cloudmanagement.server.security.JwtUtil;
+import com.cloudmanagement.server.security.PasswordHashingService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 /**
  * Service for authentication operations.
+ * Passwords are hashed on PasswordHashingService's pool; the database work that follows runs on
+ * a small pool of its own, so waiting for a connection never holds a hashing thread.
  */
 @Service
 public class AuthService {
@@ -29,55 +49,149 @@ public class AuthService {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Value("${app.security.persistence.threads:4}")
+    private int persistenceThreads;
+
+    @Value("${app.security.persistence.queue-capacity:256}")
+    private int persistenceQueueCapacity;
+
+    // Hash compared against for unknown usernames, so timing does not reveal which users exist
+    private String unknownUserHash;
+
+    private ThreadPoolExecutor persistencePool;
+
+    @PostConstruct
+    public void start() {
+        unknownUserHash = passwordEncoder.encode("unknown-user-password");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        persistencePool = new ThreadPoolExecutor(persistenceThreads, persistenceThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(persistenceQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "auth-persistence-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Never fall back to the caller: that is the hashing thread
+                (runnable, pool) -> {
+                    throw new PasswordHashingService.OverloadedException();
+                });
+        Gauge.builder("auth.persistence.queue.size", persistencePool, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistencePool.shutdown();
+    }
 
     /**
      * Register a new user.
+     * The password is hashed on the hashing pool; the future completes once the user is saved.
      */
-    public AuthResponse register(RegisterRequest request) {
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
         // Check if username already exists
         if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
+            return CompletableFuture.failedFuture(new RuntimeException("Username already exists"));
         }
 
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
+            return CompletableFuture.failedFuture(new RuntimeException("Email already exists"));
         }
 
-        // Create new user
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole(User.Role.USER);
+        return passwordHashingService.encode(request.getPassword()).thenApplyAsync(hash -> {
+            // Create new user
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setPassword(hash);
+            user.setRole(User.Role.USER);
 
-        userRepository.save(user);
+            userRepository.save(user);
 
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user.getUsername());
+            // Generate JWT access token and refresh token
+            String token = jwtUtil.generateToken(user.getUsername());
+            String refreshToken = refreshTokenService.issue(user);
 
-        return new AuthResponse(token, user.getUsername(), user.getEmail(), user.getRole().name());
+            return new AuthResponse(token, refreshToken, user.getUsername(), user.getEmail(), user.getRole().name());
+        }, persistencePool);
     }
 
     /**
      * Login user and return JWT token.
+     * The password check runs on the hashing pool; hashes made with an older
+     * BCrypt strength are transparently re-hashed after a successful login.
      */
-    public AuthResponse login(LoginRequest request) {
-        // Authenticate user
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getUsername(),
-                        request.getPassword()));
-
-        // Load user details
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        long start = System.nanoTime();
+
+        // Load user details (and reject disabled/locked accounts before spending CPU on them)
+        Optional<UserDetails> userDetails;
+        try {
+            UserDetails details = userDetailsService.loadUserByUsername(request.getUsername());
+            new AccountStatusUserDetailsChecker().check(details);
+            userDetails = Optional.of(details);
+        } catch (UsernameNotFoundException e) {
+            userDetails = Optional.empty();
+        }
+
+        String storedHash = userDetails.map(UserDetails::getPassword).orElse(unknownUserHash);
+        boolean known = userDetails.isPresent();
+
+        return passwordHashingService.matches(request.getPassword(), storedHash)
+                .thenApplyAsync(matches -> {
+                    if (!matches || !known) {
+                        throw new BadCredentialsException("Invalid username or password");
+                    }
+
+                    User user = userRepository.findByUsername(request.getUsername())
+                            .orElseThrow(() -> new RuntimeException("User not found"));
+
+                    if (passwordHashingService.needsRehash(storedHash)) {
+                        rehash(user.getUsername(), request.getPassword());
+                    }
+
+                    // Generate JWT access token and refresh token
+                    String token = jwtUtil.generateToken(user.getUsername());
+                    String refreshToken = refreshTokenService.issue(user);
 
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user.getUsername());
+                    return new AuthResponse(token, refreshToken, user.getUsername(), user.getEmail(),
+                            user.getRole().name());
+                }, persistencePool)
+                .whenComplete((response, error) -> meterRegistry
+                        .timer("auth.login", "outcome", loginOutcome(error))
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Store a fresh hash with the current encoder settings. Best effort: skipped when the pool is busy.
+     */
+    private void rehash(String username, String rawPassword) {
+        passwordHashingService.encode(rawPassword)
+                .thenAcceptAsync(hash -> userRepository.findByUsername(username).ifPresent(user -> {
+                    user.setPassword(hash);
+                    userRepository.save(user);
+                }), persistencePool);
+    }
 
-        return new AuthResponse(token, user.getUsername(), user.getEmail(), user.getRole().name());
+    private static String loginOutcome(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause == null) {
+            return "success";
+        }
+        return cause instanceof PasswordHashingService.OverloadedException ? "rejected" : "failure";
     }
 
     /**
@@ -0,0 +1,707 @@
+package com.cloudmanagement.server.service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cloudmanagement.server.aggregation.AmountAggregator;
+import com.cloudmanagement.server.alerts.BudgetSpentChangedEvent;
+import com.cloudmanagement.server.audit.AuditEvent;
+import com.cloudmanagement.server.audit.AuditEvent.Action;
+import com.cloudmanagement.server.audit.AuditLogWriter;
+import com.cloudmanagement.server.dedup.DuplicateDetector;
+import com.cloudmanagement.server.dedup.TransactionFingerprint;
+import com.cloudmanagement.server.dto.BatchRequest;
+import com.cloudmanagement.server.dto.BatchRequest.Operation;
+import com.cloudmanagement.server.dto.BatchRequest.Target;
+import com.cloudmanagement.server.dto.BatchResponse;
+import com.cloudmanagement.server.dto.BatchResponse.Result;
+import com.cloudmanagement.server.model.Budget;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Applies an ordered list of transaction and budget writes in one database transaction.
+ *
+ * The rows the batch touches are locked and loaded with one query per table, and every
+ * operation is checked against that state in order (so deleting a row and then updating it
+ * fails the update). If any operation would fail nothing is written. Otherwise consecutive
+ * operations of the same kind run as one JDBC batch, and budget spent changes are recorded
+ * as one delta per affected budget at the end, so a 500-row edit is one round trip per kind
+ * of operation and one commit.
+ *
+ * These writes bypass Hibernate, so their audit events are appended here after the commit,
+ * in operation order and in the same shape AuditEventListener records for single-item edits.
+ */
+@Service
+public class BatchMutationService {
+
+    private static final String LOCK_TRANSACTIONS =
+            "SELECT id, description, amount, category, transaction_date, type, budget_id, receipt_url, user_id "
+            + "FROM transactions WHERE id = ANY(?) FOR UPDATE";
+    private static final String LOCK_BUDGETS =
+            "SELECT id, name, category, amount, spent, version FROM budgets "
+            + "WHERE id = ANY(?) AND user_id = ? FOR UPDATE";
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO transactions (description, amount, category, transaction_date, type, budget_id, receipt_url, "
+            + "fingerprint, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_TRANSACTION =
+            "UPDATE transactions SET description = ?, amount = ?, category = ?, transaction_date = ?, type = ?, "
+            + "budget_id = ?, receipt_url = ? WHERE id = ?";
+    private static final String DELETE_TRANSACTION = "DELETE FROM transactions WHERE id = ?";
+    private static final String INSERT_BUDGET =
+            "INSERT INTO budgets (name, category, amount, spent, version, user_id) VALUES (?, ?, ?, 0, 0, ?)";
+    private static final String UPDATE_BUDGET =
+            "UPDATE budgets SET name = ?, category = ?, amount = ?, version = version + 1 WHERE id = ?";
+    private static final String DELETE_BUDGET = "DELETE FROM budgets WHERE id = ?";
+
+    private static final int FAILED_DEPENDENCY = 424;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BudgetSpentLedger spentLedger;
+    private final DuplicateDetector duplicateDetector;
+    private final AuditLogWriter auditLogWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxOperations;
+    private final Counter applied;
+    private final Counter rejected;
+    private final Timer applyTimer;
+
+    public BatchMutationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            BudgetSpentLedger spentLedger, DuplicateDetector duplicateDetector, AuditLogWriter auditLogWriter,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${app.batch.max-operations:1000}") int maxOperations) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.spentLedger = spentLedger;
+        this.duplicateDetector = duplicateDetector;
+        this.auditLogWriter = auditLogWriter;
+        this.eventPublisher = eventPublisher;
+        this.maxOperations = maxOperations;
+        this.applied = meterRegistry.counter("batch.operations", "state", "applied");
+        this.rejected = meterRegistry.counter("batch.operations", "state", "rejected");
+        this.applyTimer = meterRegistry.timer("batch.apply");
+    }
+
+    public int getMaxOperations() {
+        return maxOperations;
+    }
+
+    /**
+     * Apply the operations as the given user, all or nothing.
+     * A concurrent insert of the same transaction surfaces as DataIntegrityViolationException.
+     */
+    public BatchResponse apply(Long userId, String actor, List<Operation> operations) {
+        long started = System.nanoTime();
+        Result[] results = new Result[operations.size()];
+        boolean valid = true;
+        for (int i = 0; i < operations.size(); i++) {
+            String error = validate(operations.get(i));
+            if (error != null) {
+                results[i] = new Result(i, HttpStatus.BAD_REQUEST.value(), null, error);
+                valid = false;
+            }
+        }
+        if (!valid) {
+            return reject(results);
+        }
+
+        Map<Integer, UUID> fingerprints = fingerprints(userId, operations);
+        Set<UUID> existing = fingerprints.isEmpty() ? Set.of()
+                : duplicateDetector.findExisting(userId, fingerprints.values());
+
+        BatchResponse response = transactionTemplate.execute(status -> {
+            Plan plan = plan(userId, actor, operations, fingerprints, existing, results);
+            if (plan == null) {
+                return reject(results);
+            }
+            execute(plan, results);
+            spentLedger.recordAll(plan.budgetDeltas.totals());
+            plan.budgetEvents.forEach(eventPublisher::publishEvent);
+            afterCommit(userId, plan);
+            return new BatchResponse(true, Arrays.asList(results));
+        });
+        if (response.applied()) {
+            applied.increment(operations.size());
+            applyTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return response;
+    }
+
+    private static String validate(Operation operation) {
+        if (operation == null || operation.action() == null || operation.target() == null) {
+            return "action and target are required";
+        }
+        switch (operation.action()) {
+            case CREATE -> {
+                return body(operation) == null ? "missing " + operation.target().name().toLowerCase() : null;
+            }
+            case UPDATE -> {
+                if (operation.id() == null) {
+                    return "id is required";
+                }
+                return body(operation) == null ? "missing " + operation.target().name().toLowerCase() : null;
+            }
+            default -> {
+                return operation.id() == null ? "id is required" : null;
+            }
+        }
+    }
+
+    private static Object body(Operation operation) {
+        return operation.target() == Target.TRANSACTION ? operation.transaction() : operation.budget();
+    }
+
+    // Creates are dated and fingerprinted as POST /api/transactions does, unless duplicates are allowed
+    private static Map<Integer, UUID> fingerprints(Long userId, List<Operation> operations) {
+        Map<Integer, UUID> fingerprints = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            if (operation.action() != BatchRequest.Action.CREATE || operation.target() != Target.TRANSACTION) {
+                continue;
+            }
+            Transaction transaction = operation.transaction();
+            if (transaction.getTransactionDate() == null) {
+                transaction.setTransactionDate(LocalDateTime.now());
+            }
+            if (!operation.allowDuplicate()) {
+                fingerprints.put(i, TransactionFingerprint.of(userId, transaction, 0));
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Lock the rows the batch touches and check every operation against them in order.
+     * Returns null, with the failures in results, if any operation cannot be applied.
+     */
+    private Plan plan(Long userId, String actor, List<Operation> operations, Map<Integer, UUID> fingerprints,
+            Set<UUID> existing, Result[] results) {
+        Map<Long, TransactionRow> transactions = lockTransactions(operations);
+        Map<Long, BudgetRow> budgets = lockBudgets(userId, operations);
+        Set<UUID> batchFingerprints = new HashSet<>();
+        Plan plan = new Plan(actor);
+        boolean ok = true;
+
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            String error = null;
+            int status = HttpStatus.NOT_FOUND.value();
+            if (operation.target() == Target.TRANSACTION) {
+                TransactionRow row = operation.id() == null ? null : transactions.get(operation.id());
+                switch (operation.action()) {
+                    case CREATE -> {
+                        UUID fingerprint = fingerprints.get(i);
+                        if (fingerprint != null
+                                && (existing.contains(fingerprint) || !batchFingerprints.add(fingerprint))) {
+                            status = HttpStatus.CONFLICT.value();
+                            error = "duplicate transaction";
+                        } else {
+                            TransactionRow created = TransactionRow.of(operation.transaction(), userId);
+                            created.fingerprint = fingerprint;
+                            plan.add(Kind.CREATE_TRANSACTION, i, created);
+                            plan.addSpent(created.budgetId, created.spent());
+                        }
+                    }
+                    case UPDATE -> {
+                        if (row == null || row.deleted) {
+                            error = "transaction not found";
+                        } else {
+                            TransactionRow updated = TransactionRow.of(operation.transaction(), row.userId);
+                            updated.id = row.id;
+                            plan.addSpent(row.budgetId, row.spent().negate());
+                            plan.addSpent(updated.budgetId, updated.spent());
+                            transactions.put(row.id, updated);
+                            plan.add(Kind.UPDATE_TRANSACTION, i, updated, row.changedTo(updated));
+                        }
+                    }
+                    case DELETE -> {
+                        if (row == null || row.deleted) {
+                            error = "transaction not found";
+                        } else {
+                            row.deleted = true;
+                            plan.addSpent(row.budgetId, row.spent().negate());
+                            plan.add(Kind.DELETE_TRANSACTION, i, row, new Change(row.snapshot(), null));
+                        }
+                    }
+                }
+            } else {
+                BudgetRow row = operation.id() == null ? null : budgets.get(operation.id());
+                switch (operation.action()) {
+                    case CREATE -> plan.add(Kind.CREATE_BUDGET, i, BudgetRow.of(operation.budget(), userId));
+                    case UPDATE -> {
+                        Long version = operation.budget().getVersion();
+                        if (row == null || row.deleted) {
+                            error = "budget not found";
+                        } else if (version != null && !version.equals(row.version)) {
+                            status = HttpStatus.CONFLICT.value();
+                            error = "budget was changed by someone else";
+                        } else {
+                            BudgetRow updated = BudgetRow.of(operation.budget(), userId);
+                            updated.id = row.id;
+                            updated.spent = row.spent;
+                            updated.version = row.version + 1;
+                            if (row.amount == null ? updated.amount != null
+                                    : updated.amount == null || row.amount.compareTo(updated.amount) != 0) {
+                                plan.budgetEvents.add(new BudgetSpentChangedEvent(row.id, userId, updated.name,
+                                        updated.amount, updated.spent));
+                            }
+                            budgets.put(row.id, updated);
+                            plan.add(Kind.UPDATE_BUDGET, i, updated, row.changedTo(updated));
+                        }
+                    }
+                    case DELETE -> {
+                        if (row == null || row.deleted) {
+                            error = "budget not found";
+                        } else {
+                            row.deleted = true;
+                            plan.add(Kind.DELETE_BUDGET, i, row, new Change(row.snapshot(), null));
+                        }
+                    }
+                }
+            }
+            if (error != null) {
+                results[i] = new Result(i, status, operation.id(), error);
+                ok = false;
+            }
+        }
+        return ok ? plan : null;
+    }
+
+    private Map<Long, TransactionRow> lockTransactions(List<Operation> operations) {
+        Long[] ids = operations.stream()
+                .filter(o -> o.target() == Target.TRANSACTION && o.id() != null)
+                .map(Operation::id).distinct().toArray(Long[]::new);
+        Map<Long, TransactionRow> rows = new HashMap<>();
+        if (ids.length > 0) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(LOCK_TRANSACTIONS);
+                statement.setArray(1, connection.createArrayOf("bigint", ids));
+                return statement;
+            }, rs -> {
+                TransactionRow row = TransactionRow.of(rs);
+                rows.put(row.id, row);
+            });
+        }
+        return rows;
+    }
+
+    private Map<Long, BudgetRow> lockBudgets(Long userId, List<Operation> operations) {
+        Long[] ids = operations.stream()
+                .filter(o -> o.target() == Target.BUDGET && o.id() != null)
+                .map(Operation::id).distinct().toArray(Long[]::new);
+        Map<Long, BudgetRow> rows = new HashMap<>();
+        if (ids.length > 0) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(LOCK_BUDGETS);
+                statement.setArray(1, connection.createArrayOf("bigint", ids));
+                statement.setLong(2, userId);
+                return statement;
+            }, rs -> {
+                BudgetRow row = BudgetRow.of(rs, userId);
+                rows.put(row.id, row);
+            });
+        }
+        return rows;
+    }
+
+    // Each run of consecutive operations of one kind is one JDBC batch
+    private void execute(Plan plan, Result[] results) {
+        int from = 0;
+        while (from < plan.steps.size()) {
+            Kind kind = plan.steps.get(from).kind();
+            int to = from;
+            while (to < plan.steps.size() && plan.steps.get(to).kind() == kind) {
+                to++;
+            }
+            List<Step> run = plan.steps.subList(from, to);
+            switch (kind) {
+                case CREATE_TRANSACTION ->
+                    insert(INSERT_TRANSACTION, run, (ps, row) -> ((TransactionRow) row).bindInsert(ps));
+                case UPDATE_TRANSACTION ->
+                    batch(UPDATE_TRANSACTION, run, (ps, row) -> ((TransactionRow) row).bindUpdate(ps));
+                case DELETE_TRANSACTION -> batch(DELETE_TRANSACTION, run, (ps, row) -> ps.setLong(1, row.id()));
+                case CREATE_BUDGET -> insert(INSERT_BUDGET, run, (ps, row) -> ((BudgetRow) row).bindInsert(ps));
+                case UPDATE_BUDGET -> batch(UPDATE_BUDGET, run, (ps, row) -> ((BudgetRow) row).bindUpdate(ps));
+                case DELETE_BUDGET -> batch(DELETE_BUDGET, run, (ps, row) -> ps.setLong(1, row.id()));
+            }
+            for (Step step : run) {
+                results[step.index()] = new Result(step.index(), kind.status, step.row().id(), null);
+            }
+            from = to;
+        }
+    }
+
+    private void batch(String sql, List<Step> run, Binder binder) {
+        jdbcTemplate.batchUpdate(sql, setter(run, binder));
+    }
+
+    // Batched inserts, reading back each row's generated id
+    private void insert(String sql, List<Step> run, Binder binder) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate((Connection connection) -> connection.prepareStatement(sql, new String[] { "id" }),
+                setter(run, binder), keys);
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < run.size(); i++) {
+            run.get(i).row().setId(((Number) ids.get(i).get("id")).longValue());
+        }
+    }
+
+    private static BatchPreparedStatementSetter setter(List<Step> run, Binder binder) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                binder.bind(ps, run.get(i).row());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return run.size();
+            }
+        };
+    }
+
+    private void afterCommit(Long userId, Plan plan) {
+        List<UUID> inserted = plan.steps.stream()
+                .filter(step -> step.kind() == Kind.CREATE_TRANSACTION)
+                .map(step -> ((TransactionRow) step.row()).fingerprint)
+                .filter(Objects::nonNull)
+                .toList();
+        List<AuditEvent> auditEvents = plan.auditEvents();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (!inserted.isEmpty()) {
+                    duplicateDetector.recordInserted(userId, inserted);
+                }
+                auditEvents.forEach(auditLogWriter::append);
+            }
+        });
+    }
+
+    private BatchResponse reject(Result[] results) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = new Result(i, FAILED_DEPENDENCY, null, null);
+            }
+        }
+        rejected.increment(results.length);
+        return new BatchResponse(false, Arrays.asList(results));
+    }
+
+    private enum Kind {
+        CREATE_TRANSACTION(201, Action.INSERT, "Transaction"),
+        UPDATE_TRANSACTION(200, Action.UPDATE, "Transaction"),
+        DELETE_TRANSACTION(204, Action.DELETE, "Transaction"),
+        CREATE_BUDGET(201, Action.INSERT, "Budget"),
+        UPDATE_BUDGET(200, Action.UPDATE, "Budget"),
+        DELETE_BUDGET(204, Action.DELETE, "Budget");
+
+        final int status;
+        final Action action;
+        final String entityType;
+
+        Kind(int status, Action action, String entityType) {
+            this.status = status;
+            this.action = action;
+            this.entityType = entityType;
+        }
+    }
+
+    private interface Row {
+        Long id();
+
+        void setId(Long id);
+
+        Long ownerId();
+
+        Map<String, Object> snapshot();
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement ps, Row row) throws SQLException;
+    }
+
+    // change is null for creates: their audit record needs the generated id, so it is built after execution
+    private record Step(Kind kind, int index, Row row, Change change) {
+    }
+
+    private record Change(Map<String, Object> before, Map<String, Object> after) {
+    }
+
+    // What the batch will do, in order, and its side effects
+    private static class Plan {
+        final String actor;
+        final List<Step> steps = new ArrayList<>();
+        final AmountAggregator<Long> budgetDeltas = new AmountAggregator<>();
+        final List<BudgetSpentChangedEvent> budgetEvents = new ArrayList<>();
+
+        Plan(String actor) {
+            this.actor = actor;
+        }
+
+        void add(Kind kind, int index, Row row) {
+            add(kind, index, row, null);
+        }
+
+        void add(Kind kind, int index, Row row, Change change) {
+            steps.add(new Step(kind, index, row, change));
+        }
+
+        void addSpent(Long budgetId, BigDecimal spent) {
+            if (budgetId != null && spent.signum() != 0) {
+                budgetDeltas.add(budgetId, spent);
+            }
+        }
+
+        // One event per step, in operation order; call after execution so inserts have their ids
+        List<AuditEvent> auditEvents() {
+            Instant now = Instant.now();
+            List<AuditEvent> events = new ArrayList<>(steps.size());
+            for (Step step : steps) {
+                Change change = step.change() != null ? step.change() : new Change(null, step.row().snapshot());
+                events.add(new AuditEvent(now, actor, step.kind().action, step.kind().entityType,
+                        String.valueOf(step.row().id()), step.row().ownerId(), change.before(), change.after()));
+            }
+            return events;
+        }
+    }
+
+    // Column values of a transaction; snapshots use the entity's property names, as audited by Hibernate
+    private static class TransactionRow implements Row {
+        Long id;
+        String description;
+        BigDecimal amount;
+        String category;
+        LocalDateTime transactionDate;
+        TransactionType type;
+        Long budgetId;
+        String receiptUrl;
+        UUID fingerprint;
+        Long userId;
+        boolean deleted;
+
+        static TransactionRow of(Transaction transaction, Long userId) {
+            TransactionRow row = new TransactionRow();
+            row.description = transaction.getDescription();
+            row.amount = transaction.getAmount();
+            row.category = transaction.getCategory();
+            row.transactionDate = transaction.getTransactionDate();
+            row.type = transaction.getType();
+            row.budgetId = transaction.getBudgetId();
+            row.receiptUrl = transaction.getReceiptUrl();
+            row.userId = userId;
+            return row;
+        }
+
+        static TransactionRow of(ResultSet rs) throws SQLException {
+            TransactionRow row = new TransactionRow();
+            row.id = rs.getLong("id");
+            row.description = rs.getString("description");
+            row.amount = rs.getBigDecimal("amount");
+            row.category = rs.getString("category");
+            row.transactionDate = rs.getObject("transaction_date", LocalDateTime.class);
+            String type = rs.getString("type");
+            row.type = type == null ? null : TransactionType.valueOf(type);
+            row.budgetId = rs.getObject("budget_id", Long.class);
+            row.receiptUrl = rs.getString("receipt_url");
+            row.userId = rs.getObject("user_id", Long.class);
+            return row;
+        }
+
+        @Override
+        public Long id() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public Long ownerId() {
+            return userId;
+        }
+
+        BigDecimal spent() {
+            return type == TransactionType.EXPENSE && amount != null ? amount : BigDecimal.ZERO;
+        }
+
+        void bindInsert(PreparedStatement ps) throws SQLException {
+            bindColumns(ps);
+            ps.setObject(8, fingerprint, Types.OTHER);
+            ps.setObject(9, userId, Types.BIGINT);
+        }
+
+        void bindUpdate(PreparedStatement ps) throws SQLException {
+            bindColumns(ps);
+            ps.setLong(8, id);
+        }
+
+        private void bindColumns(PreparedStatement ps) throws SQLException {
+            ps.setString(1, description);
+            ps.setBigDecimal(2, amount);
+            ps.setString(3, category);
+            ps.setTimestamp(4, transactionDate == null ? null : Timestamp.valueOf(transactionDate));
+            ps.setString(5, type == null ? null : type.name());
+            ps.setObject(6, budgetId, Types.BIGINT);
+            ps.setString(7, receiptUrl);
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("amount", amount);
+            values.put("budgetId", budgetId);
+            values.put("category", category);
+            values.put("description", description);
+            values.put("fingerprint", fingerprint);
+            values.put("receiptUrl", receiptUrl);
+            values.put("transactionDate", transactionDate);
+            values.put("type", type);
+            values.put("userId", userId);
+            return values;
+        }
+
+        Change changedTo(TransactionRow updated) {
+            Map<String, Object> before = snapshot();
+            Map<String, Object> after = updated.snapshot();
+            // fingerprint is fixed at creation
+            after.put("fingerprint", before.get("fingerprint"));
+            return changes(before, after);
+        }
+    }
+
+    private static class BudgetRow implements Row {
+        Long id;
+        String name;
+        String category;
+        BigDecimal amount;
+        BigDecimal spent;
+        Long version;
+        Long userId;
+        boolean deleted;
+
+        static BudgetRow of(Budget budget, Long userId) {
+            BudgetRow row = new BudgetRow();
+            row.name = budget.getName();
+            row.category = budget.getCategory();
+            row.amount = budget.getAmount();
+            row.spent = BigDecimal.ZERO;
+            row.version = 0L;
+            row.userId = userId;
+            return row;
+        }
+
+        static BudgetRow of(ResultSet rs, Long userId) throws SQLException {
+            BudgetRow row = new BudgetRow();
+            row.id = rs.getLong("id");
+            row.name = rs.getString("name");
+            row.category = rs.getString("category");
+            row.amount = rs.getBigDecimal("amount");
+            row.spent = rs.getBigDecimal("spent");
+            row.version = rs.getLong("version");
+            row.userId = userId;
+            return row;
+        }
+
+        @Override
+        public Long id() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public Long ownerId() {
+            return userId;
+        }
+
+        void bindInsert(PreparedStatement ps) throws SQLException {
+            ps.setString(1, name);
+            ps.setString(2, category);
+            ps.setBigDecimal(3, amount);
+            ps.setLong(4, userId);
+        }
+
+        void bindUpdate(PreparedStatement ps) throws SQLException {
+            ps.setString(1, name);
+            ps.setString(2, category);
+            ps.setBigDecimal(3, amount);
+            ps.setLong(4, id);
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("amount", amount);
+            values.put("category", category);
+            values.put("name", name);
+            values.put("spent", spent);
+            values.put("user", userId);
+            values.put("version", version);
+            return values;
+        }
+
+        Change changedTo(BudgetRow updated) {
+            return changes(snapshot(), updated.snapshot());
+        }
+    }
+
+    // Only the properties that changed, as for single-item updates
+    private static Change changes(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> changedBefore = new LinkedHashMap<>();
+        Map<String, Object> changedAfter = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : before.entrySet()) {
+            Object previous = entry.getValue();
+            Object next = after.get(entry.getKey());
+            boolean same = previous instanceof BigDecimal a && next instanceof BigDecimal b
+                    ? a.compareTo(b) == 0
+                    : Objects.equals(previous, next);
+            if (!same) {
+                changedBefore.put(entry.getKey(), previous);
+                changedAfter.put(entry.getKey(), next);
+            }
+        }
+        return new Change(changedBefore, changedAfter);
+    }
+}
@@ -0,0 +1,306 @@
+package com.cloudmanagement.server.service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cloudmanagement.server.aggregation.AmountAggregator;
+import com.cloudmanagement.server.alerts.BudgetSpentChangedEvent;
+import com.cloudmanagement.server.jobs.ClusterJobRunner;
+import com.cloudmanagement.server.jobs.UserShard;
+
+/**
+ * Nightly reconciliation of Budget.spent against the EXPENSE transactions linked to each budget.
+ *
+ * Replaces calling recalculateBudgetSpent budget by budget: budget ids are split into
+ * contiguous partitions, and each partition streams its transactions once (one range scan
+ * on budget_id), aggregates them in minor units and writes corrections back in JDBC batches.
+ * Partitions run in parallel on a fork-join pool. Partition size is derived from the memory
+ * budget, so at most parallelism partitions of aggregates are held at any time.
+ *
+ * The expected spent is the sum of the budget's EXPENSE transactions minus its not yet merged
+ * spent deltas (BudgetSpentLedger). Corrections are compare-and-set on the stored value: a budget
+ * whose spent changed while its partition was being aggregated is left alone (it was just merged).
+ * Corrected budgets are published as BudgetSpentChangedEvents for alert evaluation.
+ *
+ * In a cluster the nightly run is split into user shards shared by all nodes through
+ * ClusterJobRunner, so each budget is reconciled once per night.
+ */
+@Service
+public class BudgetReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetReconciliationService.class);
+
+    // Rough heap cost of one budget in a partition: boxed id, map entries, aggregate slots
+    private static final long BYTES_PER_BUDGET = 256;
+
+    private static final String BUDGETS_IN_RANGE =
+            "SELECT id, spent, amount, user_id, name FROM budgets WHERE id BETWEEN ? AND ? AND ";
+    // Unmerged spent deltas are already counted in the transactions but not yet in budgets.spent.
+    // One statement, so both come from the same snapshot. %s restricts the rows to the shard's budgets.
+    private static final String EXPENSES_IN_RANGE =
+            "SELECT budget_id, amount FROM transactions WHERE type = 'EXPENSE' AND budget_id BETWEEN ? AND ?%1$s "
+            + "UNION ALL SELECT budget_id, -delta FROM budget_spent_deltas WHERE budget_id BETWEEN ? AND ?%1$s";
+    // A shard's budgets are spread over the whole id range, so without this every shard reads every expense
+    private static final String IN_SHARD_BUDGETS =
+            " AND budget_id IN (SELECT id FROM budgets WHERE id BETWEEN ? AND ? AND %s)";
+    private static final String UPDATE_SPENT =
+            "UPDATE budgets SET spent = ? WHERE id = ? AND spent IS NOT DISTINCT FROM ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterJobRunner clusterJobRunner;
+    private final int shards;
+    private final int parallelism;
+    private final int partitionSize;
+    private final int fetchSize;
+    private final int batchSize;
+    private final int maxReportedDrifts;
+    private final boolean dryRun;
+
+    public BudgetReconciliationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, ClusterJobRunner clusterJobRunner,
+            @Value("${app.reconciliation.shards:8}") int shards,
+            @Value("${app.reconciliation.parallelism:0}") int parallelism,
+            @Value("${app.reconciliation.memory-budget-mb:64}") long memoryBudgetMb,
+            @Value("${app.reconciliation.fetch-size:1000}") int fetchSize,
+            @Value("${app.reconciliation.batch-size:500}") int batchSize,
+            @Value("${app.reconciliation.max-reported-drifts:1000}") int maxReportedDrifts,
+            @Value("${app.reconciliation.dry-run:false}") boolean dryRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.clusterJobRunner = clusterJobRunner;
+        this.shards = shards;
+        // Default: the cores, but at most 4 so reconciliation leaves pool connections for requests
+        this.parallelism = parallelism > 0 ? parallelism
+                : Math.min(4, Runtime.getRuntime().availableProcessors());
+        this.partitionSize = partitionSize(memoryBudgetMb * 1024 * 1024, this.parallelism);
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+        this.maxReportedDrifts = maxReportedDrifts;
+        this.dryRun = dryRun;
+    }
+
+    /**
+     * Scheduled entry point on every node; disabled unless app.reconciliation.cron is set.
+     * Nodes share the shards of tonight's run.
+     */
+    @Scheduled(cron = "${app.reconciliation.cron:-}")
+    public void reconcileNightly() {
+        clusterJobRunner.runSharded("budget-reconciliation", shards, LocalDate.now().toString(),
+                shard -> reconcile(new UserShard(shard, shards)));
+    }
+
+    /**
+     * Reconcile every budget and return the drift report.
+     */
+    public ReconciliationReport reconcileAll() {
+        return reconcile(UserShard.ALL);
+    }
+
+    /**
+     * Reconcile the budgets of one user shard and return the drift report.
+     */
+    public ReconciliationReport reconcile(UserShard shard) {
+        long started = System.nanoTime();
+        long[] budgetIds = loadBudgetIds(shard);
+        Run run = new Run(shard);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new PartitionTask(budgetIds, 0, budgetIds.length, run));
+        } finally {
+            pool.shutdown();
+        }
+
+        ReconciliationReport report = new ReconciliationReport(budgetIds.length, run.partitions.get(),
+                run.transactions.get(), run.drifted.get(), run.corrected.get(), run.skipped.get(),
+                List.copyOf(run.drifts), Duration.ofNanos(System.nanoTime() - started));
+        log.info("Budget reconciliation of shard {}/{} finished: {} budgets in {} partitions, {} transactions, "
+                + "{} drifted, {} corrected, {} changed concurrently, took {}",
+                shard.index(), shard.count(), report.budgets(), report.partitions(), report.transactions(), report.drifted(),
+                report.corrected(), report.skipped(), report.elapsed());
+        return report;
+    }
+
+    // Budgets per partition so that parallelism partitions fit the memory budget together
+    static int partitionSize(long memoryBudgetBytes, int parallelism) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, memoryBudgetBytes / parallelism / BYTES_PER_BUDGET));
+    }
+
+    // Sorted budget ids as a primitive array (8 bytes per budget), the basis for partitioning
+    private long[] loadBudgetIds(UserShard shard) {
+        long[][] ids = { new long[1024] };
+        int[] count = { 0 };
+        jdbcTemplate.query("SELECT id FROM budgets WHERE " + shard.predicate("user_id") + " ORDER BY id", rs -> {
+            if (count[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], count[0] * 2);
+            }
+            ids[0][count[0]++] = rs.getLong(1);
+        });
+        return Arrays.copyOf(ids[0], count[0]);
+    }
+
+    private static String expensesInRange(UserShard shard) {
+        return EXPENSES_IN_RANGE.formatted(
+                shard.count() == 1 ? "" : IN_SHARD_BUDGETS.formatted(shard.predicate("user_id")));
+    }
+
+    private void reconcilePartition(long firstId, long lastId, Run run) {
+        // Postgres only streams with a cursor (fetch size) inside a transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, StoredBudget> stored = new HashMap<>();
+            jdbcTemplate.query(BUDGETS_IN_RANGE + run.shard.predicate("user_id"),
+                    rs -> {
+                        stored.put(rs.getLong(1), new StoredBudget(rs.getBigDecimal(2), rs.getBigDecimal(3),
+                                rs.getObject(4, Long.class), rs.getString(5)));
+                    }, firstId, lastId);
+
+            AmountAggregator<Long> actual = new AmountAggregator<>();
+            long[] rows = { 0 };
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(expensesInRange(run.shard));
+                statement.setFetchSize(fetchSize);
+                int ranges = run.shard.count() == 1 ? 2 : 4;
+                for (int i = 0; i < ranges; i++) {
+                    statement.setLong(2 * i + 1, firstId);
+                    statement.setLong(2 * i + 2, lastId);
+                }
+                return statement;
+            }, rs -> {
+                actual.add(rs.getLong(1), rs.getBigDecimal(2));
+                rows[0]++;
+            });
+
+            List<Object[]> corrections = new ArrayList<>();
+            for (Map.Entry<Long, StoredBudget> budget : stored.entrySet()) {
+                BigDecimal spent = actual.total(budget.getKey());
+                BigDecimal storedSpent = budget.getValue().spent();
+                if (storedSpent == null || storedSpent.compareTo(spent) != 0) {
+                    run.recordDrift(new BudgetDrift(budget.getKey(), storedSpent, spent), maxReportedDrifts);
+                    corrections.add(new Object[] { spent, budget.getKey(), storedSpent });
+                }
+            }
+            if (!dryRun && !corrections.isEmpty()) {
+                int[][] results = jdbcTemplate.batchUpdate(UPDATE_SPENT, corrections, batchSize,
+                        (ps, row) -> {
+                            ps.setBigDecimal(1, (BigDecimal) row[0]);
+                            ps.setLong(2, (Long) row[1]);
+                            ps.setBigDecimal(3, (BigDecimal) row[2]);
+                        });
+                int row = 0;
+                for (int[] batch : results) {
+                    for (int updated : batch) {
+                        Object[] correction = corrections.get(row++);
+                        if (updated > 0) {
+                            run.corrected.incrementAndGet();
+                            StoredBudget budget = stored.get((Long) correction[1]);
+                            eventPublisher.publishEvent(new BudgetSpentChangedEvent((Long) correction[1],
+                                    budget.userId(), budget.name(), budget.amount(), (BigDecimal) correction[0]));
+                        } else {
+                            run.skipped.incrementAndGet();
+                        }
+                    }
+                }
+            }
+            run.transactions.addAndGet(rows[0]);
+            run.partitions.incrementAndGet();
+        });
+    }
+
+    /**
+     * Splits a range of the sorted id array in halves until it fits one partition.
+     */
+    private class PartitionTask extends RecursiveTask<Void> {
+
+        private final long[] ids;
+        private final int from;
+        private final int to;
+        private final Run run;
+
+        PartitionTask(long[] ids, int from, int to, Run run) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.run = run;
+        }
+
+        @Override
+        protected Void compute() {
+            if (from >= to) {
+                return null;
+            }
+            if (to - from <= partitionSize) {
+                reconcilePartition(ids[from], ids[to - 1], run);
+                return null;
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(ids, from, middle, run);
+            left.fork();
+            new PartitionTask(ids, middle, to, run).compute();
+            left.join();
+            return null;
+        }
+    }
+
+    private record StoredBudget(BigDecimal spent, BigDecimal amount, Long userId, String name) {
+    }
+
+    // Counters shared by the partitions of one run
+    private static class Run {
+        final UserShard shard;
+        final AtomicLong partitions = new AtomicLong();
+        final AtomicLong transactions = new AtomicLong();
+        final AtomicLong drifted = new AtomicLong();
+        final AtomicLong corrected = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final List<BudgetDrift> drifts = Collections.synchronizedList(new ArrayList<>());
+
+        Run(UserShard shard) {
+            this.shard = shard;
+        }
+
+        void recordDrift(BudgetDrift drift, int maxReported) {
+            // Every drift is logged; the in-memory report keeps the first maxReported
+            log.warn("Budget {} spent drifted: stored {}, actual {}", drift.budgetId(), drift.stored(), drift.actual());
+            if (drifted.incrementAndGet() <= maxReported) {
+                drifts.add(drift);
+            }
+        }
+    }
+
+    /**
+     * A budget whose stored spent did not match its transactions.
+     */
+    public record BudgetDrift(Long budgetId, BigDecimal stored, BigDecimal actual) {
+    }
+
+    /**
+     * Outcome of one reconciliation run.
+     */
+    public record ReconciliationReport(int budgets, long partitions, long transactions, long drifted,
+            long corrected, long skipped, List<BudgetDrift> drifts, Duration elapsed) {
+    }
+}
@@ -5,14 +5,17 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.cloudmanagement.server.aggregation.AmountAccumulator;
+import com.cloudmanagement.server.alerts.BudgetSpentChangedEvent;
+import com.cloudmanagement.server.dto.BudgetView;
 import com.cloudmanagement.server.model.Budget;
-import com.cloudmanagement.server.model.Transaction;
-import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.cloudmanagement.server.model.User;
 import com.cloudmanagement.server.repository.BudgetRepository;
-import com.cloudmanagement.server.repository.TransactionRepository;
 
 /**
  * Service layer for Budget business logic.
@@ -22,17 +25,18 @@ import com.cloudmanagement.server.repository.TransactionRepository;
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
-    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public BudgetService(BudgetRepository budgetRepository, TransactionRepository transactionRepository) {
+    public BudgetService(BudgetRepository budgetRepository, ApplicationEventPublisher eventPublisher) {
         this.budgetRepository = budgetRepository;
-        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Get all budgets.
      */
+    @Transactional(readOnly = true)
     public List<Budget> getAllBudgets() {
         return budgetRepository.findAll();
     }
@@ -40,6 +44,7 @@ public class BudgetService {
     /**
      * Get a budget by ID.
      */
+    @Transactional(readOnly = true)
     public Optional<Budget> getBudgetById(Long id) {
         return budgetRepository.findById(id);
     }
@@ -49,6 +54,7 @@ public class BudgetService {
      */
     public Budget createBudget(Budget budget) {
         budget.setId(null);
+        budget.setVersion(null);
         if (budget.getSpent() == null) {
             budget.setSpent(BigDecimal.ZERO);
         }
@@ -57,17 +63,22 @@ public class BudgetService {
 
     /**
      * Update an existing budget.
+     * Throws ObjectOptimisticLockingFailureException if the budget changed since the version the caller read.
      */
     public Optional<Budget> updateBudget(Long id, Budget updatedBudget) {
         Optional<Budget> existingBudget = budgetRepository.findById(id);
 
         if (existingBudget.isPresent()) {
             Budget budget = existingBudget.get();
+            checkVersion(budget, updatedBudget);
+            BigDecimal previousAmount = budget.getAmount();
             budget.setName(updatedBudget.getName());
             budget.setCategory(updatedBudget.getCategory());
             budget.setAmount(updatedBudget.getAmount());
             // Don't update spent directly - it should be calculated from transactions
-            return Optional.of(budgetRepository.save(budget));
+            Budget saved = budgetRepository.save(budget);
+            publishIfChanged(saved, previousAmount, saved.getSpent());
+            return Optional.of(saved);
         }
 
         return Optional.empty();
@@ -85,48 +96,127 @@ public class BudgetService {
     }
 
     /**
-     * Recalculate the spent amount for a budget based on linked transactions.
-     * This should be called when transactions are added/updated/deleted.
+     * Get all budgets owned by a user, as read-only projections.
+     */
+    @Transactional(readOnly = true)
+    public List<BudgetView> getAllBudgets(Long userId) {
+        return budgetRepository.findViewsByUserId(userId);
+    }
+
+    /**
+     * Get a budget by ID, scoped to its owner.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Budget> getBudgetById(Long id, Long userId) {
+        return budgetRepository.findByIdAndUserId(id, userId);
+    }
+
+    /**
+     * Create a new budget owned by the given user.
+     */
+    @Transactional
+    public Budget createBudget(Budget budget, User user) {
+        budget.setUser(user);
+        return createBudget(budget);
+    }
+
+    /**
+     * Update a budget owned by the given user.
+     * Throws if the budget does not exist or belongs to someone else, and
+     * ObjectOptimisticLockingFailureException if it changed since the version the caller read.
+     */
+    @Transactional
+    public Budget updateBudget(Long id, Budget updatedBudget, Long userId) {
+        Budget budget = budgetRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        checkVersion(budget, updatedBudget);
+        BigDecimal previousAmount = budget.getAmount();
+        budget.setName(updatedBudget.getName());
+        budget.setCategory(updatedBudget.getCategory());
+        budget.setAmount(updatedBudget.getAmount());
+        Budget saved = budgetRepository.save(budget);
+        publishIfChanged(saved, previousAmount, saved.getSpent());
+        return saved;
+    }
+
+    // Edits without a version (older clients) are last-writer-wins, as before
+    private static void checkVersion(Budget budget, Budget updatedBudget) {
+        if (updatedBudget.getVersion() != null && !updatedBudget.getVersion().equals(budget.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Budget.class, budget.getId());
+        }
+    }
+
+    /**
+     * Delete a budget owned by the given user.
+     */
+    @Transactional
+    public boolean deleteBudget(Long id, Long userId) {
+        Optional<Budget> budget = budgetRepository.findByIdAndUserId(id, userId);
+        budget.ifPresent(budgetRepository::delete);
+        return budget.isPresent();
+    }
+
+    /**
+     * Recalculate the spent amount for a budget from scratch, based on linked transactions.
+     * Routine changes go through BudgetSpentLedger; this is for repairs.
      */
     @Transactional
     public void recalculateBudgetSpent(Long budgetId) {
         Optional<Budget> budgetOpt = budgetRepository.findById(budgetId);
 
         if (budgetOpt.isPresent()) {
-            Budget budget = budgetOpt.get();
-            List<Transaction> transactions = transactionRepository.findByBudgetId(budgetId);
-
-            // Sum up all EXPENSE transactions linked to this budget
-            BigDecimal totalSpent = transactions.stream()
-                    .filter(t -> t.getType() == TransactionType.EXPENSE)
-                    .map(Transaction::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal previousSpent = budgetOpt.get().getSpent();
+            budgetRepository.recalculateSpent(budgetId);
+            budgetRepository.findById(budgetId)
+                    .ifPresent(budget -> publishIfChanged(budget, budget.getAmount(), previousSpent));
+        }
+    }
 
-            budget.setSpent(totalSpent);
-            budgetRepository.save(budget);
+    // Let the alert engine re-evaluate this budget once the change commits
+    private void publishIfChanged(Budget budget, BigDecimal previousAmount, BigDecimal previousSpent) {
+        if (differs(previousAmount, budget.getAmount()) || differs(previousSpent, budget.getSpent())) {
+            Long userId = budget.getUser() != null ? budget.getUser().getId() : null;
+            eventPublisher.publishEvent(new BudgetSpentChangedEvent(budget.getId(), userId, budget.getName(),
+                    budget.getAmount(), budget.getSpent()));
         }
     }
 
+    private static boolean differs(BigDecimal a, BigDecimal b) {
+        return a == null ? b != null : b == null || a.compareTo(b) != 0;
+    }
+
     /**
      * Get budget summary with analytics.
      */
+    @Transactional(readOnly = true)
     public BudgetSummary getBudgetSummary() {
-        List<Budget> budgets = budgetRepository.findAll();
+        return summarize(budgetRepository.findAll());
+    }
 
-        BigDecimal totalBudgeted = budgets.stream()
-                .map(Budget::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Get budget summary with analytics for a single user.
+     */
+    @Transactional(readOnly = true)
+    public BudgetSummary getBudgetSummary(Long userId) {
+        return summarize(budgetRepository.findByUserId(userId));
+    }
 
-        BigDecimal totalSpent = budgets.stream()
-                .map(Budget::getSpent)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private BudgetSummary summarize(List<Budget> budgets) {
+        AmountAccumulator budgeted = new AmountAccumulator();
+        AmountAccumulator spent = new AmountAccumulator();
+        long overBudgetCount = 0;
+        for (Budget budget : budgets) {
+            budgeted.add(budget.getAmount());
+            spent.add(budget.getSpent());
+            if (budget.getSpent().compareTo(budget.getAmount()) > 0) {
+                overBudgetCount++;
+            }
+        }
 
+        BigDecimal totalBudgeted = budgeted.total();
+        BigDecimal totalSpent = spent.total();
         BigDecimal totalRemaining = totalBudgeted.subtract(totalSpent);
 
-        long overBudgetCount = budgets.stream()
-                .filter(b -> b.getSpent().compareTo(b.getAmount()) > 0)
-                .count();
-
         return new BudgetSummary(totalBudgeted, totalSpent, totalRemaining, overBudgetCount, budgets.size());
     }
 
@@ -0,0 +1,174 @@
+package com.cloudmanagement.server.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cloudmanagement.server.aggregation.AmountAggregator.GroupTotal;
+import com.cloudmanagement.server.alerts.BudgetSpentChangedEvent;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Accumulates changes to Budget.spent without contending on the budget row.
+ *
+ * Writers append commutative delta rows to budget_spent_deltas, in their own transaction, so a
+ * transaction and its effect on the budget commit together and concurrent writers to one popular
+ * budget never wait on each other. Every node merges deltas in the background: a batch of rows is
+ * deleted with FOR UPDATE SKIP LOCKED, summed per budget and added to spent in one statement, so
+ * nodes merge different rows in parallel and a hot budget's row is updated once per merge instead
+ * of once per transaction. Budget rows are locked in id order before the update, so two nodes whose
+ * batches touch the same budgets cannot deadlock. Merged budgets are published as BudgetSpentChangedEvents.
+ *
+ * budgets.spent lags by at most one merge interval; spent plus the budget's unmerged deltas is
+ * always exact, which is what reconciliation compares against.
+ */
+@Service
+public class BudgetSpentLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetSpentLedger.class);
+
+    private static final String APPEND =
+            "INSERT INTO budget_spent_deltas (budget_id, delta) VALUES (?, ?)";
+    private static final String MERGE =
+            "WITH drained AS ("
+            + "DELETE FROM budget_spent_deltas WHERE id IN ("
+            + "SELECT id FROM budget_spent_deltas ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING budget_id, delta), "
+            + "totals AS (SELECT budget_id, sum(delta) AS delta, count(*) AS deltas FROM drained GROUP BY budget_id), "
+            + "locked AS MATERIALIZED (SELECT id FROM budgets WHERE id IN (SELECT budget_id FROM totals) "
+            + "ORDER BY id FOR UPDATE), "
+            + "merged AS (UPDATE budgets b SET spent = coalesce(b.spent, 0) + t.delta "
+            + "FROM totals t JOIN locked l ON l.id = t.budget_id "
+            + "WHERE b.id = t.budget_id RETURNING b.id, b.user_id, b.name, b.amount, b.spent) "
+            + "SELECT t.budget_id, t.deltas, m.user_id, m.name, m.amount, m.spent "
+            + "FROM totals t LEFT JOIN merged m ON m.id = t.budget_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int mergeBatchSize;
+    private final int maxBatchesPerMerge;
+    private final Counter appended;
+    private final Counter merged;
+    private final Timer mergeTimer;
+
+    public BudgetSpentLedger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${app.budgets.spent-merge-batch-size:5000}") int mergeBatchSize,
+            @Value("${app.budgets.spent-max-batches-per-merge:20}") int maxBatchesPerMerge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.mergeBatchSize = mergeBatchSize;
+        this.maxBatchesPerMerge = maxBatchesPerMerge;
+        this.appended = meterRegistry.counter("budgets.spent.deltas", "state", "appended");
+        this.merged = meterRegistry.counter("budgets.spent.deltas", "state", "merged");
+        this.mergeTimer = meterRegistry.timer("budgets.spent.merge");
+    }
+
+    /**
+     * Add a delta to a budget's spent. Joins the caller's transaction, if any.
+     */
+    public void record(Long budgetId, BigDecimal delta) {
+        if (budgetId != null && delta != null && delta.signum() != 0) {
+            jdbcTemplate.update(APPEND, budgetId, delta);
+            appended.increment();
+        }
+    }
+
+    /**
+     * Add one delta per budget, in a single JDBC batch. Joins the caller's transaction, if any.
+     */
+    public void recordAll(Map<Long, GroupTotal> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, GroupTotal> delta : deltas.entrySet()) {
+            BigDecimal sum = delta.getValue().sum();
+            if (sum.signum() != 0) {
+                rows.add(new Object[] { delta.getKey(), sum });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPEND, rows);
+            appended.increment(rows.size());
+        }
+    }
+
+    /**
+     * Record an edited transaction: it contributed previousSpent to previousBudgetId
+     * and now contributes spent to budgetId (either budget may be null).
+     */
+    public void recordChange(Long previousBudgetId, BigDecimal previousSpent, Long budgetId, BigDecimal spent) {
+        if (previousBudgetId != null && previousBudgetId.equals(budgetId)) {
+            record(budgetId, spent.subtract(previousSpent));
+            return;
+        }
+        if (previousBudgetId != null) {
+            record(previousBudgetId, previousSpent.negate());
+        }
+        record(budgetId, spent);
+    }
+
+    /**
+     * What a transaction contributes to its budget's spent: its amount for expenses, else zero.
+     */
+    public static BigDecimal spentBy(Transaction transaction) {
+        return transaction.getType() == TransactionType.EXPENSE && transaction.getAmount() != null
+                ? transaction.getAmount()
+                : BigDecimal.ZERO;
+    }
+
+    /**
+     * Merge pending deltas into budgets.spent, up to maxBatchesPerMerge batches per call.
+     *
+     * @return the number of deltas merged
+     */
+    @Scheduled(fixedDelayString = "${app.budgets.spent-merge-interval-ms:250}")
+    public int merge() {
+        long started = System.nanoTime();
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerMerge; batch++) {
+            Integer count = transactionTemplate.execute(status -> mergeBatch());
+            total += count;
+            if (count < mergeBatchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            merged.increment(total);
+            mergeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("Merged {} budget spent deltas", total);
+        }
+        return total;
+    }
+
+    // Deltas of deleted budgets are dropped along with their batch
+    private int mergeBatch() {
+        int[] deltas = { 0 };
+        jdbcTemplate.query(MERGE, rs -> {
+            deltas[0] += rs.getInt("deltas");
+            BigDecimal spent = rs.getBigDecimal("spent");
+            if (spent != null) {
+                eventPublisher.publishEvent(new BudgetSpentChangedEvent(rs.getLong("budget_id"),
+                        rs.getObject("user_id", Long.class), rs.getString("name"), rs.getBigDecimal("amount"), spent));
+            }
+        }, mergeBatchSize);
+        return deltas[0];
+    }
+}
@@ -0,0 +1,108 @@
+package com.cloudmanagement.server.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.dto.CategoryTotal;
+import com.cloudmanagement.server.dto.DashboardView;
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.repository.TransactionRepository;
+import com.cloudmanagement.server.service.BudgetService.BudgetSummary;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Loads the dashboard's independent queries (budgets, budget summary, recent transactions,
+ * category totals) concurrently, so a dashboard takes as long as its slowest query instead of
+ * the sum of all of them.
+ *
+ * The queries run on a small dedicated pool, so dashboards cannot take more connections than
+ * app.dashboard.threads. When its queue is full the request thread runs the query itself,
+ * degrading to sequential loading rather than failing. The caller's security context goes
+ * with each query, so replica routing still sees the user.
+ */
+@Service
+public class DashboardService {
+
+    private final BudgetService budgetService;
+    private final TransactionRepository transactionRepository;
+    private final ThreadPoolExecutor pool;
+    private final Executor executor;
+    private final long timeoutMs;
+    private final Timer loadTimer;
+    private final MeterRegistry meterRegistry;
+
+    public DashboardService(BudgetService budgetService, TransactionRepository transactionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.dashboard.threads:8}") int threads,
+            @Value("${app.dashboard.queue-capacity:256}") int queueCapacity,
+            @Value("${app.dashboard.timeout-ms:10000}") long timeoutMs) {
+        this.budgetService = budgetService;
+        this.transactionRepository = transactionRepository;
+        this.timeoutMs = timeoutMs;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor = new DelegatingSecurityContextExecutor(pool);
+
+        this.loadTimer = meterRegistry.timer("dashboard.load");
+        Gauge.builder("dashboard.queue.size", pool, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    /**
+     * Load a user's dashboard. Completes exceptionally with a TimeoutException after
+     * app.dashboard.timeout-ms, or with the first query's failure.
+     *
+     * @param recentTransactions how many of the most recent transactions to include
+     */
+    public CompletableFuture<DashboardView> load(Long userId, int recentTransactions) {
+        long started = System.nanoTime();
+        CompletableFuture<List<BudgetView>> budgets = query("budgets",
+                () -> budgetService.getAllBudgets(userId));
+        CompletableFuture<BudgetSummary> summary = query("summary",
+                () -> budgetService.getBudgetSummary(userId));
+        CompletableFuture<List<TransactionView>> recent = query("recent-transactions",
+                () -> transactionRepository.findRecentViewsByUserId(userId, PageRequest.of(0, recentTransactions)));
+        CompletableFuture<List<CategoryTotal>> categoryTotals = query("category-totals",
+                () -> transactionRepository.findCategoryTotalsByUserId(userId));
+
+        return CompletableFuture.allOf(budgets, summary, recent, categoryTotals)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(done -> new DashboardView(budgets.join(), summary.join(), recent.join(),
+                        categoryTotals.join()))
+                .whenComplete((view, e) -> loadTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+    }
+
+    private <T> CompletableFuture<T> query(String part, Supplier<T> query) {
+        Timer timer = meterRegistry.timer("dashboard.query", "part", part);
+        return CompletableFuture.supplyAsync(() -> timer.record(query), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,284 @@
+package com.cloudmanagement.server.service;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cloudmanagement.server.aggregation.AmountAggregator;
+import com.cloudmanagement.server.audit.AuditEvent;
+import com.cloudmanagement.server.audit.AuditEvent.Action;
+import com.cloudmanagement.server.audit.AuditEventListener;
+import com.cloudmanagement.server.audit.AuditLogWriter;
+import com.cloudmanagement.server.model.RecurringTransaction;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.cloudmanagement.server.repository.BudgetRepository;
+import com.cloudmanagement.server.repository.RecurringTransactionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Posts the due occurrences of recurring transaction templates.
+ *
+ * Each round claims a batch of due templates with FOR UPDATE SKIP LOCKED, so nodes running
+ * concurrently split the templates between them instead of posting the same ones. Occurrences
+ * are inserted with one multi-row statement per chunk, keyed by a unique occurrence key
+ * (ON CONFLICT DO NOTHING), so a retried or overlapping run never double-posts. Expenses are
+ * then recorded as one spent delta per affected budget (BudgetSpentLedger), and templates
+ * advance, all in the same transaction. Posted transactions are audited once it commits.
+ */
+@Service
+public class RecurringTransactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringTransactionService.class);
+
+    private static final String CLAIM_DUE =
+            "SELECT id, description, amount, category, type, budget_id, user_id, schedule, end_at, next_run_at "
+            + "FROM recurring_transactions WHERE active AND next_run_at <= ? "
+            + "ORDER BY next_run_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String INSERT_OCCURRENCES =
+            "INSERT INTO transactions (description, amount, category, transaction_date, type, budget_id, user_id, "
+            + "occurrence_key) SELECT * FROM unnest(?::text[], ?::numeric[], ?::text[], ?::timestamp[], ?::text[], "
+            + "?::bigint[], ?::bigint[], ?::text[]) "
+            + "ON CONFLICT (occurrence_key) DO NOTHING "
+            + "RETURNING id, description, amount, category, transaction_date, type, budget_id, user_id, occurrence_key";
+    private static final String ADVANCE =
+            "UPDATE recurring_transactions SET next_run_at = ?, active = ? WHERE id = ?";
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final BudgetRepository budgetRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BudgetSpentLedger spentLedger;
+    private final AuditLogWriter auditLogWriter;
+    private final int batchSize;
+    private final int insertChunkSize;
+    private final int maxOccurrencesPerRun;
+    private final Counter posted;
+    private final Counter duplicates;
+
+    public RecurringTransactionService(RecurringTransactionRepository recurringTransactionRepository,
+            BudgetRepository budgetRepository, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            BudgetSpentLedger spentLedger, AuditLogWriter auditLogWriter, MeterRegistry meterRegistry,
+            @Value("${app.recurring.batch-size:200}") int batchSize,
+            @Value("${app.recurring.insert-chunk-size:1000}") int insertChunkSize,
+            @Value("${app.recurring.max-occurrences-per-run:1000}") int maxOccurrencesPerRun) {
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.budgetRepository = budgetRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.spentLedger = spentLedger;
+        this.auditLogWriter = auditLogWriter;
+        this.batchSize = batchSize;
+        this.insertChunkSize = insertChunkSize;
+        this.maxOccurrencesPerRun = maxOccurrencesPerRun;
+        this.posted = meterRegistry.counter("recurring.transactions.posted");
+        this.duplicates = meterRegistry.counter("recurring.transactions.duplicates");
+    }
+
+    /**
+     * Get a user's templates.
+     */
+    public List<RecurringTransaction> getAll(Long userId) {
+        return recurringTransactionRepository.findByUserId(userId);
+    }
+
+    /**
+     * Create a template owned by a user; its first occurrence is the first schedule time at or
+     * after startAt. Throws IllegalArgumentException for an invalid schedule or a budget the
+     * user does not own.
+     */
+    public RecurringTransaction create(RecurringTransaction template, Long userId) {
+        if (template.getSchedule() == null || !CronExpression.isValidExpression(template.getSchedule())) {
+            throw new IllegalArgumentException("Invalid schedule: " + template.getSchedule());
+        }
+        if (template.getBudgetId() != null
+                && budgetRepository.findByIdAndUserId(template.getBudgetId(), userId).isEmpty()) {
+            throw new IllegalArgumentException("Unknown budget: " + template.getBudgetId());
+        }
+        template.setId(null);
+        template.setUserId(userId);
+        if (template.getStartAt() == null) {
+            template.setStartAt(LocalDateTime.now());
+        }
+        LocalDateTime first = CronExpression.parse(template.getSchedule()).next(template.getStartAt().minusNanos(1));
+        template.setNextRunAt(first);
+        template.setActive(isActive(first, template.getEndAt()));
+        return recurringTransactionRepository.save(template);
+    }
+
+    /**
+     * Delete one of a user's templates; transactions already posted are kept.
+     */
+    public boolean delete(Long id, Long userId) {
+        Optional<RecurringTransaction> template = recurringTransactionRepository.findByIdAndUserId(id, userId);
+        template.ifPresent(recurringTransactionRepository::delete);
+        return template.isPresent();
+    }
+
+    /**
+     * Post everything that is due, one claimed batch per transaction, until nothing is left.
+     */
+    @Scheduled(fixedDelayString = "${app.recurring.poll-interval-ms:60000}")
+    public void materializeDue() {
+        LocalDateTime now = LocalDateTime.now();
+        Boolean more;
+        do {
+            more = transactionTemplate.execute(status -> materializeBatch(now));
+        } while (Boolean.TRUE.equals(more));
+    }
+
+    // Returns true if there may be more due occurrences
+    private boolean materializeBatch(LocalDateTime now) {
+        List<Template> templates = jdbcTemplate.query(CLAIM_DUE, (rs, i) -> new Template(
+                rs.getLong("id"), rs.getString("description"), rs.getBigDecimal("amount"), rs.getString("category"),
+                rs.getString("type"), rs.getObject("budget_id", Long.class), rs.getObject("user_id", Long.class),
+                rs.getString("schedule"),
+                rs.getObject("end_at", LocalDateTime.class), rs.getObject("next_run_at", LocalDateTime.class)),
+                Timestamp.valueOf(now), batchSize);
+        if (templates.isEmpty()) {
+            return false;
+        }
+
+        Occurrences occurrences = new Occurrences();
+        List<Object[]> advances = new ArrayList<>(templates.size());
+        boolean capped = false;
+        for (Template template : templates) {
+            LocalDateTime next = dueOccurrences(CronExpression.parse(template.schedule()), template.nextRunAt(),
+                    template.endAt(), now, maxOccurrencesPerRun, occurrence -> occurrences.add(template, occurrence));
+            boolean active = isActive(next, template.endAt());
+            capped |= active && !next.isAfter(now);
+            advances.add(new Object[] { next == null ? null : Timestamp.valueOf(next), active, template.id() });
+        }
+
+        AmountAggregator<Long> budgetDeltas = new AmountAggregator<>();
+        List<AuditEvent> audit = new ArrayList<>(occurrences.size());
+        for (int from = 0; from < occurrences.size(); from += insertChunkSize) {
+            insertChunk(occurrences, from, Math.min(from + insertChunkSize, occurrences.size()), budgetDeltas, audit);
+        }
+        spentLedger.recordAll(budgetDeltas.totals());
+        jdbcTemplate.batchUpdate(ADVANCE, advances);
+        auditLogWriter.appendAfterCommit(audit);
+
+        int inserted = audit.size();
+
+        posted.increment(inserted);
+        duplicates.increment(occurrences.size() - inserted);
+        log.info("Posted {} recurring transactions from {} templates ({} already posted), {} budgets updated",
+                inserted, templates.size(), occurrences.size() - inserted, budgetDeltas.groupCount());
+        return templates.size() == batchSize || capped;
+    }
+
+    /**
+     * Pass a template's occurrences from next up to now to the consumer, at most max of them and
+     * none after endAt. Returns the occurrence to post next, which is still due if max was reached,
+     * or null if the schedule has no more.
+     */
+    static LocalDateTime dueOccurrences(CronExpression cron, LocalDateTime next, LocalDateTime endAt,
+            LocalDateTime now, int max, Consumer<LocalDateTime> consumer) {
+        int count = 0;
+        while (next != null && !next.isAfter(now) && count < max && (endAt == null || !next.isAfter(endAt))) {
+            consumer.accept(next);
+            next = cron.next(next);
+            count++;
+        }
+        return next;
+    }
+
+    /**
+     * Whether a template still has an occurrence to post at next.
+     */
+    static boolean isActive(LocalDateTime next, LocalDateTime endAt) {
+        return next != null && (endAt == null || !next.isAfter(endAt));
+    }
+
+    // Insert rows [from, to) in one statement; only rows actually inserted count towards budgets and are audited
+    private void insertChunk(Occurrences occurrences, int from, int to, AmountAggregator<Long> budgetDeltas,
+            List<AuditEvent> audit) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_OCCURRENCES);
+            statement.setArray(1, array(connection, "text", occurrences.descriptions.subList(from, to)));
+            statement.setArray(2, array(connection, "numeric", occurrences.amounts.subList(from, to)));
+            statement.setArray(3, array(connection, "text", occurrences.categories.subList(from, to)));
+            statement.setArray(4, array(connection, "timestamp", occurrences.dates.subList(from, to)));
+            statement.setArray(5, array(connection, "text", occurrences.types.subList(from, to)));
+            statement.setArray(6, array(connection, "bigint", occurrences.budgetIds.subList(from, to)));
+            statement.setArray(7, array(connection, "bigint", occurrences.userIds.subList(from, to)));
+            statement.setArray(8, array(connection, "text", occurrences.keys.subList(from, to)));
+            return statement;
+        }, rs -> {
+            Transaction transaction = new Transaction(rs.getString("description"), rs.getBigDecimal("amount"),
+                    rs.getString("category"), rs.getObject("transaction_date", LocalDateTime.class),
+                    TransactionType.valueOf(rs.getString("type")));
+            transaction.setId(rs.getLong("id"));
+            transaction.setBudgetId(rs.getObject("budget_id", Long.class));
+            transaction.setUserId(rs.getObject("user_id", Long.class));
+            transaction.setOccurrenceKey(rs.getString("occurrence_key"));
+            audit.add(AuditEventListener.transactionEvent(Action.INSERT, transaction));
+            if (transaction.getBudgetId() != null && transaction.getType() == TransactionType.EXPENSE) {
+                budgetDeltas.add(transaction.getBudgetId(), transaction.getAmount());
+            }
+        });
+    }
+
+    private static Array array(Connection connection, String type, List<?> values) throws SQLException {
+        return connection.createArrayOf(type, values.toArray());
+    }
+
+    private record Template(long id, String description, BigDecimal amount, String category, String type,
+            Long budgetId, Long userId, String schedule, LocalDateTime endAt, LocalDateTime nextRunAt) {
+    }
+
+    // Occurrences to insert, column by column
+    private static class Occurrences {
+        final List<String> descriptions = new ArrayList<>();
+        final List<BigDecimal> amounts = new ArrayList<>();
+        final List<String> categories = new ArrayList<>();
+        final List<Timestamp> dates = new ArrayList<>();
+        final List<String> types = new ArrayList<>();
+        final List<Long> budgetIds = new ArrayList<>();
+        final List<Long> userIds = new ArrayList<>();
+        final List<String> keys = new ArrayList<>();
+
+        void add(Template template, LocalDateTime occurrence) {
+            descriptions.add(template.description());
+            amounts.add(template.amount());
+            categories.add(template.category());
+            dates.add(Timestamp.valueOf(occurrence));
+            types.add(template.type());
+            budgetIds.add(template.budgetId());
+            userIds.add(template.userId());
+            keys.add(occurrenceKey(template.id(), occurrence));
+        }
+
+        int size() {
+            return keys.size();
+        }
+    }
+
+    /**
+     * Unique key of one occurrence of a template.
+     */
+    static String occurrenceKey(long templateId, LocalDateTime occurrence) {
+        return "rt:" + templateId + ":" + occurrence;
+    }
+}
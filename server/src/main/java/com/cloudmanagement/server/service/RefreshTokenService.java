@@ -0,0 +1,122 @@
+package com.cloudmanagement.server.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cloudmanagement.server.dto.AuthResponse;
+import com.cloudmanagement.server.model.RefreshToken;
+import com.cloudmanagement.server.model.User;
+import com.cloudmanagement.server.repository.RefreshTokenRepository;
+import com.cloudmanagement.server.security.JwtUtil;
+
+/**
+ * Service for refresh token issue, rotation and revocation.
+ * Refresh tokens are random 256-bit values; only their SHA-256 hash is stored.
+ */
+@Service
+public class RefreshTokenService {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.refresh-expiration:2592000000}") // 30 days in milliseconds
+    private long refreshExpiration;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Issue a refresh token for a new login session.
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token.
+     * The presented token is revoked; presenting an already-rotated token again
+     * is treated as theft and revokes every token of its session family.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public AuthResponse rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(InvalidRefreshTokenException::new);
+
+        Instant now = Instant.now();
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException();
+        }
+
+        if (refreshTokenRepository.revokeIfActive(token.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            throw new InvalidRefreshTokenException();
+        }
+
+        User user = token.getUser();
+        String refreshToken = issue(user, token.getFamilyId());
+        String accessToken = jwtUtil.generateToken(user.getUsername());
+
+        return new AuthResponse(accessToken, refreshToken, user.getUsername(), user.getEmail(), user.getRole().name());
+    }
+
+    /**
+     * Revoke the session family of a refresh token (logout). Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), Instant.now()));
+    }
+
+    /**
+     * Remove expired refresh tokens.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), familyId, user,
+                Instant.now().plusMillis(refreshExpiration)));
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Thrown for unknown, expired, revoked or reused refresh tokens.
+     */
+    public static class InvalidRefreshTokenException extends RuntimeException {
+        public InvalidRefreshTokenException() {
+            super("Invalid refresh token");
+        }
+    }
+}
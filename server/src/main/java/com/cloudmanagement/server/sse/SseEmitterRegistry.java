@@ -0,0 +1,61 @@
+package com.cloudmanagement.server.sse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Open Server-Sent Events streams by user.
+ * Each notifier owns its own instance, so a stream only receives the events it was opened for.
+ */
+public class SseEmitterRegistry {
+
+    private final long timeoutMs;
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitterRegistry(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Open a stream for a user; it is dropped when it completes, times out or fails.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Added inside compute, so a concurrent removal cannot drop the list this emitter joins
+        emitters.compute(userId, (id, list) -> {
+            List<SseEmitter> userEmitters = list != null ? list : new CopyOnWriteArrayList<>();
+            userEmitters.add(emitter);
+            return userEmitters;
+        });
+        Runnable remove = () -> emitters.computeIfPresent(userId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * Send a named event to every open stream of a user; a stream that cannot be written is closed.
+     */
+    public void send(Long userId, String eventName, Object data) {
+        List<SseEmitter> userEmitters = userId == null ? null : emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(data));
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
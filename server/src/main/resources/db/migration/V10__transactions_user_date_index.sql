@@ -0,0 +1,4 @@
+-- --------------------
+-- A user's most recent transactions (dashboard, GraphQL recentTransactions)
+-- --------------------
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date ON transactions (user_id, transaction_date DESC, id DESC);
@@ -0,0 +1,75 @@
+-- --------------------
+-- Baseline schema, matching the JPA entities (what ddl-auto=update used to create).
+-- Existing databases created by Hibernate are baselined at this version instead
+-- (spring.flyway.baseline-on-migrate), so IF NOT EXISTS keeps it safe either way.
+-- --------------------
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username varchar(255) UNIQUE,
+    email varchar(255) UNIQUE,
+    password varchar(255),
+    role varchar(255) CHECK (role IN ('USER', 'ADMIN'))
+);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255),
+    category varchar(255),
+    amount numeric(38, 2),
+    spent numeric(38, 2),
+    alert_level integer,
+    user_id bigint REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description varchar(255),
+    amount numeric(38, 2),
+    category varchar(255),
+    transaction_date timestamp(6),
+    type varchar(255) CHECK (type IN ('INCOME', 'EXPENSE')),
+    budget_id bigint,
+    receipt_url varchar(255),
+    occurrence_key varchar(100) UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash varchar(64) NOT NULL UNIQUE,
+    family_id varchar(36) NOT NULL,
+    user_id bigint NOT NULL REFERENCES users (id),
+    expires_at timestamp(6) with time zone NOT NULL,
+    revoked_at timestamp(6) with time zone
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti varchar(36) PRIMARY KEY,
+    expires_at timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS recurring_transactions (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description varchar(255),
+    amount numeric(38, 2),
+    category varchar(255),
+    type varchar(255) CHECK (type IN ('INCOME', 'EXPENSE')),
+    budget_id bigint,
+    schedule varchar(100) NOT NULL,
+    start_at timestamp(6) NOT NULL,
+    end_at timestamp(6),
+    next_run_at timestamp(6),
+    active boolean NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_recurring_due ON recurring_transactions (active, next_run_at);
+
+CREATE TABLE IF NOT EXISTS job_leases (
+    name varchar(200) PRIMARY KEY,
+    owner varchar(100),
+    expires_at timestamp(6),
+    heartbeat_at timestamp(6),
+    completed_cycle varchar(64)
+);
@@ -0,0 +1,27 @@
+-- --------------------
+-- Indexes Hibernate cannot generate (formerly schema.sql, run on every startup)
+-- --------------------
+
+-- Transaction search (TransactionSearchRepository); expressions must match the queries exactly
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_search_fts ON transactions
+    USING GIN (to_tsvector('simple', (coalesce(description, '') || ' ' || coalesce(category, ''))));
+
+CREATE INDEX IF NOT EXISTS idx_transactions_search_trgm ON transactions
+    USING GIN ((coalesce(description, '') || ' ' || coalesce(category, '')) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions (transaction_date);
+
+-- Multi-criteria query (TransactionQueryRepository / TransactionSpecifications)
+CREATE INDEX IF NOT EXISTS idx_transactions_category ON transactions (category);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_budget_id ON transactions (budget_id);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_type_date ON transactions (type, transaction_date);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_description_lower_trgm ON transactions
+    USING GIN (lower(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_category_lower_trgm ON transactions
+    USING GIN (lower(category) gin_trgm_ops);
@@ -0,0 +1,23 @@
+-- --------------------
+-- Bank statement imports (StatementImportService). records_read is the resume checkpoint:
+-- it is committed together with each batch of imported transactions.
+-- --------------------
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    id varchar(36) PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id),
+    filename varchar(255),
+    format varchar(10) NOT NULL CHECK (format IN ('CSV', 'OFX', 'CAMT')),
+    status varchar(20) NOT NULL CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    run_id varchar(36),
+    size_bytes bigint NOT NULL,
+    bytes_read bigint NOT NULL DEFAULT 0,
+    records_read bigint NOT NULL DEFAULT 0,
+    imported bigint NOT NULL DEFAULT 0,
+    invalid bigint NOT NULL DEFAULT 0,
+    error varchar(1000),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_import_jobs_user ON import_jobs (user_id, created_at);
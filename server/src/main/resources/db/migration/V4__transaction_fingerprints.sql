@@ -0,0 +1,11 @@
+-- --------------------
+-- Duplicate detection: transactions remember who created them and the fingerprint of
+-- their source line. Rows from before this migration keep both NULL and are never matched.
+-- --------------------
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS user_id bigint;
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS fingerprint uuid;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_transactions_fingerprint ON transactions (user_id, fingerprint);
+
+ALTER TABLE import_jobs ADD COLUMN IF NOT EXISTS duplicates bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- --------------------
+-- Idempotency-Key handling (IdempotencyFilter). id is "<user>|<key>"; a row is claimed
+-- (completed = false) while the first request runs and then holds its response until expiry.
+-- --------------------
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id varchar(400) PRIMARY KEY,
+    request_hash varchar(64) NOT NULL,
+    completed boolean NOT NULL,
+    status integer,
+    content_type varchar(255),
+    location varchar(1000),
+    body bytea,
+    created_at timestamp(6) NOT NULL,
+    expires_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expiry ON idempotency_keys (expires_at);
@@ -0,0 +1,17 @@
+-- --------------------
+-- Optimistic locking for budget edits, and spent changes as commutative delta rows.
+-- Writers append to budget_spent_deltas instead of updating the budget row; BudgetSpentLedger
+-- merges the rows into budgets.spent in the background. Until then budgets.spent plus the
+-- budget's unmerged deltas is its current spent.
+-- --------------------
+
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS budget_spent_deltas (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    budget_id bigint NOT NULL,
+    delta numeric(38, 2) NOT NULL,
+    created_at timestamp(6) NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_budget_spent_deltas_budget ON budget_spent_deltas (budget_id);
@@ -0,0 +1,46 @@
+-- --------------------
+-- Append-only audit history of Transaction and Budget changes (AuditLogWriter).
+-- Partitioned by month (UTC) on occurred_at: audit_log_ensure_partition creates a month's
+-- partition, and whole months can later be detached or dropped. Rows cannot be updated
+-- or deleted. There is no JPA entity; the table is written and read with SQL only.
+-- --------------------
+
+CREATE SEQUENCE IF NOT EXISTS audit_log_id_seq;
+
+CREATE TABLE IF NOT EXISTS audit_log (
+    id bigint NOT NULL DEFAULT nextval('audit_log_id_seq'),
+    occurred_at timestamp(6) with time zone NOT NULL,
+    actor varchar(255) NOT NULL,
+    action varchar(16) NOT NULL,
+    entity_type varchar(64) NOT NULL,
+    entity_id varchar(64) NOT NULL,
+    owner_id bigint,
+    before_state jsonb,
+    after_state jsonb,
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE INDEX IF NOT EXISTS idx_audit_log_entity ON audit_log (entity_type, entity_id, id);
+CREATE INDEX IF NOT EXISTS idx_audit_log_owner ON audit_log (owner_id, id);
+
+CREATE OR REPLACE FUNCTION audit_log_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'audit_log is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS audit_log_append_only ON audit_log;
+CREATE TRIGGER audit_log_append_only BEFORE UPDATE OR DELETE ON audit_log
+    FOR EACH ROW EXECUTE FUNCTION audit_log_append_only();
+
+CREATE OR REPLACE FUNCTION audit_log_ensure_partition(month date) RETURNS void AS $$
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_log FOR VALUES FROM (%L) TO (%L)',
+            'audit_log_' || to_char(month, 'YYYY_MM'),
+            date_trunc('month', month)::timestamp AT TIME ZONE 'UTC',
+            (date_trunc('month', month) + interval '1 month')::timestamp AT TIME ZONE 'UTC');
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT audit_log_ensure_partition(current_date);
+SELECT audit_log_ensure_partition((current_date + interval '1 month')::date);
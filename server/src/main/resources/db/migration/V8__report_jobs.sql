@@ -0,0 +1,23 @@
+-- --------------------
+-- Generated reports (ReportService). The output file is named after the job id in the report
+-- store and is deleted together with the row once expires_at has passed.
+-- --------------------
+
+CREATE TABLE IF NOT EXISTS report_jobs (
+    id varchar(36) PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id),
+    type varchar(20) NOT NULL CHECK (type IN ('MONTHLY_STATEMENT', 'CATEGORY_REPORT')),
+    format varchar(10) NOT NULL CHECK (format IN ('CSV', 'PDF')),
+    period_start date NOT NULL,
+    period_end date NOT NULL,
+    status varchar(20) NOT NULL CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    transactions bigint NOT NULL DEFAULT 0,
+    size_bytes bigint NOT NULL DEFAULT 0,
+    error varchar(1000),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    expires_at timestamp(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_report_jobs_user ON report_jobs (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_report_jobs_expiry ON report_jobs (expires_at);
@@ -0,0 +1,12 @@
+-- --------------------
+-- Recurring transaction templates belong to the user who created them; their postings carry
+-- that user_id like other transactions. Existing templates take the owner of their budget;
+-- templates without a budget stay unowned and are visible to no one.
+-- --------------------
+
+ALTER TABLE recurring_transactions ADD COLUMN IF NOT EXISTS user_id bigint REFERENCES users (id);
+
+UPDATE recurring_transactions r SET user_id = b.user_id
+FROM budgets b WHERE r.budget_id = b.id AND r.user_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_recurring_user ON recurring_transactions (user_id);
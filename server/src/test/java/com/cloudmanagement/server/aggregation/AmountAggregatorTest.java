@@ -0,0 +1,70 @@
+package com.cloudmanagement.server.aggregation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class AmountAggregatorTest {
+
+    @Test
+    public void groupsSumsAndCountsExactly() {
+        AmountAggregator<String> aggregator = new AmountAggregator<>();
+        aggregator.add("Infrastructure", new BigDecimal("450.00"));
+        aggregator.add("Software", new BigDecimal("0.10"));
+        aggregator.add("Infrastructure", new BigDecimal("-0.05"));
+        aggregator.add("Software", new BigDecimal("0.2"));
+        aggregator.add("Software", null);
+
+        assertEquals(2, aggregator.groupCount());
+        assertEquals(new BigDecimal("449.95"), aggregator.total("Infrastructure"));
+        assertEquals(new BigDecimal("0.30"), aggregator.total("Software"));
+        assertEquals(3, aggregator.count("Software"));
+        assertEquals(List.of("Infrastructure", "Software"), List.copyOf(aggregator.totals().keySet()));
+    }
+
+    @Test
+    public void spillsToBigDecimalOnOverflowAndExtraPrecision() {
+        AmountAggregator<Long> aggregator = new AmountAggregator<>();
+        BigDecimal large = MinorUnits.toAmount(Long.MAX_VALUE - 1, 2);
+        aggregator.add(1L, large);
+        aggregator.add(1L, large);
+        aggregator.add(1L, new BigDecimal("0.005"));
+        aggregator.add(1L, new BigDecimal("1E+30"));
+
+        BigDecimal expected = large.add(large).add(new BigDecimal("0.005")).add(new BigDecimal("1E+30"));
+        assertEquals(0, expected.compareTo(aggregator.total(1L)));
+        assertEquals(4, aggregator.count(1L));
+    }
+
+    @Test
+    public void mergeCombinesPartialAggregates() {
+        AmountAggregator<String> left = new AmountAggregator<>();
+        AmountAggregator<String> right = new AmountAggregator<>();
+        for (int i = 0; i < 100; i++) {
+            left.add("c" + (i % 20), new BigDecimal(i + ".01"));
+            right.add("c" + (i % 30), new BigDecimal(i + ".01"));
+        }
+        left.merge(right);
+
+        assertEquals(30, left.groupCount());
+        assertEquals(9, left.count("c0"));
+        // c0 collects i = 0, 20, 40, 60, 80 from left and 0, 30, 60, 90 from right
+        assertEquals(new BigDecimal("380.09"), left.total("c0"));
+    }
+
+    @Test
+    public void accumulatorMatchesBigDecimalReduce() {
+        AmountAccumulator accumulator = new AmountAccumulator();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = -500; i < 500; i++) {
+            BigDecimal amount = new BigDecimal(i).movePointLeft(2).add(new BigDecimal("123456789012.34"));
+            accumulator.add(amount);
+            expected = expected.add(amount);
+        }
+        assertEquals(0, expected.compareTo(accumulator.total()));
+        assertEquals(1000, accumulator.count());
+    }
+}
@@ -0,0 +1,148 @@
+package com.cloudmanagement.server.alerts;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.repository.BudgetRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BudgetAlertEngineTest {
+
+    private static final int[] THRESHOLDS = { 80, 100 };
+    private static final BigDecimal AMOUNT = new BigDecimal("100");
+
+    private final List<BudgetAlert> delivered = new ArrayList<>();
+    // Stand in for budgets.alert_level and budgets.spent of budget 1
+    private final AtomicInteger storedLevel = new AtomicInteger();
+    private final AtomicReference<BigDecimal> storedSpent = new AtomicReference<>(BigDecimal.ZERO);
+    private final BudgetRepository repository = mock(BudgetRepository.class);
+    private BudgetAlertEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        when(repository.findViewById(1L)).thenAnswer(call -> Optional.of(
+                new BudgetView(1L, "Cloud", "Infrastructure", AMOUNT, storedSpent.get(), 0L)));
+        when(repository.raiseAlertLevel(anyLong(), anyInt(), anyInt())).thenAnswer(call -> {
+            int level = call.getArgument(1);
+            return storedLevel.get() < level && reaches(call.getArgument(2)) ? set(level) : 0;
+        });
+        when(repository.lowerAlertLevel(anyLong(), anyInt(), anyInt())).thenAnswer(call -> {
+            int level = call.getArgument(1);
+            return storedLevel.get() > level && !reaches(call.getArgument(2)) ? set(level) : 0;
+        });
+        engine = engine();
+    }
+
+    private BudgetAlertEngine engine() {
+        AlertNotifier collecting = new AlertNotifier() {
+            @Override
+            public String name() {
+                return "test";
+            }
+
+            @Override
+            public void notify(BudgetAlert alert) {
+                delivered.add(alert);
+            }
+        };
+        return new BudgetAlertEngine(repository, List.of(collecting), new SimpleMeterRegistry(), THRESHOLDS, 1, 10);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        engine.shutdown();
+    }
+
+    @Test
+    public void levelCountsReachedThresholds() {
+        BigDecimal amount = new BigDecimal("200.00");
+        assertEquals(0, BudgetAlertEngine.level(THRESHOLDS, amount, new BigDecimal("159.99")));
+        assertEquals(1, BudgetAlertEngine.level(THRESHOLDS, amount, new BigDecimal("160.00")));
+        assertEquals(2, BudgetAlertEngine.level(THRESHOLDS, amount, new BigDecimal("200.00")));
+        assertEquals(0, BudgetAlertEngine.level(THRESHOLDS, BigDecimal.ZERO, new BigDecimal("10")));
+    }
+
+    @Test
+    public void alertsFireOncePerCrossingAndReArmBelowThreshold() {
+        spend("50");
+        spend("85");
+        spend("90");
+        spend("85");
+        spend("120");
+        spend("10");
+        spend("95");
+
+        assertEquals(List.of(80, 100, 80), delivered.stream().map(BudgetAlert::thresholdPercent).toList());
+    }
+
+    @Test
+    public void crossingSeveralThresholdsAtOnceNotifiesTheHighest() {
+        spend("150");
+        spend("150");
+
+        assertEquals(List.of(100), delivered.stream().map(BudgetAlert::thresholdPercent).toList());
+    }
+
+    @Test
+    public void alertsFireOncePerCrossingWhateverNodeEvaluates() throws InterruptedException {
+        BudgetAlertEngine other = engine();
+        try {
+            spend(engine, "85");
+            spend(other, "50");
+            // This node saw level 1 before; the other node re-armed the threshold since
+            spend(engine, "85");
+            spend(other, "85");
+        } finally {
+            other.shutdown();
+        }
+
+        assertEquals(List.of(80, 80), delivered.stream().map(BudgetAlert::thresholdPercent).toList());
+    }
+
+    @Test
+    public void outdatedEventsAreJudgedByTheCurrentSpent() {
+        storedSpent.set(new BigDecimal("50"));
+        engine.evaluate(new BudgetSpentChangedEvent(1L, 7L, "Cloud", AMOUNT, new BigDecimal("120")));
+        assertEquals(List.of(), delivered);
+
+        storedSpent.set(new BigDecimal("90"));
+        engine.evaluate(new BudgetSpentChangedEvent(1L, 7L, "Cloud", AMOUNT, new BigDecimal("10")));
+        assertEquals(List.of(80), delivered.stream().map(BudgetAlert::thresholdPercent).toList());
+        assertEquals(new BigDecimal("90"), delivered.get(0).spent());
+    }
+
+    private void spend(String spent) {
+        spend(engine, spent);
+    }
+
+    private void spend(BudgetAlertEngine node, String spent) {
+        storedSpent.set(new BigDecimal(spent));
+        node.evaluate(new BudgetSpentChangedEvent(1L, 7L, "Cloud", AMOUNT, storedSpent.get()));
+    }
+
+    private boolean reaches(int thresholdPercent) {
+        return storedSpent.get().multiply(BigDecimal.valueOf(100))
+                .compareTo(AMOUNT.multiply(BigDecimal.valueOf(thresholdPercent))) >= 0;
+    }
+
+    private int set(int level) {
+        storedLevel.set(level);
+        return 1;
+    }
+}
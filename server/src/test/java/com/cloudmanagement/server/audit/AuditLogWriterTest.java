@@ -0,0 +1,104 @@
+package com.cloudmanagement.server.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cloudmanagement.server.audit.AuditEvent.Action;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuditLogWriterTest {
+
+    private static final int APP_POOL_SIZE = 4;
+    // More than the buffer (4) plus the batch the stalled flusher holds (2)
+    private static final int EVENTS_PER_THREAD = 8;
+
+    @Test
+    public void shouldReleaseWritersBlockedOnAFullBufferWhileTheAppPoolIsExhausted() throws Exception {
+        // The database stalls until released; meanwhile the buffer fills up
+        CountDownLatch database = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditLogWriter writer = new AuditLogWriter(new JdbcTemplate(auditDataSource(database)), new ObjectMapper(),
+                meterRegistry, 4, 2, 10, 50, 5_000);
+        writer.start();
+
+        // Committing threads each hold an application pool connection while they append
+        Semaphore appPool = new Semaphore(APP_POOL_SIZE);
+        List<Thread> committers = new ArrayList<>();
+        for (int i = 0; i < APP_POOL_SIZE; i++) {
+            Thread committer = new Thread(() -> {
+                appPool.acquireUninterruptibly();
+                try {
+                    for (int e = 0; e < EVENTS_PER_THREAD; e++) {
+                        writer.append(event());
+                    }
+                } finally {
+                    appPool.release();
+                }
+            });
+            committer.start();
+            committers.add(committer);
+        }
+
+        // Every committer needs more slots than the whole buffer has, so all of them wait
+        Thread.sleep(200);
+        assertEquals(0, appPool.availablePermits());
+        assertTrue(committers.stream().allMatch(Thread::isAlive));
+        assertFalse(appPool.tryAcquire());
+
+        // The flusher does not need the exhausted pool: once the database answers, everyone completes
+        database.countDown();
+        for (Thread committer : committers) {
+            committer.join(5_000);
+            assertFalse(committer.isAlive());
+        }
+        writer.stop();
+
+        assertEquals(APP_POOL_SIZE, appPool.availablePermits());
+        assertEquals(APP_POOL_SIZE * EVENTS_PER_THREAD,
+                meterRegistry.counter("audit.events", "state", "written").count());
+        assertEquals(0, meterRegistry.counter("audit.events", "state", "dropped").count());
+        assertTrue(meterRegistry.timer("audit.append.blocked").count() > 0);
+    }
+
+    private static DataSource auditDataSource(CountDownLatch database) throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeUpdate()).thenReturn(1);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.createArrayOf(anyString(), any())).thenReturn(mock(Array.class));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            database.await(10, TimeUnit.SECONDS);
+            return connection;
+        });
+        return dataSource;
+    }
+
+    private static AuditEvent event() {
+        return new AuditEvent(Instant.now(), "alice", Action.INSERT, "Transaction", "1", 1L, null,
+                Map.of("amount", 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.cloudmanagement.server.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+public class AuditRingBufferTest {
+
+    @Test
+    public void shouldRejectWhenFullAndAcceptAfterDrain() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drain(drained::add, 2));
+        assertEquals(List.of(0, 1), drained);
+        assertTrue(buffer.offer(4));
+        assertTrue(buffer.offer(5));
+        assertEquals(4, buffer.drain(drained::add, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void shouldDeliverEveryElementOnceInProducerOrder() throws Exception {
+        int producers = 8;
+        int perProducer = 50_000;
+        AuditRingBuffer<long[]> buffer = new AuditRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                futures.add(executor.submit(() -> {
+                    for (long i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(new long[] { producer, i })) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }));
+            }
+
+            long[] next = new long[producers];
+            long received = 0;
+            while (received < (long) producers * perProducer) {
+                received += buffer.drain(element -> {
+                    assertEquals(next[(int) element[0]]++, element[1]);
+                }, 256);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            for (long count : next) {
+                assertEquals(perProducer, count);
+            }
+            assertEquals(0, buffer.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.cloudmanagement.server.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.cloudmanagement.server.aggregation.AmountAccumulator;
+import com.cloudmanagement.server.aggregation.AmountAggregator;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+/**
+ * JMH comparison of the BigDecimal stream sums used by BudgetService against
+ * AmountAccumulator / AmountAggregator. The GC profiler reports gc.alloc.rate.norm,
+ * i.e. bytes allocated per aggregation. Run with:
+ * mvn test -Dtest=AmountAggregationBenchmark -Dbenchmark=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AmountAggregationBenchmark {
+
+    private static final int CATEGORIES = 20;
+
+    @Param({ "10000", "1000000" })
+    public int rows;
+
+    private List<Transaction> transactions;
+    // The same data as columns, as a JDBC loader would fill them
+    private long[] minorAmounts;
+    private String[] categories;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        transactions = new ArrayList<>(rows);
+        minorAmounts = new long[rows];
+        categories = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            long cents = random.nextInt(1_000_000);
+            String category = "Category " + random.nextInt(CATEGORIES);
+            transactions.add(new Transaction("row " + i, BigDecimal.valueOf(cents, 2), category,
+                    now, TransactionType.EXPENSE));
+            minorAmounts[i] = cents;
+            categories[i] = category;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal totalStreamReduce() {
+        return transactions.stream()
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal totalAccumulator() {
+        AmountAccumulator total = new AmountAccumulator();
+        for (Transaction transaction : transactions) {
+            total.add(transaction.getAmount());
+        }
+        return total.total();
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> byCategoryStreamGrouping() {
+        return transactions.stream()
+                .collect(Collectors.groupingBy(Transaction::getCategory,
+                        Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+    }
+
+    @Benchmark
+    public Map<String, AmountAggregator.GroupTotal> byCategoryAggregator() {
+        AmountAggregator<String> aggregator = new AmountAggregator<>();
+        for (Transaction transaction : transactions) {
+            aggregator.add(transaction.getCategory(), transaction.getAmount());
+        }
+        return aggregator.totals();
+    }
+
+    @Benchmark
+    public Map<String, AmountAggregator.GroupTotal> byCategoryAggregatorColumnar() {
+        AmountAggregator<String> aggregator = new AmountAggregator<>();
+        for (int i = 0; i < minorAmounts.length; i++) {
+            aggregator.addMinor(categories[i], minorAmounts[i]);
+        }
+        return aggregator.totals();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AmountAggregationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .build()).run();
+    }
+}
@@ -0,0 +1,157 @@
+package com.cloudmanagement.server.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cloudmanagement.server.service.BudgetSpentLedger;
+
+/**
+ * Dozens of writers adding expenses to one budget: updating the budget row in every
+ * transaction (the previous approach) against appending spent deltas merged in the background.
+ * Needs the local PostgreSQL database; run with:
+ * mvn test -Dtest=BudgetContentionBenchmark -Dbenchmark=true
+ */
+@SpringBootTest(properties = "app.budgets.spent-merge-interval-ms=3600000")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class BudgetContentionBenchmark {
+
+    private static final int WRITERS = 48;
+    private static final int WRITES_PER_WRITER = 200;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+    private static final String MARKER = "contention-benchmark";
+
+    private static final String INSERT_EXPENSE =
+            "INSERT INTO transactions (description, amount, category, transaction_date, type, budget_id) "
+            + "VALUES (?, ?, 'Infrastructure', ?, 'EXPENSE', ?)";
+    private static final String ADD_TO_SPENT =
+            "UPDATE budgets SET spent = coalesce(spent, 0) + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BudgetSpentLedger spentLedger;
+
+    private final List<Long> budgetIds = new ArrayList<>();
+
+    @AfterAll
+    public void cleanup() {
+        for (Long budgetId : budgetIds) {
+            jdbcTemplate.update("DELETE FROM transactions WHERE budget_id = ?", budgetId);
+            jdbcTemplate.update("DELETE FROM budget_spent_deltas WHERE budget_id = ?", budgetId);
+            jdbcTemplate.update("DELETE FROM budgets WHERE id = ?", budgetId);
+        }
+    }
+
+    @Test
+    public void compareRowUpdatesAndSpentDeltas() throws Exception {
+        // Warm up the pool and both code paths
+        run(budget -> jdbcTemplate.update(ADD_TO_SPENT, AMOUNT, budget), 4, 50);
+        run(budget -> spentLedger.record(budget, AMOUNT), 4, 50);
+        spentLedger.merge();
+
+        Result rowUpdates = run(budget -> jdbcTemplate.update(ADD_TO_SPENT, AMOUNT, budget), WRITERS,
+                WRITES_PER_WRITER);
+        Result deltas = run(budget -> spentLedger.record(budget, AMOUNT), WRITERS, WRITES_PER_WRITER);
+        long mergeStart = System.nanoTime();
+        while (spentLedger.merge() > 0) {
+            // drain
+        }
+        double mergeMs = (System.nanoTime() - mergeStart) / 1e6;
+
+        BigDecimal expected = AMOUNT.multiply(BigDecimal.valueOf((long) WRITERS * WRITES_PER_WRITER));
+        assertEquals(0, expected.compareTo(spent(rowUpdates.budgetId())));
+        assertEquals(0, expected.compareTo(spent(deltas.budgetId())));
+
+        System.out.printf("%d writers x %d expenses on one budget%n", WRITERS, WRITES_PER_WRITER);
+        System.out.printf("%-12s %12s %10s %10s%n", "spent", "writes/s", "p50 ms", "p99 ms");
+        print("row update", rowUpdates);
+        print("deltas", deltas);
+        System.out.printf("merging %d deltas took %.1f ms%n", WRITERS * WRITES_PER_WRITER, mergeMs);
+    }
+
+    private Result run(SpentWriter writer, int writers, int writesPerWriter) throws Exception {
+        Long budgetId = jdbcTemplate.queryForObject(
+                "INSERT INTO budgets (name, category, amount, spent) VALUES (?, 'Infrastructure', 1000000, 0) RETURNING id",
+                Long.class, MARKER);
+        budgetIds.add(budgetId);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            results.add(executor.submit(() -> {
+                long[] latencies = new long[writesPerWriter];
+                start.await();
+                for (int i = 0; i < writesPerWriter; i++) {
+                    long began = System.nanoTime();
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update(INSERT_EXPENSE, MARKER, AMOUNT, Timestamp.valueOf(LocalDateTime.now()),
+                                budgetId);
+                        writer.add(budgetId);
+                    });
+                    latencies[i] = System.nanoTime() - began;
+                }
+                return latencies;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        long[] all = new long[writers * writesPerWriter];
+        int n = 0;
+        for (Future<long[]> result : results) {
+            for (long latency : result.get()) {
+                all[n++] = latency;
+            }
+        }
+        long elapsed = System.nanoTime() - began;
+        executor.shutdown();
+
+        Arrays.sort(all);
+        return new Result(budgetId, all.length / (elapsed / 1e9), all[all.length / 2] / 1e6,
+                all[(int) (all.length * 0.99)] / 1e6);
+    }
+
+    private BigDecimal spent(Long budgetId) {
+        return jdbcTemplate.queryForObject("SELECT spent FROM budgets WHERE id = ?", BigDecimal.class, budgetId);
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-12s %12.0f %10.2f %10.2f%n", name, result.writesPerSecond(), result.p50Ms(),
+                result.p99Ms());
+    }
+
+    @FunctionalInterface
+    private interface SpentWriter {
+        void add(Long budgetId);
+    }
+
+    private record Result(Long budgetId, double writesPerSecond, double p50Ms, double p99Ms) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.cloudmanagement.server.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Boots the native binary and the JVM jar against the local PostgreSQL database
+ * and compares startup time and resident memory once the context is up.
+ * Build both first (./mvnw -Pnative package), then run with:
+ * mvn test -Dtest=NativeImageSmokeTest -DnativeSmoke=true
+ */
+@EnabledIfSystemProperty(named = "nativeSmoke", matches = "true")
+public class NativeImageSmokeTest {
+
+    private static final Pattern STARTED =
+            Pattern.compile("Started ServerApplication in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+    private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+    @Test
+    public void nativeImageBootsFasterAndSmaller() throws Exception {
+        Path nativeImage = Path.of("target", "server");
+        Path jar = Path.of("target", "server-0.0.1-SNAPSHOT.jar");
+        assertTrue(Files.isExecutable(nativeImage), "native image not built: " + nativeImage);
+        assertTrue(Files.isRegularFile(jar), "jar not built: " + jar);
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        double[] jvm = boot(List.of(java, "-jar", jar.toString()));
+        double[] image = boot(List.of(nativeImage.toString()));
+
+        System.out.printf("%-8s %14s %14s %12s%n", "build", "context (s)", "process (s)", "RSS (MB)");
+        System.out.printf("%-8s %14.3f %14.3f %12.1f%n", "jvm", jvm[0], jvm[1], jvm[2]);
+        System.out.printf("%-8s %14.3f %14.3f %12.1f%n", "native", image[0], image[1], image[2]);
+    }
+
+    // Start the process and return Spring's "started in" and "process running for" times and RSS in MB
+    private static double[] boot(List<String> executable) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(executable);
+        command.add("--server.port=0");
+        command.add("--spring.main.banner-mode=off");
+        command.add("--spring.profiles.active=prod,fast");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    return new double[] {
+                            Double.parseDouble(matcher.group(1)),
+                            Double.parseDouble(matcher.group(2)),
+                            residentMegabytes(process.pid()) };
+                }
+            }
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+        return fail("application did not start: " + String.join(" ", executable));
+    }
+
+    // Linux only; reports NaN elsewhere
+    private static double residentMegabytes(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.isReadable(status)) {
+            return Double.NaN;
+        }
+        Matcher matcher = VM_RSS.matcher(Files.readString(status));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) / 1024.0 : Double.NaN;
+    }
+}
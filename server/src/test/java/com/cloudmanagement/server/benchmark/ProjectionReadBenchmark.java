@@ -0,0 +1,98 @@
+package com.cloudmanagement.server.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cloudmanagement.server.repository.TransactionRepository;
+
+/**
+ * Compares entity hydration against record projections for a 100k-row list read.
+ * Needs the local PostgreSQL database; run with:
+ * mvn test -Dtest=ProjectionReadBenchmark -Dbenchmark=true
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ProjectionReadBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+    private static final String MARKER = "projection-benchmark";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int existingRows;
+
+    @BeforeAll
+    public void seed() {
+        existingRows = (int) transactionRepository.count();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (description, amount, category, transaction_date, type) VALUES (?, ?, ?, ?, ?)",
+                IntStream.range(0, ROWS)
+                        .mapToObj(i -> new Object[] { MARKER + " " + i, new BigDecimal(i % 1000 + ".99"),
+                                "Category " + (i % 20), Timestamp.valueOf(now.minusMinutes(i)),
+                                i % 5 == 0 ? "INCOME" : "EXPENSE" })
+                        .toList());
+    }
+
+    @AfterAll
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE description LIKE ?", MARKER + "%");
+    }
+
+    @Test
+    public void compareEntityAndProjectionReads() {
+        Result entities = measure(() -> transactionRepository.findAllByOrderByTransactionDateDesc());
+        Result projections = measure(() -> transactionRepository.findAllViews());
+
+        System.out.printf("%-12s %12s %16s%n", "read", "avg ms", "avg alloc MB");
+        System.out.printf("%-12s %12.1f %16.1f%n", "entities", entities.avgMs(), entities.avgAllocMb());
+        System.out.printf("%-12s %12.1f %16.1f%n", "projections", projections.avgMs(), projections.avgAllocMb());
+    }
+
+    private Result measure(Supplier<List<?>> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+        }
+
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            List<?> rows = read.get();
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            assertEquals(ROWS + existingRows, rows.size());
+        }
+        return new Result(totalNanos / 1e6 / ITERATIONS, totalBytes / 1024.0 / 1024.0 / ITERATIONS);
+    }
+
+    private record Result(double avgMs, double avgAllocMb) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.cloudmanagement.server.benchmark;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.cloudmanagement.server.ServerApplication;
+
+/**
+ * Measures application startup, default profile vs the fast-startup profile.
+ * Every run is a fresh JVM, so class loading and JIT warm-up are included as in production.
+ * Needs the local PostgreSQL database; run with:
+ * mvn test -Dtest=StartupBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Pattern STARTED =
+            Pattern.compile("Started ServerApplication in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+
+    @Test
+    public void compareStartupTimes() throws Exception {
+        List<String[]> variants = List.of(
+                new String[] { "default", "" },
+                new String[] { "fast", "fast" },
+                new String[] { "prod,fast", "prod,fast" });
+
+        System.out.printf("%-12s %14s %14s%n", "profile", "context (s)", "process (s)");
+        for (String[] variant : variants) {
+            double[] context = new double[RUNS];
+            double[] process = new double[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                double[] times = boot(variant[1]);
+                context[i] = times[0];
+                process[i] = times[1];
+            }
+            System.out.printf("%-12s %14.3f %14.3f%n", variant[0], median(context), median(process));
+        }
+    }
+
+    // Start the app in a child JVM and return Spring's "started in" and "process running for" times
+    private static double[] boot(String profiles) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"),
+                ServerApplication.class.getName(),
+                "--server.port=0",
+                "--spring.main.banner-mode=off"));
+        if (!profiles.isEmpty()) {
+            command.add("--spring.profiles.active=" + profiles);
+        }
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    return new double[] { Double.parseDouble(matcher.group(1)), Double.parseDouble(matcher.group(2)) };
+                }
+            }
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+        return fail("application did not start with profiles '" + profiles + "'");
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,96 @@
+package com.cloudmanagement.server.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routing decisions of ReplicaRoutingDataSource.
+ * Uses unconnected stand-in DataSources, so no database is needed.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    public void setup() {
+        routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource("jdbc:primary"),
+                List.of(new DriverManagerDataSource("jdbc:replica0"), new DriverManagerDataSource("jdbc:replica1")),
+                new ReadYourWritesTracker(Duration.ofMinutes(1)),
+                Duration.ofSeconds(5),
+                "SELECT 0");
+        routing.afterPropertiesSet();
+        routing.updateReplicaLag("replica-0", Duration.ZERO);
+        routing.updateReplicaLag("replica-1", Duration.ZERO);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void shouldRouteReadOnlyTransactionsToReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Object first = routing.determineCurrentLookupKey();
+        Object second = routing.determineCurrentLookupKey();
+
+        assertEquals(List.of("replica-0", "replica-1"), List.of(first, second).stream().sorted().toList());
+    }
+
+    @Test
+    public void shouldRouteWritesToPrimary() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void shouldKeepReadsOnPrimaryAfterOwnWrite() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        routing.determineCurrentLookupKey();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        // Another user is not affected by alice's write
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void shouldFallBackToPrimaryWhenReplicasLag() {
+        routing.updateReplicaLag("replica-0", Duration.ofSeconds(30));
+        routing.updateReplicaLag("replica-1", Duration.ofSeconds(30));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void shouldSkipLaggingReplica() {
+        routing.updateReplicaLag("replica-0", Duration.ofSeconds(30));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-1", routing.determineCurrentLookupKey());
+        }
+    }
+}
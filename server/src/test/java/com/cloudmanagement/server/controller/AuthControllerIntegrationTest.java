@@ -1,8 +1,10 @@
 package com.cloudmanagement.server.controller;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,10 +14,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import com.cloudmanagement.server.dto.LoginRequest;
+import com.cloudmanagement.server.dto.RefreshRequest;
 import com.cloudmanagement.server.dto.RegisterRequest;
+import com.cloudmanagement.server.repository.RefreshTokenRepository;
 import com.cloudmanagement.server.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @SpringBootTest
@@ -28,14 +36,26 @@ public class AuthControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @BeforeEach
     public void setup() {
+        refreshTokenRepository.deleteAll();
         userRepository.deleteAll();
     }
 
+    // Register and login complete asynchronously (password hashing runs off the request thread)
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     @Test
     public void shouldRegisterUserSuccessfully() throws Exception {
         RegisterRequest request = new RegisterRequest();
@@ -43,7 +63,7 @@ public class AuthControllerIntegrationTest {
         request.setEmail("test@example.com");
         request.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -59,7 +79,7 @@ public class AuthControllerIntegrationTest {
         registerRequest.setEmail("test@example.com");
         registerRequest.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isOk());
@@ -69,7 +89,7 @@ public class AuthControllerIntegrationTest {
         loginRequest.setUsername("testuser");
         loginRequest.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
@@ -85,7 +105,7 @@ public class AuthControllerIntegrationTest {
         registerRequest.setEmail("test@example.com");
         registerRequest.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isOk());
@@ -95,7 +115,7 @@ public class AuthControllerIntegrationTest {
         loginRequest.setUsername("testuser");
         loginRequest.setPassword("wrongpassword");
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isUnauthorized());
@@ -109,7 +129,7 @@ public class AuthControllerIntegrationTest {
         registerRequest.setEmail("test@example.com");
         registerRequest.setPassword("password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isOk());
@@ -119,7 +139,7 @@ public class AuthControllerIntegrationTest {
         loginRequest.setUsername("testuser");
         loginRequest.setPassword("password123");
 
-        String response = mockMvc.perform(post("/api/auth/login")
+        String response = performAsync(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
@@ -133,4 +153,65 @@ public class AuthControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value("testuser"));
     }
+
+    @Test
+    public void shouldRotateRefreshTokenAndRejectReuse() throws Exception {
+        JsonNode registered = registerTestUser();
+        String refreshToken = registered.get("refreshToken").asText();
+
+        String response = mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshRequest(refreshToken))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andReturn().getResponse().getContentAsString();
+        String rotated = objectMapper.readTree(response).get("refreshToken").asText();
+
+        // The old token was rotated away; reusing it also revokes the new one
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshRequest(refreshToken))))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshRequest(rotated))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void shouldRejectAccessTokenAfterLogout() throws Exception {
+        JsonNode registered = registerTestUser();
+        String token = registered.get("token").asText();
+
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshRequest(registered.get("refreshToken").asText()))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/auth/me")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().is4xxClientError());
+    }
+
+    private JsonNode registerTestUser() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername("testuser");
+        registerRequest.setEmail("test@example.com");
+        registerRequest.setPassword("password123");
+
+        String response = performAsync(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static RefreshRequest refreshRequest(String refreshToken) {
+        RefreshRequest request = new RefreshRequest();
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
 }
@@ -0,0 +1,94 @@
+package com.cloudmanagement.server.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cloudmanagement.server.audit.AuditLogWriter;
+import com.cloudmanagement.server.dedup.DuplicateDetector;
+import com.cloudmanagement.server.dto.PageResponse;
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.repository.TransactionQueryRepository;
+import com.cloudmanagement.server.repository.TransactionRepository;
+import com.cloudmanagement.server.repository.TransactionSearchRepository;
+import com.cloudmanagement.server.service.AuthService;
+import com.cloudmanagement.server.service.BudgetSpentLedger;
+
+public class TransactionControllerTest {
+
+    private TransactionQueryRepository queryRepository;
+    private TransactionController controller;
+
+    @BeforeEach
+    public void setUp() {
+        queryRepository = mock(TransactionQueryRepository.class);
+        when(queryRepository.findViews(any(), any(), anyLong(), anyInt())).thenReturn(List.of());
+        controller = new TransactionController(mock(TransactionRepository.class),
+                mock(TransactionSearchRepository.class), queryRepository, mock(BudgetSpentLedger.class),
+                mock(PlatformTransactionManager.class), mock(AuthService.class), mock(DuplicateDetector.class),
+                mock(AuditLogWriter.class));
+    }
+
+    @Test
+    public void shouldRejectPagesBeyondTheOffsetBound() {
+        // 99999999 * 20 does not fit an int offset; it must be a 400, not an ArithmeticException
+        assertEquals(HttpStatus.BAD_REQUEST, query(PageRequest.of(99_999_999, 20)).getStatusCode());
+        int lastPage = (int) (TransactionController.MAX_QUERY_OFFSET / 20);
+        assertEquals(HttpStatus.BAD_REQUEST, query(PageRequest.of(lastPage + 1, 20)).getStatusCode());
+        verify(queryRepository, never()).findViews(any(), any(), anyLong(), anyInt());
+
+        assertEquals(HttpStatus.OK, query(PageRequest.of(lastPage, 20)).getStatusCode());
+        verify(queryRepository).findViews(any(), any(), eq(TransactionController.MAX_QUERY_OFFSET), eq(21));
+    }
+
+    @Test
+    public void shouldRejectSortPropertiesOutsideTheWhitelist() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                query(PageRequest.of(0, 20, Sort.by("receiptUrl"))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                query(PageRequest.of(0, 20, Sort.by("amount", "budget.user.password"))).getStatusCode());
+        verify(queryRepository, never()).findViews(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void shouldBreakSortTiesById() {
+        assertEquals(HttpStatus.OK, query(PageRequest.of(2, 10, Sort.by("amount"))).getStatusCode());
+        assertEquals(Sort.by(Sort.Order.asc("amount"), Sort.Order.desc("id")), sortUsed());
+        verify(queryRepository).findViews(any(), any(), eq(20L), eq(11));
+    }
+
+    @Test
+    public void shouldKeepAnExplicitIdOrder() {
+        Sort requested = Sort.by(Sort.Order.desc("category"), Sort.Order.asc("id"));
+        assertEquals(HttpStatus.OK, query(PageRequest.of(0, 10, requested)).getStatusCode());
+        assertEquals(requested, sortUsed());
+    }
+
+    private ResponseEntity<PageResponse<TransactionView>> query(Pageable pageable) {
+        return controller.queryTransactions(null, null, null, null, null, null, null, null, pageable);
+    }
+
+    private Sort sortUsed() {
+        ArgumentCaptor<Sort> sort = ArgumentCaptor.forClass(Sort.class);
+        verify(queryRepository).findViews(any(), sort.capture(), anyLong(), anyInt());
+        return sort.getValue();
+    }
+}
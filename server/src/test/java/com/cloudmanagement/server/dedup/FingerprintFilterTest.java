@@ -0,0 +1,36 @@
+package com.cloudmanagement.server.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class FingerprintFilterTest {
+
+    @Test
+    public void shouldNeverMissAndRarelyFalselyMatch() {
+        List<UUID> added = IntStream.range(0, 10_000).mapToObj(i -> UUID.nameUUIDFromBytes(("tx" + i).getBytes()))
+                .toList();
+        FingerprintFilter filter = new FingerprintFilter(added.size());
+        added.forEach(filter::add);
+
+        added.forEach(fingerprint -> assertTrue(filter.mightContain(fingerprint)));
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain(UUID.nameUUIDFromBytes(("other" + i).getBytes())))
+                .count();
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    public void shouldReportSaturationPastExpectedSize() {
+        FingerprintFilter filter = new FingerprintFilter(64);
+        IntStream.range(0, 65).forEach(i -> filter.add(UUID.randomUUID()));
+
+        assertTrue(filter.isSaturated());
+    }
+}
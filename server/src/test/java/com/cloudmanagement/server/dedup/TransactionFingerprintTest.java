@@ -0,0 +1,40 @@
+package com.cloudmanagement.server.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+public class TransactionFingerprintTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 1, 10, 9, 30, 15);
+
+    @Test
+    public void shouldIgnoreFormattingDifferences() {
+        Transaction exported = transaction("AMAZON.COM*MK1 ", "12.50", DATE);
+        Transaction reimported = transaction("Amazon com  mk1", "12.5", DATE.withSecond(0));
+
+        assertEquals(TransactionFingerprint.of(1L, exported, 0), TransactionFingerprint.of(1L, reimported, 0));
+        assertEquals("amazon com mk1", TransactionFingerprint.normalize("  AMAZON.COM*MK1 "));
+    }
+
+    @Test
+    public void shouldSeparateUsersOrdinalsAndAmounts() {
+        Transaction coffee = transaction("Coffee", "4.50", DATE);
+
+        assertNotEquals(TransactionFingerprint.of(1L, coffee, 0), TransactionFingerprint.of(2L, coffee, 0));
+        assertNotEquals(TransactionFingerprint.of(1L, coffee, 0), TransactionFingerprint.of(1L, coffee, 1));
+        assertNotEquals(TransactionFingerprint.of(1L, coffee, 0),
+                TransactionFingerprint.of(1L, transaction("Coffee", "4.51", DATE), 0));
+    }
+
+    private static Transaction transaction(String description, String amount, LocalDateTime date) {
+        return new Transaction(description, new BigDecimal(amount), "Food", date, TransactionType.EXPENSE);
+    }
+}
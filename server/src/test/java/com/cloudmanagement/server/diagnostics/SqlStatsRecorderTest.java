@@ -0,0 +1,85 @@
+package com.cloudmanagement.server.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import com.cloudmanagement.server.diagnostics.SqlStatsRecorder.SlowQuery;
+import com.cloudmanagement.server.diagnostics.SqlStatsRecorder.SqlStats;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+public class SqlStatsRecorderTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final Logger sampledLog = (Logger) LoggerFactory.getLogger("com.cloudmanagement.server.sql.sampled");
+    private final ListAppender<ILoggingEvent> sampled = new ListAppender<>();
+    private Level previousLevel;
+
+    @BeforeEach
+    public void captureSampledLog() {
+        previousLevel = sampledLog.getLevel();
+        sampledLog.setLevel(Level.DEBUG);
+        sampled.start();
+        sampledLog.addAppender(sampled);
+    }
+
+    @AfterEach
+    public void restoreSampledLog() {
+        sampledLog.detachAppender(sampled);
+        sampledLog.setLevel(previousLevel);
+    }
+
+    @Test
+    public void shouldKeepOnlyTheMostRecentSlowQueries() {
+        SqlStatsRecorder recorder = new SqlStatsRecorder(200, 0, 3);
+        for (int i = 1; i <= 5; i++) {
+            recorder.record("slow " + i, SLOW);
+            recorder.record("fast " + i, FAST);
+        }
+
+        SqlStats stats = recorder.snapshot();
+        assertEquals(10, stats.statements());
+        assertEquals(5, stats.slowStatements());
+        assertEquals(500, stats.maxMs());
+        assertEquals(List.of("slow 5", "slow 4", "slow 3"), stats.slowQueries().stream().map(SlowQuery::sql).toList());
+    }
+
+    @Test
+    public void shouldLogASampleOfFastStatements() {
+        SqlStatsRecorder recorder = new SqlStatsRecorder(200, 0.1, 50);
+        for (int i = 0; i < 10_000; i++) {
+            recorder.record("SELECT 1", FAST);
+        }
+
+        // 10% of 10000, far outside any plausible random deviation if sampling were off or inverted
+        int logged = sampled.list.size();
+        assertTrue(logged > 700 && logged < 1300, "sampled " + logged);
+        assertEquals(10_000, recorder.snapshot().statements());
+    }
+
+    @Test
+    public void shouldNotSampleWhenTheRateIsZeroOrTheStatementIsSlow() {
+        SqlStatsRecorder recorder = new SqlStatsRecorder(200, 0, 50);
+        for (int i = 0; i < 1_000; i++) {
+            recorder.record("SELECT 1", FAST);
+        }
+        recorder.record("SELECT pg_sleep(1)", SLOW);
+
+        // Slow statements go to the slow log and history instead of the sample
+        assertEquals(0, sampled.list.size());
+        assertEquals(1, recorder.snapshot().slowQueries().size());
+    }
+}
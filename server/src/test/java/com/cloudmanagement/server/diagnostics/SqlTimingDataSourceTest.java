@@ -0,0 +1,75 @@
+package com.cloudmanagement.server.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.cloudmanagement.server.diagnostics.SqlStatsRecorder.SlowQuery;
+import com.cloudmanagement.server.diagnostics.SqlStatsRecorder.SqlStats;
+
+public class SqlTimingDataSourceTest {
+
+    @Test
+    public void shouldTimePreparedStatementExecutions() throws Exception {
+        PreparedStatement target = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(target.executeQuery()).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return resultSet;
+        });
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(target);
+        SqlStatsRecorder recorder = new SqlStatsRecorder(10, 0, 50);
+
+        try (Connection wrapped = timing(connection, recorder).getConnection();
+                PreparedStatement statement = wrapped.prepareStatement("SELECT * FROM budgets WHERE id = ?")) {
+            statement.setLong(1, 7L);
+            assertEquals(resultSet, statement.executeQuery());
+        }
+
+        verify(target).setLong(1, 7L);
+        SqlStats stats = recorder.snapshot();
+        // Only the execution is timed, not the parameter binding
+        assertEquals(1, stats.statements());
+        assertEquals(1, stats.slowStatements());
+        assertTrue(stats.maxMs() >= 20);
+        assertEquals("SELECT * FROM budgets WHERE id = ?", stats.slowQueries().get(0).sql());
+    }
+
+    @Test
+    public void shouldTakeTheSqlOfPlainStatementsFromTheCall() throws Exception {
+        Statement target = mock(Statement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(target);
+        SqlStatsRecorder recorder = new SqlStatsRecorder(0, 0, 50);
+
+        try (Connection wrapped = timing(connection, recorder).getConnection();
+                Statement statement = wrapped.createStatement()) {
+            statement.execute("DELETE FROM revoked_tokens");
+            statement.addBatch("UPDATE budgets SET spent = 0");
+            statement.executeBatch();
+        }
+
+        assertEquals(List.of("<batch>", "DELETE FROM revoked_tokens"),
+                recorder.snapshot().slowQueries().stream().map(SlowQuery::sql).toList());
+    }
+
+    private static SqlTimingDataSource timing(Connection connection, SqlStatsRecorder recorder) throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        return new SqlTimingDataSource(target, recorder);
+    }
+}
@@ -0,0 +1,81 @@
+package com.cloudmanagement.server.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.graphql.BudgetGraphQlController.BudgetTransactionsKey;
+import com.cloudmanagement.server.repository.BudgetTransactionsRepository;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+
+public class BudgetGraphQlTest {
+
+    @Test
+    public void shouldLoadAllBudgetsTransactionsWithOneQuery() {
+        BudgetTransactionsRepository repository = mock(BudgetTransactionsRepository.class);
+        TransactionView first = view(1L, 10L);
+        TransactionView second = view(2L, 10L);
+        when(repository.findRecentByBudgetIds(Set.of(10L, 11L), 20)).thenReturn(List.of(first, second));
+
+        Map<BudgetTransactionsKey, List<TransactionView>> loaded = BudgetGraphQlController.loadBudgetTransactions(
+                repository, Set.of(new BudgetTransactionsKey(10L, 20), new BudgetTransactionsKey(11L, 20)));
+
+        assertEquals(List.of(first, second), loaded.get(new BudgetTransactionsKey(10L, 20)));
+        assertEquals(List.of(), loaded.get(new BudgetTransactionsKey(11L, 20)));
+        verify(repository).findRecentByBudgetIds(eq(Set.of(10L, 11L)), anyInt());
+    }
+
+    @Test
+    public void shouldRejectQueriesOverTheComplexityLimit() throws Exception {
+        GraphQL graphQl = GraphQL.newGraphQL(schema())
+                .instrumentation(new MaxQueryComplexityInstrumentation(500, GraphQlConfig.limitAwareComplexity()))
+                .build();
+
+        ExecutionResult cheap = graphQl.execute("{ budgets { id name transactions(limit: 20) { id amount } } }");
+        ExecutionResult costly = graphQl.execute(
+                "{ budgets { id transactions(limit: 100) { id description amount category type budgetId } } }");
+
+        assertFalse(isTooComplex(cheap));
+        assertTrue(isTooComplex(costly));
+    }
+
+    private static boolean isTooComplex(ExecutionResult result) {
+        return result.getErrors().stream().anyMatch(e -> e.getMessage().contains("complexity"));
+    }
+
+    private static graphql.schema.GraphQLSchema schema() throws Exception {
+        try (Reader schema = new InputStreamReader(
+                BudgetGraphQlTest.class.getResourceAsStream("/graphql/schema.graphqls"), StandardCharsets.UTF_8)) {
+            RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                    .scalar(GraphQlScalars.DECIMAL)
+                    .scalar(GraphQlScalars.DATE_TIME)
+                    .build();
+            return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(schema), wiring);
+        }
+    }
+
+    private static TransactionView view(Long id, Long budgetId) {
+        return new TransactionView(id, "Hosting", null, "Infrastructure", null, null, budgetId, null);
+    }
+}
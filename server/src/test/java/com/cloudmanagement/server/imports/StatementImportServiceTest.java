@@ -0,0 +1,114 @@
+package com.cloudmanagement.server.imports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import com.cloudmanagement.server.config.ImportProperties;
+import com.cloudmanagement.server.model.ImportJob;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.repository.BudgetRepository;
+import com.cloudmanagement.server.repository.ImportJobRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StatementImportServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private final ImportJobRepository importJobRepository = mock(ImportJobRepository.class);
+    private final ImportBatchWriter writer = mock(ImportBatchWriter.class);
+    private final List<UUID> written = new ArrayList<>();
+    private StatementImportService service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ImportProperties properties = new ImportProperties();
+        properties.setStorageDir(storageDir.toString());
+        properties.setDateFormats(List.of("yyyy-MM-dd"));
+        BudgetRepository budgetRepository = mock(BudgetRepository.class);
+        when(budgetRepository.findViewsByUserId(7L)).thenReturn(List.of());
+        when(importJobRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        when(writer.write(anyString(), anyString(), eq(7L), any(), any())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(3);
+            batch.forEach(transaction -> written.add(transaction.getFingerprint()));
+            return batch.size();
+        });
+        service = new StatementImportService(importJobRepository, budgetRepository, writer, properties,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        service.shutdown();
+    }
+
+    @Test
+    public void shouldNumberRepeatedLinesOfTheSameDate() throws Exception {
+        importFile("2025-01-03,Coffee,-4.50\n"
+                + "2025-01-03,Coffee,-4.50\n"
+                + "2025-01-04,Coffee,-4.50\n");
+
+        verifyCompleted();
+        assertEquals(3, new HashSet<>(written).size());
+    }
+
+    @Test
+    public void shouldKeepRepeatsInAFileThatIsNotInDateOrder() throws Exception {
+        // Newest first, with the 5th's coffee appearing again after a line of the 3rd
+        importFile("2025-01-05,Coffee,-4.50\n"
+                + "2025-01-03,Coffee,-4.50\n"
+                + "2025-01-05,Coffee,-4.50\n"
+                + "2025-01-03,Lunch,-12.00\n");
+
+        verifyCompleted();
+        assertEquals(4, written.size());
+        assertEquals(4, new HashSet<>(written).size());
+    }
+
+    @Test
+    public void shouldFailWhenALineReturnsToADateWhoseCountsWereDropped() throws Exception {
+        importFile("2025-01-03,Coffee,-4.50\n"
+                + "2025-01-04,Lunch,-12.00\n"
+                + "2025-01-03,Coffee,-4.50\n");
+
+        ArgumentCaptor<String> error = ArgumentCaptor.forClass(String.class);
+        verify(importJobRepository).finish(anyString(), anyString(), eq("FAILED"), error.capture(), any());
+        assertTrue(error.getValue().contains("not in date order"), error.getValue());
+        assertTrue(written.isEmpty());
+    }
+
+    private void importFile(String lines) throws Exception {
+        String id = UUID.randomUUID().toString();
+        Files.writeString(storageDir.resolve(id), "Date,Description,Amount\n" + lines, StandardCharsets.UTF_8);
+        ImportJob job = new ImportJob(id, 7L, "statement.csv", StatementFormat.CSV, 0);
+        when(importJobRepository.findById(id)).thenReturn(Optional.of(job));
+        service.run(id);
+    }
+
+    private void verifyCompleted() {
+        verify(importJobRepository).finish(anyString(), anyString(), eq("COMPLETED"), isNull(), any());
+    }
+}
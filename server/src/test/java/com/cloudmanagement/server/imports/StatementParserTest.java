@@ -0,0 +1,142 @@
+package com.cloudmanagement.server.imports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.cloudmanagement.server.config.ImportProperties.CategoryRule;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+public class StatementParserTest {
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("yyyy-MM-dd['T'HH:mm[:ss]]"), DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+
+    @Test
+    public void csvWithQuotedFieldsAndInvalidRows() throws IOException {
+        String csv = "\uFEFFDate,Description,Amount,Category\r\n"
+                + "2025-01-03,\"Coffee, \"\"Blue\"\" Bottle\",-4.50,\r\n"
+                + "01/05/2025,\"Salary\nJanuary\",\"2,500.00\",Income\r\n"
+                + "\r\n"
+                + "not a date,Broken,1.00,\r\n"
+                + "2025-01-07,Refund,(12.00),Shopping\r\n";
+        Collected collected = parse(new CsvStatementParser(DATE_FORMATS), csv);
+
+        assertEquals(3, collected.entries.size());
+        StatementEntry coffee = collected.entries.get(0);
+        assertEquals("Coffee, \"Blue\" Bottle", coffee.description());
+        assertEquals(new BigDecimal("-4.50"), coffee.amount());
+        assertNull(coffee.category());
+        assertEquals(LocalDateTime.of(2025, 1, 5, 0, 0), collected.entries.get(1).date());
+        assertEquals("Salary\nJanuary", collected.entries.get(1).description());
+        assertEquals(new BigDecimal("2500.00"), collected.entries.get(1).amount());
+        assertEquals(new BigDecimal("-12.00"), collected.entries.get(2).amount());
+        // the quoted line break makes the invalid row start on line 6
+        assertEquals(List.of(6L), collected.invalid);
+    }
+
+    @Test
+    public void csvWithSemicolonsAndDebitCreditColumns() throws IOException {
+        String csv = "Booking date;Payee;Debit;Credit\n"
+                + "2025-02-01;Rent;1.200,00;\n"
+                + "2025-02-02;Interest;;0,35\n";
+        Collected collected = parse(new CsvStatementParser(DATE_FORMATS), csv);
+
+        assertEquals(new BigDecimal("-1200.00"), collected.entries.get(0).amount());
+        assertEquals(new BigDecimal("0.35"), collected.entries.get(1).amount());
+    }
+
+    @Test
+    public void ofxSgmlWithUnclosedElements() throws IOException {
+        String ofx = "OFXHEADER:100\nDATA:OFXSGML\nCHARSET:1252\n\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+                + "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20250110120000[-5:EST]<TRNAMT>-25.10"
+                + "<FITID>A1<NAME>Grocer &amp; Co<MEMO>Card 1234</STMTTRN>\n"
+                + "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20250111<TRNAMT>100.00<FITID>A2<NAME>Transfer</STMTTRN>\n"
+                + "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20250112<FITID>A3</STMTTRN>\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+        Collected collected = parse(new OfxStatementParser(), ofx);
+
+        assertEquals(2, collected.entries.size());
+        StatementEntry grocer = collected.entries.get(0);
+        assertEquals("Grocer & Co - Card 1234", grocer.description());
+        assertEquals(new BigDecimal("-25.10"), grocer.amount());
+        assertEquals(LocalDateTime.of(2025, 1, 10, 12, 0), grocer.date());
+        assertEquals("A1", grocer.reference());
+        assertEquals(List.of(3L), collected.invalid);
+    }
+
+    @Test
+    public void camtEntries() throws IOException {
+        String camt = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:camt.053.001.02\"><BkToCstmrStmt><Stmt>"
+                + "<Ntry><Amt Ccy=\"EUR\">42.00</Amt><CdtDbtInd>DBIT</CdtDbtInd><BookgDt><Dt>2025-03-01</Dt></BookgDt>"
+                + "<AcctSvcrRef>R1</AcctSvcrRef><NtryDtls><TxDtls><AmtDtls><TxAmt><Amt Ccy=\"EUR\">42.00</Amt></TxAmt>"
+                + "</AmtDtls><RltdPties><Dbtr><Nm>Me</Nm></Dbtr><Cdtr><Nm>Power Utility</Nm></Cdtr></RltdPties>"
+                + "</TxDtls></NtryDtls></Ntry>"
+                + "<Ntry><Amt Ccy=\"EUR\">10.00</Amt><CdtDbtInd>CRDT</CdtDbtInd><BookgDt><DtTm>2025-03-02T08:30:00+01:00"
+                + "</DtTm></BookgDt><NtryDtls><TxDtls><RmtInf><Ustrd>Invoice 7</Ustrd></RmtInf></TxDtls></NtryDtls></Ntry>"
+                + "</Stmt></BkToCstmrStmt></Document>";
+        Collected collected = parse(new CamtStatementParser(), camt);
+
+        assertEquals(2, collected.entries.size());
+        StatementEntry utility = collected.entries.get(0);
+        assertEquals(new BigDecimal("-42.00"), utility.amount());
+        assertEquals("Power Utility", utility.description());
+        assertEquals("R1", utility.reference());
+        assertEquals("Invoice 7", collected.entries.get(1).description());
+        assertEquals(LocalDateTime.of(2025, 3, 2, 8, 30), collected.entries.get(1).date());
+    }
+
+    @Test
+    public void mapperInfersTypeCategoryAndBudget() {
+        TransactionMapper mapper = new TransactionMapper(List.of(new CategoryRule("grocer|market", "Food")),
+                "Uncategorized", Map.of("food", 7L));
+
+        Transaction expense = mapper.map(new StatementEntry(LocalDateTime.of(2025, 1, 1, 0, 0),
+                new BigDecimal("-25.10"), "Corner Grocer", null, null));
+        assertEquals(TransactionType.EXPENSE, expense.getType());
+        assertEquals(new BigDecimal("25.10"), expense.getAmount());
+        assertEquals("Food", expense.getCategory());
+        assertEquals(7L, expense.getBudgetId());
+
+        Transaction income = mapper.map(new StatementEntry(LocalDateTime.of(2025, 1, 1, 0, 0),
+                new BigDecimal("100"), "Employer", null, null));
+        assertEquals(TransactionType.INCOME, income.getType());
+        assertEquals("Uncategorized", income.getCategory());
+        assertNull(income.getBudgetId());
+    }
+
+    private static Collected parse(StatementParser parser, String content) throws IOException {
+        Collected collected = new Collected();
+        parser.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), collected);
+        return collected;
+    }
+
+    private static class Collected implements StatementParser.Handler {
+        final List<StatementEntry> entries = new ArrayList<>();
+        final List<Long> invalid = new ArrayList<>();
+
+        @Override
+        public void entry(StatementEntry entry) {
+            entries.add(entry);
+        }
+
+        @Override
+        public void invalid(long position, String reason) {
+            invalid.add(position);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.cloudmanagement.server.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.cloudmanagement.server.repository.JobLeaseRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ClusterJobRunnerTest {
+
+    private final InMemoryLeases leases = new InMemoryLeases();
+    private final List<ClusterJobRunner> runners = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        runners.forEach(ClusterJobRunner::shutdown);
+    }
+
+    @Test
+    public void nodesShareShardsAndRunEachOncePerCycle() throws InterruptedException {
+        Map<Integer, AtomicInteger> runs = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> perNode = new ConcurrentHashMap<>();
+        List<Thread> nodes = List.of("node-a", "node-b", "node-c").stream()
+                .map(id -> new Thread(() -> node(id).runSharded("job", 16, "2025-01-01", shard -> {
+                    runs.computeIfAbsent(shard, s -> new AtomicInteger()).incrementAndGet();
+                    perNode.computeIfAbsent(id, n -> new AtomicInteger()).incrementAndGet();
+                    sleep(5);
+                })))
+                .toList();
+        nodes.forEach(Thread::start);
+        for (Thread node : nodes) {
+            node.join();
+        }
+        // A second trigger in the same cycle does nothing
+        node("node-d").runSharded("job", 16, "2025-01-01", shard -> runs.get(shard).incrementAndGet());
+
+        assertEquals(16, runs.size());
+        runs.values().forEach(count -> assertEquals(1, count.get()));
+        assertTrue(perNode.size() > 1, "work should be spread over nodes: " + perNode);
+    }
+
+    @Test
+    public void expiredLeaseOfDeadNodeIsTakenOver() {
+        // node-dead took shard 0 and stopped heartbeating
+        leases.tryAcquire("job#0", "node-dead", "cycle", 1);
+        sleep(5);
+
+        AtomicInteger ran = new AtomicInteger();
+        node("node-a").runExclusive("job", "cycle", ran::incrementAndGet);
+
+        assertEquals(1, ran.get());
+        assertTrue(leases.isCompleted("job#0", "cycle"));
+    }
+
+    @Test
+    public void failedShardIsReleasedForRetry() {
+        ClusterJobRunner node = node("node-a", 50);
+        node.runExclusive("job", "cycle", () -> {
+            throw new IllegalStateException("boom");
+        });
+        AtomicInteger ran = new AtomicInteger();
+        node("node-b").runExclusive("job", "cycle", ran::incrementAndGet);
+
+        assertEquals(1, ran.get());
+    }
+
+    @Test
+    public void failedShardIsRetriedWithBackoffUntilItCompletes() {
+        List<Long> attempts = new CopyOnWriteArrayList<>();
+
+        node("node-a").runExclusive("job", "cycle", () -> {
+            attempts.add(System.nanoTime());
+            if (attempts.size() < 3) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertEquals(3, attempts.size());
+        assertTrue(leases.isCompleted("job#0", "cycle"));
+        // 20 ms after the first failure, 40 ms after the second
+        long firstRetryMs = (attempts.get(1) - attempts.get(0)) / 1_000_000;
+        long secondRetryMs = (attempts.get(2) - attempts.get(1)) / 1_000_000;
+        assertTrue(firstRetryMs >= 20, "first retry after " + firstRetryMs + " ms");
+        assertTrue(secondRetryMs >= 40, "second retry after " + secondRetryMs + " ms");
+    }
+
+    @Test
+    public void failingShardStopsAtTheDeadline() {
+        AtomicInteger attempts = new AtomicInteger();
+        long started = System.currentTimeMillis();
+
+        node("node-a", 300).runExclusive("job", "cycle", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        });
+
+        long elapsed = System.currentTimeMillis() - started;
+        assertTrue(elapsed >= 300 && elapsed < 2000, "returned after " + elapsed + " ms");
+        // Backoff 20, 40, 80, 160 ms: at most five attempts fit before the deadline
+        assertTrue(attempts.get() >= 2 && attempts.get() <= 5, attempts + " attempts");
+        assertFalse(leases.isCompleted("job#0", "cycle"));
+    }
+
+    private ClusterJobRunner node(String id) {
+        return node(id, 5000);
+    }
+
+    private ClusterJobRunner node(String id, long maxWaitMs) {
+        ClusterJobRunner runner = new ClusterJobRunner(leases, new SimpleMeterRegistry(), id, 1000, 300, 10, maxWaitMs,
+                20);
+        runners.add(runner);
+        return runner;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // job_leases semantics on a synchronized map, with the local clock as database time
+    private static class InMemoryLeases extends JobLeaseRepository {
+
+        private final Map<String, String[]> rows = new HashMap<>();
+
+        InMemoryLeases() {
+            super(null);
+        }
+
+        // row: owner, expiresAt millis, completedCycle
+        @Override
+        public synchronized boolean tryAcquire(String name, String owner, String cycle, long ttlMs) {
+            long now = System.currentTimeMillis();
+            String[] row = rows.get(name);
+            if (row != null && (cycle.equals(row[2])
+                    || (row[0] != null && !row[0].equals(owner) && Long.parseLong(row[1]) >= now))) {
+                return false;
+            }
+            rows.put(name, new String[] { owner, String.valueOf(now + ttlMs), row == null ? null : row[2] });
+            return true;
+        }
+
+        @Override
+        public synchronized boolean renew(String name, String owner, long ttlMs) {
+            String[] row = rows.get(name);
+            if (row == null || !owner.equals(row[0])) {
+                return false;
+            }
+            row[1] = String.valueOf(System.currentTimeMillis() + ttlMs);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean complete(String name, String owner, String cycle) {
+            String[] row = rows.get(name);
+            if (row == null || !owner.equals(row[0])) {
+                return false;
+            }
+            rows.put(name, new String[] { null, String.valueOf(System.currentTimeMillis()), cycle });
+            return true;
+        }
+
+        @Override
+        public synchronized void release(String name, String owner) {
+            String[] row = rows.get(name);
+            if (row != null && owner.equals(row[0])) {
+                row[0] = null;
+            }
+        }
+
+        @Override
+        public synchronized boolean isCompleted(String name, String cycle) {
+            String[] row = rows.get(name);
+            return row != null && cycle.equals(row[2]);
+        }
+    }
+}
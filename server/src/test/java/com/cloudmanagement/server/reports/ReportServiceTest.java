@@ -0,0 +1,168 @@
+package com.cloudmanagement.server.reports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cloudmanagement.server.config.ReportProperties;
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.model.ReportJob;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.cloudmanagement.server.repository.BudgetRepository;
+import com.cloudmanagement.server.repository.ReportJobRepository;
+import com.cloudmanagement.server.repository.ReportTransactionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ReportServiceTest {
+
+    private static final YearMonth MAY = YearMonth.of(2024, 5);
+
+    @TempDir
+    Path storageDir;
+
+    private final ReportJobRepository jobRepository = mock(ReportJobRepository.class);
+    private final ReportTransactionRepository transactionRepository = mock(ReportTransactionRepository.class);
+    private final BudgetRepository budgetRepository = mock(BudgetRepository.class);
+    private final SseReportNotifier notifier = mock(SseReportNotifier.class);
+
+    @Test
+    public void shouldStreamStatementAndTotalsIntoTheReport() throws Exception {
+        streamTransactions(List.of(
+                view(1L, "Salary", "1000.00", "Income", TransactionType.INCOME, null),
+                view(2L, "=cmd|' /C calc'!A0", "12.50", "Cloud", TransactionType.EXPENSE, 5L),
+                view(3L, "Storage, monthly", "7.50", "Cloud", TransactionType.EXPENSE, 5L)));
+        when(budgetRepository.findViewsByUserId(7L)).thenReturn(List.of(
+                new BudgetView(5L, "Cloud", "Cloud", new BigDecimal("100.00"), new BigDecimal("40.00"), 0L)));
+        when(jobRepository.start(eq("csv"), any())).thenReturn(1);
+        when(jobRepository.complete(eq("csv"), anyLong(), anyLong(), any(), any())).thenReturn(1);
+        ReportJob job = new ReportJob("csv", 7L, ReportType.MONTHLY_STATEMENT, ReportFormat.CSV,
+                MAY.atDay(1), MAY.plusMonths(1).atDay(1));
+        when(jobRepository.findById("csv")).thenReturn(Optional.of(job));
+
+        service(2).run(job);
+
+        Path file = storageDir.resolve("csv.csv");
+        verify(jobRepository).complete(eq("csv"), eq(3L), eq(Files.size(file)), any(), any());
+        verify(notifier).notify(job);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals("Period 2024-05-01 to 2024-05-31", lines.get(1));
+        assertTrue(lines.contains("2024-05-03,'=cmd|' /C calc'!A0,Cloud,EXPENSE,12.50"));
+        assertTrue(lines.contains("2024-05-04,\"Storage, monthly\",Cloud,EXPENSE,7.50"));
+        assertTrue(lines.contains("Net,980.00"));
+        assertTrue(lines.contains("Cloud,EXPENSE,2,20.00"));
+        assertTrue(lines.contains("Cloud,Cloud,100.00,20.00,80.00"));
+    }
+
+    @Test
+    public void shouldWritePdfWithValidCrossReferences() throws Exception {
+        List<TransactionView> views = new ArrayList<>();
+        for (long i = 0; i < 150; i++) {
+            views.add(view(i, "Line (" + i + ") \\ caf\u00e9 \u20ac", "1.00", "Cloud", TransactionType.EXPENSE, null));
+        }
+        streamTransactions(views);
+        when(budgetRepository.findViewsByUserId(7L)).thenReturn(List.of());
+        when(jobRepository.start(eq("pdf"), any())).thenReturn(1);
+        when(jobRepository.complete(eq("pdf"), anyLong(), anyLong(), any(), any())).thenReturn(1);
+        ReportJob job = new ReportJob("pdf", 7L, ReportType.MONTHLY_STATEMENT, ReportFormat.PDF,
+                MAY.atDay(1), MAY.plusMonths(1).atDay(1));
+
+        service(2).run(job);
+
+        byte[] pdf = Files.readAllBytes(storageDir.resolve("pdf.pdf"));
+        String text = new String(pdf, StandardCharsets.ISO_8859_1);
+        assertTrue(text.startsWith("%PDF-1.4"));
+        assertTrue(text.endsWith("%%EOF\n"));
+        assertTrue(text.contains("Line \\(149\\) \\\\ caf\u00e9 ?"));
+        assertTrue(text.contains("/Count 3 "));
+        // Every xref entry must point at the start of its object
+        int xref = Integer.parseInt(text.substring(text.lastIndexOf("startxref\n") + 10, text.lastIndexOf("\n%%EOF")));
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n ").matcher(text.substring(xref));
+        int object = 0;
+        while (entries.find()) {
+            object++;
+            assertTrue(text.startsWith(object + " 0 obj\n", Integer.parseInt(entries.group(1))));
+        }
+        assertEquals(4 + 3 * 2, object);
+    }
+
+    @Test
+    public void shouldRefuseReportsBeyondThePerUserLimit() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return 0L;
+        }).when(transactionRepository).stream(anyLong(), any(), any(), anyInt(), any());
+        when(jobRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jobRepository.start(any(), any())).thenReturn(1);
+        when(jobRepository.complete(any(), anyLong(), anyLong(), any(), any())).thenReturn(1);
+        ReportService service = service(1);
+
+        ReportJob first = service.submit(7L, ReportType.CATEGORY_REPORT, ReportFormat.CSV, MAY);
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        assertThrows(ReportService.UserLimitExceededException.class,
+                () -> service.submit(7L, ReportType.CATEGORY_REPORT, ReportFormat.CSV, MAY));
+        // Other users are not held up by it
+        service.submit(8L, ReportType.CATEGORY_REPORT, ReportFormat.CSV, MAY);
+
+        release.countDown();
+        verify(jobRepository, timeout(10_000)).complete(eq(first.getId()), anyLong(), anyLong(), any(), any());
+        verify(jobRepository, timeout(10_000)).findById(first.getId());
+        service.submit(7L, ReportType.CATEGORY_REPORT, ReportFormat.CSV, MAY);
+        service.shutdown();
+    }
+
+    private ReportService service(int perUserLimit) throws Exception {
+        ReportProperties properties = new ReportProperties();
+        properties.setStorageDir(storageDir.toString());
+        properties.setPerUserLimit(perUserLimit);
+        return new ReportService(jobRepository, transactionRepository, budgetRepository, notifier, properties,
+                new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamTransactions(List<TransactionView> views) {
+        doAnswer(invocation -> {
+            Consumer<TransactionView> consumer = invocation.getArgument(4);
+            views.forEach(consumer);
+            return (long) views.size();
+        }).when(transactionRepository).stream(eq(7L), eq(MAY.atDay(1)), eq(MAY.plusMonths(1).atDay(1)), anyInt(),
+                any(Consumer.class));
+    }
+
+    private static TransactionView view(Long id, String description, String amount, String category,
+            TransactionType type, Long budgetId) {
+        return new TransactionView(id, description, new BigDecimal(amount), category,
+                LocalDateTime.of(2024, 5, 1 + (int) (id % 28), 9, 0), type, budgetId, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.cloudmanagement.server.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TransactionSearchRepositoryTest {
+
+    @Test
+    public void shouldBuildPrefixQueryFromFreeText() {
+        assertEquals("office:* & 365:*", TransactionSearchRepository.toPrefixQuery("Office 365"));
+        assertEquals("aws:* & ec2:*", TransactionSearchRepository.toPrefixQuery("  AWS - EC2!"));
+    }
+
+    @Test
+    public void shouldDropTsqueryOperators() {
+        assertEquals("a:* & b:*", TransactionSearchRepository.toPrefixQuery("a & !b | ("));
+        assertEquals("", TransactionSearchRepository.toPrefixQuery("&|!:*"));
+    }
+
+    @Test
+    public void shouldEscapeLikeWildcards() {
+        assertEquals("100\\%\\_off", TransactionSearchRepository.escapeLike("100%_off"));
+    }
+}
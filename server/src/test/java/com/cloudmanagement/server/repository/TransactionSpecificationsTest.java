@@ -0,0 +1,81 @@
+package com.cloudmanagement.server.repository;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class TransactionSpecificationsTest {
+
+    @SuppressWarnings("unchecked")
+    private final Root<Transaction> root = mock(Root.class);
+    private final CriteriaQuery<?> query = mock(CriteriaQuery.class);
+    private final CriteriaBuilder cb = mock(CriteriaBuilder.class);
+
+    @Test
+    public void shouldIgnoreAbsentParameters() {
+        assertNull(TransactionSpecifications.categoryIn(null));
+        assertNull(TransactionSpecifications.categoryIn(List.of()));
+        assertNull(TransactionSpecifications.hasType(null));
+        assertNull(TransactionSpecifications.hasBudget(null));
+        assertNull(TransactionSpecifications.amountAtLeast(null));
+        assertNull(TransactionSpecifications.amountAtMost(null));
+        assertNull(TransactionSpecifications.dateFrom(null));
+        assertNull(TransactionSpecifications.dateTo(null));
+        assertNull(TransactionSpecifications.textContains(null));
+        assertNull(TransactionSpecifications.textContains("   "));
+    }
+
+    @Test
+    public void shouldFilterOnTheMatchingAttribute() {
+        Path<TransactionType> type = path("type");
+        Predicate equal = mock(Predicate.class);
+        when(cb.equal(type, TransactionType.EXPENSE)).thenReturn(equal);
+        assertSame(equal, TransactionSpecifications.hasType(TransactionType.EXPENSE).toPredicate(root, query, cb));
+
+        Path<String> category = path("category");
+        Predicate in = mock(Predicate.class);
+        when(category.in(List.of("Cloud", "Software"))).thenReturn(in);
+        assertSame(in, TransactionSpecifications.categoryIn(List.of("Cloud", "Software"))
+                .toPredicate(root, query, cb));
+
+        Path<BigDecimal> amount = path("amount");
+        TransactionSpecifications.amountAtLeast(BigDecimal.TEN).toPredicate(root, query, cb);
+        verify(cb).greaterThanOrEqualTo(eq(amount), eq(BigDecimal.TEN));
+    }
+
+    @Test
+    public void shouldMatchTextCaseInsensitivelyWithEscapedWildcards() {
+        path("description");
+        path("category");
+        TransactionSpecifications.textContains("  100%_OFF ").toPredicate(root, query, cb);
+
+        verify(cb, times(2)).like(any(), eq("%100\\%\\_off%"), eq('\\'));
+        verify(cb).or(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Path<T> path(String attribute) {
+        Path<T> path = mock(Path.class);
+        when(root.<T>get(attribute)).thenReturn(path);
+        return path;
+    }
+}
@@ -0,0 +1,279 @@
+package com.cloudmanagement.server.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.cloudmanagement.server.repository.IdempotencyKeyRepository;
+import com.cloudmanagement.server.repository.IdempotencyKeyRepository.StoredResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class IdempotencyFilterTest {
+
+    private final InMemoryKeys keys = new InMemoryKeys();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    public void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+    }
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void shouldReplayStoredResponseAndRejectReusedKey() throws Exception {
+        IdempotencyFilter filter = filter(keys);
+        FilterChain chain = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(201);
+            response.getWriter().write("{\"id\":" + new String(request.getInputStream().readAllBytes()) + "}");
+        };
+
+        MockHttpServletResponse first = perform(filter, chain, "k1", "1");
+        MockHttpServletResponse retry = perform(filter, chain, "k1", "1");
+        MockHttpServletResponse reused = perform(filter, chain, "k1", "2");
+
+        assertEquals(1, executions.get());
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"id\":1}", retry.getContentAsString());
+        assertEquals(422, reused.getStatus());
+
+        // A new node with an empty cache replays from the table
+        assertEquals("{\"id\":1}", perform(filter(keys), chain, "k1", "1").getContentAsString());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void shouldMakeConcurrentRetriesWaitForTheFirstExecution() throws Exception {
+        IdempotencyFilter filter = filter(keys);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = (request, response) -> {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.getWriter().write("done");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> withUser(() -> perform(filter, chain, "k2", "x")));
+            started.await(5, TimeUnit.SECONDS);
+            List<Future<MockHttpServletResponse>> retries = List.of(
+                    executor.submit(() -> withUser(() -> perform(filter, chain, "k2", "x"))),
+                    executor.submit(() -> withUser(() -> perform(filter, chain, "k2", "x"))));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals("done", first.get(5, TimeUnit.SECONDS).getContentAsString());
+            for (Future<MockHttpServletResponse> retry : retries) {
+                assertEquals("done", retry.get(5, TimeUnit.SECONDS).getContentAsString());
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRunAgainAfterServerError() throws Exception {
+        IdempotencyFilter filter = filter(keys);
+        FilterChain chain = (request, response) -> {
+            if (executions.incrementAndGet() == 1) {
+                ((HttpServletResponse) response).setStatus(503);
+            }
+        };
+
+        assertEquals(503, perform(filter, chain, "k3", "x").getStatus());
+        assertEquals(200, perform(filter, chain, "k3", "x").getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void shouldRunAgainOnceTheStoredResponseExpired() throws Exception {
+        IdempotencyFilter filter = filter(keys, 50);
+        FilterChain chain = (request, response) -> response.getWriter().write("run " + executions.incrementAndGet());
+
+        assertEquals("run 1", perform(filter, chain, "k4", "x").getContentAsString());
+        assertEquals("run 1", perform(filter, chain, "k4", "x").getContentAsString());
+        Thread.sleep(100);
+
+        // Neither the cache nor the table may replay an expired response
+        assertEquals("run 2", perform(filter, chain, "k4", "x").getContentAsString());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void shouldDeliverTheBufferedBodyToAReadListener() throws Exception {
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allDataRead = { false };
+        FilterChain chain = (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[2];
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(buffer, 0, in.read(buffer));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        };
+
+        perform(filter(keys), chain, "k5", "{\"amount\":5}");
+
+        assertEquals("{\"amount\":5}", read.toString(StandardCharsets.UTF_8));
+        assertTrue(allDataRead[0]);
+    }
+
+    @Test
+    public void shouldRejectAKeyReusedForADifferentUpload() throws Exception {
+        IdempotencyFilter filter = filter(keys);
+        FilterChain chain = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(202);
+            response.getWriter().write(new String(((HttpServletRequest) request).getPart("file").getInputStream()
+                    .readAllBytes(), StandardCharsets.UTF_8));
+        };
+
+        String statement = "Date,Amount\n2025-01-03,-4.50";
+        MockHttpServletResponse first = upload(filter, chain, "k6", "january.csv", statement);
+        MockHttpServletResponse retry = upload(filter, chain, "k6", "january.csv", statement);
+        MockHttpServletResponse otherContent = upload(filter, chain, "k6", "january.csv", "Date,Amount\n2025-01-03,-9");
+        MockHttpServletResponse otherName = upload(filter, chain, "k6", "february.csv", statement);
+
+        assertEquals(1, executions.get());
+        assertEquals(202, first.getStatus());
+        assertEquals(statement, first.getContentAsString());
+        assertEquals(202, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(422, otherContent.getStatus());
+        assertEquals(422, otherName.getStatus());
+    }
+
+    private static IdempotencyFilter filter(IdempotencyKeyRepository repository) {
+        return filter(repository, 60_000);
+    }
+
+    private static IdempotencyFilter filter(IdempotencyKeyRepository repository, long ttlMs) {
+        return new IdempotencyFilter(repository, new SimpleMeterRegistry(), true, ttlMs, 60_000, 5_000, 100, 1024);
+    }
+
+    private static MockHttpServletResponse perform(IdempotencyFilter filter, FilterChain chain, String key, String body)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletResponse upload(IdempotencyFilter filter, FilterChain chain, String key,
+            String filename, String content) throws Exception {
+        MockMultipartHttpServletRequest request = new MockMultipartHttpServletRequest();
+        request.setRequestURI("/api/imports");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.addPart(new MockPart("file", filename, content.getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static <T> T withUser(Callable<T> action) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        try {
+            return action.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * The idempotency_keys table; rows expire at the expiresAt of the stored response.
+     */
+    private static class InMemoryKeys extends IdempotencyKeyRepository {
+        private final Map<String, StoredResponse> rows = new ConcurrentHashMap<>();
+
+        InMemoryKeys() {
+            super(null);
+        }
+
+        @Override
+        public boolean tryClaim(String id, String requestHash, long lockTtlMs) {
+            StoredResponse claim = new StoredResponse(requestHash, false, 0, null, null, null,
+                    Instant.now().plusMillis(lockTtlMs));
+            return rows.compute(id, (k, row) -> row == null || row.isExpired(Instant.now()) ? claim : row) == claim;
+        }
+
+        @Override
+        public Optional<StoredResponse> find(String id) {
+            return Optional.ofNullable(rows.get(id)).filter(row -> !row.isExpired(Instant.now()));
+        }
+
+        @Override
+        public void complete(String id, StoredResponse response, long ttlMs) {
+            rows.put(id, response);
+        }
+
+        @Override
+        public void release(String id) {
+            rows.computeIfPresent(id, (k, row) -> row.completed() ? row : null);
+        }
+    }
+}
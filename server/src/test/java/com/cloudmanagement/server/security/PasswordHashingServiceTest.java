@@ -0,0 +1,72 @@
+package com.cloudmanagement.server.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PasswordHashingServiceTest {
+
+    @Test
+    public void shouldHashAndMatchOnPool() throws Exception {
+        PasswordHashingService service = new PasswordHashingService(
+                new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), 1, 4, 2000);
+
+        String hash = service.encode("secret").get();
+
+        assertTrue(service.matches("secret", hash).get());
+        assertFalse(service.matches("wrong", hash).get());
+        service.shutdown();
+    }
+
+    @Test
+    public void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService service = new PasswordHashingService(blocking, registry, 1, 1, 60_000);
+
+        CompletableFuture<String> running = service.encode("a");
+        CompletableFuture<String> queued = service.encode("b");
+        CompletableFuture<String> rejected = service.encode("c");
+
+        ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(PasswordHashingService.OverloadedException.class, error.getCause());
+        assertTrue(registry.counter("auth.password.rejected").count() >= 1);
+
+        release.countDown();
+        running.get();
+        queued.get();
+        service.shutdown();
+    }
+
+    @Test
+    public void shouldDetectWeakerHashes() {
+        PasswordHashingService service = new PasswordHashingService(
+                new BCryptPasswordEncoder(6), new SimpleMeterRegistry(), 1, 4, 2000);
+
+        assertTrue(service.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(service.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+        service.shutdown();
+    }
+}
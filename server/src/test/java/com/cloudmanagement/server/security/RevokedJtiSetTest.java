@@ -0,0 +1,35 @@
+package com.cloudmanagement.server.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class RevokedJtiSetTest {
+
+    @Test
+    public void shouldContainExactlyTheRevokedIds() {
+        List<UUID> revoked = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID()).toList();
+        RevokedJtiSet set = new RevokedJtiSet(revoked);
+
+        assertEquals(revoked.size(), set.size());
+        revoked.forEach(id -> assertTrue(set.contains(id)));
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(set.contains(UUID.randomUUID()));
+        }
+    }
+
+    @Test
+    public void shouldHandleEmptyAndDuplicateInput() {
+        UUID id = UUID.randomUUID();
+
+        assertFalse(RevokedJtiSet.EMPTY.contains(id));
+        assertEquals(1, new RevokedJtiSet(List.of(id, id)).size());
+        assertTrue(new RevokedJtiSet(List.of(id, id)).contains(id));
+    }
+}
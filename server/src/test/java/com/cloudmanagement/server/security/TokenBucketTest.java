@@ -0,0 +1,72 @@
+package com.cloudmanagement.server.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void shouldAllowBurstThenRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(5, 1);
+        long now = 0;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        long wait = bucket.tryAcquire(now);
+        assertEquals(SECOND, wait);
+        assertEquals(0, bucket.available(now));
+
+        // One token per second afterwards
+        assertEquals(0, bucket.tryAcquire(now + SECOND));
+        assertTrue(bucket.tryAcquire(now + SECOND) > 0);
+        assertEquals(3, bucket.available(now + 4 * SECOND));
+    }
+
+    @Test
+    public void shouldReportFullAfterIdle() {
+        TokenBucket bucket = new TokenBucket(3, 10);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(SECOND));
+        assertEquals(3, bucket.available(SECOND));
+    }
+
+    @Test
+    public void shouldNeverOverGrantUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        long now = System.nanoTime();
+
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(now) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, granted.get());
+    }
+}
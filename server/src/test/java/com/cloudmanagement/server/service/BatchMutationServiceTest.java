@@ -0,0 +1,315 @@
+package com.cloudmanagement.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cloudmanagement.server.aggregation.AmountAggregator.GroupTotal;
+import com.cloudmanagement.server.audit.AuditEvent;
+import com.cloudmanagement.server.audit.AuditLogWriter;
+import com.cloudmanagement.server.dedup.DuplicateDetector;
+import com.cloudmanagement.server.dto.BatchRequest.Action;
+import com.cloudmanagement.server.dto.BatchRequest.Operation;
+import com.cloudmanagement.server.dto.BatchRequest.Target;
+import com.cloudmanagement.server.dto.BatchResponse;
+import com.cloudmanagement.server.model.Budget;
+import com.cloudmanagement.server.model.Transaction;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BatchMutationServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final BudgetSpentLedger spentLedger = mock(BudgetSpentLedger.class);
+    private final DuplicateDetector duplicateDetector = mock(DuplicateDetector.class);
+    private final AuditLogWriter auditLogWriter = mock(AuditLogWriter.class);
+    private final BatchMutationService service = new BatchMutationService(jdbcTemplate, transactionManager,
+            spentLedger, duplicateDetector, auditLogWriter, mock(ApplicationEventPublisher.class),
+            new SimpleMeterRegistry(), 1000);
+
+    // What the mocked database holds and what the service sent to it
+    private final Map<Long, Object[]> storedTransactions = new HashMap<>();
+    private final Map<Long, Object[]> storedBudgets = new HashMap<>();
+    private final List<String> roundTrips = new ArrayList<>();
+    private long nextId = 101;
+
+    @BeforeEach
+    public void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void shouldRejectMalformedOperationsWithoutTouchingTheDatabase() {
+        BatchResponse response = service.apply(1L, "alice", List.of(
+                new Operation(Action.DELETE, Target.TRANSACTION, 5L, null, null, false),
+                new Operation(Action.UPDATE, Target.BUDGET, null, null, new Budget(), false)));
+
+        assertFalse(response.applied());
+        assertEquals(424, response.results().get(0).status());
+        assertEquals(400, response.results().get(1).status());
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    public void shouldWriteNothingIfAnyOperationFails() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        Transaction expense = new Transaction("Hosting", new BigDecimal("12.50"), "Infrastructure", null,
+                TransactionType.EXPENSE);
+
+        // No rows are locked: transaction 5 does not exist
+        BatchResponse response = service.apply(1L, "alice", List.of(
+                new Operation(Action.CREATE, Target.TRANSACTION, null, expense, null, true),
+                new Operation(Action.DELETE, Target.TRANSACTION, 5L, null, null, false)));
+
+        assertFalse(response.applied());
+        assertEquals(424, response.results().get(0).status());
+        assertEquals(404, response.results().get(1).status());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        verifyNoInteractions(spentLedger);
+    }
+
+    @Test
+    public void shouldRunConsecutiveOperationsOfOneKindAsOneBatch() {
+        database();
+        storedTransactions.put(5L, transaction("30.00", 1L));
+        storedTransactions.put(6L, transaction("5.00", 2L));
+
+        BatchResponse response = service.apply(1L, "alice", List.of(
+                create(expense("12.50", 1L)),
+                create(expense("7.50", 1L)),
+                update(5L, expense("10.00", 1L)),
+                update(6L, expense("5.00", 2L)),
+                create(expense("1.00", null))));
+
+        assertTrue(response.applied());
+        assertEquals(List.of("INSERT x2", "UPDATE transactions x2", "INSERT x1"),
+                roundTrips);
+        // Generated ids are read back, in order, for every insert batch
+        assertEquals(List.of(101L, 102L, 5L, 6L, 103L),
+                response.results().stream().map(result -> result.id()).toList());
+        assertEquals(List.of(201, 201, 200, 200, 201),
+                response.results().stream().map(result -> result.status()).toList());
+    }
+
+    @Test
+    public void shouldRecordOneSummedDeltaPerBudget() {
+        database();
+        storedTransactions.put(5L, transaction("30.00", 1L));
+        storedTransactions.put(6L, transaction("5.00", 2L));
+
+        service.apply(1L, "alice", List.of(
+                create(expense("12.50", 1L)),
+                // Moves from budget 1 (30.00) to budget 2 (10.00)
+                update(5L, expense("10.00", 2L)),
+                delete(Target.TRANSACTION, 6L)));
+
+        assertEquals(Map.of(1L, new BigDecimal("-17.50"), 2L, new BigDecimal("5.00")), recordedDeltas());
+    }
+
+    @Test
+    public void shouldRejectAStaleBudgetVersion() {
+        database();
+        storedBudgets.put(3L, new Object[] { 3L, "Cloud", "Infrastructure", new BigDecimal("100"), BigDecimal.ZERO,
+                4L });
+        Budget stale = new Budget();
+        stale.setName("Cloud");
+        stale.setAmount(new BigDecimal("200"));
+        stale.setVersion(3L);
+
+        BatchResponse response = service.apply(1L, "alice", List.of(
+                create(expense("12.50", 1L)),
+                new Operation(Action.UPDATE, Target.BUDGET, 3L, null, stale, false)));
+
+        assertFalse(response.applied());
+        assertEquals(424, response.results().get(0).status());
+        assertEquals(409, response.results().get(1).status());
+        assertEquals(List.of(), roundTrips);
+        verifyNoInteractions(spentLedger);
+    }
+
+    @Test
+    public void shouldUpdateAndThenDeleteTheSameRow() {
+        database();
+        storedTransactions.put(5L, transaction("30.00", 1L));
+
+        BatchResponse response = service.apply(1L, "alice", List.of(
+                update(5L, expense("10.00", 1L)),
+                delete(Target.TRANSACTION, 5L)));
+
+        assertTrue(response.applied());
+        assertEquals(List.of("UPDATE transactions x1", "DELETE transactions x1"), roundTrips);
+        // -20.00 for the edit, -10.00 for the delete
+        assertEquals(Map.of(1L, new BigDecimal("-30.00")), recordedDeltas());
+
+        // The other way round the update finds nothing
+        roundTrips.clear();
+        response = service.apply(1L, "alice", List.of(
+                delete(Target.TRANSACTION, 5L),
+                update(5L, expense("10.00", 1L))));
+        assertFalse(response.applied());
+        assertEquals(404, response.results().get(1).status());
+        assertEquals(List.of(), roundTrips);
+    }
+
+    @Test
+    public void shouldAuditInOperationOrderAfterCommit() {
+        database();
+        storedTransactions.put(6L, transaction("5.00", 2L));
+
+        service.apply(1L, "alice", List.of(
+                create(expense("12.50", 1L)),
+                delete(Target.TRANSACTION, 6L),
+                create(expense("7.50", 1L))));
+
+        verify(auditLogWriter, never()).append(any());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        ArgumentCaptor<AuditEvent> events = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditLogWriter, times(3)).append(events.capture());
+        assertEquals(List.of("INSERT 101", "DELETE 6", "INSERT 102"), events.getAllValues().stream()
+                .map(event -> event.action() + " " + event.entityId()).toList());
+        assertEquals(new BigDecimal("12.50"), events.getAllValues().get(0).after().get("amount"));
+    }
+
+    // Answers the lock queries from the stored rows and records each JDBC batch
+    private void database() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            String[] sql = { null };
+            when(connection.prepareStatement(anyString())).thenAnswer(prepare -> {
+                sql[0] = prepare.getArgument(0);
+                return mock(PreparedStatement.class);
+            });
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            if (sql[0].contains("FROM transactions")) {
+                for (Map.Entry<Long, Object[]> row : storedTransactions.entrySet()) {
+                    handler.processRow(transactionRow(row.getKey(), row.getValue()));
+                }
+            } else {
+                for (Object[] row : storedBudgets.values()) {
+                    handler.processRow(budgetRow(row));
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        doAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            roundTrips.add(roundTrip(invocation.getArgument(0), setter));
+            return new int[setter.getBatchSize()];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        doAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            KeyHolder keys = invocation.getArgument(2);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                keys.getKeyList().add(Map.of("id", nextId++));
+            }
+            roundTrips.add("INSERT x" + setter.getBatchSize());
+            return new int[setter.getBatchSize()];
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class));
+    }
+
+    // "UPDATE transactions x2": statement, table and batch size
+    private static String roundTrip(String sql, BatchPreparedStatementSetter setter) {
+        String[] words = sql.split(" ");
+        String table = words[0].equals("DELETE") ? words[2] : words[1];
+        return words[0] + " " + table + " x" + setter.getBatchSize();
+    }
+
+    private Map<Long, BigDecimal> recordedDeltas() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, GroupTotal>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(spentLedger).recordAll(deltas.capture());
+        Map<Long, BigDecimal> sums = new HashMap<>();
+        deltas.getValue().forEach((budgetId, total) -> sums.put(budgetId, total.sum()));
+        return sums;
+    }
+
+    private static Object[] transaction(String amount, Long budgetId) {
+        return new Object[] { "Hosting", new BigDecimal(amount), "Infrastructure", "EXPENSE", budgetId, 1L };
+    }
+
+    private static ResultSet transactionRow(Long id, Object[] values) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("description")).thenReturn((String) values[0]);
+        when(rs.getBigDecimal("amount")).thenReturn((BigDecimal) values[1]);
+        when(rs.getString("category")).thenReturn((String) values[2]);
+        when(rs.getString("type")).thenReturn((String) values[3]);
+        when(rs.getObject("budget_id", Long.class)).thenReturn((Long) values[4]);
+        when(rs.getObject("user_id", Long.class)).thenReturn((Long) values[5]);
+        return rs;
+    }
+
+    private static ResultSet budgetRow(Object[] values) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn((Long) values[0]);
+        when(rs.getString("name")).thenReturn((String) values[1]);
+        when(rs.getString("category")).thenReturn((String) values[2]);
+        when(rs.getBigDecimal("amount")).thenReturn((BigDecimal) values[3]);
+        when(rs.getBigDecimal("spent")).thenReturn((BigDecimal) values[4]);
+        when(rs.getLong("version")).thenReturn((Long) values[5]);
+        return rs;
+    }
+
+    private static Transaction expense(String amount, Long budgetId) {
+        Transaction expense = new Transaction("Hosting", new BigDecimal(amount), "Infrastructure", null,
+                TransactionType.EXPENSE);
+        expense.setBudgetId(budgetId);
+        return expense;
+    }
+
+    private static Operation create(Transaction transaction) {
+        return new Operation(Action.CREATE, Target.TRANSACTION, null, transaction, null, true);
+    }
+
+    private static Operation update(Long id, Transaction transaction) {
+        return new Operation(Action.UPDATE, Target.TRANSACTION, id, transaction, null, false);
+    }
+
+    private static Operation delete(Target target, Long id) {
+        return new Operation(Action.DELETE, target, id, null, null, false);
+    }
+}
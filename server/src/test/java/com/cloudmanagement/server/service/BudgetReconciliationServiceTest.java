@@ -0,0 +1,279 @@
+package com.cloudmanagement.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cloudmanagement.server.alerts.BudgetSpentChangedEvent;
+import com.cloudmanagement.server.jobs.ClusterJobRunner;
+import com.cloudmanagement.server.jobs.UserShard;
+import com.cloudmanagement.server.service.BudgetReconciliationService.BudgetDrift;
+import com.cloudmanagement.server.service.BudgetReconciliationService.ReconciliationReport;
+
+public class BudgetReconciliationServiceTest {
+
+    private final Database database = new Database();
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    @Test
+    public void shouldSizePartitionsFromTheMemoryBudget() {
+        // 256 bytes per budget, shared by the partitions running in parallel
+        assertEquals(4096, BudgetReconciliationService.partitionSize(1024 * 1024, 1));
+        assertEquals(1024, BudgetReconciliationService.partitionSize(1024 * 1024, 4));
+        assertEquals(1, BudgetReconciliationService.partitionSize(100, 4));
+        assertEquals(Integer.MAX_VALUE, BudgetReconciliationService.partitionSize(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    public void shouldSplitTheBudgetsIntoPartitionsThatFitTheMemoryBudget() throws Exception {
+        for (long id = 1; id <= 10_000; id++) {
+            database.budget(id, 1L, "0.00");
+        }
+
+        // 1 MB for one worker holds 4096 budgets: 10000 halves to 5000, then to 2500
+        ReconciliationReport report = service(1, false).reconcileAll();
+
+        assertEquals(10_000, report.budgets());
+        assertEquals(4, report.partitions());
+        assertEquals(0, report.drifted());
+    }
+
+    @Test
+    public void shouldCorrectDriftAgainstExpensesMinusUnmergedDeltas() throws Exception {
+        database.budget(1, 1L, "50.00").expense(1, "30.00").expense(1, "20.00");
+        database.budget(2, 1L, "10.00").expense(2, "40.00");
+        // 30.00 of the expenses is still waiting in budget_spent_deltas
+        database.budget(3, 2L, "70.00").expense(3, "100.00").delta(3, "30.00");
+        database.budget(4, 2L, null);
+
+        ReconciliationReport report = service(1, false).reconcileAll();
+
+        assertEquals(2, report.drifted());
+        assertEquals(2, report.corrected());
+        assertEquals(0, report.skipped());
+        // Every expense and unmerged delta row is streamed once
+        assertEquals(5, report.transactions());
+        assertEquals(List.of(new BudgetDrift(2L, new BigDecimal("10.00"), new BigDecimal("40.00")),
+                new BudgetDrift(4L, null, new BigDecimal("0.00"))), sorted(report.drifts()));
+        assertEquals(new BigDecimal("40.00"), database.spent.get(2L));
+        assertEquals(new BigDecimal("0.00"), database.spent.get(4L));
+        assertEquals(new BigDecimal("70.00"), database.spent.get(3L));
+
+        ArgumentCaptor<BudgetSpentChangedEvent> events = ArgumentCaptor.forClass(BudgetSpentChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(2L, 4L), events.getAllValues().stream().map(BudgetSpentChangedEvent::budgetId)
+                .sorted().toList());
+    }
+
+    @Test
+    public void shouldLeaveABudgetAloneWhenItsSpentChangedDuringTheRun() throws Exception {
+        database.budget(1, 1L, "10.00").expense(1, "40.00");
+        database.budget(2, 1L, "10.00").expense(2, "25.00");
+        // A merge lands on budget 2 after its partition was read
+        database.onExpensesRead = () -> database.spent.put(2L, new BigDecimal("25.00"));
+
+        ReconciliationReport report = service(1, false).reconcileAll();
+
+        assertEquals(2, report.drifted());
+        assertEquals(1, report.corrected());
+        assertEquals(1, report.skipped());
+        assertEquals(new BigDecimal("25.00"), database.spent.get(2L));
+        verify(eventPublisher, times(1)).publishEvent(any(BudgetSpentChangedEvent.class));
+    }
+
+    @Test
+    public void shouldOnlyReportInDryRun() throws Exception {
+        database.budget(1, 1L, "10.00").expense(1, "40.00");
+
+        ReconciliationReport report = service(1, true).reconcileAll();
+
+        assertEquals(1, report.drifted());
+        assertEquals(0, report.corrected());
+        assertEquals(new BigDecimal("10.00"), database.spent.get(1L));
+        verify(eventPublisher, never()).publishEvent(any(BudgetSpentChangedEvent.class));
+    }
+
+    @Test
+    public void shouldBindTheRangeOnceForEveryPlaceholder() throws Exception {
+        database.budget(3, 1L, "0.00");
+        database.budget(9, 5L, "0.00");
+
+        service(1, false).reconcile(new UserShard(1, 4));
+        service(1, false).reconcileAll();
+
+        // Sharded: both union branches also filter budgets by range and shard
+        assertEquals(2, database.expenseQueries.size());
+        ExpenseQuery sharded = database.expenseQueries.get(0);
+        assertEquals(8, placeholders(sharded.sql()));
+        assertTrue(sharded.sql().contains("mod(coalesce(user_id, 0), 4) = 1"));
+        assertEquals(Map.of(1, 3L, 2, 9L, 3, 3L, 4, 9L, 5, 3L, 6, 9L, 7, 3L, 8, 9L), sharded.parameters());
+
+        ExpenseQuery all = database.expenseQueries.get(1);
+        assertEquals(4, placeholders(all.sql()));
+        assertEquals(Map.of(1, 3L, 2, 9L, 3, 3L, 4, 9L), all.parameters());
+    }
+
+    private BudgetReconciliationService service(long memoryBudgetMb, boolean dryRun) throws Exception {
+        return new BudgetReconciliationService(database.jdbcTemplate(), mock(PlatformTransactionManager.class),
+                eventPublisher, mock(ClusterJobRunner.class), 4, 1, memoryBudgetMb, 100, 2, 100, dryRun);
+    }
+
+    private static long placeholders(String sql) {
+        return sql.chars().filter(c -> c == '?').count();
+    }
+
+    private static List<BudgetDrift> sorted(List<BudgetDrift> drifts) {
+        List<BudgetDrift> sorted = new ArrayList<>(drifts);
+        sorted.sort((a, b) -> Long.compare(a.budgetId(), b.budgetId()));
+        return sorted;
+    }
+
+    private record ExpenseQuery(String sql, Map<Integer, Long> parameters) {
+    }
+
+    // Budgets, expenses and deltas behind a mocked JdbcTemplate that answers the service's range queries
+    private static class Database {
+        final Map<Long, BigDecimal> spent = new ConcurrentHashMap<>();
+        final Map<Long, Long> owners = new TreeMap<>();
+        final List<long[]> rows = new ArrayList<>();
+        final List<BigDecimal> amounts = new ArrayList<>();
+        final List<ExpenseQuery> expenseQueries = new ArrayList<>();
+        Runnable onExpensesRead = () -> { };
+
+        Database budget(long id, Long userId, String stored) {
+            owners.put(id, userId);
+            if (stored != null) {
+                spent.put(id, new BigDecimal(stored));
+            }
+            return this;
+        }
+
+        Database expense(long budgetId, String amount) {
+            rows.add(new long[] { budgetId });
+            amounts.add(new BigDecimal(amount));
+            return this;
+        }
+
+        Database delta(long budgetId, String delta) {
+            rows.add(new long[] { budgetId });
+            amounts.add(new BigDecimal(delta).negate());
+            return this;
+        }
+
+        JdbcTemplate jdbcTemplate() throws Exception {
+            JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+            // Budget ids of the shard; this fake keeps every budget in every shard
+            doAnswer(invocation -> {
+                RowCallbackHandler handler = invocation.getArgument(1);
+                for (Long id : owners.keySet()) {
+                    handler.processRow(row(id));
+                }
+                return null;
+            }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+            // Stored budgets of one partition
+            doAnswer(invocation -> {
+                RowCallbackHandler handler = invocation.getArgument(1);
+                long first = invocation.getArgument(2);
+                long last = invocation.getArgument(3);
+                for (Long id : owners.keySet()) {
+                    if (id >= first && id <= last) {
+                        handler.processRow(row(id, spent.get(id), BigDecimal.TEN, owners.get(id), "Budget " + id));
+                    }
+                }
+                return null;
+            }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), anyLong(), anyLong());
+            // Expenses and unmerged deltas of one partition
+            doAnswer(invocation -> {
+                Map<Integer, Long> parameters = new TreeMap<>();
+                PreparedStatement statement = mock(PreparedStatement.class);
+                doAnswer(set -> parameters.put(set.getArgument(0), set.getArgument(1)))
+                        .when(statement).setLong(anyInt(), anyLong());
+                Connection connection = mock(Connection.class);
+                String[] sql = { null };
+                when(connection.prepareStatement(anyString())).thenAnswer(prepare -> {
+                    sql[0] = prepare.getArgument(0);
+                    return statement;
+                });
+                invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+                expenseQueries.add(new ExpenseQuery(sql[0], parameters));
+
+                RowCallbackHandler handler = invocation.getArgument(1);
+                for (int i = 0; i < rows.size(); i++) {
+                    long budgetId = rows.get(i)[0];
+                    if (budgetId >= parameters.get(1) && budgetId <= parameters.get(2)) {
+                        handler.processRow(row(budgetId, amounts.get(i)));
+                    }
+                }
+                onExpensesRead.run();
+                return null;
+            }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+            // Compare-and-set corrections: spent = ? WHERE id = ? AND spent IS NOT DISTINCT FROM ?
+            doAnswer(invocation -> {
+                List<Object[]> corrections = new ArrayList<>(invocation.<Collection<Object[]>>getArgument(1));
+                int batchSize = invocation.getArgument(2);
+                int[][] results = new int[(corrections.size() + batchSize - 1) / batchSize][];
+                for (int i = 0; i < corrections.size(); i++) {
+                    if (i % batchSize == 0) {
+                        results[i / batchSize] = new int[Math.min(batchSize, corrections.size() - i)];
+                    }
+                    Object[] correction = corrections.get(i);
+                    Long id = (Long) correction[1];
+                    BigDecimal expected = (BigDecimal) correction[2];
+                    BigDecimal current = spent.get(id);
+                    boolean matches = expected == null ? current == null
+                            : current != null && expected.compareTo(current) == 0;
+                    if (matches) {
+                        spent.put(id, (BigDecimal) correction[0]);
+                    }
+                    results[i / batchSize][i % batchSize] = matches ? 1 : 0;
+                }
+                return results;
+            }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+            return jdbcTemplate;
+        }
+
+        private static ResultSet row(Object... columns) throws Exception {
+            ResultSet rs = mock(ResultSet.class);
+            for (int i = 0; i < columns.length; i++) {
+                Object column = columns[i];
+                if (column instanceof Long id) {
+                    when(rs.getLong(i + 1)).thenReturn(id);
+                    when(rs.getObject(i + 1, Long.class)).thenReturn(id);
+                } else if (column instanceof BigDecimal amount) {
+                    when(rs.getBigDecimal(i + 1)).thenReturn(amount);
+                } else if (column instanceof String text) {
+                    when(rs.getString(i + 1)).thenReturn(text);
+                }
+            }
+            return rs;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.cloudmanagement.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.cloudmanagement.server.alerts.BudgetSpentChangedEvent;
+import com.cloudmanagement.server.controller.BudgetController;
+import com.cloudmanagement.server.model.Budget;
+import com.cloudmanagement.server.model.User;
+import com.cloudmanagement.server.repository.BudgetRepository;
+
+public class BudgetServiceTest {
+
+    private final BudgetRepository budgetRepository = mock(BudgetRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final BudgetService service = new BudgetService(budgetRepository, eventPublisher);
+
+    @AfterEach
+    public void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void shouldRejectAnEditBasedOnAStaleVersion() {
+        when(budgetRepository.findByIdAndUserId(1L, 7L)).thenReturn(Optional.of(budget(3L, "100")));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.updateBudget(1L, edit(2L, "250"), 7L));
+        verify(budgetRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void shouldApplyAnEditWithTheCurrentOrNoVersion() {
+        when(budgetRepository.findByIdAndUserId(1L, 7L)).thenReturn(Optional.of(budget(3L, "100")));
+        when(budgetRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(new BigDecimal("250"), service.updateBudget(1L, edit(3L, "250"), 7L).getAmount());
+        // Clients that never sent a version keep last-writer-wins
+        assertEquals(new BigDecimal("300"), service.updateBudget(1L, edit(null, "300"), 7L).getAmount());
+
+        ArgumentCaptor<BudgetSpentChangedEvent> events = ArgumentCaptor.forClass(BudgetSpentChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(new BigDecimal("250"), new BigDecimal("300")),
+                events.getAllValues().stream().map(BudgetSpentChangedEvent::amount).toList());
+    }
+
+    @Test
+    public void shouldAnswerConflictForAStaleVersion() {
+        when(budgetRepository.findByIdAndUserId(1L, 7L)).thenReturn(Optional.of(budget(3L, "100")));
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(7L);
+        AuthService authService = mock(AuthService.class);
+        when(authService.getCurrentUser("alice")).thenReturn(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        BudgetController controller = new BudgetController(service, authService);
+
+        assertEquals(HttpStatus.CONFLICT, controller.updateBudget(1L, edit(2L, "250")).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.updateBudget(2L, edit(2L, "250")).getStatusCode());
+    }
+
+    private static Budget budget(Long version, String amount) {
+        Budget budget = new Budget();
+        budget.setId(1L);
+        budget.setName("Cloud");
+        budget.setAmount(new BigDecimal(amount));
+        budget.setSpent(new BigDecimal("40"));
+        budget.setVersion(version);
+        return budget;
+    }
+
+    private static Budget edit(Long version, String amount) {
+        Budget edit = new Budget();
+        edit.setName("Cloud");
+        edit.setAmount(new BigDecimal(amount));
+        edit.setVersion(version);
+        return edit;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cloudmanagement.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cloudmanagement.server.repository.BudgetRepository;
+
+@SpringBootTest
+public class BudgetSpentLedgerIntegrationTest {
+
+    @Autowired
+    private BudgetSpentLedger ledger;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long budgetId;
+
+    @BeforeEach
+    public void setup() {
+        budgetId = jdbcTemplate.queryForObject(
+                "INSERT INTO budgets (name, category, amount, spent, version) VALUES ('Ledger', 'Cloud', 100, 0, 0) "
+                + "RETURNING id", Long.class);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM budget_spent_deltas WHERE budget_id = ?", budgetId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE budget_id = ?", budgetId);
+        jdbcTemplate.update("DELETE FROM budgets WHERE id = ?", budgetId);
+    }
+
+    @Test
+    public void recalculateSpentLeavesRoomForUnmergedDeltas() {
+        // In one transaction so a background merge cannot drain the deltas in between
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            insertExpense("30.00");
+            insertExpense("20.00");
+            ledger.record(budgetId, new BigDecimal("30.00"));
+            ledger.record(budgetId, new BigDecimal("20.00"));
+
+            budgetRepository.recalculateSpent(budgetId);
+
+            // spent + unmerged deltas is the exact total, so merging must not count them twice
+            assertEquals(0, spent().compareTo(BigDecimal.ZERO));
+        });
+
+        ledger.merge();
+
+        assertEquals(0, spent().compareTo(new BigDecimal("50.00")));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM budget_spent_deltas WHERE budget_id = ?", Integer.class, budgetId));
+    }
+
+    @Test
+    public void mergeAddsSignedDeltasToSpent() {
+        ledger.recordChange(null, BigDecimal.ZERO, budgetId, new BigDecimal("45.00"));
+        ledger.recordChange(budgetId, new BigDecimal("45.00"), budgetId, new BigDecimal("40.00"));
+
+        ledger.merge();
+
+        assertEquals(0, spent().compareTo(new BigDecimal("40.00")));
+    }
+
+    private void insertExpense(String amount) {
+        jdbcTemplate.update("INSERT INTO transactions (description, amount, category, transaction_date, type, "
+                + "budget_id) VALUES ('Hosting', ?, 'Cloud', now(), 'EXPENSE', ?)", new BigDecimal(amount), budgetId);
+    }
+
+    private BigDecimal spent() {
+        return jdbcTemplate.queryForObject("SELECT spent FROM budgets WHERE id = ?", BigDecimal.class, budgetId);
+    }
+}
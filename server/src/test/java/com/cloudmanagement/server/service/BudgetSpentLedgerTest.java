@@ -0,0 +1,177 @@
+package com.cloudmanagement.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cloudmanagement.server.aggregation.AmountAggregator.GroupTotal;
+import com.cloudmanagement.server.alerts.BudgetSpentChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BudgetSpentLedgerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BudgetSpentLedger ledger = new BudgetSpentLedger(jdbcTemplate,
+            mock(PlatformTransactionManager.class), eventPublisher, meterRegistry, 2, 3);
+
+    @Test
+    public void shouldRecordNonZeroDeltasOnly() {
+        ledger.record(1L, new BigDecimal("12.50"));
+        ledger.record(1L, new BigDecimal("-2.50"));
+        ledger.record(1L, BigDecimal.ZERO);
+        ledger.record(null, BigDecimal.ONE);
+        ledger.record(1L, null);
+
+        assertEquals(List.of(new Delta(1L, "12.50"), new Delta(1L, "-2.50")), appended());
+        assertEquals(2, meterRegistry.counter("budgets.spent.deltas", "state", "appended").count());
+    }
+
+    @Test
+    public void shouldRecordTheDifferenceForAnEditWithinOneBudget() {
+        ledger.recordChange(1L, new BigDecimal("30"), 1L, new BigDecimal("45"));
+        ledger.recordChange(1L, new BigDecimal("30"), 1L, new BigDecimal("10"));
+        // An expense turned into income stops counting
+        ledger.recordChange(1L, new BigDecimal("30"), 1L, BigDecimal.ZERO);
+        ledger.recordChange(1L, new BigDecimal("30"), 1L, new BigDecimal("30"));
+
+        assertEquals(List.of(new Delta(1L, "15"), new Delta(1L, "-20"), new Delta(1L, "-30")), appended());
+    }
+
+    @Test
+    public void shouldMoveTheAmountWhenTheBudgetChanges() {
+        ledger.recordChange(1L, new BigDecimal("30"), 2L, new BigDecimal("45"));
+        ledger.recordChange(null, BigDecimal.ZERO, 3L, new BigDecimal("5"));
+        ledger.recordChange(3L, new BigDecimal("5"), null, new BigDecimal("5"));
+
+        assertEquals(List.of(new Delta(1L, "-30"), new Delta(2L, "45"), new Delta(3L, "5"), new Delta(3L, "-5")),
+                appended());
+    }
+
+    @Test
+    public void shouldBatchOneDeltaPerBudgetSkippingZeroSums() {
+        Map<Long, GroupTotal> deltas = new LinkedHashMap<>();
+        deltas.put(1L, new GroupTotal(new BigDecimal("40"), 3));
+        deltas.put(2L, new GroupTotal(BigDecimal.ZERO, 2));
+        deltas.put(3L, new GroupTotal(new BigDecimal("-7"), 1));
+
+        ledger.recordAll(deltas);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(List.of(new Delta(1L, "40"), new Delta(3L, "-7")),
+                rows.getValue().stream().map(row -> new Delta((Long) row[0], (BigDecimal) row[1])).toList());
+        assertEquals(2, meterRegistry.counter("budgets.spent.deltas", "state", "appended").count());
+
+        ledger.recordAll(Map.of(2L, new GroupTotal(BigDecimal.ZERO, 1)));
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    public void shouldDrainFullBatchesAndPublishMergedBudgets() throws Exception {
+        // Batch size 2: a full batch means more may be waiting, a short one ends the merge
+        Deque<List<MergedRow>> batches = new ArrayDeque<>(List.of(
+                List.of(new MergedRow(1L, 1, "60.00"), new MergedRow(9L, 1, null)),
+                List.of(new MergedRow(2L, 1, "15.00"))));
+        whenMerging(batches);
+
+        assertEquals(3, ledger.merge());
+        assertEquals(0, batches.size());
+
+        ArgumentCaptor<BudgetSpentChangedEvent> events = ArgumentCaptor.forClass(BudgetSpentChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        // Budget 9 was deleted: its deltas are drained but nothing is published
+        assertEquals(List.of(1L, 2L), events.getAllValues().stream().map(BudgetSpentChangedEvent::budgetId).toList());
+        assertEquals(new BigDecimal("60.00"), events.getAllValues().get(0).spent());
+        assertEquals(3, meterRegistry.counter("budgets.spent.deltas", "state", "merged").count());
+    }
+
+    @Test
+    public void shouldStopAfterMaxBatchesPerMerge() throws Exception {
+        Deque<List<MergedRow>> batches = new ArrayDeque<>();
+        for (int i = 0; i < 5; i++) {
+            batches.add(List.of(new MergedRow(1L, 2, "1.00")));
+        }
+        whenMerging(batches);
+
+        assertEquals(6, ledger.merge());
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    public void shouldDoNothingWhenNothingIsPending() throws Exception {
+        whenMerging(new ArrayDeque<>(List.of(List.of())));
+
+        assertEquals(0, ledger.merge());
+        verifyNoInteractions(eventPublisher);
+        assertEquals(0, meterRegistry.counter("budgets.spent.deltas", "state", "merged").count());
+    }
+
+    private List<Delta> appended() {
+        List<Delta> deltas = new ArrayList<>();
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, atLeast(0)).update(anyString(), args.capture(), args.capture());
+        List<Object> values = args.getAllValues();
+        for (int i = 0; i < values.size(); i += 2) {
+            deltas.add(new Delta((Long) values.get(i), (BigDecimal) values.get(i + 1)));
+        }
+        return deltas;
+    }
+
+    private void whenMerging(Deque<List<MergedRow>> batches) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (MergedRow row : batches.poll()) {
+                handler.processRow(row.resultSet());
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(2));
+    }
+
+    private record Delta(Long budgetId, BigDecimal delta) {
+        Delta(Long budgetId, String delta) {
+            this(budgetId, new BigDecimal(delta));
+        }
+    }
+
+    private record MergedRow(long budgetId, int deltas, String spent) {
+        ResultSet resultSet() throws Exception {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("budget_id")).thenReturn(budgetId);
+            when(rs.getInt("deltas")).thenReturn(deltas);
+            when(rs.getBigDecimal("spent")).thenReturn(spent == null ? null : new BigDecimal(spent));
+            when(rs.getBigDecimal("amount")).thenReturn(new BigDecimal("100.00"));
+            when(rs.getObject("user_id", Long.class)).thenReturn(7L);
+            when(rs.getString("name")).thenReturn("Budget " + budgetId);
+            return rs;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.cloudmanagement.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.cloudmanagement.server.dto.BudgetView;
+import com.cloudmanagement.server.dto.CategoryTotal;
+import com.cloudmanagement.server.dto.DashboardView;
+import com.cloudmanagement.server.dto.TransactionView;
+import com.cloudmanagement.server.model.Transaction.TransactionType;
+import com.cloudmanagement.server.repository.TransactionRepository;
+import com.cloudmanagement.server.service.BudgetService.BudgetSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DashboardServiceTest {
+
+    private static final long QUERY_MS = 300;
+
+    private final BudgetService budgetService = mock(BudgetService.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @BeforeEach
+    public void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+    }
+
+    @Test
+    public void shouldRunQueriesConcurrentlyAsTheCaller() throws Exception {
+        BudgetView budget = new BudgetView(1L, "Cloud", "Infrastructure", BigDecimal.TEN, BigDecimal.ONE, 0L);
+        BudgetSummary summary = new BudgetSummary(BigDecimal.TEN, BigDecimal.ONE, BigDecimal.valueOf(9), 0, 1);
+        when(budgetService.getAllBudgets(7L)).thenAnswer(invocation -> slowly(List.of(budget)));
+        when(budgetService.getBudgetSummary(7L)).thenAnswer(invocation -> slowly(summary));
+        when(transactionRepository.findRecentViewsByUserId(eq(7L), any())).thenAnswer(invocation -> slowly(List.of()));
+        when(transactionRepository.findCategoryTotalsByUserId(7L)).thenAnswer(invocation -> slowly(List.of()));
+        DashboardService service = new DashboardService(budgetService, transactionRepository,
+                new SimpleMeterRegistry(), 4, 16, 10_000);
+
+        long started = System.nanoTime();
+        DashboardView view = service.load(7L, 20).get();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(List.of(budget), view.budgets());
+        assertEquals(summary, view.summary());
+        assertTrue(elapsedMs < 3 * QUERY_MS, "took " + elapsedMs + " ms");
+        service.shutdown();
+    }
+
+    @Test
+    public void shouldOnlyLoadTheCallersTransactions() throws Exception {
+        TransactionView mine = new TransactionView(1L, "Hosting", BigDecimal.ONE, "Cloud",
+                LocalDateTime.of(2024, 3, 1, 9, 0), TransactionType.EXPENSE, 1L, null);
+        CategoryTotal myTotal = new CategoryTotal("Cloud", TransactionType.EXPENSE, BigDecimal.ONE, 1L);
+        when(budgetService.getAllBudgets(7L)).thenReturn(List.of());
+        when(transactionRepository.findRecentViewsByUserId(eq(7L), any())).thenReturn(List.of(mine));
+        when(transactionRepository.findCategoryTotalsByUserId(7L)).thenReturn(List.of(myTotal));
+        DashboardService service = new DashboardService(budgetService, transactionRepository,
+                new SimpleMeterRegistry(), 4, 16, 10_000);
+
+        DashboardView view = service.load(7L, 20).get();
+
+        assertEquals(List.of(mine), view.recentTransactions());
+        assertEquals(List.of(myTotal), view.categoryTotals());
+        verify(transactionRepository, never()).findRecentViewsByUserId(not(eq(7L)), any());
+        verify(transactionRepository, never()).findCategoryTotalsByUserId(not(eq(7L)));
+        service.shutdown();
+    }
+
+    @Test
+    public void shouldTimeOutOnSlowQueries() {
+        when(budgetService.getAllBudgets(7L)).thenAnswer(invocation -> slowly(List.of()));
+        DashboardService service = new DashboardService(budgetService, transactionRepository,
+                new SimpleMeterRegistry(), 4, 16, 50);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> service.load(7L, 20).get());
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        service.shutdown();
+    }
+
+    // Every query checks it runs as the caller, then takes QUERY_MS
+    private static <T> T slowly(T result) throws InterruptedException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !"alice".equals(authentication.getName())) {
+            throw new IllegalStateException("Wrong security context");
+        }
+        Thread.sleep(QUERY_MS);
+        return result;
+    }
+}
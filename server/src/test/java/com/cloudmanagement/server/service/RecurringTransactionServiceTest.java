@@ -0,0 +1,119 @@
+package com.cloudmanagement.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cloudmanagement.server.audit.AuditLogWriter;
+import com.cloudmanagement.server.model.Budget;
+import com.cloudmanagement.server.model.RecurringTransaction;
+import com.cloudmanagement.server.repository.BudgetRepository;
+import com.cloudmanagement.server.repository.RecurringTransactionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RecurringTransactionServiceTest {
+
+    private static final CronExpression DAILY = CronExpression.parse("0 0 9 * * *");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Test
+    public void postsEveryDueOccurrenceAndAdvancesToTheNextOne() {
+        List<LocalDateTime> posted = new ArrayList<>();
+        LocalDateTime now = START.plusDays(2).plusHours(1);
+
+        LocalDateTime next = RecurringTransactionService.dueOccurrences(DAILY, START, null, now, 10, posted::add);
+
+        assertEquals(List.of(START, START.plusDays(1), START.plusDays(2)), posted);
+        assertEquals(START.plusDays(3), next);
+        assertTrue(RecurringTransactionService.isActive(next, null));
+    }
+
+    @Test
+    public void capStopsARunAndLeavesTheRestDue() {
+        List<LocalDateTime> posted = new ArrayList<>();
+        LocalDateTime now = START.plusDays(30);
+
+        LocalDateTime next = RecurringTransactionService.dueOccurrences(DAILY, START, null, now, 2, posted::add);
+
+        assertEquals(List.of(START, START.plusDays(1)), posted);
+        assertEquals(START.plusDays(2), next);
+        assertFalse(next.isAfter(now));
+
+        // The next run continues where the capped one stopped, without repeating an occurrence
+        posted.clear();
+        next = RecurringTransactionService.dueOccurrences(DAILY, next, null, now, 2, posted::add);
+        assertEquals(List.of(START.plusDays(2), START.plusDays(3)), posted);
+        assertEquals(START.plusDays(4), next);
+    }
+
+    @Test
+    public void endAtEndsTheSchedule() {
+        List<LocalDateTime> posted = new ArrayList<>();
+        LocalDateTime endAt = START.plusDays(1).plusHours(1);
+
+        LocalDateTime next = RecurringTransactionService.dueOccurrences(DAILY, START, endAt, START.plusDays(5), 10,
+                posted::add);
+
+        assertEquals(List.of(START, START.plusDays(1)), posted);
+        assertFalse(RecurringTransactionService.isActive(next, endAt));
+        assertFalse(RecurringTransactionService.isActive(null, null));
+    }
+
+    @Test
+    public void nothingIsPostedBeforeTheFirstOccurrence() {
+        List<LocalDateTime> posted = new ArrayList<>();
+
+        LocalDateTime next = RecurringTransactionService.dueOccurrences(DAILY, START, null, START.minusHours(1), 10,
+                posted::add);
+
+        assertTrue(posted.isEmpty());
+        assertEquals(START, next);
+        assertNull(RecurringTransactionService.dueOccurrences(DAILY, null, null, START, 10, posted::add));
+    }
+
+    @Test
+    public void createRejectsAnotherUsersBudgetAndSetsTheOwner() {
+        RecurringTransactionRepository templates = mock(RecurringTransactionRepository.class);
+        BudgetRepository budgets = mock(BudgetRepository.class);
+        when(budgets.findByIdAndUserId(5L, 1L)).thenReturn(Optional.of(new Budget()));
+        when(budgets.findByIdAndUserId(5L, 2L)).thenReturn(Optional.empty());
+        when(templates.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        RecurringTransactionService service = new RecurringTransactionService(templates, budgets,
+                mock(JdbcTemplate.class), mock(PlatformTransactionManager.class), mock(BudgetSpentLedger.class),
+                mock(AuditLogWriter.class), new SimpleMeterRegistry(), 200, 1000, 1000);
+
+        assertThrows(IllegalArgumentException.class, () -> service.create(template(), 2L));
+        verify(templates, never()).save(any());
+
+        RecurringTransaction created = service.create(template(), 1L);
+        assertEquals(1L, created.getUserId());
+        assertEquals(START, created.getNextRunAt());
+        assertTrue(created.isActive());
+    }
+
+    private static RecurringTransaction template() {
+        RecurringTransaction template = new RecurringTransaction();
+        template.setSchedule("0 0 9 * * *");
+        template.setBudgetId(5L);
+        template.setStartAt(START);
+        return template;
+    }
+}